@@ -0,0 +1,136 @@
+package fr.ninhache;
+
+import fr.ninhache.raytracer.geometry.Ray;
+import fr.ninhache.raytracer.geometry.accel.Bvh;
+import fr.ninhache.raytracer.geometry.accel.BvhBuildMethod;
+import fr.ninhache.raytracer.geometry.accel.BvhLayout;
+import fr.ninhache.raytracer.geometry.accel.BvhStats;
+import fr.ninhache.raytracer.geometry.accel.TraversalSteps;
+import fr.ninhache.raytracer.render.RayTracer;
+import fr.ninhache.raytracer.scene.Scene;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compare les constructions de BVH d'une scène sur ses rayons primaires.
+ *
+ * <p>Les objets de la scène sont indexés par chaque {@link BvhBuildMethod}, dans chaque
+ * {@link BvhLayout}, puis les rayons d'un pixel sur {@code stride} dans chaque direction
+ * y sont lancés en comptant les nœuds visités et les formes testées. Ces comptes ne
+ * dépendent ni de la machine ni de la charge, contrairement aux durées de rendu.
+ *
+ * <p>Les mêmes rayons sont ensuite relancés {@link #TIMED_RUNS} fois sans compteurs, à
+ * tour de rôle sur chaque construction ; la plus courte de ces durées, ramenée au rayon,
+ * mesure le débit de parcours. Le test des boîtes de l'arbre à quatre branches est celui
+ * de la JVM (vectoriel avec {@code --add-modules jdk.incubator.vector}, scalaire avec
+ * {@code -Draytracer.simd=false}) ; chaque ligne l'indique.
+ *
+ * <p>Outil de mesure de l'option {@code --bvh-report}, hors du chemin de rendu.
+ */
+public final class BvhBenchmark {
+
+    /** Lancers chronométrés de tous les rayons, pour chaque BVH (le plus court est retenu). */
+    static final int TIMED_RUNS = 7;
+
+    private final RayTracer tracer = new RayTracer();
+    private long blackhole;
+
+    /**
+     * Résultat d'une construction.
+     *
+     * @param stats construction (méthode, forme, références, durée)
+     * @param steps travail cumulé sur les rayons
+     * @param rays nombre de rayons lancés
+     * @param bestNanos plus courte durée d'un lancer de tous les rayons
+     */
+    public record Row(BvhStats stats, TraversalSteps steps, int rays, long bestNanos) {
+
+        public double stepsPerRay() {
+            return rays == 0 ? 0 : (double) steps.total() / rays;
+        }
+
+        public double nanosPerRay() {
+            return rays == 0 ? 0 : (double) bestNanos / rays;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-5s %-11s %8.2f étapes/rayon (%6.2f nœuds, %6.2f formes) %7.1f ns/rayon"
+                            + " %7d réf. %9.2f ms",
+                    stats.method(), stats.layout() + (stats.simd() ? " simd" : ""), stepsPerRay(),
+                    (double) steps.nodes() / Math.max(1, rays), (double) steps.primitives() / Math.max(1, rays),
+                    nanosPerRay(), stats.references(), stats.buildMillis());
+        }
+    }
+
+    /**
+     * @param stride écart en pixels entre deux rayons lancés (1 = tous les pixels)
+     * @return une ligne par méthode et par forme d'arbre, méthodes dans l'ordre de l'énumération
+     */
+    public List<Row> run(Scene scene, int stride) {
+        if (stride < 1) {
+            throw new IllegalArgumentException("stride doit être >= 1 : " + stride);
+        }
+        List<Ray> rays = new ArrayList<>();
+        for (int y = 0; y < scene.getHeight(); y += stride) {
+            for (int x = 0; x < scene.getWidth(); x += stride) {
+                rays.add(tracer.primaryRay(scene, x + 0.5, y + 0.5));
+            }
+        }
+
+        List<Bvh> bvhs = new ArrayList<>();
+        for (BvhBuildMethod method : BvhBuildMethod.values()) {
+            for (BvhLayout layout : BvhLayout.values()) {
+                bvhs.add(Bvh.build(scene.getShapes(), method, layout));
+            }
+        }
+
+        // Lancers entrelacés, après un tour de chauffe : la compilation JIT et les
+        // variations de charge pèsent de la même façon sur toutes les constructions
+        long[] best = new long[bvhs.size()];
+        Arrays.fill(best, Long.MAX_VALUE);
+        for (int run = -1; run < TIMED_RUNS; run++) {
+            for (int i = 0; i < bvhs.size(); i++) {
+                long nanos = time(bvhs.get(i), rays);
+                if (run >= 0) {
+                    best[i] = Math.min(best[i], nanos);
+                }
+            }
+        }
+
+        List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < bvhs.size(); i++) {
+            Bvh bvh = bvhs.get(i);
+            rows.add(new Row(bvh.getStats(), bvh.measure(rays), rays.size(), best[i]));
+        }
+        return rows;
+    }
+
+    /**
+     * @return la durée d'intersection de tous les rayons
+     */
+    private long time(Bvh bvh, List<Ray> rays) {
+        long start = System.nanoTime();
+        int hits = 0;
+        for (Ray ray : rays) {
+            if (bvh.intersect(ray).isPresent()) {
+                hits++;
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        // Le compte des impacts est conservé pour que le JIT ne supprime pas les parcours
+        blackhole += hits;
+        return nanos;
+    }
+
+    /**
+     * @return la variation relative du nombre d'étapes par rayon de {@code row} par rapport à
+     *         {@code reference} (-0,25 = un quart d'étapes en moins, +0,10 = 10 % de plus)
+     */
+    public static double stepsChange(Row reference, Row row) {
+        double base = reference.stepsPerRay();
+        return base == 0 ? 0 : row.stepsPerRay() / base - 1;
+    }
+}
@@ -0,0 +1,104 @@
+package fr.ninhache;
+
+/**
+ * Résultat de la comparaison de deux images de mêmes dimensions.
+ *
+ * <p>Les erreurs sont exprimées en niveaux 8 bits (0 à 255) par composante RGB.
+ * Un pixel est « hors tolérance » si au moins une de ses composantes s'écarte
+ * de plus de {@code tolerance} ; les compteurs par canal comptent chaque
+ * composante séparément.
+ *
+ * @param width largeur des images
+ * @param height hauteur des images
+ * @param tolerance écart toléré par composante
+ * @param differentPixels pixels dont la valeur ARGB diffère, même d'un niveau
+ * @param pixelsOverTolerance pixels dont au moins une composante dépasse la tolérance
+ * @param redOverTolerance composantes rouges hors tolérance
+ * @param greenOverTolerance composantes vertes hors tolérance
+ * @param blueOverTolerance composantes bleues hors tolérance
+ * @param maxError plus grand écart absolu sur une composante
+ * @param sumError somme des écarts absolus sur toutes les composantes
+ * @param sumSquaredError somme des carrés des écarts sur toutes les composantes
+ */
+public record ComparisonReport(
+        int width,
+        int height,
+        int tolerance,
+        long differentPixels,
+        long pixelsOverTolerance,
+        long redOverTolerance,
+        long greenOverTolerance,
+        long blueOverTolerance,
+        int maxError,
+        long sumError,
+        long sumSquaredError
+) {
+
+    public long totalPixels() {
+        return (long) width * height;
+    }
+
+    /**
+     * @return l'écart absolu moyen par composante
+     */
+    public double meanError() {
+        return sumError / (3.0 * totalPixels());
+    }
+
+    /**
+     * @return l'erreur quadratique moyenne par composante
+     */
+    public double mse() {
+        return sumSquaredError / (3.0 * totalPixels());
+    }
+
+    /**
+     * @return le PSNR en dB ({@link Double#POSITIVE_INFINITY} pour des images identiques)
+     */
+    public double psnr() {
+        double mse = mse();
+        return mse == 0.0 ? Double.POSITIVE_INFINITY : 10.0 * Math.log10(255.0 * 255.0 / mse);
+    }
+
+    /**
+     * @return {@code true} si aucune composante ne dépasse la tolérance
+     */
+    public boolean withinTolerance() {
+        return pixelsOverTolerance == 0;
+    }
+
+    /**
+     * Combine les résultats de deux zones disjointes des mêmes images.
+     */
+    ComparisonReport merge(ComparisonReport other) {
+        return new ComparisonReport(
+                width,
+                height,
+                tolerance,
+                differentPixels + other.differentPixels,
+                pixelsOverTolerance + other.pixelsOverTolerance,
+                redOverTolerance + other.redOverTolerance,
+                greenOverTolerance + other.greenOverTolerance,
+                blueOverTolerance + other.blueOverTolerance,
+                Math.max(maxError, other.maxError),
+                sumError + other.sumError,
+                sumSquaredError + other.sumSquaredError
+        );
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ComparisonReport[%dx%d, different=%d, tolerance=%d, over=%d (R=%d, G=%d, B=%d), max=%d, mean=%.3f, PSNR=%.2f dB]",
+                width, height,
+                differentPixels,
+                tolerance,
+                pixelsOverTolerance,
+                redOverTolerance,
+                greenOverTolerance,
+                blueOverTolerance,
+                maxError,
+                meanError(),
+                psnr()
+        );
+    }
+}
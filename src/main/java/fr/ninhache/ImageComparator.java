@@ -1,71 +1,144 @@
 package fr.ninhache;
 
 import javax.imageio.ImageIO;
-import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.io.File;
 import java.io.IOException;
-
+import java.util.stream.IntStream;
+
+/**
+ * Comparaison d'images pixel à pixel (tests de non-régression contre les PNG de référence).
+ *
+ * <p>Les pixels sont lus ligne par ligne dans les tableaux des rasters (cf. {@link RasterPixels})
+ * et les lignes sont réparties par bandes sur tous les cœurs ; toutes les métriques
+ * sont calculées en une seule passe.
+ */
 public class ImageComparator {
 
-    public static int countDifferentPixel(BufferedImage image1, BufferedImage image2) {
-        if (image1.getWidth() != image2.getWidth() ||
-                image1.getHeight() != image2.getHeight()) {
-            throw new IllegalArgumentException("Images must have same dimensions");
+    /** Nombre de lignes traitées par tâche parallèle. */
+    private static final int ROWS_PER_TASK = 16;
+
+    /**
+     * Compare deux images en exigeant l'égalité exacte des composantes.
+     */
+    public static ComparisonReport compare(BufferedImage image1, BufferedImage image2) {
+        return compare(image1, image2, 0);
+    }
+
+    /**
+     * Compare deux images.
+     *
+     * @param tolerance écart accepté par composante, en niveaux 8 bits (0 à 255)
+     * @return les métriques de différence (compteurs, erreurs max/moyenne, PSNR)
+     */
+    public static ComparisonReport compare(BufferedImage image1, BufferedImage image2, int tolerance) {
+        checkSameSize(image1, image2);
+        if (tolerance < 0 || tolerance > 255) {
+            throw new IllegalArgumentException("tolerance doit être dans [0, 255] : " + tolerance);
         }
 
+        RasterPixels p1 = RasterPixels.of(image1);
+        RasterPixels p2 = RasterPixels.of(image2);
         int w = image1.getWidth();
         int h = image1.getHeight();
+        int tasks = (h + ROWS_PER_TASK - 1) / ROWS_PER_TASK;
+
+        return IntStream.range(0, tasks)
+                .parallel()
+                .mapToObj(t -> compareRows(p1, p2, w, h, tolerance,
+                        t * ROWS_PER_TASK, Math.min(h, (t + 1) * ROWS_PER_TASK)))
+                .reduce(ComparisonReport::merge)
+                .orElse(new ComparisonReport(w, h, tolerance, 0, 0, 0, 0, 0, 0, 0, 0));
+    }
 
-        int differencesNumber = 0;
+    private static ComparisonReport compareRows(RasterPixels p1, RasterPixels p2, int w, int h, int tolerance,
+                                                int fromY, int toY) {
+        int[] row1 = new int[w];
+        int[] row2 = new int[w];
 
-        for (int y = 0; y < h; y++) {
-            for (int x = 0; x < w; x++) {
-                int argb1 = image1.getRGB(x, y);
-                int argb2 = image2.getRGB(x, y);
+        long different = 0, over = 0, overR = 0, overG = 0, overB = 0;
+        long sum = 0, sumSq = 0;
+        int max = 0;
 
-                if (argb1 != argb2) {
-                    differencesNumber++;
+        for (int y = fromY; y < toY; y++) {
+            p1.row(y, row1);
+            p2.row(y, row2);
+            for (int x = 0; x < w; x++) {
+                int a = row1[x];
+                int b = row2[x];
+                if (a == b) {
+                    continue;
                 }
+                different++;
+
+                int dr = Math.abs(((a >> 16) & 0xFF) - ((b >> 16) & 0xFF));
+                int dg = Math.abs(((a >> 8) & 0xFF) - ((b >> 8) & 0xFF));
+                int db = Math.abs((a & 0xFF) - (b & 0xFF));
+
+                sum += dr + dg + db;
+                sumSq += dr * dr + dg * dg + db * db;
+                max = Math.max(max, Math.max(dr, Math.max(dg, db)));
+
+                boolean r = dr > tolerance, g = dg > tolerance, bl = db > tolerance;
+                if (r) overR++;
+                if (g) overG++;
+                if (bl) overB++;
+                if (r || g || bl) over++;
             }
         }
 
-        return differencesNumber;
+        return new ComparisonReport(w, h, tolerance, different, over, overR, overG, overB, max, sum, sumSq);
+    }
+
+    public static int countDifferentPixel(BufferedImage image1, BufferedImage image2) {
+        return (int) compare(image1, image2).differentPixels();
     }
 
     public static void generateImageFromDifferentPixel(BufferedImage image1, BufferedImage image2) {
         generateImageFromDifferentPixel(image1, image2, "./generatedImage.png");
     }
+
     public static void generateImageFromDifferentPixel(BufferedImage image1, BufferedImage image2, String path) {
-        if (image1.getWidth() != image2.getWidth() ||
-                image1.getHeight() != image2.getHeight()) {
-            throw new IllegalArgumentException("Images must have same dimensions");
+        try {
+            ImageIO.write(differenceImage(image1, image2), "png", new File(path));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
         }
+    }
+
+    /**
+     * @return une image noire où les pixels différents sont en rouge
+     */
+    public static BufferedImage differenceImage(BufferedImage image1, BufferedImage image2) {
+        checkSameSize(image1, image2);
 
+        RasterPixels p1 = RasterPixels.of(image1);
+        RasterPixels p2 = RasterPixels.of(image2);
         int w = image1.getWidth();
         int h = image1.getHeight();
 
         BufferedImage diffImage = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
-
-        for (int y = 0; y < h; y++) {
+        int[] out = ((DataBufferInt) diffImage.getRaster().getDataBuffer()).getData();
+
+        IntStream.range(0, h).parallel().forEach(y -> {
+            int[] row1 = new int[w];
+            int[] row2 = new int[w];
+            p1.row(y, row1);
+            p2.row(y, row2);
+            int base = y * w;
             for (int x = 0; x < w; x++) {
-                int argb1 = image1.getRGB(x, y);
-                int argb2 = image2.getRGB(x, y);
-
-                if (argb1 != argb2) {
-                    diffImage.setRGB(x, y, new Color(255, 0, 0, 255).getRGB());
-                } else {
-                    diffImage.setRGB(x, y, new Color(0, 0, 0, 255).getRGB());
-                }
+                out[base + x] = row1[x] != row2[x] ? 0xFFFF0000 : 0xFF000000;
             }
-        }
+        });
 
+        return diffImage;
+    }
 
-        try {
-            ImageIO.write(diffImage, "png", new File(path));
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+    private static void checkSameSize(BufferedImage image1, BufferedImage image2) {
+        if (image1.getWidth() != image2.getWidth() ||
+                image1.getHeight() != image2.getHeight()) {
+            throw new IllegalArgumentException("Images must have same dimensions");
         }
     }
-
 }
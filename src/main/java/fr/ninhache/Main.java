@@ -1,13 +1,36 @@
 package fr.ninhache;
 
-import fr.ninhache.raytracer.render.Renderer;
+import fr.ninhache.raytracer.animation.AnimationRenderer;
+import fr.ninhache.raytracer.animation.FrameOutcome;
+import fr.ninhache.raytracer.batch.BatchRenderer;
+import fr.ninhache.raytracer.batch.BatchSummary;
+import fr.ninhache.raytracer.batch.SceneFiles;
+import fr.ninhache.raytracer.distributed.Coordinator;
+import fr.ninhache.raytracer.distributed.CoordinatorConfig;
+import fr.ninhache.raytracer.distributed.Worker;
+import fr.ninhache.raytracer.geometry.accel.BvhBuildMethod;
+import fr.ninhache.raytracer.render.RenderOptionsBuilder;
+import fr.ninhache.raytracer.render.RenderResult;
+import fr.ninhache.raytracer.render.cache.RenderCache;
+import fr.ninhache.raytracer.render.output.PngWriter;
+import fr.ninhache.raytracer.scene.CameraPath;
 import fr.ninhache.raytracer.scene.Scene;
 import fr.ninhache.raytracer.scene.SceneLoader;
+import fr.ninhache.raytracer.server.RenderServer;
+import fr.ninhache.raytracer.server.RenderServerConfig;
+import fr.ninhache.raytracer.watch.SceneWatcher;
 
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBufferByte;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 public class Main {
+    private static final long CACHE_MEMORY_BYTES = 256L * 1024 * 1024;
+    private static final long CACHE_DISK_BYTES = 4L * 1024 * 1024 * 1024;
+
     private static int[][] convertTo2DWithoutUsingGetRGB(BufferedImage image) {
 
         final byte[] pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
@@ -52,36 +75,101 @@ public class Main {
     }
 
     public static void main(String[] args) {
-//        if (args.length == 0) {
-//            System.err.println("Usage: java -jar raytracer.jar <scene_file>");
-//            System.exit(1);
-//        }
+        if (args.length == 0) {
+            printUsage();
+            System.exit(1);
+        }
 
-        try {
-//            String sceneFile = args[0];
-            // temporaire
-            String sceneFile = "/home/neo/imt/coo/tp3/demoreflexion.test";
+        Path outputDir = Path.of("out");
+        int threads = Runtime.getRuntime().availableProcessors();
+        int concurrency = 2;
+        int tileSize = 32;
+        int servePort = -1;
+        int coordinatorPort = -1;
+        String workerOf = null;
+        Path cacheDir = null;
+        Path checkpointDir = null;
+        Path cameraPath = null;
+        boolean turntable = false;
+        int frames = 100;
+        boolean watch = false;
+        boolean bvhReport = false;
+        List<String> inputs = new ArrayList<>();
 
-            System.out.println("Chargement du fichier: " + sceneFile);
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-o", "--output" -> outputDir = Path.of(value(args, ++i));
+                    case "-j", "--threads" -> threads = Integer.parseInt(value(args, ++i));
+                    case "-c", "--concurrency" -> concurrency = Integer.parseInt(value(args, ++i));
+                    case "-t", "--tile" -> tileSize = Integer.parseInt(value(args, ++i));
+                    case "--serve" -> servePort = Integer.parseInt(value(args, ++i));
+                    case "--cache" -> cacheDir = Path.of(value(args, ++i));
+                    case "--checkpoint" -> checkpointDir = Path.of(value(args, ++i));
+                    case "--coordinator" -> coordinatorPort = Integer.parseInt(value(args, ++i));
+                    case "--worker" -> workerOf = value(args, ++i);
+                    case "--camera-path" -> cameraPath = Path.of(value(args, ++i));
+                    case "--turntable" -> turntable = true;
+                    case "--frames" -> frames = Integer.parseInt(value(args, ++i));
+                    case "--watch" -> watch = true;
+                    case "--bvh-report" -> bvhReport = true;
+                    case "-h", "--help" -> {
+                        printUsage();
+                        return;
+                    }
+                    default -> inputs.add(args[i]);
+                }
+            }
 
             SceneLoader loader = new SceneLoader();
-            Scene scene = loader.load(sceneFile);
-
-             System.out.println("Résumé temporaire");
-             System.out.println("Dimensions: " + scene.getWidth() + "x" + scene.getHeight());
-             System.out.println("Sortie: " + scene.getOutputFilename());
-             System.out.println("Objets: " + scene.getShapeCount());
-             System.out.println("Lumières: " + scene.getLightCount());
-
+            if (workerOf != null) {
+                work(loader, workerOf, threads);
+                return;
+            }
+            RenderCache cache = cacheDir == null ? null
+                    : new RenderCache(CACHE_MEMORY_BYTES, cacheDir, CACHE_DISK_BYTES);
+            if (servePort >= 0) {
+                serve(loader, cache, servePort, threads, concurrency);
+                return;
+            }
 
-            Renderer renderer = new Renderer();
-            BufferedImage img = renderer.render(scene);
-            String out = scene.getOutputFilename();
-            if (out == null || out.isEmpty()) out = "output.png";
-            renderer.writeToFile(out, img);
-            System.out.println("Image écrite : " + out);
+            List<Path> scenes = SceneFiles.resolve(inputs, p -> loader.supports(p.toString()));
+            if (coordinatorPort >= 0) {
+                coordinate(loader, scenes, coordinatorPort, tileSize, outputDir);
+                return;
+            }
+            if (watch) {
+                watch(loader, scenes, threads, tileSize, outputDir);
+                return;
+            }
+            if (bvhReport) {
+                bvhReport(loader, scenes);
+                return;
+            }
+            if (cameraPath != null || turntable) {
+                CameraPath path = cameraPath != null ? CameraPath.read(cameraPath) : null;
+                animate(loader, scenes, path, frames, new AnimationRenderer(threads, concurrency, tileSize, outputDir));
+                return;
+            }
+            System.out.println(scenes.size() + " scène(s) à rendre, " + threads + " thread(s), "
+                    + concurrency + " scène(s) simultanée(s) -> " + outputDir);
 
+            BatchRenderer batch = new BatchRenderer(loader, threads, concurrency, tileSize, outputDir);
+            if (cache != null) {
+                batch = batch.withCache(cache);
+            }
+            if (checkpointDir != null) {
+                batch = batch.withCheckpoints(checkpointDir);
+            }
+            BatchSummary summary = batch.render(scenes, System.out::println);
 
+            System.out.println(summary);
+            if (cache != null) {
+                System.out.println(cache);
+            }
+            if (summary.failed() > 0) {
+                System.exit(1);
+            }
         } catch (Exception e) {
             System.err.println("Erreur: " + e.getMessage());
             e.printStackTrace();
@@ -89,14 +177,159 @@ public class Main {
         }
     }
 
+    private static void serve(SceneLoader loader, RenderCache cache, int port, int threads, int workers) throws Exception {
+        RenderServerConfig defaults = RenderServerConfig.defaults(port);
+        RenderServerConfig config = new RenderServerConfig(port, workers, threads, defaults.queueCapacity(),
+                defaults.maxSceneBytes(), defaults.maxPixels(), defaults.retainedJobs());
+
+        RenderServer server = new RenderServer(config, loader, cache);
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        System.out.println("Serveur de rendu sur http://localhost:" + server.getPort()
+                + " (" + workers + " rendu(s) simultané(s), " + threads + " thread(s))");
+
+        Thread.currentThread().join();
+    }
+
+    private static void coordinate(SceneLoader loader, List<Path> scenes, int port, int tileSize,
+                                   Path outputDir) throws Exception {
+        CoordinatorConfig defaults = CoordinatorConfig.defaults(port);
+        CoordinatorConfig config = new CoordinatorConfig(port, tileSize, defaults.tilesPerAssignment(),
+                defaults.tileTimeout());
+
+        try (Coordinator coordinator = new Coordinator(config, loader)) {
+            coordinator.start();
+            System.out.println("Coordinateur en attente des workers sur le port " + coordinator.getPort()
+                    + " (--worker <hôte>:" + coordinator.getPort() + ")");
+
+            Files.createDirectories(outputDir);
+            for (Path scene : scenes) {
+                String name = scene.getFileName().toString();
+                Path output = outputDir.resolve(name.replaceFirst("\\.[^.]*$", "") + ".png");
+                try (RenderResult result = coordinator.render(name, Files.readAllBytes(scene))) {
+                    PngWriter.write(result.frame(), output);
+                    System.out.println("[" + result.status() + "] " + scene + " -> " + output + " " + result.stats());
+                }
+            }
+            System.out.println(coordinator.getReassignedTiles() + " tuile(s) redistribuée(s)");
+        }
+    }
+
+    /**
+     * Affiche, pour chaque scène, le travail et la durée de parcours de chaque construction
+     * de BVH, et la variation de son nombre d'étapes par rayon par rapport à la SAH de même forme.
+     */
+    private static void bvhReport(SceneLoader loader, List<Path> scenes) throws Exception {
+        BvhBenchmark benchmark = new BvhBenchmark();
+        for (Path file : scenes) {
+            Scene scene = loader.load(file.toString());
+            System.out.println(file + " (" + scene.getShapeCount() + " objets, "
+                    + scene.getWidth() + "x" + scene.getHeight() + " rayons primaires)");
+            List<BvhBenchmark.Row> rows = benchmark.run(scene, 1);
+            for (BvhBenchmark.Row row : rows) {
+                BvhBenchmark.Row sah = rows.stream()
+                        .filter(r -> r.stats().method() == BvhBuildMethod.SAH && r.stats().layout() == row.stats().layout())
+                        .findFirst().orElse(row);
+                System.out.printf("  %s  Δ étapes/rayon vs SAH %+6.1f %%%n", row,
+                        100 * BvhBenchmark.stepsChange(sah, row) + 0.0);
+            }
+        }
+    }
+
+    /**
+     * Rend la scène dans {@code <sortie>/<nom de la scène>.png} à chaque enregistrement, jusqu'à Ctrl+C.
+     */
+    private static void watch(SceneLoader loader, List<Path> scenes, int threads, int tileSize,
+                              Path outputDir) throws Exception {
+        if (scenes.size() != 1) {
+            throw new IllegalArgumentException("--watch attend une seule scène (" + scenes.size() + " trouvée(s))");
+        }
+        Path scene = scenes.get(0);
+        String base = scene.getFileName().toString().replaceFirst("\\.[^.]*$", "");
+        Path output = outputDir.resolve(base + ".png");
+
+        SceneWatcher watcher = new SceneWatcher(loader, scene, output,
+                new RenderOptionsBuilder().setThreadCount(threads).setTileSize(tileSize).build(),
+                System.out::println);
+        Runtime.getRuntime().addShutdownHook(new Thread(watcher::close));
+        System.out.println("Surveillance de " + scene + " -> " + output + " (Ctrl+C pour arrêter)");
+        watcher.run();
+    }
+
+    /**
+     * Rend chaque scène en animation dans {@code <sortie>/<nom de la scène>_NNNN.png}.
+     *
+     * @param path trajectoire commune, ou null pour un tour complet autour de la caméra de chaque scène
+     */
+    private static void animate(SceneLoader loader, List<Path> scenes, CameraPath path, int frames,
+                                AnimationRenderer animation) throws Exception {
+        int failed = 0;
+        for (Path file : scenes) {
+            Scene scene = loader.load(file.toString());
+            String base = file.getFileName().toString().replaceFirst("\\.[^.]*$", "");
+            System.out.println(file + " : " + frames + " image(s)");
+
+            List<FrameOutcome> outcomes = animation.render(scene,
+                    path != null ? path : CameraPath.turntable(scene.getCamera()), frames, base, System.out::println);
+            failed += (int) outcomes.stream().filter(o -> !o.isSuccess()).count();
+        }
+        if (failed > 0) {
+            System.err.println(failed + " image(s) en échec");
+            System.exit(1);
+        }
+    }
+
+    private static void work(SceneLoader loader, String coordinator, int threads) throws Exception {
+        int colon = coordinator.lastIndexOf(':');
+        if (colon <= 0) {
+            throw new IllegalArgumentException("adresse attendue sous la forme <hôte>:<port> : " + coordinator);
+        }
+        String host = coordinator.substring(0, colon);
+        int port = Integer.parseInt(coordinator.substring(colon + 1));
+
+        System.out.println("Worker connecté à " + coordinator + " (" + threads + " thread(s))");
+        new Worker(loader, threads).run(host, port);
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("valeur manquante après " + args[i - 1]);
+        }
+        return args[i];
+    }
+
     private static void printUsage() {
-        System.out.println("Usage : java -jar raytracer.jar <scene_file>");
+        System.out.println("Usage : java -jar raytracer.jar [options] <scène|répertoire|glob>...");
         System.out.println();
         System.out.println("Description :");
-        System.out.println("  Parse et valide un fichier de description de scène 3D.");
+        System.out.println("  Rend un lot de scènes dans une seule JVM, sur un pool de threads partagé.");
+        System.out.println();
+        System.out.println("Options :");
+        System.out.println("  -o, --output <dir>       répertoire des images (défaut : out)");
+        System.out.println("  -j, --threads <n>        threads de calcul partagés (défaut : nombre de cœurs)");
+        System.out.println("  -c, --concurrency <n>    scènes rendues simultanément (défaut : 2)");
+        System.out.println("  -t, --tile <n>           côté des tuiles en pixels (défaut : 32)");
+        System.out.println("      --cache <dir>        cache des images déjà rendues (256 Mo en mémoire, 4 Go sur disque)");
+        System.out.println("      --checkpoint <dir>   journalise les tuiles terminées pour reprendre un lot interrompu");
+        System.out.println("      --camera-path <f>    rend chaque scène en animation le long d'images clés");
+        System.out.println("                           (une par ligne : t x y z u v w m n o fov)");
+        System.out.println("      --turntable          rend chaque scène en animation, caméra tournant autour du point visé");
+        System.out.println("      --frames <n>         nombre d'images d'une animation (défaut : 100)");
+        System.out.println("      --watch              rend à nouveau la scène à chaque enregistrement du fichier");
+        System.out.println("      --bvh-report         mesure le parcours des rayons primaires pour chaque construction de BVH");
+        System.out.println("      --serve <port>       démarre le service HTTP de rendu au lieu du lot");
+        System.out.println("                           (-c = rendus simultanés, -j = threads de calcul)");
+        System.out.println("      --coordinator <port> répartit le rendu des scènes sur des workers distants");
+        System.out.println("      --worker <hôte:port> calcule des tuiles pour un coordinateur (-j = threads)");
         System.out.println();
-        System.out.println("Exemple :");
+        System.out.println("Exemples :");
         System.out.println("  java -jar raytracer.jar scenes/scene1.txt");
+        System.out.println("  java -jar raytracer.jar -j 16 -c 4 'scenes/jalon*'");
+        System.out.println("  java -jar raytracer.jar --turntable --frames 120 scenes/scene1.txt");
+        System.out.println("  java -jar raytracer.jar --watch -o /tmp scenes/scene1.txt");
+        System.out.println("  java -jar raytracer.jar --serve 8080");
+        System.out.println("  java -jar raytracer.jar --coordinator 9000 scenes/scene1.txt");
+        System.out.println("  java -jar raytracer.jar --worker localhost:9000 -j 8");
         System.out.println();
         System.out.println("Le parser vérifie :");
         System.out.println("    - Format du fichier (syntaxe)");
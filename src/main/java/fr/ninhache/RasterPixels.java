@@ -0,0 +1,136 @@
+package fr.ninhache;
+
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.PixelInterleavedSampleModel;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
+
+/**
+ * Lecture ligne par ligne des pixels ARGB d'une image, directement dans le tableau
+ * du raster quand le format le permet.
+ *
+ * <p>Formats lus sans conversion : entiers RGB/ARGB ({@code TYPE_INT_RGB},
+ * {@code TYPE_INT_ARGB}) et octets entrelacés sRGB 8 bits ({@code TYPE_3BYTE_BGR},
+ * {@code TYPE_4BYTE_ABGR} et les images RGB/RGBA produites par {@code ImageIO}
+ * pour les PNG). Les autres formats (palette, niveaux de gris, 16 bits...) passent
+ * par {@link BufferedImage#getRGB(int, int, int, int, int[], int, int)}.
+ *
+ * Thread-safe : chaque appel ne fait que lire le raster.
+ */
+abstract class RasterPixels {
+
+    final int width;
+    final int height;
+
+    private RasterPixels(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Copie la ligne {@code y} dans {@code dst} au format {@code 0xAARRGGBB}.
+     */
+    abstract void row(int y, int[] dst);
+
+    static RasterPixels of(BufferedImage image) {
+        Raster raster = image.getRaster();
+        if (raster.getParent() == null && raster.getMinX() == 0 && raster.getMinY() == 0) {
+            if (raster.getDataBuffer() instanceof DataBufferInt ints
+                    && raster.getSampleModel() instanceof SinglePixelPackedSampleModel sm
+                    && image.getColorModel() instanceof DirectColorModel cm
+                    && cm.getRedMask() == 0xFF0000 && cm.getGreenMask() == 0xFF00 && cm.getBlueMask() == 0xFF
+                    && !cm.isAlphaPremultiplied()
+                    && ints.getNumBanks() == 1) {
+                return new IntPixels(image, ints.getData(), ints.getOffset(), sm.getScanlineStride(),
+                        cm.hasAlpha() && cm.getAlphaMask() == 0xFF000000);
+            }
+            if (raster.getDataBuffer() instanceof DataBufferByte bytes
+                    && raster.getSampleModel() instanceof PixelInterleavedSampleModel sm
+                    && image.getColorModel() instanceof ComponentColorModel cm
+                    && cm.getColorSpace().isCS_sRGB()
+                    && cm.getColorSpace().getType() == ColorSpace.TYPE_RGB
+                    && !cm.isAlphaPremultiplied()
+                    && bytes.getNumBanks() == 1
+                    && sm.getNumBands() >= 3) {
+                return new BytePixels(image, bytes.getData(), bytes.getOffset(), sm, cm.hasAlpha());
+            }
+        }
+        return new GenericPixels(image);
+    }
+
+    private static final class IntPixels extends RasterPixels {
+        private final int[] data;
+        private final int offset;
+        private final int stride;
+        private final boolean alpha;
+
+        IntPixels(BufferedImage image, int[] data, int offset, int stride, boolean alpha) {
+            super(image.getWidth(), image.getHeight());
+            this.data = data;
+            this.offset = offset;
+            this.stride = stride;
+            this.alpha = alpha;
+        }
+
+        @Override
+        void row(int y, int[] dst) {
+            int base = offset + y * stride;
+            if (alpha) {
+                System.arraycopy(data, base, dst, 0, width);
+            } else {
+                for (int x = 0; x < width; x++) {
+                    dst[x] = 0xFF000000 | data[base + x];
+                }
+            }
+        }
+    }
+
+    private static final class BytePixels extends RasterPixels {
+        private final byte[] data;
+        private final int offset;
+        private final int pixelStride;
+        private final int scanlineStride;
+        private final int r, g, b, a;
+
+        BytePixels(BufferedImage image, byte[] data, int offset, PixelInterleavedSampleModel sm, boolean alpha) {
+            super(image.getWidth(), image.getHeight());
+            int[] bands = sm.getBandOffsets();
+            this.data = data;
+            this.offset = offset;
+            this.pixelStride = sm.getPixelStride();
+            this.scanlineStride = sm.getScanlineStride();
+            this.r = bands[0];
+            this.g = bands[1];
+            this.b = bands[2];
+            this.a = alpha && bands.length > 3 ? bands[3] : -1;
+        }
+
+        @Override
+        void row(int y, int[] dst) {
+            int p = offset + y * scanlineStride;
+            for (int x = 0; x < width; x++, p += pixelStride) {
+                int alpha = a < 0 ? 0xFF : data[p + a] & 0xFF;
+                dst[x] = alpha << 24 | (data[p + r] & 0xFF) << 16 | (data[p + g] & 0xFF) << 8 | (data[p + b] & 0xFF);
+            }
+        }
+    }
+
+    private static final class GenericPixels extends RasterPixels {
+        private final BufferedImage image;
+
+        GenericPixels(BufferedImage image) {
+            super(image.getWidth(), image.getHeight());
+            this.image = image;
+        }
+
+        @Override
+        void row(int y, int[] dst) {
+            image.getRGB(0, y, width, 1, dst, 0, width);
+        }
+    }
+}
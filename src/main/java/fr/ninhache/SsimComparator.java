@@ -0,0 +1,237 @@
+package fr.ninhache;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Comparaison perceptuelle par SSIM (Structural Similarity), tolérante aux écarts
+ * d'anti-aliasing ou d'arrondi flottant qu'un décompte de pixels juge rédhibitoires.
+ *
+ * <p>Le SSIM est calculé sur la luminance (Rec. 601) avec des fenêtres 8x8 espacées de
+ * 4 pixels : l'image est réduite une seule fois en sommes par blocs 4x4
+ * ({@code Σa, Σb, Σa²+b², Σab}), chaque fenêtre réunissant 2x2 blocs. Les bandes de
+ * tuiles sont traitées en parallèle et ne relisent que leurs propres lignes (plus une
+ * rangée de blocs de recouvrement) : le coût est dominé par la lecture des pixels.
+ *
+ * <h2>Exemple dans un test JUnit</h2>
+ * <pre>{@code
+ * SsimComparator.assertSimilar(reference, rendered, 0.995);
+ * }</pre>
+ */
+public final class SsimComparator {
+
+    /** Taille par défaut des tuiles de la carte de chaleur. */
+    public static final int DEFAULT_TILE_SIZE = 32;
+
+    private static final int BLOCK = 4;
+    private static final double C1 = (0.01 * 255) * (0.01 * 255);
+    private static final double C2 = (0.03 * 255) * (0.03 * 255);
+
+    private SsimComparator() {
+    }
+
+    public static SsimReport compare(BufferedImage expected, BufferedImage actual) {
+        return compare(expected, actual, DEFAULT_TILE_SIZE);
+    }
+
+    /**
+     * @param tileSize côté des tuiles de la carte de chaleur (multiple de 4)
+     */
+    public static SsimReport compare(BufferedImage expected, BufferedImage actual, int tileSize) {
+        if (expected.getWidth() != actual.getWidth() || expected.getHeight() != actual.getHeight()) {
+            throw new IllegalArgumentException("Images must have same dimensions");
+        }
+        if (tileSize < BLOCK || tileSize % BLOCK != 0) {
+            throw new IllegalArgumentException("tileSize doit être un multiple de " + BLOCK + " : " + tileSize);
+        }
+
+        int width = expected.getWidth();
+        int height = expected.getHeight();
+        int tilesX = (width + tileSize - 1) / tileSize;
+        int tilesY = (height + tileSize - 1) / tileSize;
+
+        // Fenêtres 8x8 au pas de 4 ; une image plus petite forme une unique fenêtre
+        int blocksX = width / BLOCK;
+        int blocksY = height / BLOCK;
+        if (blocksX < 2 || blocksY < 2) {
+            double s = wholeImage(RasterPixels.of(expected), RasterPixels.of(actual), width, height);
+            double[] tiles = new double[tilesX * tilesY];
+            Arrays.fill(tiles, s);
+            return new SsimReport(width, height, tileSize, tilesX, tilesY, s, tiles);
+        }
+
+        RasterPixels a = RasterPixels.of(expected);
+        RasterPixels b = RasterPixels.of(actual);
+        int windowsX = blocksX - 1;
+        int windowsY = blocksY - 1;
+        int windowsPerTile = tileSize / BLOCK;
+
+        double[] tileSums = new double[tilesX * tilesY];
+        int[] tileCounts = new int[tilesX * tilesY];
+
+        IntStream.range(0, tilesY).parallel().forEach(ty -> {
+            int fromWy = ty * windowsPerTile;
+            int toWy = Math.min(windowsY, fromWy + windowsPerTile);
+            if (fromWy < toWy) {
+                band(a, b, blocksX, fromWy, toWy, windowsX, windowsPerTile, tileSums, tileCounts, ty * tilesX);
+            }
+        });
+
+        double total = 0;
+        long count = 0;
+        double[] tiles = new double[tilesX * tilesY];
+        for (int i = 0; i < tiles.length; i++) {
+            total += tileSums[i];
+            count += tileCounts[i];
+            tiles[i] = tileCounts[i] == 0 ? Double.NaN : tileSums[i] / tileCounts[i];
+        }
+        // Tuiles de bord trop étroites pour contenir une fenêtre : score de la tuile voisine
+        for (int ty = 0; ty < tilesY; ty++) {
+            for (int tx = 0; tx < tilesX; tx++) {
+                int i = ty * tilesX + tx;
+                if (Double.isNaN(tiles[i])) {
+                    int nx = Math.min(tx, (windowsX - 1) / windowsPerTile);
+                    int ny = Math.min(ty, (windowsY - 1) / windowsPerTile);
+                    tiles[i] = tiles[ny * tilesX + nx];
+                }
+            }
+        }
+
+        return new SsimReport(width, height, tileSize, tilesX, tilesY, total / count, tiles);
+    }
+
+    /**
+     * Calcule les fenêtres des lignes {@code [fromWy, toWy)} et les cumule par tuile.
+     * Les sommes de deux rangées de blocs consécutives sont conservées, pas davantage.
+     */
+    private static void band(RasterPixels a, RasterPixels b, int blocksX, int fromWy, int toWy,
+                             int windowsX, int windowsPerTile, double[] tileSums, int[] tileCounts, int tileBase) {
+        int width = a.width;
+        int[] rowA = new int[width];
+        int[] rowB = new int[width];
+        int[][] prev = new int[4][blocksX];
+        int[][] cur = new int[4][blocksX];
+
+        blockRow(a, b, fromWy, blocksX, rowA, rowB, prev);
+        for (int wy = fromWy; wy < toWy; wy++) {
+            blockRow(a, b, wy + 1, blocksX, rowA, rowB, cur);
+            for (int wx = 0; wx < windowsX; wx++) {
+                int s1 = prev[0][wx] + prev[0][wx + 1] + cur[0][wx] + cur[0][wx + 1];
+                int s2 = prev[1][wx] + prev[1][wx + 1] + cur[1][wx] + cur[1][wx + 1];
+                long ss = (long) prev[2][wx] + prev[2][wx + 1] + cur[2][wx] + cur[2][wx + 1];
+                long s12 = (long) prev[3][wx] + prev[3][wx + 1] + cur[3][wx] + cur[3][wx + 1];
+
+                int tile = tileBase + wx / windowsPerTile;
+                tileSums[tile] += ssim(s1, s2, ss, s12, 4 * BLOCK * BLOCK);
+                tileCounts[tile]++;
+            }
+            int[][] tmp = prev;
+            prev = cur;
+            cur = tmp;
+        }
+    }
+
+    /**
+     * Sommes des blocs 4x4 de la rangée {@code by} : Σa, Σb, Σ(a²+b²), Σab.
+     */
+    private static void blockRow(RasterPixels a, RasterPixels b, int by, int blocksX,
+                                 int[] rowA, int[] rowB, int[][] sums) {
+        for (int[] s : sums) {
+            Arrays.fill(s, 0);
+        }
+        int[] s1 = sums[0], s2 = sums[1], ss = sums[2], s12 = sums[3];
+        for (int y = by * BLOCK; y < (by + 1) * BLOCK; y++) {
+            a.row(y, rowA);
+            b.row(y, rowB);
+            for (int bx = 0, x = 0; bx < blocksX; bx++) {
+                for (int end = x + BLOCK; x < end; x++) {
+                    int la = luma(rowA[x]);
+                    int lb = luma(rowB[x]);
+                    s1[bx] += la;
+                    s2[bx] += lb;
+                    ss[bx] += la * la + lb * lb;
+                    s12[bx] += la * lb;
+                }
+            }
+        }
+    }
+
+    /**
+     * SSIM d'une fenêtre de {@code n} pixels à partir de ses sommes.
+     */
+    private static double ssim(double s1, double s2, double ss, double s12, int n) {
+        double mu1 = s1 / n;
+        double mu2 = s2 / n;
+        double vars = ss / n - mu1 * mu1 - mu2 * mu2;
+        double cov = s12 / n - mu1 * mu2;
+        return ((2 * mu1 * mu2 + C1) * (2 * cov + C2))
+                / ((mu1 * mu1 + mu2 * mu2 + C1) * (vars + C2));
+    }
+
+    private static double wholeImage(RasterPixels a, RasterPixels b, int width, int height) {
+        int[] rowA = new int[width];
+        int[] rowB = new int[width];
+        double s1 = 0, s2 = 0, ss = 0, s12 = 0;
+        for (int y = 0; y < height; y++) {
+            a.row(y, rowA);
+            b.row(y, rowB);
+            for (int x = 0; x < width; x++) {
+                int la = luma(rowA[x]);
+                int lb = luma(rowB[x]);
+                s1 += la;
+                s2 += lb;
+                ss += la * la + lb * lb;
+                s12 += la * lb;
+            }
+        }
+        return ssim(s1, s2, ss, s12, width * height);
+    }
+
+    /**
+     * Luminance Rec. 601 en entier (0 à 255), par arithmétique en virgule fixe.
+     */
+    private static int luma(int argb) {
+        int r = (argb >> 16) & 0xFF;
+        int g = (argb >> 8) & 0xFF;
+        int b = argb & 0xFF;
+        return (77 * r + 150 * g + 29 * b + 128) >> 8;
+    }
+
+    /**
+     * Vérifie que deux images sont perceptuellement proches, pour les tests de non-régression.
+     *
+     * @param minSsim SSIM global minimal accepté (ex. 0.99)
+     * @throws AssertionError si le SSIM est inférieur au seuil (message avec la tuile la plus dégradée)
+     */
+    public static SsimReport assertSimilar(BufferedImage expected, BufferedImage actual, double minSsim) {
+        SsimReport report = compare(expected, actual);
+        if (report.getSsim() < minSsim) {
+            throw new AssertionError("SSIM " + String.format("%.5f", report.getSsim())
+                    + " < " + minSsim + " : " + report);
+        }
+        return report;
+    }
+
+    /**
+     * Variante qui écrit la carte de chaleur en cas d'échec, pour l'analyse en CI.
+     *
+     * @param heatmapPath fichier PNG de la carte de chaleur écrit si l'assertion échoue
+     */
+    public static SsimReport assertSimilar(BufferedImage expected, BufferedImage actual, double minSsim,
+                                           String heatmapPath) {
+        SsimReport report = compare(expected, actual);
+        if (report.getSsim() < minSsim) {
+            try {
+                report.writeHeatmap(heatmapPath);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            throw new AssertionError("SSIM " + String.format("%.5f", report.getSsim())
+                    + " < " + minSsim + " (carte : " + heatmapPath + ") : " + report);
+        }
+        return report;
+    }
+}
@@ -0,0 +1,134 @@
+package fr.ninhache;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Résultat d'une comparaison SSIM, global et par tuile.
+ *
+ * <p>Le score vaut 1 pour des images identiques et décroît avec les différences de
+ * structure, de contraste et de luminance. Le score d'une tuile est la moyenne des
+ * fenêtres dont l'origine est dans la tuile.
+ */
+public final class SsimReport {
+
+    private final int width;
+    private final int height;
+    private final int tileSize;
+    private final int tilesX;
+    private final int tilesY;
+    private final double ssim;
+    private final double[] tileScores;
+
+    SsimReport(int width, int height, int tileSize, int tilesX, int tilesY, double ssim, double[] tileScores) {
+        this.width = width;
+        this.height = height;
+        this.tileSize = tileSize;
+        this.tilesX = tilesX;
+        this.tilesY = tilesY;
+        this.ssim = ssim;
+        this.tileScores = tileScores;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    public int getTilesX() {
+        return tilesX;
+    }
+
+    public int getTilesY() {
+        return tilesY;
+    }
+
+    /**
+     * @return le SSIM moyen de l'image (dans [-1, 1], 1 = identiques)
+     */
+    public double getSsim() {
+        return ssim;
+    }
+
+    /**
+     * @return le SSIM moyen de la tuile (tx, ty)
+     */
+    public double getTileSsim(int tx, int ty) {
+        return tileScores[ty * tilesX + tx];
+    }
+
+    /**
+     * @return l'indice (ty * tilesX + tx) de la tuile la plus dégradée
+     */
+    public int getWorstTile() {
+        int worst = 0;
+        for (int i = 1; i < tileScores.length; i++) {
+            if (tileScores[i] < tileScores[worst]) {
+                worst = i;
+            }
+        }
+        return worst;
+    }
+
+    /**
+     * @return le SSIM de la tuile la plus dégradée
+     */
+    public double getMinTileSsim() {
+        return tileScores[getWorstTile()];
+    }
+
+    /**
+     * Carte de chaleur aux dimensions des images comparées : chaque tuile est colorée
+     * selon sa dissimilarité {@code 1 - ssim}, du noir (identique) au rouge puis au jaune.
+     */
+    public BufferedImage heatmap() {
+        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        int[] out = ((DataBufferInt) img.getRaster().getDataBuffer()).getData();
+        for (int y = 0; y < height; y++) {
+            int ty = y / tileSize;
+            for (int x = 0; x < width; x++) {
+                out[y * width + x] = heat(tileScores[ty * tilesX + x / tileSize]);
+            }
+        }
+        return img;
+    }
+
+    /**
+     * Échelle de chaleur : 0 (ssim = 1) noir, 0.5 rouge, 1 (ssim <= 0.9) jaune.
+     */
+    private static int heat(double score) {
+        double d = Math.max(0.0, Math.min(1.0, (1.0 - score) * 10.0));
+        int r = (int) (Math.min(1.0, d * 2.0) * 255);
+        int g = (int) (Math.max(0.0, d * 2.0 - 1.0) * 255);
+        return r << 16 | g << 8;
+    }
+
+    /**
+     * Écrit la carte de chaleur en PNG.
+     */
+    public void writeHeatmap(String path) throws IOException {
+        File out = new File(path);
+        File parent = out.getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        ImageIO.write(heatmap(), "png", out);
+    }
+
+    @Override
+    public String toString() {
+        int worst = getWorstTile();
+        return String.format("SsimReport[%dx%d, ssim=%.5f, tiles=%dx%d of %d px, worst tile=(%d,%d) ssim=%.5f]",
+                width, height, ssim, tilesX, tilesY, tileSize, worst % tilesX, worst / tilesX, tileScores[worst]);
+    }
+}
@@ -0,0 +1,153 @@
+package fr.ninhache.raytracer.animation;
+
+import fr.ninhache.raytracer.render.RenderOptions;
+import fr.ninhache.raytracer.render.RenderOptionsBuilder;
+import fr.ninhache.raytracer.render.RenderResult;
+import fr.ninhache.raytracer.render.Renderer;
+import fr.ninhache.raytracer.render.executor.DaemonThreads;
+import fr.ninhache.raytracer.render.executor.SharedPoolExecutor;
+import fr.ninhache.raytracer.scene.CameraPath;
+import fr.ninhache.raytracer.scene.Scene;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Rendu d'une animation : une scène, une trajectoire de caméra, N images.
+ *
+ * <p>La scène n'est chargée qu'une fois : chaque image en est une vue
+ * ({@link Scene#withCamera}) qui partage objets, lumières et matériaux, au lieu d'un
+ * fichier de scène par image à reparser. Comme pour le rendu par lots, les tuiles de
+ * toutes les images sont calculées par un unique pool de {@code threads} threads et
+ * au plus {@code concurrency} images sont en cours à la fois.
+ *
+ * <p>Les images sont écrites pendant leur rendu dans
+ * {@code outputDir/<nom>_0000.png}, {@code <nom>_0001.png}... (au moins 4 chiffres).
+ * Une image qui échoue (caméra dégénérée...) n'interrompt pas l'animation.
+ */
+public final class AnimationRenderer {
+
+    private final int threads;
+    private final int concurrency;
+    private final int tileSize;
+    private final Path outputDir;
+
+    /**
+     * @param threads threads du pool de calcul (>= 1)
+     * @param concurrency nombre maximal d'images simultanées (>= 1)
+     * @param tileSize côté des tuiles (> 0)
+     * @param outputDir répertoire des images produites
+     */
+    public AnimationRenderer(int threads, int concurrency, int tileSize, Path outputDir) {
+        if (outputDir == null) {
+            throw new IllegalArgumentException("outputDir ne peut pas être null");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads doit être >= 1 : " + threads);
+        }
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency doit être >= 1 : " + concurrency);
+        }
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("tileSize doit être > 0 : " + tileSize);
+        }
+        this.threads = threads;
+        this.concurrency = concurrency;
+        this.tileSize = tileSize;
+        this.outputDir = outputDir;
+    }
+
+    /**
+     * Rend toutes les images et attend la fin de l'animation.
+     *
+     * @param scene scène commune à toutes les images (sa caméra est ignorée)
+     * @param path trajectoire de la caméra
+     * @param frameCount nombre d'images (>= 1)
+     * @param name préfixe des fichiers produits
+     * @param onFrameDone appelé à la fin de chaque image, depuis le thread qui l'a pilotée (peut être null)
+     * @return le résultat de chaque image, dans l'ordre
+     */
+    public List<FrameOutcome> render(Scene scene, CameraPath path, int frameCount, String name,
+                                     Consumer<FrameOutcome> onFrameDone) throws InterruptedException {
+        if (scene == null || path == null || name == null) {
+            throw new IllegalArgumentException("scene, path et name ne peuvent pas être null");
+        }
+        if (frameCount < 1) {
+            throw new IllegalArgumentException("frameCount doit être >= 1 : " + frameCount);
+        }
+
+        ExecutorService tilePool = Executors.newFixedThreadPool(threads, DaemonThreads.named("animation-tile"));
+        ExecutorService framePool = Executors.newFixedThreadPool(concurrency, DaemonThreads.named("animation-frame"));
+        SharedPoolExecutor executor = new SharedPoolExecutor(tilePool, threads);
+        Renderer renderer = new Renderer();
+
+        List<Future<FrameOutcome>> futures = new ArrayList<>(frameCount);
+        try {
+            for (int i = 0; i < frameCount; i++) {
+                int index = i;
+                futures.add(framePool.submit(() -> {
+                    FrameOutcome outcome = renderFrame(renderer, executor, scene, path, index, frameCount, name);
+                    if (onFrameDone != null) {
+                        onFrameDone.accept(outcome);
+                    }
+                    return outcome;
+                }));
+            }
+
+            List<FrameOutcome> outcomes = new ArrayList<>(frameCount);
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    outcomes.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    outcomes.add(FrameOutcome.failure(i, e.getCause()));
+                }
+            }
+            return outcomes;
+        } finally {
+            framePool.shutdownNow();
+            tilePool.shutdownNow();
+        }
+    }
+
+    private FrameOutcome renderFrame(Renderer renderer, SharedPoolExecutor executor, Scene scene, CameraPath path,
+                                     int index, int frameCount, String name) {
+        try {
+            Scene frame = scene.withCamera(path.cameraAt(timeOf(index, frameCount, path.isLoop())));
+            Path output = outputFor(name, index, frameCount);
+            RenderOptions options = new RenderOptionsBuilder()
+                    .setExecutor(executor)
+                    .setTileSize(tileSize)
+                    .setOutputFile(output)
+                    .setPngCompression(-1, 1)
+                    .build();
+
+            try (RenderResult result = renderer.render(frame, options)) {
+                return FrameOutcome.success(index, output, result.stats(), result.status());
+            }
+        } catch (Exception e) {
+            return FrameOutcome.failure(index, e);
+        }
+    }
+
+    /**
+     * @return l'instant normalisé de l'image {@code index} : la dernière image est en
+     *         {@code t = 1}, sauf pour une trajectoire bouclée où elle précède le retour au départ
+     */
+    static double timeOf(int index, int frameCount, boolean loop) {
+        if (loop) {
+            return (double) index / frameCount;
+        }
+        return frameCount == 1 ? 0.0 : (double) index / (frameCount - 1);
+    }
+
+    Path outputFor(String name, int index, int frameCount) {
+        int digits = Math.max(4, String.valueOf(frameCount - 1).length());
+        return outputDir.resolve(String.format("%s_%0" + digits + "d.png", name, index));
+    }
+}
@@ -0,0 +1,44 @@
+package fr.ninhache.raytracer.animation;
+
+import fr.ninhache.raytracer.render.RenderStats;
+import fr.ninhache.raytracer.render.RenderStatus;
+
+import java.nio.file.Path;
+
+/**
+ * Résultat du rendu d'une image d'animation.
+ *
+ * @param index numéro de l'image (à partir de 0)
+ * @param output image écrite (null en cas d'échec)
+ * @param stats statistiques du rendu (null en cas d'échec)
+ * @param status état final du rendu (null en cas d'échec)
+ * @param error cause de l'échec (null si succès)
+ */
+public record FrameOutcome(
+        int index,
+        Path output,
+        RenderStats stats,
+        RenderStatus status,
+        Throwable error
+) {
+
+    static FrameOutcome success(int index, Path output, RenderStats stats, RenderStatus status) {
+        return new FrameOutcome(index, output, stats, status, null);
+    }
+
+    static FrameOutcome failure(int index, Throwable error) {
+        return new FrameOutcome(index, null, null, null, error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    @Override
+    public String toString() {
+        if (!isSuccess()) {
+            return "[échec] image " + index + " : " + error.getMessage();
+        }
+        return "[" + status + "] image " + index + " -> " + output + " " + stats;
+    }
+}
@@ -0,0 +1,231 @@
+package fr.ninhache.raytracer.batch;
+
+import fr.ninhache.raytracer.render.RenderOptions;
+import fr.ninhache.raytracer.render.RenderOptionsBuilder;
+import fr.ninhache.raytracer.render.RenderResult;
+import fr.ninhache.raytracer.render.RenderStatus;
+import fr.ninhache.raytracer.render.Renderer;
+import fr.ninhache.raytracer.render.cache.CachedRender;
+import fr.ninhache.raytracer.render.cache.CachingRenderer;
+import fr.ninhache.raytracer.render.cache.RenderCache;
+import fr.ninhache.raytracer.render.executor.DaemonThreads;
+import fr.ninhache.raytracer.render.executor.SharedPoolExecutor;
+import fr.ninhache.raytracer.scene.Scene;
+import fr.ninhache.raytracer.scene.SceneLoader;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Rendu de nombreuses scènes dans une seule JVM.
+ *
+ * <p>Le {@link SceneLoader} (découverte des parsers par réflexion) est créé une seule
+ * fois et le JIT reste chaud d'une scène à l'autre. Les tuiles de toutes les scènes
+ * sont calculées par un unique pool de {@code threads} threads ; au plus
+ * {@code concurrency} scènes sont en cours à la fois, ce qui borne aussi la mémoire
+ * (un framebuffer par scène en vol). Une scène qui échoue n'interrompt pas le lot.
+ *
+ * <p>Chaque image est écrite pendant son rendu dans {@code outputDir}, au chemin de
+ * sa scène relatif à la racine du lot (plus proche répertoire commun aux scènes),
+ * extension remplacée par {@code .png} : le nom déclaré par {@code output} est ignoré,
+ * beaucoup de scènes d'un même répertoire partageant le même (ou le défaut
+ * {@code output.png}), et les images de référence rangées à côté des scènes ne sont
+ * jamais écrasées. Deux scènes qui donneraient la même image refusent le lot avant
+ * tout rendu.
+ */
+public final class BatchRenderer {
+
+    /** Intervalle maximal entre deux synchronisations des journaux de reprise. */
+    private static final Duration CHECKPOINT_INTERVAL = Duration.ofSeconds(10);
+
+    private final SceneLoader loader;
+    private final int threads;
+    private final int concurrency;
+    private final int tileSize;
+    private final Path outputDir;
+    private final RenderCache cache;
+    private final Path checkpointDir;
+
+    /**
+     * @param loader chargeur partagé par toutes les scènes
+     * @param threads threads du pool de calcul (>= 1)
+     * @param concurrency nombre maximal de scènes simultanées (>= 1)
+     * @param tileSize côté des tuiles (> 0)
+     * @param outputDir répertoire racine des images produites
+     */
+    public BatchRenderer(SceneLoader loader, int threads, int concurrency, int tileSize, Path outputDir) {
+        this(loader, threads, concurrency, tileSize, outputDir, null, null);
+    }
+
+    private BatchRenderer(SceneLoader loader, int threads, int concurrency, int tileSize, Path outputDir,
+                          RenderCache cache, Path checkpointDir) {
+        if (loader == null || outputDir == null) {
+            throw new IllegalArgumentException("loader et outputDir ne peuvent pas être null");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads doit être >= 1 : " + threads);
+        }
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency doit être >= 1 : " + concurrency);
+        }
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("tileSize doit être > 0 : " + tileSize);
+        }
+        this.loader = loader;
+        this.threads = threads;
+        this.concurrency = concurrency;
+        this.tileSize = tileSize;
+        this.outputDir = outputDir;
+        this.cache = cache;
+        this.checkpointDir = checkpointDir;
+    }
+
+    /**
+     * @return un lot identique dont les images passent par {@code cache} : une scène
+     *         déjà rendue avec les mêmes réglages est recopiée au lieu d'être recalculée
+     */
+    public BatchRenderer withCache(RenderCache cache) {
+        return new BatchRenderer(loader, threads, concurrency, tileSize, outputDir, cache, checkpointDir);
+    }
+
+    /**
+     * @return un lot identique dont les rendus sont journalisés dans {@code directory} :
+     *         relancé après un arrêt, il ne recalcule que les tuiles manquantes
+     */
+    public BatchRenderer withCheckpoints(Path directory) {
+        return new BatchRenderer(loader, threads, concurrency, tileSize, outputDir, cache, directory);
+    }
+
+    /**
+     * Rend toutes les scènes et attend la fin du lot.
+     *
+     * @param scenes fichiers de scène
+     * @param onSceneDone appelé à la fin de chaque scène, depuis le thread qui l'a pilotée
+     * @return le bilan du lot
+     * @throws IllegalArgumentException si deux scènes donneraient la même image
+     */
+    public BatchSummary render(List<Path> scenes, Consumer<SceneOutcome> onSceneDone) throws InterruptedException {
+        long start = System.nanoTime();
+        Map<Path, Path> outputs = outputsFor(scenes);
+
+        ExecutorService tilePool = Executors.newFixedThreadPool(threads, DaemonThreads.named("batch-tile"));
+        ExecutorService scenePool = Executors.newFixedThreadPool(concurrency, DaemonThreads.named("batch-scene"));
+        SharedPoolExecutor executor = new SharedPoolExecutor(tilePool, threads);
+        Renderer renderer = new Renderer();
+        CachingRenderer caching = cache == null ? null : new CachingRenderer(renderer, cache);
+
+        List<Future<SceneOutcome>> futures = new ArrayList<>(scenes.size());
+        try {
+            for (Path scene : scenes) {
+                futures.add(scenePool.submit(() -> {
+                    SceneOutcome outcome = renderOne(renderer, caching, executor, scene, outputs.get(scene));
+                    if (onSceneDone != null) {
+                        onSceneDone.accept(outcome);
+                    }
+                    return outcome;
+                }));
+            }
+
+            List<SceneOutcome> outcomes = new ArrayList<>(scenes.size());
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    outcomes.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    outcomes.add(SceneOutcome.failure(scenes.get(i), e.getCause()));
+                }
+            }
+            return new BatchSummary(outcomes, threads, concurrency, System.nanoTime() - start);
+        } finally {
+            scenePool.shutdownNow();
+            tilePool.shutdownNow();
+        }
+    }
+
+    private SceneOutcome renderOne(Renderer renderer, CachingRenderer caching, SharedPoolExecutor executor,
+                                   Path file, Path output) {
+        try {
+            Scene scene;
+            // Le registre de tokens est partagé : les chargements sont sérialisés (ils sont brefs)
+            synchronized (loader) {
+                scene = loader.load(file.toString());
+            }
+
+            RenderOptions options = new RenderOptionsBuilder()
+                    .setExecutor(executor)
+                    .setTileSize(tileSize)
+                    .setOutputFile(output)
+                    .setPngCompression(-1, 1)
+                    .setCheckpoint(checkpointDir, CHECKPOINT_INTERVAL)
+                    .build();
+
+            if (caching != null) {
+                // Pas de deadline dans un lot : un rendu qui se termine est complet
+                CachedRender render = caching.render(scene, options);
+                return render.hit()
+                        ? SceneOutcome.cached(file, output, render.stats())
+                        : SceneOutcome.success(file, output, render.stats(), RenderStatus.COMPLETED);
+            }
+
+            try (RenderResult result = renderer.render(scene, options)) {
+                return SceneOutcome.success(file, output, result.stats(), result.status());
+            }
+        } catch (Exception e) {
+            return SceneOutcome.failure(file, e);
+        }
+    }
+
+    /**
+     * @return l'image de chaque scène, dans l'ordre du lot
+     * @throws IllegalArgumentException si deux scènes donneraient la même image
+     */
+    Map<Path, Path> outputsFor(List<Path> scenes) {
+        Path root = inputRoot(scenes);
+        Map<Path, Path> outputs = new LinkedHashMap<>();
+        Map<Path, Path> owners = new HashMap<>();
+        for (Path scene : scenes) {
+            Path output = outputFor(root, scene);
+            Path previous = owners.putIfAbsent(output, scene);
+            if (previous != null) {
+                throw new IllegalArgumentException(
+                        previous + " et " + scene + " seraient tous deux rendus dans " + output);
+            }
+            outputs.put(scene, output);
+        }
+        return outputs;
+    }
+
+    /**
+     * @return le plus proche répertoire contenant toutes les scènes (chemin absolu)
+     */
+    static Path inputRoot(List<Path> scenes) {
+        Path root = null;
+        for (Path scene : scenes) {
+            Path dir = scene.toAbsolutePath().normalize().getParent();
+            if (root == null) {
+                root = dir;
+            }
+            while (root != null && !dir.startsWith(root)) {
+                root = root.getParent();
+            }
+        }
+        return root;
+    }
+
+    Path outputFor(Path root, Path sceneFile) {
+        Path relative = root.relativize(sceneFile.toAbsolutePath().normalize());
+        String base = relative.getFileName().toString();
+        int dot = base.lastIndexOf('.');
+        String name = (dot > 0 ? base.substring(0, dot) : base) + ".png";
+        return outputDir.resolve(relative).resolveSibling(name);
+    }
+}
@@ -0,0 +1,96 @@
+package fr.ninhache.raytracer.batch;
+
+import fr.ninhache.raytracer.render.RenderStats;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Bilan d'un rendu par lots.
+ *
+ * @param outcomes résultat de chaque scène, dans l'ordre des fichiers
+ * @param threads threads du pool de calcul partagé
+ * @param concurrency nombre maximal de scènes rendues simultanément
+ * @param wallNanos durée totale du lot (chargements et écritures compris)
+ */
+public record BatchSummary(
+        List<SceneOutcome> outcomes,
+        int threads,
+        int concurrency,
+        long wallNanos
+) {
+
+    public long succeeded() {
+        return outcomes.stream().filter(SceneOutcome::isSuccess).count();
+    }
+
+    public long failed() {
+        return outcomes.size() - succeeded();
+    }
+
+    /**
+     * @return le nombre de scènes servies par le cache de rendu
+     */
+    public long cached() {
+        return outcomes.stream().filter(SceneOutcome::cached).count();
+    }
+
+    /**
+     * @return les pixels réellement calculés (hors cache)
+     */
+    public long totalPixels() {
+        return successfulStats().mapToLong(RenderStats::totalPixels).sum();
+    }
+
+    public long totalRays() {
+        return successfulStats().mapToLong(RenderStats::totalRays).sum();
+    }
+
+    /**
+     * @return la somme des durées de rendu (hors chargement et écriture)
+     */
+    public long renderNanos() {
+        return successfulStats().mapToLong(RenderStats::durationNanos).sum();
+    }
+
+    public double wallSeconds() {
+        return wallNanos / 1_000_000_000.0;
+    }
+
+    public double pixelsPerSecond() {
+        return wallNanos == 0 ? 0.0 : totalPixels() / wallSeconds();
+    }
+
+    public double raysPerSecond() {
+        return wallNanos == 0 ? 0.0 : totalRays() / wallSeconds();
+    }
+
+    /**
+     * @return somme des durées de rendu / durée totale : gain apporté par le rendu simultané
+     */
+    public double overlap() {
+        return wallNanos == 0 ? 0.0 : (double) renderNanos() / wallNanos;
+    }
+
+    private Stream<RenderStats> successfulStats() {
+        return outcomes.stream().filter(o -> o.isSuccess() && !o.cached()).map(SceneOutcome::stats);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BatchSummary[scenes=%d (ok=%d, cache=%d, échecs=%d), threads=%d, concurrency=%d, wall=%.2f s, pixels=%d, rays=%d, pixels/s=%.2f M, rays/s=%.2f M, overlap=%.2fx]",
+                outcomes.size(),
+                succeeded(),
+                cached(),
+                failed(),
+                threads,
+                concurrency,
+                wallSeconds(),
+                totalPixels(),
+                totalRays(),
+                pixelsPerSecond() / 1_000_000.0,
+                raysPerSecond() / 1_000_000.0,
+                overlap()
+        );
+    }
+}
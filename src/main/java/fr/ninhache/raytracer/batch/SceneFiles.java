@@ -0,0 +1,104 @@
+package fr.ninhache.raytracer.batch;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Résolution des arguments de la ligne de commande en fichiers de scène.
+ *
+ * <p>Chaque argument peut être :
+ * <ul>
+ *   <li>un fichier : pris tel quel</li>
+ *   <li>un répertoire : ses fichiers acceptés par le filtre, récursivement</li>
+ *   <li>un motif glob ({@code scenes/jalon*}{@code /*.test}, {@code **} pour la récursion) :
+ *       les fichiers correspondants, plus le contenu des répertoires correspondants</li>
+ * </ul>
+ * L'ordre est stable (tri alphabétique par argument) et les doublons sont retirés.
+ */
+public final class SceneFiles {
+
+    private SceneFiles() {
+    }
+
+    /**
+     * @param args fichiers, répertoires ou motifs glob
+     * @param accept filtre appliqué aux fichiers trouvés dans les répertoires et par les motifs
+     * @return les fichiers de scène, sans doublon
+     * @throws IOException si un argument ne correspond à rien ou si un répertoire est illisible
+     */
+    public static List<Path> resolve(List<String> args, Predicate<Path> accept) throws IOException {
+        Set<Path> files = new LinkedHashSet<>();
+        for (String arg : args) {
+            List<Path> found = resolveOne(arg, accept);
+            if (found.isEmpty()) {
+                throw new IOException("Aucune scène trouvée pour : " + arg);
+            }
+            files.addAll(found);
+        }
+        return new ArrayList<>(files);
+    }
+
+    private static List<Path> resolveOne(String arg, Predicate<Path> accept) throws IOException {
+        if (!isGlob(arg)) {
+            Path path = Path.of(arg).normalize();
+            if (Files.isDirectory(path)) {
+                return walk(path, accept);
+            }
+            return Files.isRegularFile(path) ? List.of(path) : List.of();
+        }
+
+        Path root = globRoot(arg);
+        String pattern = arg.replace('\\', '/');
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+
+        List<Path> result = new ArrayList<>();
+        try (Stream<Path> stream = Files.walk(root)) {
+            for (Path p : stream.sorted().toList()) {
+                Path normalized = root.equals(Path.of(".")) ? Path.of(".").relativize(p) : p;
+                if (!matcher.matches(normalized) && !matcher.matches(p)) {
+                    continue;
+                }
+                if (Files.isDirectory(p)) {
+                    result.addAll(walk(p, accept));
+                } else if (accept.test(p)) {
+                    result.add(p);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static List<Path> walk(Path dir, Predicate<Path> accept) throws IOException {
+        try (Stream<Path> stream = Files.walk(dir)) {
+            return stream.filter(Files::isRegularFile).filter(accept).sorted().toList();
+        }
+    }
+
+    static boolean isGlob(String arg) {
+        return arg.indexOf('*') >= 0 || arg.indexOf('?') >= 0 || arg.indexOf('[') >= 0 || arg.indexOf('{') >= 0;
+    }
+
+    /**
+     * @return le plus long préfixe de répertoires sans caractère de motif
+     */
+    static Path globRoot(String pattern) {
+        String[] parts = pattern.replace('\\', '/').split("/");
+        StringBuilder root = new StringBuilder(pattern.startsWith("/") ? "/" : "");
+        for (int i = 0; i < parts.length - 1 && !isGlob(parts[i]); i++) {
+            if (parts[i].isEmpty()) {
+                continue;
+            }
+            root.append(parts[i]).append('/');
+        }
+        return root.isEmpty() ? Path.of(".") : Path.of(root.toString());
+    }
+}
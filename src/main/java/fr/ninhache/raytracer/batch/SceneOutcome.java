@@ -0,0 +1,53 @@
+package fr.ninhache.raytracer.batch;
+
+import fr.ninhache.raytracer.render.RenderStats;
+import fr.ninhache.raytracer.render.RenderStatus;
+
+import java.nio.file.Path;
+
+/**
+ * Résultat du rendu d'une scène dans un lot.
+ *
+ * @param scene fichier de scène
+ * @param output image écrite (null en cas d'échec)
+ * @param stats statistiques du rendu (null si la scène n'a pas pu être rendue)
+ * @param status état final du rendu (null en cas d'échec)
+ * @param error cause de l'échec (null si succès)
+ * @param cached {@code true} si l'image vient du cache de rendu (stats alors éventuellement null)
+ */
+public record SceneOutcome(
+        Path scene,
+        Path output,
+        RenderStats stats,
+        RenderStatus status,
+        Throwable error,
+        boolean cached
+) {
+
+    static SceneOutcome success(Path scene, Path output, RenderStats stats, RenderStatus status) {
+        return new SceneOutcome(scene, output, stats, status, null, false);
+    }
+
+    static SceneOutcome cached(Path scene, Path output, RenderStats stats) {
+        return new SceneOutcome(scene, output, stats, RenderStatus.COMPLETED, null, true);
+    }
+
+    static SceneOutcome failure(Path scene, Throwable error) {
+        return new SceneOutcome(scene, null, null, null, error, false);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    @Override
+    public String toString() {
+        if (!isSuccess()) {
+            return "[échec] " + scene + " : " + error.getMessage();
+        }
+        if (cached) {
+            return "[CACHE] " + scene + " -> " + output;
+        }
+        return "[" + status + "] " + scene + " -> " + output + " " + stats;
+    }
+}
@@ -0,0 +1,392 @@
+package fr.ninhache.raytracer.distributed;
+
+import fr.ninhache.raytracer.render.ImageBuffer;
+import fr.ninhache.raytracer.render.RenderResult;
+import fr.ninhache.raytracer.render.RenderStats;
+import fr.ninhache.raytracer.render.RenderStatus;
+import fr.ninhache.raytracer.render.Tile;
+import fr.ninhache.raytracer.render.executor.DaemonThreads;
+import fr.ninhache.raytracer.scene.Scene;
+import fr.ninhache.raytracer.scene.SceneLoader;
+import fr.ninhache.raytracer.scene.exception.ParseException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coordinateur d'un rendu réparti sur plusieurs processus {@link Worker}.
+ *
+ * <p>Les workers se connectent au coordinateur (à tout moment, y compris pendant un
+ * rendu). Pour chaque rendu, le coordinateur envoie une fois le texte de la scène à
+ * chaque worker puis lui distribue des lots de tuiles ; les pixels reviennent tuile
+ * par tuile (cf. {@link Protocol}). Un worker qui se déconnecte ou ne renvoie pas une
+ * tuile dans le délai {@link CoordinatorConfig#tileTimeout()} est abandonné et ses
+ * tuiles sont redistribuées ; en fin de rendu, les tuiles d'un worker lent sont
+ * dupliquées sur les workers libres (cf. {@link TileLedger}).
+ *
+ * <p>Les workers tracent chaque pixel avec le même {@code RayTracer} que le rendu local,
+ * sans anti-aliasing : l'image est identique bit à bit à celle de
+ * {@code Renderer.render(scene, options)} sans anti-aliasing ni HDR.
+ */
+public final class Coordinator implements AutoCloseable {
+
+    /** Intervalle de vérification des workers connectés pendant un rendu. */
+    private static final Duration WORKER_POLL = Duration.ofMillis(100);
+
+    private final CoordinatorConfig config;
+    private final SceneLoader loader;
+    private final Object renderLock = new Object();
+    private final Object jobLock = new Object();
+    private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger nextWorkerId = new AtomicInteger();
+    private final AtomicInteger reassignedTiles = new AtomicInteger();
+
+    private ServerSocket server;
+    private ExecutorService connections;
+    private Job job;
+    private volatile boolean closed;
+
+    /**
+     * @param loader chargeur utilisé pour valider la scène avant de la diffuser
+     */
+    public Coordinator(CoordinatorConfig config, SceneLoader loader) {
+        if (config == null || loader == null) {
+            throw new IllegalArgumentException("config et loader ne peuvent pas être null");
+        }
+        this.config = config;
+        this.loader = loader;
+    }
+
+    /**
+     * Ouvre le port d'écoute des workers.
+     *
+     * @throws IllegalStateException si le coordinateur est déjà démarré
+     */
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("Coordinateur déjà démarré");
+        }
+        server = new ServerSocket();
+        server.bind(new InetSocketAddress(config.port()));
+        connections = Executors.newCachedThreadPool(DaemonThreads.named("coordinator-worker"));
+
+        Thread acceptor = new Thread(this::acceptLoop, "coordinator-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * @return le port réellement utilisé (utile avec le port 0)
+     */
+    public synchronized int getPort() {
+        if (server == null) {
+            throw new IllegalStateException("Coordinateur non démarré");
+        }
+        return server.getLocalPort();
+    }
+
+    /**
+     * @return le nombre de workers actuellement connectés
+     */
+    public int getWorkerCount() {
+        return sockets.size();
+    }
+
+    /**
+     * @return le nombre de tuiles redistribuées depuis le démarrage, après la perte d'un worker
+     */
+    public int getReassignedTiles() {
+        return reassignedTiles.get();
+    }
+
+    /**
+     * Rend une scène sur les workers connectés. Bloque jusqu'à ce que toutes les
+     * tuiles soient revenues ; les rendus successifs sont sérialisés. Les workers
+     * peuvent se connecter après l'appel, mais si aucun n'est connecté pendant
+     * {@link CoordinatorConfig#tileTimeout()}, le rendu échoue.
+     *
+     * @param filename nom de la scène (détection du format par extension)
+     * @param content texte complet de la scène
+     * @throws ParseException si la scène est invalide (rien n'est alors envoyé)
+     * @throws IOException si le coordinateur est fermé pendant le rendu, ou s'il est
+     *         resté sans worker pendant tout le délai
+     */
+    public RenderResult render(String filename, byte[] content)
+            throws IOException, ParseException, InterruptedException {
+        synchronized (renderLock) {
+            if (server == null || closed) {
+                throw new IllegalStateException("Coordinateur non démarré");
+            }
+            Scene scene = loader.load(filename, content);
+            List<Tile> tiles = Tile.split(scene.getWidth(), scene.getHeight(), config.tileSize());
+
+            long start = System.nanoTime();
+            Job current = new Job(filename == null ? "" : filename, content,
+                    new TileLedger(tiles), new ImageBuffer(scene.getWidth(), scene.getHeight()));
+            synchronized (jobLock) {
+                job = current;
+                jobLock.notifyAll();
+            }
+            try {
+                awaitWorkers(current.ledger);
+                if (!current.ledger.awaitDone()) {
+                    throw new IOException("coordinateur fermé pendant le rendu");
+                }
+            } finally {
+                current.ledger.abort();
+                reassignedTiles.addAndGet(current.ledger.reassigned());
+                synchronized (jobLock) {
+                    job = null;
+                }
+            }
+            long end = System.nanoTime();
+
+            int threads = current.workerThreads.values().stream().mapToInt(Integer::intValue).sum();
+            RenderStats stats = new RenderStats(
+                    scene.getWidth(),
+                    scene.getHeight(),
+                    threads,
+                    threads > 1,
+                    "distributed(" + current.workerThreads.size() + " workers)",
+                    tiles.size(),
+                    current.ledger.completed(),
+                    scene.getMaxDepth(),
+                    start,
+                    end,
+                    current.primaryRays.sum(),
+                    current.shadowRays.sum(),
+                    current.reflectionRays.sum(),
+                    0,
+                    null,
+                    scene.getBvhStats()
+            );
+            return new RenderResult(current.buffer, stats, RenderStatus.COMPLETED, null);
+        }
+    }
+
+    /**
+     * Attend la fin du rendu tant qu'au moins un worker est connecté.
+     *
+     * @throws IOException si aucun worker n'est connecté pendant {@link CoordinatorConfig#tileTimeout()}
+     */
+    private void awaitWorkers(TileLedger ledger) throws IOException, InterruptedException {
+        long grace = config.tileTimeout().toNanos();
+        long poll = Math.min(grace, WORKER_POLL.toNanos());
+        long lastSeen = System.nanoTime();
+        while (!ledger.await(poll)) {
+            long now = System.nanoTime();
+            if (!sockets.isEmpty()) {
+                lastSeen = now;
+            } else if (now - lastSeen >= grace) {
+                throw new IOException("aucun worker connecté depuis " + config.tileTimeout().toMillis() + " ms");
+            }
+        }
+    }
+
+    /**
+     * Ferme le port d'écoute et les connexions ; un rendu en cours échoue.
+     */
+    @Override
+    public synchronized void close() {
+        if (server == null || closed) {
+            return;
+        }
+        closed = true;
+        try {
+            server.close();
+        } catch (IOException ignored) {
+            // déjà fermé
+        }
+        for (Socket socket : sockets) {
+            closeQuietly(socket);
+        }
+        connections.shutdownNow();
+        synchronized (jobLock) {
+            if (job != null) {
+                job.ledger.abort();
+            }
+            jobLock.notifyAll();
+        }
+    }
+
+    // ---------------------------------------------------------------- connexions
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                Socket socket = server.accept();
+                sockets.add(socket);
+                int id = nextWorkerId.incrementAndGet();
+                connections.execute(() -> serve(socket, id));
+            } catch (IOException e) {
+                if (closed) {
+                    return;
+                }
+            } catch (RuntimeException e) {
+                // Pool fermé pendant l'acceptation
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket, int workerId) {
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout((int) Math.min(Integer.MAX_VALUE, config.tileTimeout().toMillis()));
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 64 * 1024));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 64 * 1024));
+
+            int threads = handshake(in);
+            Job last = null;
+            while (true) {
+                Job current = awaitJob(last);
+                if (current == null) {
+                    return;
+                }
+                render(current, workerId, threads, in, out);
+                last = current;
+            }
+        } catch (IOException e) {
+            // Worker perdu ou trop lent : ses tuiles ont été rendues au registre
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            sockets.remove(socket);
+        }
+    }
+
+    private static int handshake(DataInputStream in) throws IOException {
+        if (in.readByte() != Protocol.HELLO || in.readInt() != Protocol.MAGIC) {
+            throw new IOException("connexion d'un client inconnu");
+        }
+        int version = in.readInt();
+        if (version != Protocol.VERSION) {
+            throw new IOException("version de protocole non supportée : " + version);
+        }
+        int threads = in.readInt();
+        return Math.max(1, threads);
+    }
+
+    private Job awaitJob(Job last) throws InterruptedException {
+        synchronized (jobLock) {
+            while (!closed && (job == null || job == last)) {
+                jobLock.wait();
+            }
+            return closed ? null : job;
+        }
+    }
+
+    private void render(Job job, int workerId, int threads, DataInputStream in, DataOutputStream out)
+            throws IOException, InterruptedException {
+        out.writeByte(Protocol.SCENE);
+        out.writeUTF(job.filename);
+        out.writeInt(job.content.length);
+        out.write(job.content);
+        out.flush();
+
+        byte reply = in.readByte();
+        if (reply == Protocol.ERROR) {
+            throw new IOException("scène refusée par le worker : " + in.readUTF());
+        }
+        if (reply != Protocol.READY) {
+            throw new IOException("réponse inattendue du worker : " + reply);
+        }
+
+        TileLedger ledger = job.ledger;
+        while (true) {
+            List<Integer> batch = ledger.acquire(config.tilesPerAssignment());
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                out.writeByte(Protocol.TILES);
+                out.writeInt(batch.size());
+                for (int index : batch) {
+                    Protocol.writeTile(out, index, ledger.tile(index));
+                }
+                out.flush();
+
+                Set<Integer> outstanding = new HashSet<>(batch);
+                while (!outstanding.isEmpty()) {
+                    if (in.readByte() != Protocol.PIXELS) {
+                        throw new IOException("réponse inattendue du worker");
+                    }
+                    int index = in.readInt();
+                    if (!outstanding.remove(index)) {
+                        throw new IOException("tuile non demandée : " + index);
+                    }
+                    long primary = in.readLong();
+                    long shadow = in.readLong();
+                    long reflection = in.readLong();
+                    Tile tile = ledger.tile(index);
+                    int[] rgb = Protocol.readPixels(in, tile.pixelCount());
+
+                    // Statistiques comptées avec les pixels, avant que le rendu ne soit vu comme terminé
+                    ledger.complete(index, () -> {
+                        store(job.buffer, tile, rgb);
+                        job.primaryRays.add(primary);
+                        job.shadowRays.add(shadow);
+                        job.reflectionRays.add(reflection);
+                        job.workerThreads.putIfAbsent(workerId, threads);
+                    });
+                }
+            } finally {
+                ledger.release(batch);
+            }
+        }
+    }
+
+    private static void store(ImageBuffer buffer, Tile tile, int[] rgb) {
+        int k = 0;
+        for (int y = tile.y(); y < tile.endY(); y++) {
+            for (int x = tile.x(); x < tile.endX(); x++) {
+                buffer.setPixel(x, y, rgb[k++]);
+            }
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // déjà fermé
+        }
+    }
+
+    /**
+     * Rendu en cours : scène diffusée, registre des tuiles et pixels reçus.
+     */
+    private static final class Job {
+        final String filename;
+        final byte[] content;
+        final TileLedger ledger;
+        final ImageBuffer buffer;
+        final LongAdder primaryRays = new LongAdder();
+        final LongAdder shadowRays = new LongAdder();
+        final LongAdder reflectionRays = new LongAdder();
+        final Map<Integer, Integer> workerThreads = new ConcurrentHashMap<>();
+
+        Job(String filename, byte[] content, TileLedger ledger, ImageBuffer buffer) {
+            this.filename = filename;
+            this.content = content;
+            this.ledger = ledger;
+            this.buffer = buffer;
+        }
+    }
+}
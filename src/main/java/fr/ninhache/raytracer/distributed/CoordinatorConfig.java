@@ -0,0 +1,40 @@
+package fr.ninhache.raytracer.distributed;
+
+import java.time.Duration;
+
+/**
+ * Paramètres du coordinateur de rendu distribué.
+ *
+ * @param port port d'écoute des workers (0 = port libre choisi par le système)
+ * @param tileSize côté des tuiles en pixels (> 0)
+ * @param tilesPerAssignment tuiles envoyées à un worker en une fois (>= 1)
+ * @param tileTimeout délai maximal d'attente d'une tuile ; au-delà le worker est
+ *                    considéré comme perdu et ses tuiles sont redistribuées. Un rendu
+ *                    resté aussi longtemps sans aucun worker connecté échoue
+ */
+public record CoordinatorConfig(
+        int port,
+        int tileSize,
+        int tilesPerAssignment,
+        Duration tileTimeout
+) {
+
+    public CoordinatorConfig {
+        if (port < 0 || port > 65535) {
+            throw new IllegalArgumentException("port invalide : " + port);
+        }
+        if (tileSize <= 0 || tilesPerAssignment < 1) {
+            throw new IllegalArgumentException("tileSize doit être > 0 et tilesPerAssignment >= 1");
+        }
+        if (tileTimeout == null || tileTimeout.isNegative() || tileTimeout.isZero()) {
+            throw new IllegalArgumentException("tileTimeout doit être > 0");
+        }
+    }
+
+    /**
+     * Configuration par défaut : tuiles de 32 pixels, 8 par envoi, 30 s par tuile.
+     */
+    public static CoordinatorConfig defaults(int port) {
+        return new CoordinatorConfig(port, 32, 8, Duration.ofSeconds(30));
+    }
+}
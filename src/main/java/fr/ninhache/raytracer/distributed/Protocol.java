@@ -0,0 +1,80 @@
+package fr.ninhache.raytracer.distributed;
+
+import fr.ninhache.raytracer.render.Tile;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Protocole binaire entre coordinateur et workers (flux {@code Data*Stream}, big-endian).
+ *
+ * <pre>
+ * worker -> coordinateur
+ *   HELLO   magic:int version:int threads:int
+ *   READY                                         scène parsée
+ *   ERROR   message:utf                           scène refusée
+ *   PIXELS  index:int primary:long shadow:long reflection:long rgb:int[w*h]
+ *
+ * coordinateur -> worker
+ *   SCENE   filename:utf length:int content:byte[length]
+ *   TILES   count:int (index:int x:int y:int w:int h:int)*
+ * </pre>
+ *
+ * La scène est envoyée une seule fois par rendu et par worker, sous sa forme texte :
+ * chaque worker la parse avec le même {@code SceneLoader}, ce qui garantit des pixels
+ * identiques au rendu local. Chaque tuile d'un lot {@code TILES} reçoit exactement un
+ * message {@code PIXELS}, dans un ordre quelconque.
+ */
+final class Protocol {
+
+    static final int MAGIC = 0x52545244; // "RTRD"
+    static final int VERSION = 1;
+
+    static final byte HELLO = 1;
+    static final byte READY = 2;
+    static final byte ERROR = 3;
+    static final byte PIXELS = 4;
+    static final byte SCENE = 10;
+    static final byte TILES = 11;
+
+    private Protocol() {
+    }
+
+    static void writeTile(DataOutputStream out, int index, Tile tile) throws IOException {
+        out.writeInt(index);
+        out.writeInt(tile.x());
+        out.writeInt(tile.y());
+        out.writeInt(tile.width());
+        out.writeInt(tile.height());
+    }
+
+    static Tile readTile(DataInputStream in) throws IOException {
+        int x = in.readInt();
+        int y = in.readInt();
+        int w = in.readInt();
+        int h = in.readInt();
+        if (x < 0 || y < 0 || w <= 0 || h <= 0) {
+            throw new IOException("tuile invalide : " + x + "," + y + " " + w + "x" + h);
+        }
+        return new Tile(x, y, w, h);
+    }
+
+    /**
+     * Écrit un bloc de pixels d'un seul tenant (bien plus rapide que pixel par pixel).
+     */
+    static void writePixels(DataOutputStream out, int[] rgb) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(rgb.length * Integer.BYTES);
+        bytes.asIntBuffer().put(rgb);
+        out.write(bytes.array());
+    }
+
+    static int[] readPixels(DataInputStream in, int count) throws IOException {
+        byte[] bytes = new byte[count * Integer.BYTES];
+        in.readFully(bytes);
+        int[] rgb = new int[count];
+        ByteBuffer.wrap(bytes).asIntBuffer().get(rgb);
+        return rgb;
+    }
+}
@@ -0,0 +1,169 @@
+package fr.ninhache.raytracer.distributed;
+
+import fr.ninhache.raytracer.render.Tile;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registre des tuiles d'un rendu distribué : à distribuer, en cours, terminées.
+ *
+ * <p>Les tuiles d'un worker perdu retournent en tête de file. Quand la file est vide,
+ * un worker inoccupé reçoit en double les tuiles en cours depuis le plus longtemps
+ * (au plus deux exemplaires par tuile) : un worker lent ne retarde donc pas la fin
+ * du rendu. Le premier résultat reçu l'emporte, les pixels étant identiques.
+ */
+final class TileLedger {
+
+    private static final int MAX_COPIES = 2;
+
+    private final List<Tile> tiles;
+    private final ArrayDeque<Integer> pending = new ArrayDeque<>();
+    private final boolean[] done;
+    private final int[] copies;
+    private final long[] assignedAt;
+    private int remaining;
+    private int reassigned;
+    private boolean aborted;
+
+    TileLedger(List<Tile> tiles) {
+        this.tiles = List.copyOf(tiles);
+        this.done = new boolean[tiles.size()];
+        this.copies = new int[tiles.size()];
+        this.assignedAt = new long[tiles.size()];
+        this.remaining = tiles.size();
+        for (int i = 0; i < tiles.size(); i++) {
+            pending.add(i);
+        }
+    }
+
+    Tile tile(int index) {
+        return tiles.get(index);
+    }
+
+    /**
+     * Attribue au plus {@code max} tuiles, en attendant qu'il y en ait.
+     *
+     * @return les indices attribués ; vide si le rendu est terminé ou abandonné
+     */
+    synchronized List<Integer> acquire(int max) throws InterruptedException {
+        while (remaining > 0 && !aborted) {
+            List<Integer> batch = new ArrayList<>(max);
+            while (batch.size() < max && !pending.isEmpty()) {
+                int index = pending.poll();
+                if (!done[index]) {
+                    batch.add(index);
+                }
+            }
+            if (batch.isEmpty()) {
+                batch = stragglers(max);
+            }
+            if (!batch.isEmpty()) {
+                long now = System.nanoTime();
+                for (int index : batch) {
+                    copies[index]++;
+                    assignedAt[index] = now;
+                }
+                return batch;
+            }
+            wait();
+        }
+        return List.of();
+    }
+
+    private List<Integer> stragglers(int max) {
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < done.length; i++) {
+            if (!done[i] && copies[i] > 0 && copies[i] < MAX_COPIES) {
+                candidates.add(i);
+            }
+        }
+        candidates.sort(Comparator.comparingLong(i -> assignedAt[i]));
+        return candidates.size() > max ? new ArrayList<>(candidates.subList(0, max)) : candidates;
+    }
+
+    /**
+     * Enregistre le résultat d'une tuile. {@code store} n'est exécuté que pour le
+     * premier résultat, sous le verrou du registre : un exemplaire en double arrivé
+     * après la fin du rendu ne touche plus l'image.
+     *
+     * @return {@code true} si c'est le premier résultat reçu pour cette tuile
+     */
+    synchronized boolean complete(int index, Runnable store) {
+        if (done[index] || aborted) {
+            return false;
+        }
+        store.run();
+        done[index] = true;
+        remaining--;
+        notifyAll();
+        return true;
+    }
+
+    /**
+     * Rend des tuiles attribuées : terminées ou abandonnées par un worker perdu.
+     * Une tuile abandonnée dont aucun autre exemplaire n'est en cours est redistribuée.
+     */
+    synchronized void release(Collection<Integer> indices) {
+        for (int index : indices) {
+            copies[index]--;
+            if (!done[index] && copies[index] == 0) {
+                pending.addFirst(index);
+                reassigned++;
+            }
+        }
+        notifyAll();
+    }
+
+    synchronized int completed() {
+        return tiles.size() - remaining;
+    }
+
+    /**
+     * @return le nombre de tuiles redistribuées après la perte d'un worker
+     */
+    synchronized int reassigned() {
+        return reassigned;
+    }
+
+    /**
+     * @return {@code true} si toutes les tuiles sont revenues, {@code false} si le
+     *         rendu a été abandonné avant
+     */
+    synchronized boolean awaitDone() throws InterruptedException {
+        while (remaining > 0 && !aborted) {
+            wait();
+        }
+        return remaining == 0;
+    }
+
+    /**
+     * Comme {@link #awaitDone()}, sans attendre plus de {@code timeoutNanos}.
+     *
+     * @return {@code true} si le rendu est terminé ou abandonné, {@code false} si le
+     *         délai s'est écoulé avant
+     */
+    synchronized boolean await(long timeoutNanos) throws InterruptedException {
+        long end = System.nanoTime() + timeoutNanos;
+        while (remaining > 0 && !aborted) {
+            long left = end - System.nanoTime();
+            if (left <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, left);
+        }
+        return true;
+    }
+
+    /**
+     * Clôt le registre : plus aucune tuile n'est attribuée ni enregistrée.
+     */
+    synchronized void abort() {
+        aborted = true;
+        notifyAll();
+    }
+}
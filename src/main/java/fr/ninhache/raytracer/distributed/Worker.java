@@ -0,0 +1,164 @@
+package fr.ninhache.raytracer.distributed;
+
+import fr.ninhache.raytracer.render.RayTracer;
+import fr.ninhache.raytracer.render.Tile;
+import fr.ninhache.raytracer.render.executor.DaemonThreads;
+import fr.ninhache.raytracer.render.stats.RayStats;
+import fr.ninhache.raytracer.scene.Scene;
+import fr.ninhache.raytracer.scene.SceneLoader;
+import fr.ninhache.raytracer.scene.exception.ParseException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Processus de calcul d'un rendu distribué (cf. {@link Coordinator}).
+ *
+ * <p>Le worker se connecte au coordinateur, parse chaque scène reçue puis calcule
+ * les tuiles demandées sur {@code threads} threads, avec le même {@link RayTracer}
+ * que le rendu local. Chaque tuile est renvoyée dès qu'elle est calculée.
+ */
+public final class Worker {
+
+    private final SceneLoader loader;
+    private final int threads;
+    private final RayTracer rayTracer = new RayTracer();
+
+    /**
+     * @param loader chargeur des scènes reçues
+     * @param threads threads de calcul (>= 1)
+     */
+    public Worker(SceneLoader loader, int threads) {
+        if (loader == null) {
+            throw new IllegalArgumentException("loader ne peut pas être null");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads doit être >= 1 : " + threads);
+        }
+        this.loader = loader;
+        this.threads = threads;
+    }
+
+    /**
+     * Se connecte au coordinateur et calcule les tuiles demandées jusqu'à ce qu'il
+     * ferme la connexion.
+     *
+     * @throws IOException si la connexion échoue ou si le protocole n'est pas respecté
+     */
+    public void run(String host, int port) throws IOException, InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads, DaemonThreads.named("worker-tile"));
+
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 64 * 1024));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 64 * 1024));
+
+            out.writeByte(Protocol.HELLO);
+            out.writeInt(Protocol.MAGIC);
+            out.writeInt(Protocol.VERSION);
+            out.writeInt(threads);
+            out.flush();
+
+            Scene scene = null;
+            int type;
+            while ((type = in.read()) >= 0) {
+                switch (type) {
+                    case Protocol.SCENE -> scene = receiveScene(in, out);
+                    case Protocol.TILES -> {
+                        if (scene == null) {
+                            throw new IOException("tuiles demandées sans scène valide");
+                        }
+                        renderTiles(scene, in, out, pool);
+                    }
+                    default -> throw new IOException("message inconnu : " + type);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * @return la scène parsée, ou null si elle est refusée (erreur renvoyée au coordinateur)
+     */
+    private Scene receiveScene(DataInputStream in, DataOutputStream out) throws IOException {
+        String filename = in.readUTF();
+        byte[] content = new byte[in.readInt()];
+        in.readFully(content);
+
+        Scene scene;
+        try {
+            scene = loader.load(filename, content);
+            out.writeByte(Protocol.READY);
+        } catch (ParseException | IOException e) {
+            scene = null;
+            out.writeByte(Protocol.ERROR);
+            out.writeUTF(String.valueOf(e.getMessage()));
+        }
+        out.flush();
+        return scene;
+    }
+
+    private void renderTiles(Scene scene, DataInputStream in, DataOutputStream out, ExecutorService pool)
+            throws IOException, InterruptedException {
+        int count = in.readInt();
+        List<Future<?>> futures = new ArrayList<>(count);
+        for (int k = 0; k < count; k++) {
+            int index = in.readInt();
+            Tile tile = Protocol.readTile(in);
+            if ((long) tile.endX() > scene.getWidth() || (long) tile.endY() > scene.getHeight()) {
+                throw new IOException("tuile hors de l'image : " + tile);
+            }
+            futures.add(pool.submit(() -> {
+                RayStats stats = new RayStats();
+                int[] rgb = render(scene, tile, stats);
+                synchronized (out) {
+                    out.writeByte(Protocol.PIXELS);
+                    out.writeInt(index);
+                    out.writeLong(stats.primaryRays());
+                    out.writeLong(stats.shadowRays());
+                    out.writeLong(stats.reflectionRays());
+                    Protocol.writePixels(out, rgb);
+                    out.flush();
+                }
+                return null;
+            }));
+        }
+
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException io) {
+                    throw io;
+                }
+                throw new IOException("échec du rendu d'une tuile", cause);
+            }
+        }
+    }
+
+    /**
+     * Même calcul que le rendu par tuiles local, sans anti-aliasing.
+     */
+    private int[] render(Scene scene, Tile tile, RayStats stats) {
+        int[] rgb = new int[tile.pixelCount()];
+        int k = 0;
+        for (int j = tile.y(); j < tile.endY(); j++) {
+            for (int i = tile.x(); i < tile.endX(); i++) {
+                rgb[k++] = rayTracer.getPixelColor(scene, i, j, scene.getMaxDepth(), false, stats).toRGB();
+            }
+        }
+        return rgb;
+    }
+}
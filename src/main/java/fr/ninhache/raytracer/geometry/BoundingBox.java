@@ -0,0 +1,154 @@
+package fr.ninhache.raytracer.geometry;
+
+import fr.ninhache.raytracer.math.Point;
+import fr.ninhache.raytracer.math.Vector;
+
+/**
+ * Boîte englobante alignée sur les axes (AABB).
+ *
+ * <p>Une forme non bornée (plan...) a pour boîte {@link #INFINITE} : tout test
+ * d'intersection avec elle réussit, ce qui reste toujours correct.
+ *
+ * <p>Cette classe est immuable.
+ */
+public final class BoundingBox {
+
+    /** Boîte contenant tout l'espace. */
+    public static final BoundingBox INFINITE = new BoundingBox(
+            new Point(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY),
+            new Point(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY));
+
+    private final Point min;
+    private final Point max;
+
+    /**
+     * @param min coin minimal
+     * @param max coin maximal (composante par composante >= min)
+     */
+    public BoundingBox(Point min, Point max) {
+        if (min == null || max == null) {
+            throw new IllegalArgumentException("min et max ne peuvent pas être null");
+        }
+        if (min.x > max.x || min.y > max.y || min.z > max.z) {
+            throw new IllegalArgumentException("boîte vide : " + min + " > " + max);
+        }
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * @return la plus petite boîte contenant tous les points
+     */
+    public static BoundingBox of(Point first, Point... others) {
+        double x0 = first.x, y0 = first.y, z0 = first.z;
+        double x1 = first.x, y1 = first.y, z1 = first.z;
+        for (Point p : others) {
+            x0 = Math.min(x0, p.x);
+            y0 = Math.min(y0, p.y);
+            z0 = Math.min(z0, p.z);
+            x1 = Math.max(x1, p.x);
+            y1 = Math.max(y1, p.y);
+            z1 = Math.max(z1, p.z);
+        }
+        return new BoundingBox(new Point(x0, y0, z0), new Point(x1, y1, z1));
+    }
+
+    /**
+     * @return la boîte centrée en {@code center} de demi-côté {@code halfSize}
+     */
+    public static BoundingBox around(Point center, double halfSize) {
+        return new BoundingBox(
+                new Point(center.x - halfSize, center.y - halfSize, center.z - halfSize),
+                new Point(center.x + halfSize, center.y + halfSize, center.z + halfSize));
+    }
+
+    public Point getMin() {
+        return min;
+    }
+
+    public Point getMax() {
+        return max;
+    }
+
+    /**
+     * @return {@code true} si la boîte est bornée sur les trois axes
+     */
+    public boolean isFinite() {
+        return Double.isFinite(min.x) && Double.isFinite(min.y) && Double.isFinite(min.z)
+                && Double.isFinite(max.x) && Double.isFinite(max.y) && Double.isFinite(max.z);
+    }
+
+    /**
+     * @return la plus petite boîte contenant celle-ci et {@code other}
+     */
+    public BoundingBox union(BoundingBox other) {
+        return new BoundingBox(
+                new Point(Math.min(min.x, other.min.x), Math.min(min.y, other.min.y), Math.min(min.z, other.min.z)),
+                new Point(Math.max(max.x, other.max.x), Math.max(max.y, other.max.y), Math.max(max.z, other.max.z)));
+    }
+
+    /**
+     * @return la boîte agrandie de {@code margin} dans toutes les directions
+     */
+    public BoundingBox expand(double margin) {
+        return new BoundingBox(
+                new Point(min.x - margin, min.y - margin, min.z - margin),
+                new Point(max.x + margin, max.y + margin, max.z + margin));
+    }
+
+    /**
+     * @return les 8 sommets de la boîte (boîte finie uniquement)
+     */
+    public Point[] corners() {
+        return new Point[]{
+                new Point(min.x, min.y, min.z), new Point(max.x, min.y, min.z),
+                new Point(min.x, max.y, min.z), new Point(max.x, max.y, min.z),
+                new Point(min.x, min.y, max.z), new Point(max.x, min.y, max.z),
+                new Point(min.x, max.y, max.z), new Point(max.x, max.y, max.z)
+        };
+    }
+
+    /**
+     * Test des dalles : le segment {@code origin + t * direction}, {@code t} dans
+     * [{@code tMin}, {@code tMax}], traverse-t-il la boîte ?
+     */
+    public boolean intersects(Point origin, Vector direction, double tMin, double tMax) {
+        double[] o = {origin.x, origin.y, origin.z};
+        double[] d = {direction.x, direction.y, direction.z};
+        double[] lo = {min.x, min.y, min.z};
+        double[] hi = {max.x, max.y, max.z};
+
+        for (int axis = 0; axis < 3; axis++) {
+            if (d[axis] == 0.0) {
+                if (o[axis] < lo[axis] || o[axis] > hi[axis]) {
+                    return false;
+                }
+                continue;
+            }
+            double inv = 1.0 / d[axis];
+            double t0 = (lo[axis] - o[axis]) * inv;
+            double t1 = (hi[axis] - o[axis]) * inv;
+            if (t0 > t1) {
+                double tmp = t0;
+                t0 = t1;
+                t1 = tmp;
+            }
+            // Les NaN (0 * infini) laissent l'intervalle inchangé
+            if (t0 > tMin) {
+                tMin = t0;
+            }
+            if (t1 < tMax) {
+                tMax = t1;
+            }
+            if (tMin > tMax) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "BoundingBox[" + min + " .. " + max + "]";
+    }
+}
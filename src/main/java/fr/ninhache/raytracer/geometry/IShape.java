@@ -24,6 +24,16 @@ public interface IShape extends Intersectable {
      * @return une description textuelle de la forme
      */
     String describe();
+
+    /**
+     * Boîte englobante de la forme, pour les structures d'accélération et le rendu
+     * incrémental. Par défaut {@link BoundingBox#INFINITE}, valeur toujours correcte.
+     *
+     * @return une boîte contenant toute la forme
+     */
+    default BoundingBox getBounds() {
+        return BoundingBox.INFINITE;
+    }
 }
 
 
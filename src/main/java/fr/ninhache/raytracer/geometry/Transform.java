@@ -0,0 +1,227 @@
+package fr.ninhache.raytracer.geometry;
+
+import fr.ninhache.raytracer.math.Point;
+import fr.ninhache.raytracer.math.Vector;
+
+/**
+ * Transformation affine de l'espace (matrice 3x4), avec son inverse précalculée.
+ *
+ * <p>Les transformations se composent avec {@link #then(Transform)} :
+ * {@code scaling(2).then(translation(1, 0, 0))} agrandit puis déplace.
+ *
+ * <p>Cette classe est immuable.
+ */
+public final class Transform {
+
+    /** Transformation identité. */
+    public static final Transform IDENTITY = new Transform(new double[]{
+            1, 0, 0, 0,
+            0, 1, 0, 0,
+            0, 0, 1, 0});
+
+    /** Matrice directe, ligne par ligne (3 lignes de 4 coefficients). */
+    private final double[] m;
+    /** Matrice inverse, même disposition. */
+    private final double[] inv;
+
+    private Transform(double[] m) {
+        this.m = m;
+        this.inv = invert(m);
+    }
+
+    /**
+     * @return la translation de vecteur (x, y, z)
+     */
+    public static Transform translation(double x, double y, double z) {
+        return new Transform(new double[]{
+                1, 0, 0, x,
+                0, 1, 0, y,
+                0, 0, 1, z});
+    }
+
+    /**
+     * @return la mise à l'échelle de facteurs (sx, sy, sz), tous non nuls
+     */
+    public static Transform scaling(double sx, double sy, double sz) {
+        return new Transform(new double[]{
+                sx, 0, 0, 0,
+                0, sy, 0, 0,
+                0, 0, sz, 0});
+    }
+
+    /**
+     * @return la mise à l'échelle uniforme de facteur {@code s}
+     */
+    public static Transform scaling(double s) {
+        return scaling(s, s, s);
+    }
+
+    /**
+     * @return la rotation de {@code degrees} autour de l'axe X
+     */
+    public static Transform rotationX(double degrees) {
+        double c = Math.cos(Math.toRadians(degrees));
+        double s = Math.sin(Math.toRadians(degrees));
+        return new Transform(new double[]{
+                1, 0, 0, 0,
+                0, c, -s, 0,
+                0, s, c, 0});
+    }
+
+    /**
+     * @return la rotation de {@code degrees} autour de l'axe Y
+     */
+    public static Transform rotationY(double degrees) {
+        double c = Math.cos(Math.toRadians(degrees));
+        double s = Math.sin(Math.toRadians(degrees));
+        return new Transform(new double[]{
+                c, 0, s, 0,
+                0, 1, 0, 0,
+                -s, 0, c, 0});
+    }
+
+    /**
+     * @return la rotation de {@code degrees} autour de l'axe Z
+     */
+    public static Transform rotationZ(double degrees) {
+        double c = Math.cos(Math.toRadians(degrees));
+        double s = Math.sin(Math.toRadians(degrees));
+        return new Transform(new double[]{
+                c, -s, 0, 0,
+                s, c, 0, 0,
+                0, 0, 1, 0});
+    }
+
+    /**
+     * @return la transformation qui applique celle-ci, puis {@code next}
+     */
+    public Transform then(Transform next) {
+        double[] a = next.m;
+        double[] b = m;
+        double[] r = new double[12];
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < 4; col++) {
+                double v = a[row * 4] * b[col] + a[row * 4 + 1] * b[4 + col] + a[row * 4 + 2] * b[8 + col];
+                if (col == 3) {
+                    v += a[row * 4 + 3];
+                }
+                r[row * 4 + col] = v;
+            }
+        }
+        return new Transform(r);
+    }
+
+    /**
+     * @return l'image du point
+     */
+    public Point apply(Point p) {
+        return new Point(
+                m[0] * p.x + m[1] * p.y + m[2] * p.z + m[3],
+                m[4] * p.x + m[5] * p.y + m[6] * p.z + m[7],
+                m[8] * p.x + m[9] * p.y + m[10] * p.z + m[11]);
+    }
+
+    /**
+     * @return l'image du vecteur (sans translation)
+     */
+    public Vector apply(Vector v) {
+        return new Vector(
+                m[0] * v.x + m[1] * v.y + m[2] * v.z,
+                m[4] * v.x + m[5] * v.y + m[6] * v.z,
+                m[8] * v.x + m[9] * v.y + m[10] * v.z);
+    }
+
+    /**
+     * @return l'antécédent du point
+     */
+    public Point applyInverse(Point p) {
+        return new Point(
+                inv[0] * p.x + inv[1] * p.y + inv[2] * p.z + inv[3],
+                inv[4] * p.x + inv[5] * p.y + inv[6] * p.z + inv[7],
+                inv[8] * p.x + inv[9] * p.y + inv[10] * p.z + inv[11]);
+    }
+
+    /**
+     * @return l'antécédent du vecteur (sans translation)
+     */
+    public Vector applyInverse(Vector v) {
+        return new Vector(
+                inv[0] * v.x + inv[1] * v.y + inv[2] * v.z,
+                inv[4] * v.x + inv[5] * v.y + inv[6] * v.z,
+                inv[8] * v.x + inv[9] * v.y + inv[10] * v.z);
+    }
+
+    /**
+     * Transforme une normale par la transposée de l'inverse, ce qui la garde
+     * perpendiculaire à la surface même sous une mise à l'échelle non uniforme.
+     *
+     * @return la normale transformée (non normalisée)
+     */
+    public Vector applyToNormal(Vector n) {
+        return new Vector(
+                inv[0] * n.x + inv[4] * n.y + inv[8] * n.z,
+                inv[1] * n.x + inv[5] * n.y + inv[9] * n.z,
+                inv[2] * n.x + inv[6] * n.y + inv[10] * n.z);
+    }
+
+    /**
+     * @return la boîte englobant l'image de {@code box} ({@link BoundingBox#INFINITE} si elle n'est pas finie)
+     */
+    public BoundingBox apply(BoundingBox box) {
+        if (!box.isFinite()) {
+            return BoundingBox.INFINITE;
+        }
+        Point[] corners = box.corners();
+        Point[] moved = new Point[corners.length - 1];
+        for (int i = 1; i < corners.length; i++) {
+            moved[i - 1] = apply(corners[i]);
+        }
+        return BoundingBox.of(apply(corners[0]), moved);
+    }
+
+    /**
+     * @return les 12 coefficients de la matrice directe, ligne par ligne
+     */
+    public double[] getMatrix() {
+        return m.clone();
+    }
+
+    private static double[] invert(double[] m) {
+        // Inverse de la partie linéaire par les cofacteurs
+        double a = m[0], b = m[1], c = m[2];
+        double d = m[4], e = m[5], f = m[6];
+        double g = m[8], h = m[9], i = m[10];
+
+        double c00 = e * i - f * h;
+        double c01 = f * g - d * i;
+        double c02 = d * h - e * g;
+        double det = a * c00 + b * c01 + c * c02;
+        if (Math.abs(det) < 1e-12) {
+            throw new IllegalArgumentException("transformation non inversible (déterminant " + det + ")");
+        }
+        double k = 1.0 / det;
+
+        double[] r = new double[12];
+        r[0] = c00 * k;
+        r[1] = (c * h - b * i) * k;
+        r[2] = (b * f - c * e) * k;
+        r[4] = c01 * k;
+        r[5] = (a * i - c * g) * k;
+        r[6] = (c * d - a * f) * k;
+        r[8] = c02 * k;
+        r[9] = (b * g - a * h) * k;
+        r[10] = (a * e - b * d) * k;
+
+        // Translation inverse : -L^-1 * t
+        for (int row = 0; row < 3; row++) {
+            r[row * 4 + 3] = -(r[row * 4] * m[3] + r[row * 4 + 1] * m[7] + r[row * 4 + 2] * m[11]);
+        }
+        return r;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Transform[[%.3f %.3f %.3f %.3f] [%.3f %.3f %.3f %.3f] [%.3f %.3f %.3f %.3f]]",
+                m[0], m[1], m[2], m[3], m[4], m[5], m[6], m[7], m[8], m[9], m[10], m[11]);
+    }
+}
@@ -0,0 +1,531 @@
+package fr.ninhache.raytracer.geometry.accel;
+
+import fr.ninhache.raytracer.geometry.BoundingBox;
+import fr.ninhache.raytracer.geometry.IShape;
+import fr.ninhache.raytracer.geometry.Intersection;
+import fr.ninhache.raytracer.geometry.Ray;
+import fr.ninhache.raytracer.math.Point;
+import fr.ninhache.raytracer.math.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static fr.ninhache.raytracer.math.Epsilon.EPS;
+
+/**
+ * Hiérarchie de volumes englobants (BVH) sur une liste de formes.
+ *
+ * <p>Les formes bornées sont rangées dans un arbre binaire de boîtes ; les formes
+ * non bornées ({@link BoundingBox#INFINITE}, comme les plans) sont testées à chaque
+ * rayon. Le résultat de {@link #intersect(Ray)} est celui d'un parcours linéaire de
+ * la liste : à distance égale, la forme déclarée la première l'emporte.
+ *
+ * <p>L'arbre est construit par l'heuristique des aires, par tri de codes de Morton
+ * pour les très grosses scènes, ou par l'heuristique des aires avec coupures spatiales
+ * (SBVH) pour les primitives longues et fines (cf. {@link BvhBuildMethod}). Une coupure
+ * spatiale range une forme à cheval sur le plan dans les deux enfants : les feuilles
+ * d'une SBVH peuvent donc référencer plusieurs fois la même forme, qu'un parcours peut
+ * tester plusieurs fois sans changer le résultat. {@link #getStats()} donne la durée de
+ * construction, le nombre de références et le coût SAH obtenu.
+ *
+ * <p>L'arbre construit est aplati en profondeur d'abord dans deux tableaux : six
+ * {@code float} de boîte par nœud, arrondis vers l'extérieur, et deux {@code int}
+ * (indice du second enfant, le premier suivant immédiatement son parent ; ou plage
+ * de primitives d'une feuille). Un parcours ne lit ainsi que des tableaux contigus et
+ * ne crée aucun objet : sa pile, de la profondeur de l'arbre, est réutilisée par thread.
+ * Par défaut l'arbre binaire est replié en arbre à quatre branches ({@link WideBvh},
+ * {@link BvhLayout#WIDE}) dont les quatre boîtes d'un nœud sont testées ensemble, en une
+ * passe {@code jdk.incubator.vector} si le module est chargé, sinon l'une après l'autre
+ * (cf. {@link QuadBoxTest}).
+ *
+ * <p>Une BVH est immuable et peut être parcourue par plusieurs threads.
+ */
+public final class Bvh {
+
+    /**
+     * Marge ajoutée aux boîtes : un point d'impact calculé sur le bord d'une forme
+     * plate (triangle, disque) ne doit pas tomber hors de sa boîte par arrondi.
+     */
+    static final double PADDING = 1e-7;
+
+    /** Formes des feuilles, dans l'ordre de l'arbre (une forme coupée par une SBVH y figure plusieurs fois). */
+    private final IShape[] shapes;
+    /** Rang de chaque forme de {@link #shapes} dans la liste d'origine. */
+    private final int[] ranks;
+    private final IShape[] unbounded;
+    private final int[] unboundedRanks;
+    /** {@code minX, minY, minZ, maxX, maxY, maxZ} de chaque nœud, en profondeur d'abord. */
+    private final float[] nodeBounds;
+    /**
+     * Deux entiers par nœud : indice du second enfant et 0 pour un nœud interne,
+     * première primitive et nombre de primitives pour une feuille.
+     */
+    private final int[] nodeLinks;
+    /** Arbre à quatre branches parcouru à la place de l'arbre binaire, ou null. */
+    private final WideBvh wide;
+    private final QuadBoxTest boxTest;
+    private final int nodeCount;
+    private final int primitiveCount;
+    private final BoundingBox bounds;
+    private final BvhStats stats;
+    /** État de parcours propre à chaque thread, dimensionné à la profondeur de l'arbre. */
+    private final ThreadLocal<Traversal> traversals;
+
+    private Bvh(IShape[] shapes, int primitiveCount, int[] ranks, IShape[] unbounded, int[] unboundedRanks,
+                BvhNode root, BoundingBox bounds, BvhBuildMethod method, BvhLayout layout, long buildNanos) {
+        this.shapes = shapes;
+        this.primitiveCount = primitiveCount;
+        this.ranks = ranks;
+        this.unbounded = unbounded;
+        this.unboundedRanks = unboundedRanks;
+        this.bounds = bounds;
+        this.nodeCount = root == null ? 0 : count(root);
+        int stackSize;
+        if (layout == BvhLayout.WIDE && root != null) {
+            this.wide = new WideBvh(root);
+            this.boxTest = QuadBoxTest.get();
+            this.nodeBounds = new float[0];
+            this.nodeLinks = new int[0];
+            // Chaque nœud dépilé empile au plus quatre enfants
+            stackSize = (WideBvh.WIDTH - 1) * wide.depth + 1;
+        } else {
+            this.wide = null;
+            this.boxTest = null;
+            this.nodeBounds = new float[6 * nodeCount];
+            this.nodeLinks = new int[2 * nodeCount];
+            int[] depth = new int[1];
+            if (root != null) {
+                flatten(root, 0, 1, depth);
+            }
+            stackSize = depth[0];
+        }
+        this.traversals = ThreadLocal.withInitial(() -> new Traversal(stackSize));
+        this.stats = new BvhStats(method, layout, wide != null && boxTest.simd(),
+                primitiveCount, shapes.length, nodeCount, buildNanos, sahCost(root));
+    }
+
+    /**
+     * Pile et tampons d'un parcours, réutilisés d'un rayon à l'autre par un même thread.
+     */
+    private static final class Traversal {
+        final int[] nodes;
+        /** {@code t} d'entrée dans chaque nœud empilé (parcours à quatre branches). */
+        final double[] entries;
+        final double[] laneEntries = new double[WideBvh.WIDTH];
+        final int[] laneOrder = new int[WideBvh.WIDTH];
+
+        Traversal(int size) {
+            this.nodes = new int[size];
+            this.entries = new double[size];
+        }
+    }
+
+    /**
+     * Construit la hiérarchie par l'heuristique des aires.
+     *
+     * @param shapes formes, dans leur ordre de déclaration
+     */
+    public static Bvh build(List<? extends IShape> shapes) {
+        return build(shapes, BvhBuildMethod.SAH);
+    }
+
+    /**
+     * Construit la hiérarchie, parcourue à quatre branches.
+     *
+     * @param shapes formes, dans leur ordre de déclaration
+     * @param method méthode de construction
+     */
+    public static Bvh build(List<? extends IShape> shapes, BvhBuildMethod method) {
+        return build(shapes, method, BvhLayout.WIDE);
+    }
+
+    /**
+     * Construit la hiérarchie.
+     *
+     * @param shapes formes, dans leur ordre de déclaration
+     * @param method méthode de construction
+     * @param layout forme de l'arbre parcouru
+     */
+    public static Bvh build(List<? extends IShape> shapes, BvhBuildMethod method, BvhLayout layout) {
+        long start = System.nanoTime();
+        List<BoundingBox> boxes = new ArrayList<>();
+        List<Integer> bounded = new ArrayList<>();
+        List<Integer> others = new ArrayList<>();
+        for (int i = 0; i < shapes.size(); i++) {
+            BoundingBox box = shapes.get(i).getBounds();
+            if (box.isFinite()) {
+                bounded.add(i);
+                boxes.add(box.expand(PADDING));
+            } else {
+                others.add(i);
+            }
+        }
+
+        IShape[] unbounded = new IShape[others.size()];
+        int[] unboundedRanks = new int[others.size()];
+        for (int i = 0; i < unbounded.length; i++) {
+            unboundedRanks[i] = others.get(i);
+            unbounded[i] = shapes.get(unboundedRanks[i]);
+        }
+
+        int primitives = bounded.size();
+        int[] order = new int[primitives];
+        for (int i = 0; i < primitives; i++) {
+            order[i] = i;
+        }
+        BoundingBox[] boxArray = boxes.toArray(new BoundingBox[0]);
+        BvhNode root;
+        if (primitives == 0) {
+            root = null;
+        } else if (method == BvhBuildMethod.LBVH) {
+            root = new LbvhBuilder(boxArray, order).build();
+        } else if (method == BvhBuildMethod.SBVH) {
+            IShape[] boundedShapes = new IShape[primitives];
+            for (int i = 0; i < primitives; i++) {
+                boundedShapes[i] = shapes.get(bounded.get(i));
+            }
+            SbvhBuilder builder = new SbvhBuilder(boxArray, boundedShapes, SbvhBuilder.DEFAULT_BUDGET);
+            root = builder.build();
+            order = builder.references();
+        } else {
+            root = new SahBvhBuilder(boxArray, order).build();
+        }
+
+        int n = order.length;
+
+        IShape[] sorted = new IShape[n];
+        int[] ranks = new int[n];
+        for (int i = 0; i < n; i++) {
+            ranks[i] = bounded.get(order[i]);
+            sorted[i] = shapes.get(ranks[i]);
+        }
+
+        BoundingBox bounds;
+        if (!others.isEmpty()) {
+            bounds = BoundingBox.INFINITE;
+        } else if (root == null) {
+            bounds = null;
+        } else {
+            bounds = new BoundingBox(new Point(root.minX, root.minY, root.minZ),
+                    new Point(root.maxX, root.maxY, root.maxZ));
+        }
+        return new Bvh(sorted, primitives, ranks, unbounded, unboundedRanks, root, bounds, method, layout,
+                System.nanoTime() - start);
+    }
+
+    /**
+     * @return la boîte de toutes les formes ({@link BoundingBox#INFINITE} si l'une
+     *         n'est pas bornée, null si la liste est vide)
+     */
+    public BoundingBox getBounds() {
+        return bounds;
+    }
+
+    /**
+     * @return le nombre de formes indexées
+     */
+    public int size() {
+        return primitiveCount + unbounded.length;
+    }
+
+    /**
+     * @return le nombre de nœuds de l'arbre
+     */
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * @return la méthode, la durée de construction et la qualité de l'arbre
+     */
+    public BvhStats getStats() {
+        return stats;
+    }
+
+    private static int count(BvhNode node) {
+        return node.isLeaf() ? 1 : 1 + count(node.left) + count(node.right);
+    }
+
+    /**
+     * Range {@code node} à l'indice {@code index} puis ses descendants à sa suite.
+     *
+     * @param depth profondeur de {@code node}, la racine étant à 1
+     * @param maxDepth profondeur maximale rencontrée, mise à jour
+     * @return l'indice qui suit le sous-arbre
+     */
+    private int flatten(BvhNode node, int index, int depth, int[] maxDepth) {
+        int b = 6 * index;
+        nodeBounds[b] = down(node.minX);
+        nodeBounds[b + 1] = down(node.minY);
+        nodeBounds[b + 2] = down(node.minZ);
+        nodeBounds[b + 3] = up(node.maxX);
+        nodeBounds[b + 4] = up(node.maxY);
+        nodeBounds[b + 5] = up(node.maxZ);
+        if (node.isLeaf()) {
+            nodeLinks[2 * index] = node.first;
+            nodeLinks[2 * index + 1] = node.count;
+            maxDepth[0] = Math.max(maxDepth[0], depth);
+            return index + 1;
+        }
+        int second = flatten(node.left, index + 1, depth + 1, maxDepth);
+        nodeLinks[2 * index] = second;
+        return flatten(node.right, second, depth + 1, maxDepth);
+    }
+
+    /** Plus grand {@code float} inférieur ou égal à {@code v}. */
+    static float down(double v) {
+        float f = (float) v;
+        return f > v ? Math.nextDown(f) : f;
+    }
+
+    /** Plus petit {@code float} supérieur ou égal à {@code v}. */
+    static float up(double v) {
+        float f = (float) v;
+        return f < v ? Math.nextUp(f) : f;
+    }
+
+    /**
+     * Coût SAH de l'arbre, coûts de traversée et d'intersection valant 1.
+     */
+    private static double sahCost(BvhNode root) {
+        if (root == null) {
+            return 0;
+        }
+        double rootArea = root.halfArea();
+        // Racine plate (primitives coplanaires alignées...) : coût relatif non défini
+        return rootArea > 0 ? sah(root) / rootArea : root.isLeaf() ? root.count : 1;
+    }
+
+    private static double sah(BvhNode node) {
+        if (node.isLeaf()) {
+            return node.halfArea() * node.count;
+        }
+        return node.halfArea() + sah(node.left) + sah(node.right);
+    }
+
+    /**
+     * Intersection la plus proche, d'abscisse strictement supérieure à {@code EPS}.
+     *
+     * @param ray le rayon
+     * @return l'intersection la plus proche, ou {@code Optional.empty()}
+     */
+    public Optional<Intersection> intersect(Ray ray) {
+        return intersect(ray, null);
+    }
+
+    /**
+     * Compte le travail de {@link #intersect(Ray)} sur une série de rayons, pour comparer
+     * des arbres entre eux.
+     *
+     * @return les nœuds visités et les formes testées, cumulés
+     */
+    public TraversalSteps measure(Iterable<Ray> rays) {
+        long[] steps = new long[2];
+        for (Ray ray : rays) {
+            intersect(ray, steps);
+        }
+        return new TraversalSteps(steps[0], steps[1]);
+    }
+
+    /**
+     * @param steps null, ou compteurs des nœuds visités et des formes testées
+     */
+    private Optional<Intersection> intersect(Ray ray, long[] steps) {
+        Intersection best = null;
+        double bestT = Double.POSITIVE_INFINITY;
+        int bestRank = Integer.MAX_VALUE;
+
+        for (int i = 0; i < unbounded.length; i++) {
+            Optional<Intersection> hit = unbounded[i].intersect(ray);
+            if (hit.isPresent()) {
+                double t = hit.get().t;
+                if (t > EPS && (t < bestT || (t == bestT && unboundedRanks[i] < bestRank))) {
+                    best = hit.get();
+                    bestT = t;
+                    bestRank = unboundedRanks[i];
+                }
+            }
+        }
+        if (nodeCount == 0) {
+            return Optional.ofNullable(best);
+        }
+
+        Point o = ray.getOrigin();
+        Vector d = ray.getDirection();
+        double ox = o.x, oy = o.y, oz = o.z;
+        double ix = 1.0 / d.x, iy = 1.0 / d.y, iz = 1.0 / d.z;
+        if (wide != null) {
+            return intersectWide(ray, ox, oy, oz, ix, iy, iz, best, bestT, bestRank, steps);
+        }
+
+        if (entry(0, ox, oy, oz, ix, iy, iz, bestT) == Double.POSITIVE_INFINITY) {
+            return Optional.ofNullable(best);
+        }
+        int[] stack = traversals.get().nodes;
+        int top = 0;
+        int node = 0;
+
+        while (true) {
+            int count = nodeLinks[2 * node + 1];
+            if (steps != null) {
+                steps[0]++;
+                steps[1] += count;
+            }
+            if (count > 0) {
+                int first = nodeLinks[2 * node];
+                for (int i = first; i < first + count; i++) {
+                    Optional<Intersection> hit = shapes[i].intersect(ray);
+                    if (hit.isPresent()) {
+                        double t = hit.get().t;
+                        if (t > EPS && (t < bestT || (t == bestT && ranks[i] < bestRank))) {
+                            best = hit.get();
+                            bestT = t;
+                            bestRank = ranks[i];
+                        }
+                    }
+                }
+            } else {
+                int left = node + 1;
+                int right = nodeLinks[2 * node];
+                double tl = entry(left, ox, oy, oz, ix, iy, iz, bestT);
+                double tr = entry(right, ox, oy, oz, ix, iy, iz, bestT);
+                // L'enfant le plus proche est visité d'abord, l'autre attend sur la pile
+                int near = tl <= tr ? left : right;
+                double tFar = tl <= tr ? tr : tl;
+                if (Math.min(tl, tr) != Double.POSITIVE_INFINITY) {
+                    if (tFar != Double.POSITIVE_INFINITY) {
+                        stack[top++] = near == left ? right : left;
+                    }
+                    node = near;
+                    continue;
+                }
+            }
+            if (top == 0) {
+                break;
+            }
+            node = stack[--top];
+        }
+        return Optional.ofNullable(best);
+    }
+
+    /**
+     * Parcours de {@link #wide}, le meilleur impact parmi les formes non bornées étant déjà connu.
+     */
+    private Optional<Intersection> intersectWide(Ray ray, double ox, double oy, double oz,
+                                                 double ix, double iy, double iz,
+                                                 Intersection best, double bestT, int bestRank, long[] steps) {
+        Traversal traversal = traversals.get();
+        int[] stack = traversal.nodes;
+        double[] entries = traversal.entries;
+        double[] tNear = traversal.laneEntries;
+        int[] order = traversal.laneOrder;
+        float[] boxes = wide.bounds;
+        int[] links = wide.links;
+
+        int top = 0;
+        stack[top] = 0;
+        entries[top++] = 0;
+        while (top > 0) {
+            top--;
+            if (entries[top] > bestT) {
+                // Impact trouvé depuis plus près que l'entrée dans ce nœud
+                continue;
+            }
+            int node = stack[top];
+            if (steps != null) {
+                steps[0]++;
+            }
+            int mask = boxTest.test(boxes, 24 * node, wide.lanes[node], ox, oy, oz, ix, iy, iz, bestT, tNear);
+
+            // Enfants touchés, du plus proche au plus lointain
+            int hits = 0;
+            while (mask != 0) {
+                int lane = Integer.numberOfTrailingZeros(mask);
+                mask &= mask - 1;
+                int k = hits++;
+                while (k > 0 && tNear[order[k - 1]] > tNear[lane]) {
+                    order[k] = order[k - 1];
+                    k--;
+                }
+                order[k] = lane;
+            }
+
+            int l = 8 * node;
+            for (int k = 0; k < hits; k++) {
+                int lane = order[k];
+                int count = links[l + 4 + lane];
+                if (count == 0 || tNear[lane] > bestT) {
+                    continue;
+                }
+                int first = links[l + lane];
+                if (steps != null) {
+                    steps[1] += count;
+                }
+                for (int i = first; i < first + count; i++) {
+                    Optional<Intersection> hit = shapes[i].intersect(ray);
+                    if (hit.isPresent()) {
+                        double t = hit.get().t;
+                        if (t > EPS && (t < bestT || (t == bestT && ranks[i] < bestRank))) {
+                            best = hit.get();
+                            bestT = t;
+                            bestRank = ranks[i];
+                        }
+                    }
+                }
+            }
+            // Le plus proche des nœuds internes est empilé en dernier pour être visité d'abord
+            for (int k = hits - 1; k >= 0; k--) {
+                int lane = order[k];
+                if (links[l + 4 + lane] == 0) {
+                    stack[top] = links[l + lane];
+                    entries[top++] = tNear[lane];
+                }
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    /**
+     * Test des dalles contre la boîte du nœud {@code node}.
+     *
+     * @return le {@code t} d'entrée dans la boîte, ou {@code +inf} si le segment
+     *         [0, tMax] ne la traverse pas
+     */
+    private double entry(int node, double ox, double oy, double oz,
+                         double ix, double iy, double iz, double tMax) {
+        int b = 6 * node;
+        double tMin = 0;
+        double t0 = (nodeBounds[b] - ox) * ix, t1 = (nodeBounds[b + 3] - ox) * ix;
+        if (t0 > t1) {
+            double tmp = t0;
+            t0 = t1;
+            t1 = tmp;
+        }
+        // Les NaN (0 * infini, rayon dans le plan d'une face) laissent l'intervalle inchangé
+        if (t0 > tMin) tMin = t0;
+        if (t1 < tMax) tMax = t1;
+
+        t0 = (nodeBounds[b + 1] - oy) * iy;
+        t1 = (nodeBounds[b + 4] - oy) * iy;
+        if (t0 > t1) {
+            double tmp = t0;
+            t0 = t1;
+            t1 = tmp;
+        }
+        if (t0 > tMin) tMin = t0;
+        if (t1 < tMax) tMax = t1;
+
+        t0 = (nodeBounds[b + 2] - oz) * iz;
+        t1 = (nodeBounds[b + 5] - oz) * iz;
+        if (t0 > t1) {
+            double tmp = t0;
+            t0 = t1;
+            t1 = tmp;
+        }
+        if (t0 > tMin) tMin = t0;
+        if (t1 < tMax) tMax = t1;
+
+        return tMin <= tMax ? tMin : Double.POSITIVE_INFINITY;
+    }
+}
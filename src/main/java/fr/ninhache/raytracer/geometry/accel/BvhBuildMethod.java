@@ -0,0 +1,33 @@
+package fr.ninhache.raytracer.geometry.accel;
+
+/**
+ * Méthode de construction d'une {@link Bvh}.
+ */
+public enum BvhBuildMethod {
+
+    /**
+     * Coupures choisies par l'heuristique des aires : arbre de meilleure qualité,
+     * construction plus lente. Méthode par défaut.
+     */
+    SAH,
+
+    /**
+     * BVH linéaire : primitives triées par code de Morton de leur centre, hiérarchie
+     * déduite des préfixes communs. Construction en temps quasi linéaire et parallèle,
+     * pour les très gros maillages ; parcours un peu plus coûteux.
+     */
+    LBVH,
+
+    /**
+     * Heuristique des aires avec coupures spatiales : une primitive qui chevauche
+     * beaucoup d'autres (grand triangle de fond) peut être coupée entre plusieurs
+     * feuilles, dans la limite d'un budget de copies. Construction la plus lente,
+     * parcours le plus court sur les scènes aux primitives longues et fines.
+     *
+     * <p>À choisir explicitement ({@code bvh sbvh}) pour ce type de géométrie : sur des
+     * objets compacts (sphères, petits triangles), aucune coupure spatiale n'est retenue
+     * et l'arbre n'est pas meilleur que celui de {@link #SAH}, pour une construction plus
+     * coûteuse.
+     */
+    SBVH
+}
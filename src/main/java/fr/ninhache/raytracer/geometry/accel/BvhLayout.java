@@ -0,0 +1,18 @@
+package fr.ninhache.raytracer.geometry.accel;
+
+/**
+ * Forme de l'arbre parcouru par une {@link Bvh}, une fois construit.
+ */
+public enum BvhLayout {
+
+    /** Arbre binaire : deux boîtes testées par nœud. */
+    BINARY,
+
+    /**
+     * Arbre à quatre branches replié depuis l'arbre binaire : les quatre boîtes d'un nœud
+     * sont testées en une passe vectorielle si {@code jdk.incubator.vector} est chargé,
+     * sinon par une boucle scalaire sur les quatre enfants. Moitié moins de niveaux à
+     * descendre. Forme par défaut.
+     */
+    WIDE
+}
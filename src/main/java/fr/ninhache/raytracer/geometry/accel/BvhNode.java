@@ -0,0 +1,56 @@
+package fr.ninhache.raytracer.geometry.accel;
+
+import fr.ninhache.raytracer.geometry.BoundingBox;
+
+/**
+ * Nœud d'une {@link Bvh} en construction : une boîte et soit deux enfants, soit une
+ * plage de primitives. L'arbre est aplati une fois construit.
+ */
+final class BvhNode {
+
+    final double minX, minY, minZ;
+    final double maxX, maxY, maxZ;
+
+    /** Enfants d'un nœud interne (null pour une feuille). */
+    BvhNode left, right;
+
+    /** Plage {@code [first, first + count)} des primitives d'une feuille (count = 0 pour un nœud interne). */
+    int first, count;
+
+    BvhNode(BoundingBox box) {
+        this(box.getMin().x, box.getMin().y, box.getMin().z, box.getMax().x, box.getMax().y, box.getMax().z);
+    }
+
+    BvhNode(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+    }
+
+    /**
+     * @return un nœud interne d'enfants {@code left} et {@code right}, de boîte leur union
+     */
+    static BvhNode parent(BvhNode left, BvhNode right) {
+        BvhNode node = new BvhNode(
+                Math.min(left.minX, right.minX), Math.min(left.minY, right.minY), Math.min(left.minZ, right.minZ),
+                Math.max(left.maxX, right.maxX), Math.max(left.maxY, right.maxY), Math.max(left.maxZ, right.maxZ));
+        node.left = left;
+        node.right = right;
+        return node;
+    }
+
+    boolean isLeaf() {
+        return count > 0;
+    }
+
+    /**
+     * @return la moitié de l'aire de la boîte (suffisant pour comparer des coûts SAH)
+     */
+    double halfArea() {
+        double dx = maxX - minX, dy = maxY - minY, dz = maxZ - minZ;
+        return dx * dy + dy * dz + dz * dx;
+    }
+}
@@ -0,0 +1,39 @@
+package fr.ninhache.raytracer.geometry.accel;
+
+/**
+ * Statistiques de construction d'une {@link Bvh}.
+ *
+ * @param method méthode de construction
+ * @param layout forme de l'arbre parcouru
+ * @param simd true si les boîtes de l'arbre à quatre branches sont testées par
+ *             {@code jdk.incubator.vector}
+ * @param primitives nombre de formes bornées rangées dans l'arbre
+ * @param references nombre de références dans les feuilles : {@code primitives} plus
+ *                   les copies des formes coupées par une {@link BvhBuildMethod#SBVH}
+ * @param nodes nombre de nœuds de l'arbre binaire construit (internes et feuilles)
+ * @param buildNanos durée de la construction
+ * @param sahCost coût SAH de l'arbre : somme, sur les nœuds, de leur aire rapportée à
+ *                celle de la racine, multipliée par le nombre de primitives pour une
+ *                feuille (plus petit = meilleur parcours)
+ */
+public record BvhStats(
+        BvhBuildMethod method,
+        BvhLayout layout,
+        boolean simd,
+        int primitives,
+        int references,
+        int nodes,
+        long buildNanos,
+        double sahCost
+) {
+
+    public double buildMillis() {
+        return buildNanos / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BvhStats[%s, %s%s, primitives=%d, references=%d, nodes=%d, build=%.2f ms, sah=%.2f]",
+                method, layout, simd ? " simd" : "", primitives, references, nodes, buildMillis(), sahCost);
+    }
+}
@@ -0,0 +1,239 @@
+package fr.ninhache.raytracer.geometry.accel;
+
+import fr.ninhache.raytracer.geometry.BoundingBox;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+/**
+ * Construction d'une {@link Bvh} linéaire (LBVH).
+ *
+ * <p>Le centre de chaque boîte est quantifié dans la boîte des centres, puis codé en
+ * Morton (bits des trois axes entrelacés) : trier les codes range les primitives le
+ * long d'une courbe en Z. Chaque nœud coupe ensuite sa plage au premier bit qui
+ * distingue ses codes, trouvé par dichotomie ; les deux moitiés sont construites en
+ * parallèle au-dessus de {@link #PARALLEL_THRESHOLD} primitives.
+ *
+ * <p>Codes sur 30 bits (10 par axe) jusqu'à {@link #WIDE_CODES_THRESHOLD} primitives,
+ * triés d'un seul {@link Arrays#parallelSort(long[])} avec l'indice dans les 32 bits
+ * bas ; au-delà, 63 bits (21 par axe) triés par base 256, pour que des millions de
+ * triangles ne partagent pas les mêmes cellules.
+ */
+final class LbvhBuilder {
+
+    /** Primitives au plus par feuille. */
+    static final int LEAF_SIZE = 4;
+
+    /** Taille de plage en dessous de laquelle les sous-arbres sont construits séquentiellement. */
+    static final int PARALLEL_THRESHOLD = 4096;
+
+    /** Nombre de primitives au-delà duquel les codes passent de 30 à 63 bits. */
+    static final int WIDE_CODES_THRESHOLD = 1 << 20;
+
+    private final BoundingBox[] boxes;
+    private final int[] order;
+    private final int bitsPerAxis;
+    private long[] codes;
+
+    /**
+     * @param boxes boîtes finies des primitives
+     * @param order permutation réordonnée sur place : les feuilles désignent des plages de {@code order}
+     */
+    LbvhBuilder(BoundingBox[] boxes, int[] order) {
+        this(boxes, order, boxes.length > WIDE_CODES_THRESHOLD ? 21 : 10);
+    }
+
+    /**
+     * @param bitsPerAxis 10 (codes sur 30 bits) ou 21 (codes sur 63 bits)
+     */
+    LbvhBuilder(BoundingBox[] boxes, int[] order, int bitsPerAxis) {
+        this.boxes = boxes;
+        this.order = order;
+        this.bitsPerAxis = bitsPerAxis;
+    }
+
+    BvhNode build() {
+        int n = boxes.length;
+        double[] centroids = new double[3 * n];
+        IntStream.range(0, n).parallel().forEach(i -> {
+            BoundingBox b = boxes[i];
+            centroids[3 * i] = (b.getMin().x + b.getMax().x) * 0.5;
+            centroids[3 * i + 1] = (b.getMin().y + b.getMax().y) * 0.5;
+            centroids[3 * i + 2] = (b.getMin().z + b.getMax().z) * 0.5;
+        });
+
+        double[] lo = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+        double[] hi = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (int i = 0; i < n; i++) {
+            for (int a = 0; a < 3; a++) {
+                lo[a] = Math.min(lo[a], centroids[3 * i + a]);
+                hi[a] = Math.max(hi[a], centroids[3 * i + a]);
+            }
+        }
+
+        long cells = (1L << bitsPerAxis) - 1;
+        double[] scale = new double[3];
+        for (int a = 0; a < 3; a++) {
+            scale[a] = hi[a] > lo[a] ? cells / (hi[a] - lo[a]) : 0;
+        }
+        long[] raw = new long[n];
+        IntStream.range(0, n).parallel().forEach(i -> raw[i] = morton(
+                (long) ((centroids[3 * i] - lo[0]) * scale[0]),
+                (long) ((centroids[3 * i + 1] - lo[1]) * scale[1]),
+                (long) ((centroids[3 * i + 2] - lo[2]) * scale[2])));
+
+        codes = new long[n];
+        if (bitsPerAxis <= 10) {
+            long[] keys = new long[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = raw[i] << 32 | i;
+            }
+            Arrays.parallelSort(keys);
+            for (int i = 0; i < n; i++) {
+                codes[i] = keys[i] >>> 32;
+                order[i] = (int) keys[i];
+            }
+        } else {
+            for (int i = 0; i < n; i++) {
+                order[i] = i;
+            }
+            System.arraycopy(raw, 0, codes, 0, n);
+            radixSort(codes, order);
+        }
+
+        return n > PARALLEL_THRESHOLD
+                ? ForkJoinPool.commonPool().invoke(new Subtree(0, n))
+                : build(0, n);
+    }
+
+    private BvhNode build(int start, int end) {
+        int split = split(start, end);
+        if (split < 0) {
+            return leaf(start, end);
+        }
+        return BvhNode.parent(build(start, split), build(split, end));
+    }
+
+    /**
+     * @return l'indice de coupure de {@code [start, end)}, ou -1 pour une feuille
+     */
+    private int split(int start, int end) {
+        if (end - start <= LEAF_SIZE) {
+            return -1;
+        }
+        long first = codes[start];
+        long last = codes[end - 1];
+        if (first == last) {
+            // Même cellule : coupure au milieu pour garder des feuilles petites
+            return (start + end) >>> 1;
+        }
+
+        // Premier code dont le bit le plus haut qui diffère vaut 1
+        int bit = 63 - Long.numberOfLeadingZeros(first ^ last);
+        int lo = start + 1, hi = end - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if ((codes[mid] >>> bit & 1L) == 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private BvhNode leaf(int start, int end) {
+        BoundingBox b = boxes[order[start]];
+        double minX = b.getMin().x, minY = b.getMin().y, minZ = b.getMin().z;
+        double maxX = b.getMax().x, maxY = b.getMax().y, maxZ = b.getMax().z;
+        for (int i = start + 1; i < end; i++) {
+            b = boxes[order[i]];
+            minX = Math.min(minX, b.getMin().x);
+            minY = Math.min(minY, b.getMin().y);
+            minZ = Math.min(minZ, b.getMin().z);
+            maxX = Math.max(maxX, b.getMax().x);
+            maxY = Math.max(maxY, b.getMax().y);
+            maxZ = Math.max(maxZ, b.getMax().z);
+        }
+        BvhNode node = new BvhNode(minX, minY, minZ, maxX, maxY, maxZ);
+        node.first = start;
+        node.count = end - start;
+        return node;
+    }
+
+    /**
+     * Construction parallèle d'un sous-arbre.
+     */
+    private final class Subtree extends RecursiveTask<BvhNode> {
+        private final int start;
+        private final int end;
+
+        Subtree(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected BvhNode compute() {
+            if (end - start <= PARALLEL_THRESHOLD) {
+                return build(start, end);
+            }
+            int split = split(start, end);
+            Subtree left = new Subtree(start, split);
+            left.fork();
+            BvhNode right = new Subtree(split, end).compute();
+            return BvhNode.parent(left.join(), right);
+        }
+    }
+
+    /**
+     * @return le code de Morton de la cellule (x, y, z), bits entrelacés x, y, z du plus fort au plus faible
+     */
+    static long morton(long x, long y, long z) {
+        return spread(x) << 2 | spread(y) << 1 | spread(z);
+    }
+
+    /**
+     * Écarte les 21 bits bas de {@code v} : le bit {@code i} passe en position {@code 3i}.
+     */
+    static long spread(long v) {
+        v &= 0x1fffffL;
+        v = (v | v << 32) & 0x1f00000000ffffL;
+        v = (v | v << 16) & 0x1f0000ff0000ffL;
+        v = (v | v << 8) & 0x100f00f00f00f00fL;
+        v = (v | v << 4) & 0x10c30c30c30c30c3L;
+        v = (v | v << 2) & 0x1249249249249249L;
+        return v;
+    }
+
+    /**
+     * Tri par base 256 (8 passes, stable) des codes positifs, {@code values} suivant ses clés.
+     */
+    static void radixSort(long[] keys, int[] values) {
+        int n = keys.length;
+        long[] keyTmp = new long[n];
+        int[] valueTmp = new int[n];
+        for (int shift = 0; shift < 64; shift += 8) {
+            int[] counts = new int[257];
+            for (long k : keys) {
+                counts[(int) (k >>> shift & 0xff) + 1]++;
+            }
+            if (counts[(int) (keys[0] >>> shift & 0xff) + 1] == n) {
+                // Octet identique partout : passe inutile
+                continue;
+            }
+            for (int i = 0; i < 256; i++) {
+                counts[i + 1] += counts[i];
+            }
+            for (int i = 0; i < n; i++) {
+                int dst = counts[(int) (keys[i] >>> shift & 0xff)]++;
+                keyTmp[dst] = keys[i];
+                valueTmp[dst] = values[i];
+            }
+            System.arraycopy(keyTmp, 0, keys, 0, n);
+            System.arraycopy(valueTmp, 0, values, 0, n);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package fr.ninhache.raytracer.geometry.accel;
+
+/**
+ * Test d'un rayon contre les quatre boîtes d'un nœud de {@link WideBvh}.
+ *
+ * <p>Les boîtes sont rangées par composante ({@code minX} des quatre enfants, puis
+ * {@code minY}...), 24 {@code float} par nœud. Les calculs se font en {@code double} :
+ * un rayon partant loin de l'origine garde ainsi la précision du test binaire.
+ *
+ * <p>{@link #get()} fournit l'implémentation vectorielle ({@code jdk.incubator.vector})
+ * si le module est chargé ({@code --add-modules jdk.incubator.vector}), sinon la
+ * boucle scalaire ; les deux donnent exactement les mêmes résultats.
+ */
+interface QuadBoxTest {
+
+    /** Propriété système qui, à {@code false}, force l'implémentation scalaire. */
+    String SIMD_PROPERTY = "raytracer.simd";
+
+    /**
+     * @param bounds boîtes des nœuds, 24 valeurs par nœud
+     * @param offset indice de la première valeur du nœud testé
+     * @param lanes nombre d'enfants du nœud (1 à 4)
+     * @param tMax borne du segment [0, tMax] testé
+     * @param tNear reçoit le {@code t} d'entrée dans chaque boîte touchée
+     * @return un masque dont le bit {@code i} indique que l'enfant {@code i} est touché
+     */
+    int test(float[] bounds, int offset, int lanes, double ox, double oy, double oz,
+             double ix, double iy, double iz, double tMax, double[] tNear);
+
+    /**
+     * @return true pour l'implémentation vectorielle
+     */
+    boolean simd();
+
+    /**
+     * @return l'implémentation la plus rapide disponible dans cette JVM
+     */
+    static QuadBoxTest get() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Choix paresseux : la classe vectorielle n'est chargée que si son module est présent.
+     * L'implémentation retenue est annoncée une fois, à la première BVH à quatre branches.
+     */
+    final class Holder {
+        static final QuadBoxTest INSTANCE = select();
+
+        private Holder() {
+        }
+
+        private static QuadBoxTest select() {
+            if (!Boolean.parseBoolean(System.getProperty(SIMD_PROPERTY, "true"))) {
+                return scalar("désactivé par -D" + SIMD_PROPERTY + "=false");
+            }
+            if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+                return scalar("lancer avec --add-modules jdk.incubator.vector");
+            }
+            try {
+                QuadBoxTest vector = (QuadBoxTest) Class
+                        .forName(QuadBoxTest.class.getPackageName() + ".VectorQuadBoxTest")
+                        .getDeclaredConstructor().newInstance();
+                System.out.println("BVH à quatre branches : test vectoriel des boîtes (jdk.incubator.vector)");
+                return vector;
+            } catch (ReflectiveOperationException | LinkageError e) {
+                return scalar("VectorQuadBoxTest indisponible : " + e);
+            }
+        }
+
+        private static QuadBoxTest scalar(String reason) {
+            System.out.println("BVH à quatre branches : test scalaire des boîtes (" + reason + ")");
+            return new Scalar();
+        }
+    }
+
+    /**
+     * Les quatre tests des dalles l'un après l'autre.
+     */
+    final class Scalar implements QuadBoxTest {
+
+        @Override
+        public int test(float[] bounds, int offset, int lanes, double ox, double oy, double oz,
+                        double ix, double iy, double iz, double tMax, double[] tNear) {
+            int mask = 0;
+            for (int lane = 0; lane < lanes; lane++) {
+                int b = offset + lane;
+                double near = 0, far = tMax;
+                double t0 = (bounds[b] - ox) * ix, t1 = (bounds[b + 12] - ox) * ix;
+                if (t1 < t0) {
+                    double tmp = t0;
+                    t0 = t1;
+                    t1 = tmp;
+                }
+                // Les NaN (0 * infini, rayon dans le plan d'une face) laissent l'intervalle inchangé
+                if (t0 > near) near = t0;
+                if (t1 < far) far = t1;
+
+                t0 = (bounds[b + 4] - oy) * iy;
+                t1 = (bounds[b + 16] - oy) * iy;
+                if (t1 < t0) {
+                    double tmp = t0;
+                    t0 = t1;
+                    t1 = tmp;
+                }
+                if (t0 > near) near = t0;
+                if (t1 < far) far = t1;
+
+                t0 = (bounds[b + 8] - oz) * iz;
+                t1 = (bounds[b + 20] - oz) * iz;
+                if (t1 < t0) {
+                    double tmp = t0;
+                    t0 = t1;
+                    t1 = tmp;
+                }
+                if (t0 > near) near = t0;
+                if (t1 < far) far = t1;
+
+                tNear[lane] = near;
+                if (near <= far) {
+                    mask |= 1 << lane;
+                }
+            }
+            return mask;
+        }
+
+        @Override
+        public boolean simd() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package fr.ninhache.raytracer.geometry.accel;
+
+import fr.ninhache.raytracer.geometry.BoundingBox;
+
+/**
+ * Construction descendante d'une {@link Bvh} guidée par l'heuristique des aires (SAH).
+ *
+ * <p>À chaque nœud, les centres des boîtes sont répartis en {@link #BINS} intervalles
+ * le long de l'axe le plus étendu ; la coupure retenue minimise
+ * {@code 1 + (aire(G) * n(G) + aire(D) * n(D)) / aire(parent)}. Le nœud reste une
+ * feuille si cette coupure ne coûte pas moins que de tester ses primitives.
+ */
+final class SahBvhBuilder {
+
+    /** Nombre d'intervalles testés par nœud. */
+    static final int BINS = 12;
+
+    /** Au-delà, une feuille est découpée même si la SAH ne le justifie pas. */
+    static final int MAX_LEAF_SIZE = 8;
+
+    private final BoundingBox[] boxes;
+    private final int[] order;
+    private final double[] centroids;
+
+    /**
+     * @param boxes boîtes finies des primitives
+     * @param order permutation réordonnée sur place : les feuilles désignent des plages de {@code order}
+     */
+    SahBvhBuilder(BoundingBox[] boxes, int[] order) {
+        this.boxes = boxes;
+        this.order = order;
+        this.centroids = new double[boxes.length * 3];
+        for (int i = 0; i < boxes.length; i++) {
+            BoundingBox b = boxes[i];
+            centroids[3 * i] = (b.getMin().x + b.getMax().x) * 0.5;
+            centroids[3 * i + 1] = (b.getMin().y + b.getMax().y) * 0.5;
+            centroids[3 * i + 2] = (b.getMin().z + b.getMax().z) * 0.5;
+        }
+    }
+
+    BvhNode build() {
+        return build(0, order.length);
+    }
+
+    private BvhNode build(int start, int end) {
+        BoundingBox bounds = boxes[order[start]];
+        double[] cmin = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+        double[] cmax = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (int i = start; i < end; i++) {
+            int p = order[i];
+            bounds = bounds.union(boxes[p]);
+            for (int a = 0; a < 3; a++) {
+                cmin[a] = Math.min(cmin[a], centroids[3 * p + a]);
+                cmax[a] = Math.max(cmax[a], centroids[3 * p + a]);
+            }
+        }
+        BvhNode node = new BvhNode(bounds);
+        int count = end - start;
+
+        int axis = 0;
+        for (int a = 1; a < 3; a++) {
+            if (cmax[a] - cmin[a] > cmax[axis] - cmin[axis]) {
+                axis = a;
+            }
+        }
+        double extent = cmax[axis] - cmin[axis];
+        if (count <= 2 || extent <= 0) {
+            // Peu de primitives, ou centres confondus : aucune coupure ne les sépare
+            return leaf(node, start, count);
+        }
+
+        int split = bestSplit(start, end, axis, cmin[axis], extent, node.halfArea());
+        if (split < 0) {
+            if (count <= MAX_LEAF_SIZE) {
+                return leaf(node, start, count);
+            }
+            split = BINS / 2;
+        }
+
+        int mid = partition(start, end, axis, cmin[axis], extent, split);
+        if (mid == start || mid == end) {
+            mid = (start + end) >>> 1;
+        }
+        node.left = build(start, mid);
+        node.right = build(mid, end);
+        return node;
+    }
+
+    /**
+     * @return la première case de droite de la meilleure coupure, ou -1 si rester une feuille coûte moins
+     */
+    private int bestSplit(int start, int end, int axis, double cmin, double extent, double parentArea) {
+        int[] counts = new int[BINS];
+        BoundingBox[] binBoxes = new BoundingBox[BINS];
+        for (int i = start; i < end; i++) {
+            int p = order[i];
+            int b = bin(p, axis, cmin, extent);
+            counts[b]++;
+            binBoxes[b] = binBoxes[b] == null ? boxes[p] : binBoxes[b].union(boxes[p]);
+        }
+
+        // Aires cumulées depuis la droite
+        double[] rightArea = new double[BINS];
+        int[] rightCount = new int[BINS];
+        BoundingBox acc = null;
+        int n = 0;
+        for (int b = BINS - 1; b > 0; b--) {
+            if (binBoxes[b] != null) {
+                acc = acc == null ? binBoxes[b] : acc.union(binBoxes[b]);
+            }
+            n += counts[b];
+            rightArea[b] = acc == null ? 0 : halfArea(acc);
+            rightCount[b] = n;
+        }
+
+        double leafCost = end - start;
+        double best = leafCost;
+        int bestBin = -1;
+        acc = null;
+        n = 0;
+        for (int b = 1; b < BINS; b++) {
+            if (binBoxes[b - 1] != null) {
+                acc = acc == null ? binBoxes[b - 1] : acc.union(binBoxes[b - 1]);
+            }
+            n += counts[b - 1];
+            if (n == 0 || rightCount[b] == 0) {
+                continue;
+            }
+            double cost = parentArea > 0
+                    ? 1 + (halfArea(acc) * n + rightArea[b] * rightCount[b]) / parentArea
+                    // Boîte plate sans aire : seul l'équilibre des effectifs compte
+                    : 1 + Math.max(n, rightCount[b]);
+            if (cost < best) {
+                best = cost;
+                bestBin = b;
+            }
+        }
+        return bestBin;
+    }
+
+    private int partition(int start, int end, int axis, double cmin, double extent, int split) {
+        int i = start, j = end - 1;
+        while (i <= j) {
+            if (bin(order[i], axis, cmin, extent) < split) {
+                i++;
+            } else {
+                int tmp = order[i];
+                order[i] = order[j];
+                order[j--] = tmp;
+            }
+        }
+        return i;
+    }
+
+    private int bin(int p, int axis, double cmin, double extent) {
+        int b = (int) ((centroids[3 * p + axis] - cmin) / extent * BINS);
+        return Math.min(b, BINS - 1);
+    }
+
+    private static BvhNode leaf(BvhNode node, int start, int count) {
+        node.first = start;
+        node.count = count;
+        return node;
+    }
+
+    private static double halfArea(BoundingBox b) {
+        double dx = b.getMax().x - b.getMin().x;
+        double dy = b.getMax().y - b.getMin().y;
+        double dz = b.getMax().z - b.getMin().z;
+        return dx * dy + dy * dz + dz * dx;
+    }
+}
@@ -0,0 +1,426 @@
+package fr.ninhache.raytracer.geometry.accel;
+
+import fr.ninhache.raytracer.geometry.BoundingBox;
+import fr.ninhache.raytracer.geometry.IShape;
+import fr.ninhache.raytracer.geometry.shape.Triangle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Construction d'une {@link Bvh} à coupures spatiales (SBVH).
+ *
+ * <p>Comme {@link SahBvhBuilder}, chaque nœud cherche la meilleure coupure par objets
+ * sur {@link #BINS} intervalles. Quand les deux moitiés ainsi obtenues se recouvrent
+ * notablement (un grand triangle de fond chevauche tout), une coupure spatiale est aussi
+ * évaluée : la boîte du nœud est découpée en tranches, chaque référence est rognée à
+ * chaque tranche qu'elle traverse (un triangle l'est exactement, une autre forme par sa
+ * boîte) et une référence à cheval sur le plan retenu va des deux côtés, avec la boîte de
+ * sa partie. Une primitive peut ainsi apparaître dans plusieurs feuilles.
+ *
+ * <p>Les copies sont plafonnées à {@code budget} fois le nombre de primitives : le
+ * budget épuisé, seules les coupures par objets restent possibles.
+ */
+final class SbvhBuilder {
+
+    /** Nombre d'intervalles (coupures par objets) et de tranches (coupures spatiales) par axe. */
+    static final int BINS = 12;
+
+    /** Au-delà, une feuille est découpée même si la SAH ne le justifie pas. */
+    static final int MAX_LEAF_SIZE = 8;
+
+    /** Références supplémentaires permises par défaut, en proportion des primitives. */
+    static final double DEFAULT_BUDGET = 0.3;
+
+    /**
+     * Recouvrement des deux moitiés d'une coupure par objets, rapporté à l'aire de la
+     * racine, à partir duquel une coupure spatiale est évaluée.
+     */
+    static final double OVERLAP_THRESHOLD = 1e-5;
+
+    /** Profondeur au-delà de laquelle les coupures spatiales ne sont plus tentées. */
+    private static final int MAX_SPATIAL_DEPTH = 48;
+
+    private final BoundingBox[] boxes;
+    /** Sommets des triangles (x, y, z par sommet), null pour les autres formes. */
+    private final double[][] vertices;
+    private int remaining;
+    private double rootArea;
+    private int[] references;
+    private int size;
+
+    /**
+     * @param boxes boîtes finies des primitives
+     * @param shapes primitives correspondantes (les triangles sont rognés exactement)
+     * @param budget copies permises, en proportion de {@code boxes.length}
+     */
+    SbvhBuilder(BoundingBox[] boxes, IShape[] shapes, double budget) {
+        this.boxes = boxes;
+        this.vertices = new double[boxes.length][];
+        for (int i = 0; i < shapes.length; i++) {
+            if (shapes[i] instanceof Triangle t) {
+                vertices[i] = new double[]{
+                        t.getV1().x, t.getV1().y, t.getV1().z,
+                        t.getV2().x, t.getV2().y, t.getV2().z,
+                        t.getV3().x, t.getV3().y, t.getV3().z};
+            }
+        }
+        this.remaining = (int) Math.min(Integer.MAX_VALUE / 2, (long) (boxes.length * budget));
+    }
+
+    /**
+     * @return la racine ; les feuilles désignent des plages de {@link #references()}
+     */
+    BvhNode build() {
+        List<Ref> refs = new ArrayList<>(boxes.length);
+        for (int i = 0; i < boxes.length; i++) {
+            BoundingBox b = boxes[i];
+            refs.add(new Ref(i, new double[]{
+                    b.getMin().x, b.getMin().y, b.getMin().z, b.getMax().x, b.getMax().y, b.getMax().z}));
+        }
+        references = new int[boxes.length + remaining];
+        double[] root = bounds(refs);
+        rootArea = halfArea(root);
+        return build(refs, root, 0);
+    }
+
+    /**
+     * @return l'indice de primitive de chaque référence, dans l'ordre des feuilles
+     */
+    int[] references() {
+        return Arrays.copyOf(references, size);
+    }
+
+    private BvhNode build(List<Ref> refs, double[] box, int depth) {
+        int count = refs.size();
+        BvhNode node = new BvhNode(box[0], box[1], box[2], box[3], box[4], box[5]);
+        if (count == 1) {
+            return leaf(node, refs);
+        }
+        double area = halfArea(box);
+
+        ObjectSplit object = objectSplit(refs);
+        SpatialSplit spatial = null;
+        if (remaining > 0 && depth < MAX_SPATIAL_DEPTH && rootArea > 0
+                && (object == null || object.overlap / rootArea > OVERLAP_THRESHOLD)) {
+            spatial = spatialSplit(refs, box);
+        }
+
+        double objectCost = object == null ? Double.POSITIVE_INFINITY
+                : 1 + object.cost / (area > 0 ? area : 1);
+        double spatialCost = spatial == null ? Double.POSITIVE_INFINITY
+                : 1 + spatial.cost / (area > 0 ? area : 1);
+
+        if (Math.min(objectCost, spatialCost) >= count && count <= MAX_LEAF_SIZE) {
+            return leaf(node, refs);
+        }
+
+        List<Ref> left = new ArrayList<>();
+        List<Ref> right = new ArrayList<>();
+        if (spatialCost < objectCost) {
+            splitSpatially(refs, spatial, left, right);
+        } else if (object != null) {
+            for (Ref ref : refs) {
+                (bin(ref.centroid(object.axis), object.lo, object.extent) < object.bin ? left : right).add(ref);
+            }
+        } else if (count <= MAX_LEAF_SIZE) {
+            return leaf(node, refs);
+        } else {
+            // Centres confondus et pas de coupure spatiale : deux moitiés arbitraires
+            left.addAll(refs.subList(0, count / 2));
+            right.addAll(refs.subList(count / 2, count));
+        }
+        refs.clear();
+        node.left = build(left, bounds(left), depth + 1);
+        node.right = build(right, bounds(right), depth + 1);
+        return node;
+    }
+
+    private BvhNode leaf(BvhNode node, List<Ref> refs) {
+        node.first = size;
+        node.count = refs.size();
+        for (Ref ref : refs) {
+            references[size++] = ref.primitive;
+        }
+        return node;
+    }
+
+    /**
+     * Coupure par objets : meilleur plan entre intervalles de centres, sur les trois axes.
+     *
+     * @return null si les centres sont confondus
+     */
+    private ObjectSplit objectSplit(List<Ref> refs) {
+        double[] cmin = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+        double[] cmax = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (Ref ref : refs) {
+            for (int a = 0; a < 3; a++) {
+                cmin[a] = Math.min(cmin[a], ref.centroid(a));
+                cmax[a] = Math.max(cmax[a], ref.centroid(a));
+            }
+        }
+
+        ObjectSplit best = null;
+        for (int axis = 0; axis < 3; axis++) {
+            double extent = cmax[axis] - cmin[axis];
+            if (extent <= 0) {
+                continue;
+            }
+            double[][] binBoxes = new double[BINS][];
+            int[] counts = new int[BINS];
+            for (Ref ref : refs) {
+                int b = bin(ref.centroid(axis), cmin[axis], extent);
+                counts[b]++;
+                binBoxes[b] = union(binBoxes[b], ref.box);
+            }
+
+            double[][] rightBoxes = new double[BINS][];
+            int[] rightCounts = new int[BINS];
+            double[] acc = null;
+            int n = 0;
+            for (int b = BINS - 1; b > 0; b--) {
+                acc = union(acc, binBoxes[b]);
+                n += counts[b];
+                rightBoxes[b] = acc == null ? null : acc.clone();
+                rightCounts[b] = n;
+            }
+            acc = null;
+            n = 0;
+            for (int p = 1; p < BINS; p++) {
+                acc = union(acc, binBoxes[p - 1]);
+                n += counts[p - 1];
+                if (n == 0 || rightCounts[p] == 0) {
+                    continue;
+                }
+                double cost = halfArea(acc) * n + halfArea(rightBoxes[p]) * rightCounts[p];
+                if (best == null || cost < best.cost) {
+                    best = new ObjectSplit(axis, p, cmin[axis], extent, cost,
+                            halfArea(intersection(acc, rightBoxes[p])));
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Coupure spatiale : meilleur plan entre tranches de la boîte du nœud, sur les trois axes.
+     *
+     * @return null si aucune coupure ne tient dans le budget
+     */
+    private SpatialSplit spatialSplit(List<Ref> refs, double[] box) {
+        SpatialSplit best = null;
+        for (int axis = 0; axis < 3; axis++) {
+            double lo = box[axis];
+            double extent = box[axis + 3] - lo;
+            if (extent <= 0) {
+                continue;
+            }
+            double width = extent / BINS;
+            double[][] binBoxes = new double[BINS][];
+            int[] entries = new int[BINS];
+            int[] exits = new int[BINS];
+            for (Ref ref : refs) {
+                int first = bin(ref.box[axis], lo, extent);
+                int last = bin(ref.box[axis + 3], lo, extent);
+                entries[first]++;
+                exits[last]++;
+                Ref piece = ref;
+                for (int b = first; b < last; b++) {
+                    Ref[] halves = split(piece, axis, lo + width * (b + 1));
+                    binBoxes[b] = union(binBoxes[b], halves[0].box);
+                    piece = halves[1];
+                }
+                binBoxes[last] = union(binBoxes[last], piece.box);
+            }
+
+            double[][] rightBoxes = new double[BINS][];
+            int[] rightCounts = new int[BINS];
+            double[] acc = null;
+            int n = 0;
+            for (int b = BINS - 1; b > 0; b--) {
+                acc = union(acc, binBoxes[b]);
+                n += exits[b];
+                rightBoxes[b] = acc == null ? null : acc.clone();
+                rightCounts[b] = n;
+            }
+            acc = null;
+            n = 0;
+            for (int p = 1; p < BINS; p++) {
+                acc = union(acc, binBoxes[p - 1]);
+                n += entries[p - 1];
+                int duplicates = n + rightCounts[p] - refs.size();
+                if (n == 0 || rightCounts[p] == 0 || duplicates > remaining
+                        || acc == null || rightBoxes[p] == null) {
+                    continue;
+                }
+                double cost = halfArea(acc) * n + halfArea(rightBoxes[p]) * rightCounts[p];
+                if (best == null || cost < best.cost) {
+                    best = new SpatialSplit(axis, p, lo, extent, lo + width * p, cost);
+                }
+            }
+        }
+        return best;
+    }
+
+    private void splitSpatially(List<Ref> refs, SpatialSplit split, List<Ref> left, List<Ref> right) {
+        int axis = split.axis;
+        for (Ref ref : refs) {
+            // Même répartition que lors de l'évaluation : par tranches de début et de fin
+            int first = bin(ref.box[axis], split.lo, split.extent);
+            int last = bin(ref.box[axis + 3], split.lo, split.extent);
+            if (last < split.bin) {
+                left.add(ref);
+            } else if (first >= split.bin) {
+                right.add(ref);
+            } else {
+                Ref[] halves = split(ref, axis, split.position);
+                left.add(halves[0]);
+                right.add(halves[1]);
+                remaining--;
+            }
+        }
+    }
+
+    /**
+     * Coupe une référence par le plan {@code axis = position}.
+     *
+     * @return ses parties gauche et droite, de boîtes contenues dans celle de {@code ref}
+     */
+    private Ref[] split(Ref ref, int axis, double position) {
+        double[] leftBox;
+        double[] rightBox;
+        double[] v = vertices[ref.primitive];
+        if (v == null) {
+            leftBox = ref.box.clone();
+            rightBox = ref.box.clone();
+        } else {
+            // Sommets de chaque côté et intersections des arêtes avec le plan
+            leftBox = null;
+            rightBox = null;
+            for (int i = 0; i < 3; i++) {
+                int j = (i + 1) % 3;
+                double a = v[3 * i + axis], b = v[3 * j + axis];
+                double[] p = {v[3 * i], v[3 * i + 1], v[3 * i + 2]};
+                if (a <= position) {
+                    leftBox = include(leftBox, p);
+                }
+                if (a >= position) {
+                    rightBox = include(rightBox, p);
+                }
+                if ((a < position && position < b) || (b < position && position < a)) {
+                    double t = (position - a) / (b - a);
+                    double[] q = new double[3];
+                    for (int c = 0; c < 3; c++) {
+                        q[c] = v[3 * i + c] + (v[3 * j + c] - v[3 * i + c]) * t;
+                    }
+                    q[axis] = position;
+                    leftBox = include(leftBox, q);
+                    rightBox = include(rightBox, q);
+                }
+            }
+            // Une référence déjà rognée ne déborde pas de sa boîte
+            leftBox = leftBox == null ? ref.box.clone() : intersection(leftBox, ref.box);
+            rightBox = rightBox == null ? ref.box.clone() : intersection(rightBox, ref.box);
+        }
+        leftBox[axis + 3] = Math.min(leftBox[axis + 3], position);
+        rightBox[axis] = Math.max(rightBox[axis], position);
+        return new Ref[]{new Ref(ref.primitive, pad(leftBox)), new Ref(ref.primitive, pad(rightBox))};
+    }
+
+    /**
+     * Élargit la boîte de {@link Bvh#PADDING} : un impact calculé sur le plan de coupure
+     * reste dans l'une des deux parties. Un axe vide par arrondi est ramené à un point.
+     */
+    private static double[] pad(double[] box) {
+        for (int a = 0; a < 3; a++) {
+            if (box[a] > box[a + 3]) {
+                box[a] = box[a + 3] = (box[a] + box[a + 3]) * 0.5;
+            }
+            box[a] -= Bvh.PADDING;
+            box[a + 3] += Bvh.PADDING;
+        }
+        return box;
+    }
+
+    private static int bin(double value, double lo, double extent) {
+        int b = (int) ((value - lo) / extent * BINS);
+        return Math.max(0, Math.min(BINS - 1, b));
+    }
+
+    private static double[] bounds(List<Ref> refs) {
+        double[] box = null;
+        for (Ref ref : refs) {
+            box = union(box, ref.box);
+        }
+        return box;
+    }
+
+    private static double[] union(double[] a, double[] b) {
+        if (a == null) {
+            return b == null ? null : b.clone();
+        }
+        if (b != null) {
+            for (int i = 0; i < 3; i++) {
+                a[i] = Math.min(a[i], b[i]);
+                a[i + 3] = Math.max(a[i + 3], b[i + 3]);
+            }
+        }
+        return a;
+    }
+
+    private static double[] include(double[] box, double[] p) {
+        if (box == null) {
+            return new double[]{p[0], p[1], p[2], p[0], p[1], p[2]};
+        }
+        for (int i = 0; i < 3; i++) {
+            box[i] = Math.min(box[i], p[i]);
+            box[i + 3] = Math.max(box[i + 3], p[i]);
+        }
+        return box;
+    }
+
+    /**
+     * @return l'intersection des boîtes, éventuellement vide (min &gt; max sur un axe)
+     */
+    private static double[] intersection(double[] a, double[] b) {
+        return new double[]{
+                Math.max(a[0], b[0]), Math.max(a[1], b[1]), Math.max(a[2], b[2]),
+                Math.min(a[3], b[3]), Math.min(a[4], b[4]), Math.min(a[5], b[5])};
+    }
+
+    /**
+     * @return la moitié de l'aire de la boîte, 0 si elle est vide
+     */
+    private static double halfArea(double[] box) {
+        double dx = box[3] - box[0], dy = box[4] - box[1], dz = box[5] - box[2];
+        if (dx < 0 || dy < 0 || dz < 0) {
+            return 0;
+        }
+        return dx * dy + dy * dz + dz * dx;
+    }
+
+    /**
+     * Une primitive et la boîte de la partie qui en revient à un nœud.
+     */
+    private static final class Ref {
+        final int primitive;
+        /** {@code minX, minY, minZ, maxX, maxY, maxZ}. */
+        final double[] box;
+
+        Ref(int primitive, double[] box) {
+            this.primitive = primitive;
+            this.box = box;
+        }
+
+        double centroid(int axis) {
+            return (box[axis] + box[axis + 3]) * 0.5;
+        }
+    }
+
+    private record ObjectSplit(int axis, int bin, double lo, double extent, double cost, double overlap) {
+    }
+
+    private record SpatialSplit(int axis, int bin, double lo, double extent, double position, double cost) {
+    }
+}
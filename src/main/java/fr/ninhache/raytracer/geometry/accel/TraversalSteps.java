@@ -0,0 +1,17 @@
+package fr.ninhache.raytracer.geometry.accel;
+
+/**
+ * Travail d'un parcours de {@link Bvh}, cumulé sur une série de rayons.
+ *
+ * @param nodes nœuds visités (dont la boîte, ou celles des enfants, a été testée)
+ * @param primitives formes dont l'intersection a été calculée
+ */
+public record TraversalSteps(long nodes, long primitives) {
+
+    /**
+     * @return le nombre total d'étapes : nœuds visités et formes testées
+     */
+    public long total() {
+        return nodes + primitives;
+    }
+}
@@ -0,0 +1,70 @@
+package fr.ninhache.raytracer.geometry.accel;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Test des quatre boîtes en une passe : chaque composante est lue en un
+ * {@link FloatVector} de 4 voies, élargie en {@link DoubleVector} de 4 voies.
+ *
+ * <p>Chargée par réflexion depuis {@link QuadBoxTest#get()} : ne référencer cette
+ * classe nulle part ailleurs, le module peut être absent.
+ */
+final class VectorQuadBoxTest implements QuadBoxTest {
+
+    private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_128;
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_256;
+
+    @Override
+    public int test(float[] bounds, int offset, int lanes, double ox, double oy, double oz,
+                    double ix, double iy, double iz, double tMax, double[] tNear) {
+        DoubleVector near = DoubleVector.zero(DOUBLES);
+        DoubleVector far = DoubleVector.broadcast(DOUBLES, tMax);
+        DoubleVector t0, t1, lo, hi;
+        VectorMask<Double> swap;
+
+        t0 = t(bounds, offset, ox, ix);
+        t1 = t(bounds, offset + 12, ox, ix);
+        swap = t1.lt(t0);
+        lo = t0.blend(t1, swap);
+        hi = t1.blend(t0, swap);
+        // Même règle que le test scalaire : une voie NaN laisse l'intervalle inchangé
+        near = near.blend(lo, lo.compare(VectorOperators.GT, near));
+        far = far.blend(hi, hi.lt(far));
+
+        t0 = t(bounds, offset + 4, oy, iy);
+        t1 = t(bounds, offset + 16, oy, iy);
+        swap = t1.lt(t0);
+        lo = t0.blend(t1, swap);
+        hi = t1.blend(t0, swap);
+        near = near.blend(lo, lo.compare(VectorOperators.GT, near));
+        far = far.blend(hi, hi.lt(far));
+
+        t0 = t(bounds, offset + 8, oz, iz);
+        t1 = t(bounds, offset + 20, oz, iz);
+        swap = t1.lt(t0);
+        lo = t0.blend(t1, swap);
+        hi = t1.blend(t0, swap);
+        near = near.blend(lo, lo.compare(VectorOperators.GT, near));
+        far = far.blend(hi, hi.lt(far));
+
+        near.intoArray(tNear, 0);
+        VectorMask<Double> hit = near.compare(VectorOperators.LE, far)
+                .and(DOUBLES.indexInRange(0, lanes));
+        return (int) hit.toLong();
+    }
+
+    private static DoubleVector t(float[] bounds, int offset, double o, double inv) {
+        DoubleVector plane = (DoubleVector) FloatVector.fromArray(FLOATS, bounds, offset)
+                .castShape(DOUBLES, 0);
+        return plane.sub(o).mul(inv);
+    }
+
+    @Override
+    public boolean simd() {
+        return true;
+    }
+}
@@ -0,0 +1,122 @@
+package fr.ninhache.raytracer.geometry.accel;
+
+import java.util.Arrays;
+
+/**
+ * Arbre à quatre branches obtenu en repliant un arbre binaire de {@link BvhNode}.
+ *
+ * <p>Chaque nœud garde jusqu'à quatre enfants : partant des deux enfants du nœud
+ * binaire, l'enfant interne de plus grande aire est remplacé par ses propres enfants
+ * tant qu'il reste de la place. Les nœuds sont rangés en profondeur d'abord :
+ * {@link #bounds} porte 24 {@code float} par nœud, arrondis vers l'extérieur et
+ * groupés par composante pour {@link QuadBoxTest} ; {@link #links} porte huit
+ * entiers par nœud, les quatre enfants puis le nombre de primitives de chacun.
+ * Un enfant interne y est l'indice de son nœud, une feuille l'indice de sa première
+ * primitive et un nombre non nul.
+ */
+final class WideBvh {
+
+    /** Nombre maximal d'enfants par nœud. */
+    static final int WIDTH = 4;
+
+    /** Boîtes des enfants : {@code minX[4], minY[4], minZ[4], maxX[4], maxY[4], maxZ[4]} par nœud. */
+    final float[] bounds;
+
+    /** Enfants puis nombres de primitives, huit entiers par nœud. */
+    final int[] links;
+
+    /** Nombre d'enfants de chaque nœud. */
+    final int[] lanes;
+
+    /** Profondeur de l'arbre, racine comprise. */
+    final int depth;
+
+    private int size;
+    private float[] growingBounds;
+    private int[] growingLinks;
+    private int[] growingLanes;
+
+    /**
+     * @param root racine de l'arbre binaire (une feuille donne un nœud à un seul enfant)
+     */
+    WideBvh(BvhNode root) {
+        int capacity = 16;
+        growingBounds = new float[24 * capacity];
+        growingLinks = new int[8 * capacity];
+        growingLanes = new int[capacity];
+        this.depth = collapse(root.isLeaf() ? new BvhNode[]{root} : new BvhNode[]{root.left, root.right}, 1);
+        this.bounds = Arrays.copyOf(growingBounds, 24 * size);
+        this.links = Arrays.copyOf(growingLinks, 8 * size);
+        this.lanes = Arrays.copyOf(growingLanes, size);
+        growingBounds = null;
+        growingLinks = null;
+        growingLanes = null;
+    }
+
+    /**
+     * @return le nombre de nœuds
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Range un nœud d'enfants {@code initial}, développés jusqu'à {@link #WIDTH}, puis ses descendants.
+     *
+     * @return la profondeur du sous-arbre rangé
+     */
+    private int collapse(BvhNode[] initial, int level) {
+        BvhNode[] children = Arrays.copyOf(initial, WIDTH);
+        int count = initial.length;
+        while (count < WIDTH) {
+            int widest = -1;
+            for (int i = 0; i < count; i++) {
+                if (!children[i].isLeaf() && (widest < 0 || children[i].halfArea() > children[widest].halfArea())) {
+                    widest = i;
+                }
+            }
+            if (widest < 0) {
+                break;
+            }
+            BvhNode opened = children[widest];
+            children[widest] = opened.left;
+            children[count++] = opened.right;
+        }
+
+        int index = allocate();
+        growingLanes[index] = count;
+        int b = 24 * index;
+        for (int lane = 0; lane < count; lane++) {
+            BvhNode child = children[lane];
+            growingBounds[b + lane] = Bvh.down(child.minX);
+            growingBounds[b + 4 + lane] = Bvh.down(child.minY);
+            growingBounds[b + 8 + lane] = Bvh.down(child.minZ);
+            growingBounds[b + 12 + lane] = Bvh.up(child.maxX);
+            growingBounds[b + 16 + lane] = Bvh.up(child.maxY);
+            growingBounds[b + 20 + lane] = Bvh.up(child.maxZ);
+        }
+
+        int depth = level;
+        for (int lane = 0; lane < count; lane++) {
+            BvhNode child = children[lane];
+            if (child.isLeaf()) {
+                growingLinks[8 * index + lane] = child.first;
+                growingLinks[8 * index + 4 + lane] = child.count;
+            } else {
+                growingLinks[8 * index + lane] = size;
+                depth = Math.max(depth, collapse(new BvhNode[]{child.left, child.right}, level + 1));
+            }
+        }
+        return depth;
+    }
+
+    private int allocate() {
+        if (size == growingLanes.length) {
+            int capacity = size * 2;
+            growingBounds = Arrays.copyOf(growingBounds, 24 * capacity);
+            growingLinks = Arrays.copyOf(growingLinks, 8 * capacity);
+            growingLanes = Arrays.copyOf(growingLanes, capacity);
+        }
+        return size++;
+    }
+}
@@ -1,5 +1,6 @@
 package fr.ninhache.raytracer.geometry.shape;
 
+import fr.ninhache.raytracer.geometry.BoundingBox;
 import fr.ninhache.raytracer.geometry.Intersection;
 import fr.ninhache.raytracer.geometry.Ray;
 import fr.ninhache.raytracer.math.Point;
@@ -99,6 +100,19 @@ public final class Disk extends AbstractShape {
         return Optional.of(new Intersection(t, hitPoint, finalNormal, this));
     }
 
+    /**
+     * Boîte exacte du disque : sur chaque axe, demi-étendue {@code radius * sqrt(1 - n²)}.
+     */
+    @Override
+    public BoundingBox getBounds() {
+        double ex = radius * Math.sqrt(Math.max(0.0, 1.0 - normal.x * normal.x));
+        double ey = radius * Math.sqrt(Math.max(0.0, 1.0 - normal.y * normal.y));
+        double ez = radius * Math.sqrt(Math.max(0.0, 1.0 - normal.z * normal.z));
+        return new BoundingBox(
+                new Point(center.x - ex, center.y - ey, center.z - ez),
+                new Point(center.x + ex, center.y + ey, center.z + ez));
+    }
+
     @Override
     public String describe() {
         return String.format("Disk[center=%s, normal=%s, radius=%.3f, material=%s]",
@@ -0,0 +1,72 @@
+package fr.ninhache.raytracer.geometry.shape;
+
+import fr.ninhache.raytracer.geometry.BoundingBox;
+import fr.ninhache.raytracer.geometry.Intersection;
+import fr.ninhache.raytracer.geometry.Ray;
+import fr.ninhache.raytracer.geometry.Transform;
+import fr.ninhache.raytracer.math.Point;
+import fr.ninhache.raytracer.math.Vector;
+
+import java.util.Optional;
+
+/**
+ * Copie placée d'un {@link ShapeGroup} : une référence au groupe et une transformation.
+ *
+ * <p>Le rayon est ramené dans le repère du groupe au moment du parcours, puis
+ * l'impact (point, normale, distance) est reporté dans la scène. L'intersection
+ * désigne la forme du groupe qui a été touchée : c'est son matériau qui est utilisé.
+ */
+public final class Instance extends AbstractShape {
+
+    private final ShapeGroup group;
+    private final Transform transform;
+    private final BoundingBox bounds;
+
+    /**
+     * @param group géométrie partagée
+     * @param transform passage du repère du groupe à celui de la scène
+     */
+    public Instance(ShapeGroup group, Transform transform) {
+        super();
+        if (group == null || transform == null) {
+            throw new IllegalArgumentException("group et transform ne peuvent pas être null");
+        }
+        this.group = group;
+        this.transform = transform;
+        this.bounds = transform.apply(group.getBounds());
+    }
+
+    public ShapeGroup getGroup() {
+        return group;
+    }
+
+    public Transform getTransform() {
+        return transform;
+    }
+
+    @Override
+    public BoundingBox getBounds() {
+        return bounds;
+    }
+
+    @Override
+    public String describe() {
+        return String.format("Instance[group=%s, %s]", group.getName(), transform);
+    }
+
+    @Override
+    public Optional<Intersection> intersect(Ray ray) {
+        Ray local = new Ray(transform.applyInverse(ray.getOrigin()), transform.applyInverse(ray.getDirection()));
+        Optional<Intersection> hit = group.intersect(local);
+        if (hit.isEmpty()) {
+            return hit;
+        }
+
+        Intersection h = hit.get();
+        Point point = transform.apply(h.point);
+        // Direction unitaire : la projection sur le rayon donne la distance dans la scène
+        double t = point.sub(ray.getOrigin()).dot(ray.getDirection());
+        Vector normal = transform.applyToNormal(h.normal);
+        return Optional.of(new Intersection(t, point, normal, h.shape));
+    }
+}
@@ -1,5 +1,6 @@
 package fr.ninhache.raytracer.geometry.shape;
 
+import fr.ninhache.raytracer.geometry.BoundingBox;
 import fr.ninhache.raytracer.geometry.Intersection;
 import fr.ninhache.raytracer.geometry.Ray;
 import fr.ninhache.raytracer.math.Point;
@@ -93,6 +94,14 @@ public final class Plane extends AbstractShape {
         return toPoint.dot(normal);
     }
 
+    /**
+     * Un plan n'est pas borné.
+     */
+    @Override
+    public BoundingBox getBounds() {
+        return BoundingBox.INFINITE;
+    }
+
     @Override
     public String describe() {
         return String.format("Plane[point=%s, normal=%s, material=%s]",
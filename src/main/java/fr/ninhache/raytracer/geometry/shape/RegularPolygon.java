@@ -1,21 +1,24 @@
 package fr.ninhache.raytracer.geometry.shape;
 
+import fr.ninhache.raytracer.geometry.BoundingBox;
 import fr.ninhache.raytracer.geometry.Intersection;
 import fr.ninhache.raytracer.geometry.Ray;
-import fr.ninhache.raytracer.math.Epsilon;
 import fr.ninhache.raytracer.math.Point;
 import fr.ninhache.raytracer.math.Vector;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import static fr.ninhache.raytracer.math.Epsilon.EPS;
+
 /**
- * Représente un polygone régulier (futur).
+ * Représente un polygone régulier.
  *
- * <p>Cette classe démontre l'extensibilité de la hiérarchie Shape.
- * Un polygone régulier peut être automatiquement décomposé en triangles.
+ * <p>L'intersection est calculée directement dans le repère local du polygone : un
+ * seul calcul d'impact avec son plan, puis un test du secteur angulaire touché contre
+ * l'apothème. Le coût ne dépend pas du nombre de côtés, comme pour un disque.
  *
- * <p><strong>Note</strong> : implémentation à compléter pour le raytracing.
+ * <p>La décomposition en triangles ({@link #getTriangles()}) reste disponible.
  */
 public final class RegularPolygon extends AbstractShape {
 
@@ -23,7 +26,16 @@ public final class RegularPolygon extends AbstractShape {
     private final double radius;
     private final int sides;
     private final Vector normal;
-    private final List<Triangle> triangles;
+    /** Repère du plan : le sommet {@code i} est à l'angle {@code i * 2pi / sides} depuis {@code u}. */
+    private final Vector u;
+    private final Vector v;
+    /** Distance du centre au milieu des côtés. */
+    private final double apothem;
+    private final double sectorAngle;
+    /** Direction du milieu du côté de chaque secteur, dans le repère (u, v). */
+    private final double[] edgeCos;
+    private final double[] edgeSin;
+    private final BoundingBox bounds;
 
     /**
      * Crée un polygone régulier.
@@ -44,25 +56,28 @@ public final class RegularPolygon extends AbstractShape {
         this.radius = radius;
         this.sides = sides;
         this.normal = normal.normalized();
-        this.triangles = generateTriangles();
+        this.u = findOrthogonal(this.normal).normalized();
+        this.v = this.normal.cross(u);
+        this.sectorAngle = 2 * Math.PI / sides;
+        this.apothem = radius * Math.cos(Math.PI / sides);
+        this.edgeCos = new double[sides];
+        this.edgeSin = new double[sides];
+        for (int i = 0; i < sides; i++) {
+            edgeCos[i] = Math.cos((i + 0.5) * sectorAngle);
+            edgeSin[i] = Math.sin((i + 0.5) * sectorAngle);
+        }
+
+        List<Point> vertices = vertices();
+        this.bounds = BoundingBox.of(vertices.get(0), vertices.subList(1, sides).toArray(new Point[0]));
     }
 
     /**
-     * Génère la décomposition en triangles.
+     * Calcule les sommets du polygone.
      */
-    private List<Triangle> generateTriangles() {
-        List<Triangle> result = new ArrayList<>();
-
-        // Calculer les sommets du polygone
+    private List<Point> vertices() {
         List<Point> vertices = new ArrayList<>();
-        double angleStep = 2 * Math.PI / sides;
-
-        // Créer un repère orthonormé dans le plan du polygone
-        Vector u = findOrthogonal(normal).normalized();
-        Vector v = normal.cross(u);
-
         for (int i = 0; i < sides; i++) {
-            double angle = i * angleStep;
+            double angle = i * sectorAngle;
             double x = Math.cos(angle) * radius;
             double y = Math.sin(angle) * radius;
 
@@ -72,6 +87,15 @@ public final class RegularPolygon extends AbstractShape {
                     .add(v.mul(y));
             vertices.add(vertex);
         }
+        return vertices;
+    }
+
+    /**
+     * Génère la décomposition en triangles.
+     */
+    private List<Triangle> generateTriangles() {
+        List<Triangle> result = new ArrayList<>();
+        List<Point> vertices = vertices();
 
         // Créer des triangles en éventail depuis le centre
         for (int i = 0; i < sides; i++) {
@@ -96,10 +120,15 @@ public final class RegularPolygon extends AbstractShape {
     }
 
     /**
-     * @return la liste des triangles constituant ce polygone
+     * @return la liste des triangles constituant ce polygone (calculée à chaque appel)
      */
     public List<Triangle> getTriangles() {
-        return new ArrayList<>(triangles);
+        return generateTriangles();
+    }
+
+    @Override
+    public BoundingBox getBounds() {
+        return bounds;
     }
 
     @Override
@@ -109,30 +138,46 @@ public final class RegularPolygon extends AbstractShape {
     }
 
     /**
-     * Calcule l'intersection avec le polygone régulier en testant ses triangles internes.
+     * Calcule l'intersection avec le plan du polygone, puis vérifie que le point est
+     * du bon côté du côté de son secteur angulaire.
      *
      * @param ray le rayon incident
      * @return la plus proche intersection positive, ou {@code Optional.empty()} si aucune
      */
     @Override
     public Optional<Intersection> intersect(Ray ray) {
-        Intersection bestHit = null;
-        double bestT = Double.POSITIVE_INFINITY;
-
-        for (Triangle tri : triangles) {
-            Optional<Intersection> hit = tri.intersect(ray);
-            if (hit.isPresent()) {
-                double t = hit.get().t;
-                if (t > Epsilon.EPS && t < bestT) {
-                    bestT = t;
-                    Intersection h = hit.get();
-
-                    // On remplace la forme par ce RegularPolygon pour l'étape de shading
-                    bestHit = new Intersection(t, h.point, h.normal, this);
-                }
-            }
+        Vector dir = ray.getDirection();
+        double denom = normal.dot(dir);
+        if (Math.abs(denom) < EPS) {
+            // Rayon quasi parallèle au plan
+            return Optional.empty();
+        }
+
+        Vector oc = center.sub(ray.getOrigin());
+        double t = oc.dot(normal) / denom;
+        if (t <= EPS) {
+            return Optional.empty();
+        }
+
+        Point hitPoint = ray.at(t);
+
+        // Coordonnées dans le plan, puis secteur compris entre les sommets k et k + 1
+        Vector p = hitPoint.sub(center);
+        double x = p.dot(u);
+        double y = p.dot(v);
+        double angle = Math.atan2(y, x);
+        if (angle < 0) {
+            angle += 2 * Math.PI;
+        }
+        int k = Math.min((int) (angle / sectorAngle), sides - 1);
+
+        // Projection sur la direction du milieu du côté : à l'intérieur jusqu'à l'apothème
+        if (x * edgeCos[k] + y * edgeSin[k] > apothem) {
+            return Optional.empty();
         }
 
-        return Optional.ofNullable(bestHit);
+        // Normale orientée pour être opposée à la direction du rayon
+        Vector hitNormal = denom > 0.0 ? normal.negate() : normal;
+        return Optional.of(new Intersection(t, hitPoint, hitNormal, this));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,84 @@
+package fr.ninhache.raytracer.geometry.shape;
+
+import fr.ninhache.raytracer.geometry.BoundingBox;
+import fr.ninhache.raytracer.geometry.IShape;
+import fr.ninhache.raytracer.geometry.Intersection;
+import fr.ninhache.raytracer.geometry.Ray;
+import fr.ninhache.raytracer.geometry.accel.Bvh;
+import fr.ninhache.raytracer.geometry.accel.BvhBuildMethod;
+import fr.ninhache.raytracer.geometry.accel.BvhLayout;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Géométrie partagée par plusieurs {@link Instance}s.
+ *
+ * <p>Les formes du groupe sont décrites dans leur repère local, avec leur matériau,
+ * et indexées une seule fois dans leur propre {@link Bvh}. Chaque instance ne porte
+ * qu'une référence au groupe et sa transformation : la mémoire occupée dépend du
+ * nombre de formes distinctes, pas du nombre de copies.
+ *
+ * <p>Un groupe est immuable une fois construit.
+ */
+public final class ShapeGroup {
+
+    private final String name;
+    private final List<IShape> shapes;
+    private final Bvh bvh;
+
+    /**
+     * @param name nom du groupe dans le fichier de scène
+     * @param shapes formes du groupe, dans le repère local (au moins une)
+     */
+    public ShapeGroup(String name, List<? extends IShape> shapes) {
+        this(name, shapes, BvhBuildMethod.SAH, BvhLayout.WIDE);
+    }
+
+    /**
+     * @param name nom du groupe dans le fichier de scène
+     * @param shapes formes du groupe, dans le repère local (au moins une)
+     * @param method construction de la BVH du groupe
+     * @param layout forme de la BVH du groupe
+     */
+    public ShapeGroup(String name, List<? extends IShape> shapes, BvhBuildMethod method, BvhLayout layout) {
+        if (shapes == null || shapes.isEmpty()) {
+            throw new IllegalArgumentException("le groupe " + name + " ne contient aucune forme");
+        }
+        this.name = name;
+        this.shapes = Collections.unmodifiableList(new ArrayList<>(shapes));
+        this.bvh = Bvh.build(this.shapes, method, layout);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return une liste immuable des formes du groupe
+     */
+    public List<IShape> getShapes() {
+        return shapes;
+    }
+
+    /**
+     * @return la boîte du groupe dans son repère local
+     */
+    public BoundingBox getBounds() {
+        return bvh.getBounds();
+    }
+
+    /**
+     * Intersection la plus proche, le rayon étant exprimé dans le repère du groupe.
+     */
+    Optional<Intersection> intersect(Ray localRay) {
+        return bvh.intersect(localRay);
+    }
+
+    @Override
+    public String toString() {
+        return "ShapeGroup[" + name + ", " + shapes.size() + " shapes]";
+    }
+}
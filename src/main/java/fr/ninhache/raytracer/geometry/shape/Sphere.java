@@ -1,5 +1,6 @@
 package fr.ninhache.raytracer.geometry.shape;
 
+import fr.ninhache.raytracer.geometry.BoundingBox;
 import fr.ninhache.raytracer.geometry.Intersection;
 import fr.ninhache.raytracer.geometry.Ray;
 import fr.ninhache.raytracer.math.Point;
@@ -70,6 +71,11 @@ public final class Sphere extends AbstractShape {
         return radius;
     }
 
+    @Override
+    public BoundingBox getBounds() {
+        return BoundingBox.around(center, radius);
+    }
+
     @Override
     public String describe() {
         return String.format("Sphere[center=%s, radius=%.3f, material=%s]",
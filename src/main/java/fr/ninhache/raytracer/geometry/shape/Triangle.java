@@ -1,5 +1,6 @@
 package fr.ninhache.raytracer.geometry.shape;
 
+import fr.ninhache.raytracer.geometry.BoundingBox;
 import fr.ninhache.raytracer.geometry.Intersection;
 import fr.ninhache.raytracer.geometry.Ray;
 import fr.ninhache.raytracer.math.Point;
@@ -130,6 +131,11 @@ public final class Triangle extends AbstractShape {
         return edge2;
     }
 
+    @Override
+    public BoundingBox getBounds() {
+        return BoundingBox.of(v1, v2, v3);
+    }
+
     @Override
     public String describe() {
         return String.format("Triangle[v1=%s, v2=%s, v3=%s, area=%.3f, material=%s]",
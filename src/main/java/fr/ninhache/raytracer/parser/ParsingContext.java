@@ -1,6 +1,9 @@
 package fr.ninhache.raytracer.parser;
 
 import fr.ninhache.raytracer.geometry.IShape;
+import fr.ninhache.raytracer.geometry.Transform;
+import fr.ninhache.raytracer.geometry.accel.BvhBuildMethod;
+import fr.ninhache.raytracer.geometry.accel.BvhLayout;
 import fr.ninhache.raytracer.lighting.ILight;
 import fr.ninhache.raytracer.math.Color;
 import fr.ninhache.raytracer.math.Point;
@@ -74,6 +77,26 @@ public class ParsingContext {
         this.sceneBuilder.addShape(shape);
     }
 
+    public void setBvhBuildMethod(BvhBuildMethod method) {
+        this.sceneBuilder.setBvhBuildMethod(method);
+    }
+
+    public void setBvhLayout(BvhLayout layout) {
+        this.sceneBuilder.setBvhLayout(layout);
+    }
+
+    public void beginGroup(String name) throws ParseException {
+        this.sceneBuilder.beginGroup(name);
+    }
+
+    public void endGroup() throws ParseException {
+        this.sceneBuilder.endGroup();
+    }
+
+    public void addInstance(String name, Transform transform) throws ParseException {
+        this.sceneBuilder.addInstance(name, transform);
+    }
+
 
     public Color getCurrentAmbient() {
         return currentAmbient;
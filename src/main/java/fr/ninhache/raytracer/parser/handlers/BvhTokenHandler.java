@@ -0,0 +1,51 @@
+package fr.ninhache.raytracer.parser.handlers;
+
+import fr.ninhache.raytracer.geometry.accel.BvhBuildMethod;
+import fr.ninhache.raytracer.geometry.accel.BvhLayout;
+import fr.ninhache.raytracer.parser.ParsingContext;
+import fr.ninhache.raytracer.parser.TokenHandler;
+import fr.ninhache.raytracer.parser.TokenProcessor;
+import fr.ninhache.raytracer.scene.exception.ParseException;
+
+import java.util.Locale;
+
+/**
+ * Handler pour la commande {@code bvh sah|lbvh|sbvh [binary|wide]}, qui choisit la
+ * construction et la forme de la BVH de la scène et des groupes déclarés après elle.
+ */
+@TokenHandler("bvh")
+public class BvhTokenHandler implements TokenProcessor {
+
+    @Override
+    public void process(String[] tokens, ParsingContext context) throws ParseException {
+        if (tokens.length != 2 && tokens.length != 3) {
+            throw new ParseException(
+                    "bvh nécessite 1 ou 2 paramètres : sah, lbvh ou sbvh, puis binary ou wide",
+                    context.getCurrentLineNumber(),
+                    String.join(" ", tokens)
+            );
+        }
+        try {
+            context.setBvhBuildMethod(BvhBuildMethod.valueOf(tokens[1].toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            throw new ParseException(
+                    "méthode de construction de BVH inconnue : " + tokens[1] + " (sah, lbvh ou sbvh)",
+                    context.getCurrentLineNumber(),
+                    String.join(" ", tokens),
+                    e
+            );
+        }
+        if (tokens.length == 3) {
+            try {
+                context.setBvhLayout(BvhLayout.valueOf(tokens[2].toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new ParseException(
+                        "forme de BVH inconnue : " + tokens[2] + " (binary ou wide)",
+                        context.getCurrentLineNumber(),
+                        String.join(" ", tokens),
+                        e
+                );
+            }
+        }
+    }
+}
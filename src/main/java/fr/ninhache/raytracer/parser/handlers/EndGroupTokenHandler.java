@@ -0,0 +1,25 @@
+package fr.ninhache.raytracer.parser.handlers;
+
+import fr.ninhache.raytracer.parser.ParsingContext;
+import fr.ninhache.raytracer.parser.TokenHandler;
+import fr.ninhache.raytracer.parser.TokenProcessor;
+import fr.ninhache.raytracer.scene.exception.ParseException;
+
+/**
+ * Handler pour la commande {@code endgroup}, qui termine le groupe ouvert par {@code group}.
+ */
+@TokenHandler("endgroup")
+public class EndGroupTokenHandler implements TokenProcessor {
+
+    @Override
+    public void process(String[] tokens, ParsingContext context) throws ParseException {
+        if (tokens.length != 1) {
+            throw new ParseException(
+                    "endgroup ne prend pas de paramètre",
+                    context.getCurrentLineNumber(),
+                    String.join(" ", tokens)
+            );
+        }
+        context.endGroup();
+    }
+}
@@ -0,0 +1,31 @@
+package fr.ninhache.raytracer.parser.handlers;
+
+import fr.ninhache.raytracer.parser.ParsingContext;
+import fr.ninhache.raytracer.parser.TokenHandler;
+import fr.ninhache.raytracer.parser.TokenProcessor;
+import fr.ninhache.raytracer.scene.exception.ParseException;
+
+/**
+ * Handler pour la commande {@code group}.
+ *
+ * <p>Format : {@code group nom}, puis les formes du groupe (dans son repère local,
+ * avec leurs matériaux), puis {@code endgroup}. Le groupe n'est pas rendu tel quel :
+ * il est placé par {@code instance}.
+ *
+ * <p>Exemple : {@code group rosace}
+ */
+@TokenHandler("group")
+public class GroupTokenHandler implements TokenProcessor {
+
+    @Override
+    public void process(String[] tokens, ParsingContext context) throws ParseException {
+        if (tokens.length != 2) {
+            throw new ParseException(
+                    "group nécessite 1 paramètre : nom",
+                    context.getCurrentLineNumber(),
+                    String.join(" ", tokens)
+            );
+        }
+        context.beginGroup(tokens[1]);
+    }
+}
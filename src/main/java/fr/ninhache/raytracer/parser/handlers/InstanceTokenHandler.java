@@ -0,0 +1,66 @@
+package fr.ninhache.raytracer.parser.handlers;
+
+import fr.ninhache.raytracer.geometry.Transform;
+import fr.ninhache.raytracer.parser.ParsingContext;
+import fr.ninhache.raytracer.parser.TokenHandler;
+import fr.ninhache.raytracer.parser.TokenProcessor;
+import fr.ninhache.raytracer.scene.exception.ParseException;
+
+/**
+ * Handler pour la commande {@code instance}.
+ *
+ * <p>Format : {@code instance nom tx ty tz [rx ry rz [échelle]]}
+ *
+ * <p>Le groupe est mis à l'échelle, tourné autour de X, puis Y, puis Z (en degrés),
+ * puis déplacé de (tx, ty, tz).
+ *
+ * <p>Exemple : {@code instance rosace -2 1.4 -5.9  0 0 0  0.57}
+ */
+@TokenHandler("instance")
+public class InstanceTokenHandler implements TokenProcessor {
+
+    @Override
+    public void process(String[] tokens, ParsingContext context) throws ParseException {
+        if (tokens.length != 5 && tokens.length != 8 && tokens.length != 9) {
+            throw new ParseException(
+                    "instance nécessite 4, 7 ou 8 paramètres : nom tx ty tz [rx ry rz [échelle]]",
+                    context.getCurrentLineNumber(),
+                    String.join(" ", tokens)
+            );
+        }
+
+        try {
+            Transform transform = Transform.IDENTITY;
+            if (tokens.length == 9) {
+                transform = Transform.scaling(Double.parseDouble(tokens[8]));
+            }
+            if (tokens.length >= 8) {
+                transform = transform
+                        .then(Transform.rotationX(Double.parseDouble(tokens[5])))
+                        .then(Transform.rotationY(Double.parseDouble(tokens[6])))
+                        .then(Transform.rotationZ(Double.parseDouble(tokens[7])));
+            }
+            transform = transform.then(Transform.translation(
+                    Double.parseDouble(tokens[2]),
+                    Double.parseDouble(tokens[3]),
+                    Double.parseDouble(tokens[4])));
+
+            context.addInstance(tokens[1], transform);
+
+        } catch (NumberFormatException e) {
+            throw new ParseException(
+                    "Les paramètres de instance doivent être des nombres (tx ty tz rx ry rz échelle)",
+                    context.getCurrentLineNumber(),
+                    String.join(" ", tokens),
+                    e
+            );
+        } catch (IllegalArgumentException e) {
+            throw new ParseException(
+                    "Paramètres de instance invalides : " + e.getMessage(),
+                    context.getCurrentLineNumber(),
+                    String.join(" ", tokens),
+                    e
+            );
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package fr.ninhache.raytracer.render;
+
+import fr.ninhache.raytracer.math.Color;
+
+/**
+ * Buffer d'image HDR : radiance RGB en virgule flottante, non bornée.
+ *
+ * <p>Les composantes sont stockées entrelacées dans un unique {@code float[]}
+ * ({@code r, g, b} par pixel, lignes de haut en bas), sans objet par pixel :
+ * 12 octets par pixel, directement exploitables par les écrivains de fichiers
+ * et le {@link ToneMapper}.
+ *
+ * Thread-safe tant que chaque thread écrit dans des pixels distincts.
+ */
+public final class FloatImageBuffer {
+
+    /** Composantes par pixel. */
+    public static final int CHANNELS = 3;
+
+    private final int width;
+    private final int height;
+    private final float[] rgb;
+
+    public FloatImageBuffer(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("dimensions invalides : " + width + "x" + height);
+        }
+        if ((long) width * height * CHANNELS > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("image trop grande pour un buffer HDR : " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.rgb = new float[width * height * CHANNELS];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return le tableau sous-jacent (partagé, pas de copie)
+     */
+    public float[] getData() {
+        return rgb;
+    }
+
+    /**
+     * @return l'indice de la composante rouge du pixel (x,y) dans {@link #getData()}
+     */
+    public int indexOf(int x, int y) {
+        return (y * width + x) * CHANNELS;
+    }
+
+    /** Écrit la radiance d'un pixel (aucun check de bounds pour la perf) */
+    public void set(int x, int y, float r, float g, float b) {
+        int i = indexOf(x, y);
+        rgb[i] = r;
+        rgb[i + 1] = g;
+        rgb[i + 2] = b;
+    }
+
+    /** Écrit la radiance d'un pixel depuis une couleur non clampée */
+    public void set(int x, int y, Color c) {
+        set(x, y, (float) c.r(), (float) c.g(), (float) c.b());
+    }
+
+    public float getR(int x, int y) {
+        return rgb[indexOf(x, y)];
+    }
+
+    public float getG(int x, int y) {
+        return rgb[indexOf(x, y) + 1];
+    }
+
+    public float getB(int x, int y) {
+        return rgb[indexOf(x, y) + 2];
+    }
+
+    /**
+     * Remplit un rectangle d'une radiance unie, tronqué aux bords de l'image.
+     */
+    public void fillRect(int x, int y, int w, int h, float r, float g, float b) {
+        int endX = Math.min(x + w, width);
+        int endY = Math.min(y + h, height);
+        for (int row = y; row < endY; row++) {
+            for (int col = x; col < endX; col++) {
+                set(col, row, r, g, b);
+            }
+        }
+    }
+
+    /**
+     * @return une copie indépendante du buffer
+     */
+    public FloatImageBuffer copy() {
+        FloatImageBuffer copy = new FloatImageBuffer(width, height);
+        System.arraycopy(rgb, 0, copy.rgb, 0, rgb.length);
+        return copy;
+    }
+}
@@ -0,0 +1,88 @@
+package fr.ninhache.raytracer.render;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Surface de pixels ARGB dans laquelle le renderer écrit les tuiles.
+ *
+ * <p>Deux implémentations :
+ * <ul>
+ *   <li>{@link ImageBuffer} : un tableau {@code int[]} en mémoire (images jusqu'à ~2 Gpixels)</li>
+ *   <li>{@link MappedTileBuffer} : tuiles stockées dans un fichier temporaire projeté en
+ *       mémoire, pour les très grandes images qui ne tiennent pas dans le heap</li>
+ * </ul>
+ *
+ * <p>Les implémentations sont thread-safe tant que chaque thread écrit dans des pixels distincts.
+ */
+public interface FrameBuffer extends AutoCloseable {
+
+    int getWidth();
+
+    int getHeight();
+
+    /** Lit un pixel (aucun check de bounds pour la perf) */
+    int getPixel(int x, int y);
+
+    /** Écrit un pixel (aucun check de bounds pour la perf) */
+    void setPixel(int x, int y, int argb);
+
+    /**
+     * Remplit un rectangle d'une couleur unie, tronqué aux bords de l'image.
+     */
+    default void fillRect(int x, int y, int w, int h, int argb) {
+        int endX = Math.min(x + w, getWidth());
+        int endY = Math.min(y + h, getHeight());
+        for (int row = y; row < endY; row++) {
+            for (int col = x; col < endX; col++) {
+                setPixel(col, row, argb);
+            }
+        }
+    }
+
+    /**
+     * Copie une ligne complète de l'image dans {@code dst}.
+     *
+     * <p>Point d'entrée des encodeurs qui parcourent l'image ligne par ligne
+     * sans jamais la matérialiser entièrement.
+     *
+     * @param y indice de la ligne
+     * @param dst tableau d'au moins {@link #getWidth()} éléments
+     */
+    default void getRow(int y, int[] dst) {
+        for (int x = 0; x < getWidth(); x++) {
+            dst[x] = getPixel(x, y);
+        }
+    }
+
+    /**
+     * @return une copie indépendante du buffer, de même nature (instantané)
+     */
+    FrameBuffer copy();
+
+    /**
+     * Convertit le buffer en BufferedImage AWT.
+     *
+     * @throws IllegalStateException si l'image est trop grande pour un BufferedImage
+     */
+    default BufferedImage toBufferedImage() {
+        int width = getWidth();
+        int height = getHeight();
+        if ((long) width * height > Integer.MAX_VALUE) {
+            throw new IllegalStateException("image trop grande pour un BufferedImage : " + width + "x" + height);
+        }
+        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            getRow(y, row);
+            img.setRGB(0, y, width, 1, row, 0, width);
+        }
+        return img;
+    }
+
+    /**
+     * Libère les ressources du buffer (fichier temporaire...). Sans effet par défaut.
+     */
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,26 @@
+package fr.ninhache.raytracer.render;
+
+/**
+ * Stockage des pixels d'un rendu.
+ */
+public enum FrameBufferMode {
+
+    /** Tableau en mémoire (heap), le plus rapide tant que l'image tient dans la JVM. */
+    HEAP,
+
+    /** Tuiles dans un fichier temporaire projeté en mémoire, hors heap. */
+    MAPPED;
+
+    /**
+     * @param width largeur de l'image
+     * @param height hauteur de l'image
+     * @param tileSize côté des tuiles du rendu (organisation du stockage hors mémoire)
+     * @return un nouveau framebuffer vierge
+     */
+    public FrameBuffer create(int width, int height, int tileSize) {
+        return switch (this) {
+            case HEAP -> new ImageBuffer(width, height);
+            case MAPPED -> MappedTileBuffer.create(width, height, tileSize);
+        };
+    }
+}
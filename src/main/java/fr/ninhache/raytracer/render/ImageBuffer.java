@@ -6,32 +6,78 @@ import java.awt.image.BufferedImage;
  * Buffer d'image simple basé sur un tableau d'entiers ARGB.
  *
  * Thread-safe tant que chaque thread écrit dans des pixels distincts.
+ * Limité à {@code Integer.MAX_VALUE} pixels : au-delà, utiliser {@link MappedTileBuffer}.
  */
-public final class ImageBuffer {
+public final class ImageBuffer implements FrameBuffer {
     private final int width;
     private final int height;
     private final int[] pixels;
 
     public ImageBuffer(int width, int height) {
+        if ((long) width * height > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("image trop grande pour un buffer en mémoire : " + width + "x" + height);
+        }
         this.width = width;
         this.height = height;
         this.pixels = new int[width * height];
     }
 
+    @Override
     public int getWidth() {
         return width;
     }
 
+    @Override
     public int getHeight() {
         return height;
     }
 
     /** Écrit un pixel (aucun check de bounds pour la perf) */
+    @Override
     public void setPixel(int x, int y, int argb) {
         pixels[y * width + x] = argb;
     }
 
+    /** Lit un pixel (aucun check de bounds pour la perf) */
+    @Override
+    public int getPixel(int x, int y) {
+        return pixels[y * width + x];
+    }
+
+    /**
+     * Remplit un rectangle d'une couleur unie, tronqué aux bords de l'image.
+     *
+     * <p>Utilisé par le rendu progressif pour agrandir les échantillons des passes grossières.
+     */
+    @Override
+    public void fillRect(int x, int y, int w, int h, int argb) {
+        int endX = Math.min(x + w, width);
+        int endY = Math.min(y + h, height);
+        for (int row = y; row < endY; row++) {
+            int offset = row * width;
+            for (int col = x; col < endX; col++) {
+                pixels[offset + col] = argb;
+            }
+        }
+    }
+
+    @Override
+    public void getRow(int y, int[] dst) {
+        System.arraycopy(pixels, y * width, dst, 0, width);
+    }
+
+    /**
+     * @return une copie indépendante du buffer (instantané)
+     */
+    @Override
+    public ImageBuffer copy() {
+        ImageBuffer copy = new ImageBuffer(width, height);
+        System.arraycopy(pixels, 0, copy.pixels, 0, pixels.length);
+        return copy;
+    }
+
     /** Convertit le buffer en BufferedImage AWT. */
+    @Override
     public BufferedImage toBufferedImage() {
         BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
         img.setRGB(0, 0, width, height, pixels, 0, width);
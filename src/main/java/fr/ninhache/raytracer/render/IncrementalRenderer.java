@@ -0,0 +1,351 @@
+package fr.ninhache.raytracer.render;
+
+import fr.ninhache.raytracer.geometry.BoundingBox;
+import fr.ninhache.raytracer.geometry.IShape;
+import fr.ninhache.raytracer.geometry.Intersection;
+import fr.ninhache.raytracer.geometry.Ray;
+import fr.ninhache.raytracer.lighting.ILight;
+import fr.ninhache.raytracer.lighting.PointLight;
+import fr.ninhache.raytracer.lighting.SpotLight;
+import fr.ninhache.raytracer.math.Color;
+import fr.ninhache.raytracer.math.Point;
+import fr.ninhache.raytracer.math.Vector;
+import fr.ninhache.raytracer.render.cache.SceneHasher;
+import fr.ninhache.raytracer.render.executor.RenderExecutor;
+import fr.ninhache.raytracer.render.stats.RayStats;
+import fr.ninhache.raytracer.scene.Camera;
+import fr.ninhache.raytracer.scene.Scene;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static fr.ninhache.raytracer.math.Epsilon.EPS;
+
+/**
+ * Rendu incrémental après l'édition d'une scène.
+ *
+ * <p>Les formes des deux scènes sont appariées par contenu (géométrie et matériau) :
+ * seules les formes ajoutées, supprimées ou modifiées comptent, avec leur boîte
+ * englobante avant et après l'édition. Une tuile est recalculée si un de ses pixels
+ * peut voir une de ces boîtes :
+ * <ul>
+ *   <li>directement : la projection des boîtes à l'écran marque d'emblée les tuiles couvertes ;</li>
+ *   <li>par une ombre : un rayon d'ombre du point vu traverse une boîte ;</li>
+ *   <li>par une réflexion : le rayon réfléchi traverse une boîte, ou le point qu'il
+ *       atteint est lui-même concerné (récursivement jusqu'à la profondeur maximale).</li>
+ * </ul>
+ * Pour les autres tuiles, seuls les rayons primaires et réfléchis sont intersectés
+ * avec la scène (sans ombrage) ; leurs pixels sont repris de l'image précédente.
+ * L'image obtenue est identique à un rendu complet de la nouvelle scène.
+ *
+ * <p>Un changement global (taille, caméra, lumières, profondeur, forme non bornée
+ * comme un plan) ou des options hors de portée (anti-aliasing, dont le lissage dépend
+ * des tuiles voisines, rendu progressif, budget de temps, reprise) provoquent un
+ * rendu complet.
+ */
+public final class IncrementalRenderer {
+
+    private final Renderer renderer = new Renderer();
+    private final RayTracer rayTracer = new RayTracer();
+
+    /**
+     * Rend {@code scene} en réutilisant l'image de {@code previousScene}.
+     *
+     * @param previousScene scène de l'image précédente (null = rendu complet)
+     * @param previous résultat du rendu de {@code previousScene} (non modifié)
+     * @param scene scène éditée
+     * @param options options du rendu (mêmes réglages d'image que le rendu précédent)
+     * @return un nouveau résultat ; {@link RenderStats#completedTiles()} compte les
+     *         tuiles reprises comme terminées, les rayons ne comptent que les tuiles recalculées
+     */
+    public RenderResult render(Scene previousScene, RenderResult previous, Scene scene, RenderOptions options) {
+        if (!reusable(previousScene, previous, scene, options)) {
+            return renderer.render(scene, options);
+        }
+        List<BoundingBox> changed = changedBounds(previousScene, scene);
+        if (changed == null) {
+            return renderer.render(scene, options);
+        }
+
+        RenderExecutor executor = options.createExecutor();
+        List<Tile> tiles = Tile.split(scene.getWidth(), scene.getHeight(), options.getTileSize());
+        RayStats rayStats = new RayStats();
+        RenderHandle handle = Renderer.newHandle(options);
+        long start = System.nanoTime();
+
+        FrameBuffer buffer = previous.frame().copy();
+        FloatImageBuffer radiance = options.isHdr() ? previous.radiance().copy() : null;
+        TileBandStreamer streamer = Renderer.openStreamer(buffer, options);
+        TileRenderer tileRenderer = new TileRenderer(scene, rayTracer, buffer, radiance, rayStats, handle)
+                .withStreamer(streamer);
+
+        int reused = 0;
+        try {
+            boolean[] dirty = dirtyTiles(executor, scene, tiles, changed);
+            List<Tile> toRender = new ArrayList<>();
+            for (int i = 0; i < tiles.size(); i++) {
+                if (dirty[i]) {
+                    toRender.add(tiles.get(i));
+                } else {
+                    reused++;
+                    if (streamer != null) {
+                        streamer.tileFinished(tiles.get(i));
+                    }
+                }
+            }
+            if (!toRender.isEmpty()) {
+                executor.execute(toRender, tileRenderer::render);
+            }
+        } catch (InterruptedException e) {
+            handle.cancel();
+            Thread.currentThread().interrupt();
+        } finally {
+            if (streamer != null) {
+                streamer.close();
+            }
+        }
+        long end = System.nanoTime();
+
+        int completedTiles = reused + tileRenderer.completedTiles();
+        RenderStatus status;
+        if (completedTiles == tiles.size()) {
+            status = RenderStatus.COMPLETED;
+        } else if (handle.isCancelled()) {
+            status = RenderStatus.CANCELLED;
+        } else {
+            status = RenderStatus.DEADLINE_EXCEEDED;
+        }
+
+        RenderStats stats = new RenderStats(
+                scene.getWidth(),
+                scene.getHeight(),
+                executor.parallelism(),
+                executor.parallelism() > 1,
+                executor.name(),
+                tiles.size(),
+                completedTiles,
+                scene.getMaxDepth(),
+                start,
+                end,
+                rayStats.primaryRays(),
+                rayStats.shadowRays(),
+                rayStats.reflectionRays(),
+                rayStats.antiAliasingRays(),
+                streamer != null ? streamer.stats() : null,
+                scene.getBvhStats()
+        );
+        return new RenderResult(buffer, stats, status, radiance);
+    }
+
+    /**
+     * Tuiles à recalculer après le passage de {@code previousScene} à {@code scene}.
+     *
+     * @return les tuiles concernées, dans l'ordre de {@link Tile#split(int, int, int)} ;
+     *         toutes les tuiles si le changement est global
+     */
+    public List<Tile> dirtyTiles(Scene previousScene, Scene scene, RenderOptions options) throws InterruptedException {
+        List<Tile> tiles = Tile.split(scene.getWidth(), scene.getHeight(), options.getTileSize());
+        List<BoundingBox> changed = sameFrame(previousScene, scene) ? changedBounds(previousScene, scene) : null;
+        if (changed == null) {
+            return tiles;
+        }
+        boolean[] dirty = dirtyTiles(options.createExecutor(), scene, tiles, changed);
+        List<Tile> result = new ArrayList<>();
+        for (int i = 0; i < tiles.size(); i++) {
+            if (dirty[i]) {
+                result.add(tiles.get(i));
+            }
+        }
+        return result;
+    }
+
+    private static boolean reusable(Scene previousScene, RenderResult previous, Scene scene, RenderOptions options) {
+        if (previousScene == null || previous == null || !previous.isComplete() || !sameFrame(previousScene, scene)) {
+            return false;
+        }
+        if (options.isAntiAliased() || options.isProgressive() || options.getTimeBudget() != null
+                || options.isCheckpointed()) {
+            return false;
+        }
+        FrameBuffer frame = previous.frame();
+        return frame.getWidth() == scene.getWidth() && frame.getHeight() == scene.getHeight()
+                && (!options.isHdr() || previous.radiance() != null);
+    }
+
+    private static boolean sameFrame(Scene previousScene, Scene scene) {
+        return previousScene.getWidth() == scene.getWidth() && previousScene.getHeight() == scene.getHeight();
+    }
+
+    /**
+     * Boîtes des formes ajoutées, supprimées ou modifiées (ancienne et nouvelle boîte
+     * pour une forme déplacée).
+     *
+     * @return les boîtes, ou null si le changement concerne toute l'image
+     */
+    static List<BoundingBox> changedBounds(Scene before, Scene after) {
+        if (!SceneHasher.hashSettings(before).equals(SceneHasher.hashSettings(after))) {
+            return null;
+        }
+
+        Map<String, ArrayDeque<IShape>> unmatched = new HashMap<>();
+        for (IShape shape : before.getShapes()) {
+            unmatched.computeIfAbsent(SceneHasher.hash(shape), k -> new ArrayDeque<>()).add(shape);
+        }
+
+        List<BoundingBox> changed = new ArrayList<>();
+        for (IShape shape : after.getShapes()) {
+            ArrayDeque<IShape> same = unmatched.get(SceneHasher.hash(shape));
+            if (same != null && !same.isEmpty()) {
+                same.poll();
+            } else {
+                changed.add(shape.getBounds());
+            }
+        }
+        for (ArrayDeque<IShape> removed : unmatched.values()) {
+            for (IShape shape : removed) {
+                changed.add(shape.getBounds());
+            }
+        }
+
+        List<BoundingBox> padded = new ArrayList<>(changed.size());
+        for (BoundingBox box : changed) {
+            if (!box.isFinite()) {
+                return null;
+            }
+            // Marge pour les décalages EPS des rayons d'ombre et de réflexion
+            padded.add(box.expand(10 * EPS));
+        }
+        return padded;
+    }
+
+    private boolean[] dirtyTiles(RenderExecutor executor, Scene scene, List<Tile> tiles,
+                                 List<BoundingBox> changed) throws InterruptedException {
+        boolean[] dirty = new boolean[tiles.size()];
+        if (changed.isEmpty()) {
+            return dirty;
+        }
+
+        int tileSize = tiles.get(0).width();
+        int tilesX = (scene.getWidth() + tileSize - 1) / tileSize;
+        for (BoundingBox box : changed) {
+            int[] rect = project(scene, box);
+            if (rect == null) {
+                continue;
+            }
+            for (int ty = rect[1] / tileSize; ty <= rect[3] / tileSize; ty++) {
+                for (int tx = rect[0] / tileSize; tx <= rect[2] / tileSize; tx++) {
+                    dirty[ty * tilesX + tx] = true;
+                }
+            }
+        }
+
+        List<Tile> toScan = new ArrayList<>();
+        for (int i = 0; i < tiles.size(); i++) {
+            if (!dirty[i]) {
+                toScan.add(tiles.get(i));
+            }
+        }
+        // Chaque tâche n'écrit que la case de sa tuile ; execute() attend la fin de toutes
+        executor.execute(toScan, tile -> dirty[(tile.y() / tileSize) * tilesX + tile.x() / tileSize]
+                = affected(scene, tile, changed));
+        return dirty;
+    }
+
+    /**
+     * Rectangle de pixels {@code [x0, y0, x1, y1]} (bornes incluses, limité à l'image)
+     * couvrant la projection de la boîte, ou null si elle est hors champ ou si un de
+     * ses sommets est derrière la caméra (les pixels sont alors testés un à un).
+     */
+    static int[] project(Scene scene, BoundingBox box) {
+        Camera cam = scene.getCamera();
+        int width = scene.getWidth();
+        int height = scene.getHeight();
+        double viewH = 2.0 * Math.tan(cam.getFovRadians() / 2.0);
+        double viewW = viewH * width / height;
+
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (Point corner : box.corners()) {
+            Vector d = corner.sub(cam.getLookFrom());
+            double depth = -d.dot(cam.getW());
+            if (depth <= EPS) {
+                return null;
+            }
+            // Inverse de RayTracer.primaryRay : plan image à distance 1
+            double px = (d.dot(cam.getU()) / depth + viewW * 0.5) * width / viewW;
+            double py = (viewH * 0.5 - d.dot(cam.getV()) / depth) * height / viewH;
+            minX = Math.min(minX, px);
+            minY = Math.min(minY, py);
+            maxX = Math.max(maxX, px);
+            maxY = Math.max(maxY, py);
+        }
+
+        int x0 = (int) Math.max(0, Math.floor(minX) - 1);
+        int y0 = (int) Math.max(0, Math.floor(minY) - 1);
+        int x1 = (int) Math.min(width - 1, Math.ceil(maxX) + 1);
+        int y1 = (int) Math.min(height - 1, Math.ceil(maxY) + 1);
+        if (x0 > x1 || y0 > y1) {
+            return null;
+        }
+        return new int[]{x0, y0, x1, y1};
+    }
+
+    private boolean affected(Scene scene, Tile tile, List<BoundingBox> changed) {
+        for (int j = tile.y(); j < tile.endY(); j++) {
+            for (int i = tile.x(); i < tile.endX(); i++) {
+                if (affected(scene, rayTracer.primaryRay(scene, i + 0.5, j + 0.5), 1, changed)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Le rayon (et ce qu'il éclaire, cf. {@code RayTracer.traceRay}) peut-il dépendre
+     * d'une forme modifiée ? Réponse conservatrice : boîtes plutôt que formes exactes.
+     */
+    private static boolean affected(Scene scene, Ray ray, int depth, List<BoundingBox> changed) {
+        if (crosses(changed, ray.getOrigin(), ray.getDirection(), Double.POSITIVE_INFINITY)) {
+            return true;
+        }
+        Optional<Intersection> ohit = scene.findClosestIntersection(ray);
+        if (ohit.isEmpty()) {
+            return false;
+        }
+
+        Intersection hit = ohit.get();
+        Point origin = hit.point.add(hit.normal.mul(EPS));
+        for (ILight light : scene.getLights()) {
+            double maxT = Double.POSITIVE_INFINITY;
+            if (light instanceof PointLight pl) {
+                maxT = pl.getPosition().sub(origin).length();
+            } else if (light instanceof SpotLight sl) {
+                maxT = sl.getPosition().sub(origin).length();
+            }
+            if (crosses(changed, origin, light.incidentFrom(origin), maxT)) {
+                return true;
+            }
+        }
+
+        Color ks = hit.shape.getMaterial().getSpecular();
+        if (depth < scene.getMaxDepth() && (ks.r() > 0 || ks.g() > 0 || ks.b() > 0)) {
+            Vector reflDir = ray.getDirection().reflect(hit.normal).normalized();
+            return affected(scene, new Ray(origin, reflDir), depth + 1, changed);
+        }
+        return false;
+    }
+
+    private static boolean crosses(List<BoundingBox> boxes, Point origin, Vector direction, double maxT) {
+        for (BoundingBox box : boxes) {
+            if (box.intersects(origin, direction, 0.0, maxT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,158 @@
+package fr.ninhache.raytracer.render;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Framebuffer hors heap : les pixels sont stockés dans un fichier temporaire
+ * projeté en mémoire ({@code mmap}), le système se chargeant de la pagination.
+ *
+ * <p>Le fichier est organisé par tuiles : chaque tuile {@code tileSize x tileSize}
+ * occupe un bloc contigu (les tuiles de bord sont complétées), et chaque bande
+ * horizontale de tuiles fait l'objet d'une projection distincte. Une tuile en cours
+ * de rendu ne touche donc qu'un petit nombre de pages, et une image de 50k x 50k
+ * pixels ne consomme presque rien dans le heap.
+ *
+ * <p>Le fichier est créé creux et supprimé par {@link #close()}.
+ */
+public final class MappedTileBuffer implements FrameBuffer {
+
+    private final int width;
+    private final int height;
+    private final int tileSize;
+    private final int tilesX;
+    private final Path file;
+    private IntBuffer[] bands;
+
+    private MappedTileBuffer(int width, int height, int tileSize, Path file, IntBuffer[] bands) {
+        this.width = width;
+        this.height = height;
+        this.tileSize = tileSize;
+        this.tilesX = (width + tileSize - 1) / tileSize;
+        this.file = file;
+        this.bands = bands;
+    }
+
+    /**
+     * Crée un buffer vierge dans le répertoire temporaire du système.
+     *
+     * @param tileSize côté d'une tuile (idéalement celui du rendu)
+     * @throws UncheckedIOException si le fichier ne peut pas être créé ou projeté
+     */
+    public static MappedTileBuffer create(int width, int height, int tileSize) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("dimensions invalides : " + width + "x" + height);
+        }
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("tileSize doit être > 0 : " + tileSize);
+        }
+
+        int tilesX = (width + tileSize - 1) / tileSize;
+        int tilesY = (height + tileSize - 1) / tileSize;
+        long bandBytes = (long) tilesX * tileSize * tileSize * Integer.BYTES;
+        if (bandBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("bande de tuiles trop grande (" + bandBytes
+                    + " octets) : réduire tileSize");
+        }
+
+        Path file = null;
+        try {
+            file = Files.createTempFile("framebuffer-", ".raw");
+            IntBuffer[] bands = new IntBuffer[tilesY];
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                for (int b = 0; b < tilesY; b++) {
+                    bands[b] = channel.map(FileChannel.MapMode.READ_WRITE, b * bandBytes, bandBytes)
+                            .order(ByteOrder.nativeOrder())
+                            .asIntBuffer();
+                }
+            }
+            return new MappedTileBuffer(width, height, tileSize, file, bands);
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw new UncheckedIOException("impossible de créer le framebuffer hors mémoire", e);
+        }
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return le côté des tuiles du stockage
+     */
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    private int offset(int x, int y) {
+        int tx = x / tileSize;
+        return (tx * tileSize + (y % tileSize)) * tileSize + (x - tx * tileSize);
+    }
+
+    @Override
+    public int getPixel(int x, int y) {
+        return bands[y / tileSize].get(offset(x, y));
+    }
+
+    @Override
+    public void setPixel(int x, int y, int argb) {
+        bands[y / tileSize].put(offset(x, y), argb);
+    }
+
+    @Override
+    public void getRow(int y, int[] dst) {
+        IntBuffer band = bands[y / tileSize];
+        int rowInTile = y % tileSize;
+        for (int tx = 0, x = 0; tx < tilesX; tx++, x += tileSize) {
+            int len = Math.min(tileSize, width - x);
+            band.get((tx * tileSize + rowInTile) * tileSize, dst, x, len);
+        }
+    }
+
+    /**
+     * @return une copie dans un nouveau fichier temporaire (à fermer par l'appelant)
+     */
+    @Override
+    public MappedTileBuffer copy() {
+        MappedTileBuffer copy = create(width, height, tileSize);
+        for (int b = 0; b < bands.length; b++) {
+            copy.bands[b].put(0, bands[b], 0, bands[b].capacity());
+        }
+        return copy;
+    }
+
+    /**
+     * Supprime le fichier temporaire. Le buffer n'est plus utilisable ensuite ;
+     * les pages projetées sont rendues au système lorsque le GC libère les projections.
+     */
+    @Override
+    public synchronized void close() {
+        if (bands != null) {
+            bands = null;
+            deleteQuietly(file);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            file.toFile().deleteOnExit();
+        }
+    }
+}
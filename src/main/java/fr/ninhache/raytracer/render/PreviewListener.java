@@ -0,0 +1,20 @@
+package fr.ninhache.raytracer.render;
+
+/**
+ * Reçoit les aperçus intermédiaires d'un rendu progressif.
+ *
+ * <p>Appelé sur le thread qui pilote le rendu, entre deux passes : l'implémentation
+ * doit rendre la main rapidement (affichage, envoi asynchrone...). L'instantané
+ * transmis est une copie, le listener peut le conserver ; s'il est hors mémoire
+ * ({@link MappedTileBuffer}), c'est au listener de le fermer.
+ */
+@FunctionalInterface
+public interface PreviewListener {
+
+    /**
+     * @param snapshot copie de l'image à la fin de la passe
+     * @param pass numéro de la passe terminée (à partir de 1)
+     * @param passCount nombre total de passes ({@code pass == passCount} pour l'image finale)
+     */
+    void onPreview(FrameBuffer snapshot, int pass, int passCount);
+}
@@ -0,0 +1,17 @@
+package fr.ninhache.raytracer.render;
+
+/**
+ * Reçoit périodiquement l'avancement d'un rendu.
+ *
+ * <p>Appelé depuis un thread dédié, jamais depuis les threads de rendu : un listener
+ * lent retarde les notifications suivantes mais pas le calcul des pixels.
+ * Un dernier appel est toujours fait à la fin du rendu.
+ */
+@FunctionalInterface
+public interface ProgressListener {
+
+    /**
+     * @param progress l'avancement courant
+     */
+    void onProgress(RenderProgress progress);
+}
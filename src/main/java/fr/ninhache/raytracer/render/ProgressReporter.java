@@ -0,0 +1,111 @@
+package fr.ninhache.raytracer.render;
+
+import fr.ninhache.raytracer.render.executor.DaemonThreads;
+import fr.ninhache.raytracer.render.stats.RayStats;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publie l'avancement d'un rendu à intervalle régulier.
+ *
+ * <p>Les compteurs ({@link java.util.concurrent.atomic.LongAdder}) sont lus depuis un
+ * thread planifié : les threads de rendu ne font qu'incrémenter leurs cellules,
+ * sans verrou ni contention.
+ */
+final class ProgressReporter implements AutoCloseable {
+
+    private final ProgressListener listener;
+    private final TileRenderer tileRenderer;
+    private final RayStats rayStats;
+    private final int tilesTotal;
+    private final long pixelsTotal;
+    private final long startNanos;
+    private final ScheduledExecutorService scheduler;
+
+    private long lastNanos;
+    private long lastRays;
+
+    /** Passe à {@code true} avec l'état final : aucun instantané n'est publié ensuite. */
+    private boolean closed;
+
+    ProgressReporter(ProgressListener listener, Duration interval, TileRenderer tileRenderer,
+                     RayStats rayStats, int tilesTotal, long pixelsTotal, long startNanos) {
+        this.listener = listener;
+        this.tileRenderer = tileRenderer;
+        this.rayStats = rayStats;
+        this.tilesTotal = tilesTotal;
+        this.pixelsTotal = pixelsTotal;
+        this.startNanos = startNanos;
+        this.lastNanos = startNanos;
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(DaemonThreads.named("render-progress"));
+        long period = interval.toNanos();
+        scheduler.scheduleAtFixedRate(this::tick, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Publication périodique, ignorée si l'état final a déjà été publié : une exécution
+     * en attente du verrou pendant {@link #close()} ne doit pas le suivre.
+     */
+    private synchronized void tick() {
+        if (!closed) {
+            publish();
+        }
+    }
+
+    /**
+     * Calcule et transmet un instantané. Appelé sous le verrou de l'instance, depuis
+     * le thread planifié et depuis {@link #close()}.
+     */
+    private void publish() {
+        long now = System.nanoTime();
+        long rays = rayStats.totalRays();
+        long pixelsDone = tileRenderer.pixelsDone();
+
+        double dt = (now - lastNanos) / 1_000_000_000.0;
+        double raysPerSecond = dt > 0.0 ? (rays - lastRays) / dt : 0.0;
+        lastNanos = now;
+        lastRays = rays;
+
+        long elapsed = now - startNanos;
+        Duration eta = null;
+        if (pixelsDone > 0) {
+            long remaining = Math.max(0L, pixelsTotal - pixelsDone);
+            eta = Duration.ofNanos((long) (elapsed * ((double) remaining / pixelsDone)));
+        }
+
+        RenderProgress progress = new RenderProgress(
+                tileRenderer.completedTiles(),
+                tilesTotal,
+                pixelsDone,
+                pixelsTotal,
+                raysPerSecond,
+                Duration.ofNanos(elapsed),
+                eta
+        );
+
+        try {
+            listener.onProgress(progress);
+        } catch (RuntimeException e) {
+            System.err.println("ProgressListener a échoué : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Arrête les notifications périodiques et publie l'état final.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            publish();
+            closed = true;
+        }
+    }
+}
@@ -22,6 +22,10 @@ import static fr.ninhache.raytracer.math.Epsilon.EPS;
  * - Lambert + Blinn-Phong
  * - ombres
  * - réflexions jusqu'à maxDepth
+ *
+ * Par défaut chaque niveau de récursion est ramené dans [0, 1] ; en mode HDR la
+ * radiance est conservée telle quelle, le tone mapping étant appliqué après coup
+ * (cf. {@link ToneMapper}).
  */
 public final class RayTracer {
 
@@ -30,6 +34,57 @@ public final class RayTracer {
      * depuis la caméra et en appelant la fonction récursive traceRay.
      */
     public Color getPixelColor(Scene scene, int i, int j, RayStats stats) {
+        return getPixelColor(scene, i, j, scene.getMaxDepth(), stats);
+    }
+
+    /**
+     * Variante de {@link #getPixelColor(Scene, int, int, RayStats)} avec une profondeur
+     * de réflexion imposée (utilisée pour dégrader la qualité sous contrainte de temps).
+     *
+     * @param maxDepth profondeur maximale de récursion (>= 1)
+     */
+    public Color getPixelColor(Scene scene, int i, int j, int maxDepth, RayStats stats) {
+        return getPixelColor(scene, i, j, maxDepth, false, stats);
+    }
+
+    /**
+     * @param hdr {@code true} pour renvoyer la radiance sans la ramener dans [0, 1]
+     */
+    public Color getPixelColor(Scene scene, int i, int j, int maxDepth, boolean hdr, RayStats stats) {
+        Ray primary = primaryRay(scene, i + 0.5, j + 0.5);
+
+        if (stats != null) {
+            stats.incPrimary();
+        }
+
+        return traceRay(scene, primary, 1, maxDepth, !hdr, stats);
+    }
+
+    /**
+     * Calcule la couleur d'un sous-échantillon du pixel, pour l'anti-aliasing.
+     *
+     * <p>Les coordonnées sont continues : le pixel (i,j) couvre [i, i+1[ x [j, j+1[.
+     * Le rayon est compté à part des rayons primaires dans les statistiques.
+     *
+     * @param x abscisse image (en pixels)
+     * @param y ordonnée image (en pixels)
+     * @param maxDepth profondeur maximale de récursion (>= 1)
+     * @param hdr {@code true} pour renvoyer la radiance sans la ramener dans [0, 1]
+     */
+    public Color getSampleColor(Scene scene, double x, double y, int maxDepth, boolean hdr, RayStats stats) {
+        Ray ray = primaryRay(scene, x, y);
+
+        if (stats != null) {
+            stats.incAntiAliasing();
+        }
+
+        return traceRay(scene, ray, 1, maxDepth, !hdr, stats);
+    }
+
+    /**
+     * Construit le rayon caméra passant par le point (x,y) du plan image (en pixels).
+     */
+    public Ray primaryRay(Scene scene, double x, double y) {
         Camera cam = scene.getCamera();
         int W = scene.getWidth(), H = scene.getHeight();
 
@@ -40,21 +95,15 @@ public final class RayTracer {
         double pxW = viewW / W;
         double pxH = viewH / H;
 
-        double sx = (i + 0.5) * pxW - (viewW * 0.5);
-        double sy = (viewH * 0.5) - (j + 0.5) * pxH;
+        double sx = x * pxW - (viewW * 0.5);
+        double sy = (viewH * 0.5) - y * pxH;
 
         Vector dir = cam.getU().mul(sx)
                 .add(cam.getV().mul(sy))
                 .sub(cam.getW())
                 .normalized();
 
-        Ray primary = new Ray(cam.getLookFrom(), dir);
-
-        if (stats != null) {
-            stats.incPrimary();
-        }
-
-        return traceRay(scene, primary, 1, stats);
+        return new Ray(cam.getLookFrom(), dir);
     }
 
     /**
@@ -63,8 +112,10 @@ public final class RayTracer {
      * @param scene la scène
      * @param ray   le rayon courant
      * @param depth profondeur actuelle (1 pour le rayon primaire)
+     * @param maxDepth profondeur maximale
+     * @param clamp {@code true} pour ramener chaque niveau dans [0, 1]
      */
-    private Color traceRay(Scene scene, Ray ray, int depth, RayStats stats) {
+    private Color traceRay(Scene scene, Ray ray, int depth, int maxDepth, boolean clamp, RayStats stats) {
         Optional<Intersection> ohit = scene.findClosestIntersection(ray);
         if (ohit.isEmpty()) {
             return Color.BLACK;
@@ -131,7 +182,6 @@ public final class RayTracer {
             }
         }
 
-        int maxDepth = scene.getMaxDepth();
         boolean hasSpecular = ks.r() > 0 || ks.g() > 0 || ks.b() > 0;
 
         if (depth < maxDepth && hasSpecular) {
@@ -143,12 +193,16 @@ public final class RayTracer {
             Point reflOrigin = hit.point.add(hit.normal.mul(EPS));
             Ray reflRay = new Ray(reflOrigin, reflDir);
 
-            Color reflected = traceRay(scene, reflRay, depth + 1, stats);
+            Color reflected = traceRay(scene, reflRay, depth + 1, maxDepth, clamp, stats);
 
             Color reflContribution = ks.schur(reflected);
             color = color.add(reflContribution);
         }
 
+        if (!clamp) {
+            return color;
+        }
+
         return new Color(
                 clamp01(color.r()),
                 clamp01(color.g()),
@@ -0,0 +1,366 @@
+package fr.ninhache.raytracer.render;
+
+import fr.ninhache.raytracer.render.executor.DaemonThreads;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.zip.CRC32;
+
+/**
+ * Journal des tuiles terminées d'un rendu, pour reprendre un rendu interrompu.
+ *
+ * <p>Le fichier {@code <clé>.ckpt} commence par un en-tête (dimensions, taille des
+ * tuiles, HDR) suivi d'un enregistrement par tuile et par étape : pixels à un rayon
+ * par pixel ({@link #RENDERED}) puis, avec l'anti-aliasing, pixels lissés
+ * ({@link #REFINED}). Les deux étapes sont conservées car le lissage d'une tuile lit
+ * les pixels à un rayon de ses voisines : la reprise est ainsi identique bit à bit à
+ * un rendu d'une traite. En mode HDR, la radiance accompagne les pixels.
+ *
+ * <p>Les threads de rendu ne font que copier les pixels de leur tuile ; l'écriture
+ * est confiée à un thread dédié, qui force la synchronisation sur disque au plus une
+ * fois par intervalle. Chaque enregistrement porte un CRC32 : un enregistrement
+ * tronqué par un arrêt brutal est ignoré à la reprise. Le journal est supprimé une
+ * fois le rendu complet.
+ */
+final class RenderCheckpoint implements AutoCloseable {
+
+    static final byte RENDERED = 1;
+    static final byte REFINED = 2;
+
+    private static final int MAGIC = 0x524b5054; // "RKPT"
+    private static final int VERSION = 1;
+
+    private final Path file;
+    private final List<Tile> tiles;
+    private final int tileSize;
+    private final int tilesX;
+    private final FrameBuffer buffer;
+    private final FloatImageBuffer radiance;
+    private final boolean refines;
+    private final long intervalNanos;
+    private final AtomicIntegerArray stages;
+    private final ExecutorService writer;
+
+    private DataOutputStream out;
+    private FileChannel channel;
+    private long restoredLength;
+    private long lastSync = System.nanoTime();
+    private volatile boolean failed;
+
+    private RenderCheckpoint(Path file, List<Tile> tiles, int tileSize, FrameBuffer buffer,
+                             FloatImageBuffer radiance, boolean refines, Duration interval) {
+        this.file = file;
+        this.tiles = tiles;
+        this.tileSize = tileSize;
+        this.tilesX = (buffer.getWidth() + tileSize - 1) / tileSize;
+        this.buffer = buffer;
+        this.radiance = radiance;
+        this.refines = refines;
+        this.intervalNanos = interval.toNanos();
+        this.stages = new AtomicIntegerArray(tiles.size());
+        this.writer = Executors.newSingleThreadExecutor(DaemonThreads.named("render-checkpoint"));
+    }
+
+    /**
+     * Ouvre le journal du rendu {@code key} dans {@code directory} : les tuiles déjà
+     * enregistrées sont recopiées dans les buffers, les suivantes seront ajoutées.
+     * Un journal d'un autre format ou d'une autre géométrie est remplacé.
+     *
+     * @param key empreinte de la scène et des options du rendu
+     * @param refines {@code true} si le rendu comporte une passe d'anti-aliasing
+     */
+    static RenderCheckpoint open(Path directory, String key, List<Tile> tiles, int tileSize,
+                                 FrameBuffer buffer, FloatImageBuffer radiance, boolean refines,
+                                 Duration interval) throws IOException {
+        Files.createDirectories(directory);
+        RenderCheckpoint checkpoint = new RenderCheckpoint(directory.resolve(key + ".ckpt"), tiles, tileSize,
+                buffer, radiance, refines, interval);
+        long valid = Files.exists(checkpoint.file) ? checkpoint.scan(RENDERED, Long.MAX_VALUE) : 0;
+        checkpoint.restoredLength = valid;
+
+        checkpoint.channel = FileChannel.open(checkpoint.file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        checkpoint.channel.truncate(valid);
+        checkpoint.channel.position(valid);
+        checkpoint.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(checkpoint.channel),
+                64 * 1024));
+        if (valid == 0) {
+            checkpoint.writeHeader();
+        }
+        return checkpoint;
+    }
+
+    /**
+     * Recopie dans les buffers les pixels lissés lus à l'ouverture. À appeler une
+     * fois l'image de référence à un rayon par pixel copiée.
+     */
+    void restoreRefined() throws IOException {
+        if (restoredLength > 0) {
+            scan(REFINED, restoredLength);
+        }
+    }
+
+    /**
+     * @return l'étape atteinte par la tuile (0, {@link #RENDERED} ou {@link #REFINED})
+     */
+    int stage(int index) {
+        return stages.get(index);
+    }
+
+    /**
+     * @return l'indice de la tuile dans l'ordre de {@link Tile#split(int, int, int)}
+     */
+    int indexOf(Tile tile) {
+        return (tile.y() / tileSize) * tilesX + tile.x() / tileSize;
+    }
+
+    /**
+     * Enregistre l'état d'une tuile qui vient d'atteindre l'étape {@code stage}.
+     * Appelé par les threads de rendu : seule la copie des pixels est faite sur place.
+     */
+    void tileDone(Tile tile, byte stage) {
+        int index = indexOf(tile);
+        stages.accumulateAndGet(index, stage, Math::max);
+        if (failed) {
+            return;
+        }
+        byte[] record = encode(tile, index, stage);
+        writer.execute(() -> append(record));
+    }
+
+    /**
+     * @return {@code true} si toutes les tuiles ont atteint leur dernière étape
+     */
+    boolean isComplete() {
+        int last = refines ? REFINED : RENDERED;
+        for (int i = 0; i < stages.length(); i++) {
+            if (stages.get(i) < last) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Écrit les derniers enregistrements et synchronise le journal ; le supprime si
+     * le rendu est complet.
+     */
+    @Override
+    public void close() {
+        writer.execute(() -> sync(true));
+        writer.shutdown();
+        // Attente non interruptible : un rendu annulé doit conserver ses dernières tuiles
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (writer.awaitTermination(1, TimeUnit.SECONDS)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        try {
+            out.flush();
+        } catch (IOException e) {
+            warn(e);
+        } finally {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                warn(e);
+            }
+        }
+        if (isComplete()) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                warn(e);
+            }
+        }
+    }
+
+    /**
+     * @return le nombre de valeurs de 4 octets par pixel : ARGB, plus la radiance en HDR
+     */
+    private int channels() {
+        return radiance != null ? 1 + FloatImageBuffer.CHANNELS : 1;
+    }
+
+    // ---------------------------------------------------------------- écriture
+
+    private void writeHeader() throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(buffer.getWidth());
+        out.writeInt(buffer.getHeight());
+        out.writeInt(tileSize);
+        out.writeBoolean(radiance != null);
+        out.flush();
+    }
+
+    private byte[] encode(Tile tile, int index, byte stage) {
+        ByteBuffer payload = ByteBuffer.allocate(1 + Integer.BYTES + tile.pixelCount() * channels() * Integer.BYTES);
+        payload.put(stage).putInt(index);
+        for (int y = tile.y(); y < tile.endY(); y++) {
+            for (int x = tile.x(); x < tile.endX(); x++) {
+                payload.putInt(buffer.getPixel(x, y));
+            }
+        }
+        if (radiance != null) {
+            for (int y = tile.y(); y < tile.endY(); y++) {
+                for (int x = tile.x(); x < tile.endX(); x++) {
+                    payload.putFloat(radiance.getR(x, y)).putFloat(radiance.getG(x, y)).putFloat(radiance.getB(x, y));
+                }
+            }
+        }
+        return payload.array();
+    }
+
+    /**
+     * Ajoute un enregistrement (thread d'écriture uniquement).
+     */
+    private void append(byte[] payload) {
+        if (failed) {
+            return;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        try {
+            out.writeInt(payload.length);
+            out.write(payload);
+            out.writeInt((int) crc.getValue());
+        } catch (IOException e) {
+            fail(e);
+            return;
+        }
+        sync(false);
+    }
+
+    private void sync(boolean force) {
+        long now = System.nanoTime();
+        if (failed || (!force && now - lastSync < intervalNanos)) {
+            return;
+        }
+        try {
+            out.flush();
+            channel.force(false);
+            lastSync = now;
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Un journal illisible ne doit pas faire échouer le rendu : il est abandonné.
+     */
+    private void fail(IOException e) {
+        failed = true;
+        warn(e);
+    }
+
+    private void warn(IOException e) {
+        System.err.println("Checkpoint " + file + " abandonné : " + e.getMessage());
+    }
+
+    // ---------------------------------------------------------------- reprise
+
+    /**
+     * Parcourt le journal : les enregistrements de l'étape {@code stage} sont recopiés
+     * dans les buffers, tous marquent l'étape atteinte par leur tuile.
+     *
+     * @param limit longueur maximale à lire
+     * @return la longueur de la partie valide du journal (0 s'il est à remplacer)
+     */
+    private long scan(byte stage, long limit) throws IOException {
+        try (InputStream raw = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(raw, 64 * 1024))) {
+            long valid;
+            try {
+                if (in.readInt() != MAGIC || in.readInt() != VERSION
+                        || in.readInt() != buffer.getWidth() || in.readInt() != buffer.getHeight()
+                        || in.readInt() != tileSize || in.readBoolean() != (radiance != null)) {
+                    return 0;
+                }
+                valid = 5L * Integer.BYTES + 1;
+            } catch (EOFException e) {
+                return 0;
+            }
+
+            long maxLength = 1 + Integer.BYTES + (long) tileSize * tileSize * channels() * Integer.BYTES;
+            while (valid < limit) {
+                byte[] payload;
+                try {
+                    int length = in.readInt();
+                    if (length <= 1 + Integer.BYTES || length > maxLength) {
+                        return valid;
+                    }
+                    payload = new byte[length];
+                    in.readFully(payload);
+                    CRC32 crc = new CRC32();
+                    crc.update(payload);
+                    if (in.readInt() != (int) crc.getValue()) {
+                        return valid;
+                    }
+                } catch (EOFException e) {
+                    return valid;
+                }
+                if (!apply(ByteBuffer.wrap(payload), stage)) {
+                    return valid;
+                }
+                valid += 2L * Integer.BYTES + payload.length;
+            }
+            return valid;
+        }
+    }
+
+    private boolean apply(ByteBuffer payload, byte wanted) {
+        byte stage = payload.get();
+        int index = payload.getInt();
+        if (index < 0 || index >= tiles.size() || (stage != RENDERED && stage != REFINED)) {
+            return false;
+        }
+        stages.accumulateAndGet(index, stage, Math::max);
+        if (stage != wanted) {
+            return true;
+        }
+        Tile tile = tiles.get(index);
+        if (payload.remaining() != tile.pixelCount() * channels() * Integer.BYTES) {
+            return false;
+        }
+
+        for (int y = tile.y(); y < tile.endY(); y++) {
+            for (int x = tile.x(); x < tile.endX(); x++) {
+                buffer.setPixel(x, y, payload.getInt());
+            }
+        }
+        if (radiance != null) {
+            for (int y = tile.y(); y < tile.endY(); y++) {
+                for (int x = tile.x(); x < tile.endX(); x++) {
+                    radiance.set(x, y, payload.getFloat(), payload.getFloat(), payload.getFloat());
+                }
+            }
+        }
+        return true;
+    }
+}
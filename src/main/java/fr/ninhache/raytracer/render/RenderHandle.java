@@ -0,0 +1,93 @@
+package fr.ninhache.raytracer.render;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Poignée sur un rendu en cours (cf. {@link Renderer#submit}).
+ *
+ * <p>Permet d'annuler le rendu et d'attendre son résultat. Les threads de rendu
+ * consultent la poignée entre chaque ligne de pixels : une annulation ou le
+ * dépassement de la deadline arrête le travail rapidement, et {@link #join()}
+ * renvoie alors l'image partielle déjà calculée.
+ */
+public final class RenderHandle {
+
+    private final AtomicBoolean cancelled = new AtomicBoolean(false);
+    private final CompletableFuture<RenderResult> result = new CompletableFuture<>();
+    private final long deadlineNanos;
+
+    /**
+     * @param deadlineNanos instant limite selon {@link System#nanoTime()}
+     *                      ({@link Long#MAX_VALUE} pour aucune limite)
+     */
+    RenderHandle(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Demande l'arrêt du rendu. Sans effet si le rendu est déjà terminé.
+     */
+    public void cancel() {
+        cancelled.set(true);
+    }
+
+    /**
+     * @return {@code true} si l'annulation a été demandée
+     */
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    /**
+     * @return {@code true} si le résultat est disponible
+     */
+    public boolean isDone() {
+        return result.isDone();
+    }
+
+    /**
+     * Attend la fin du rendu (complet, annulé ou interrompu par la deadline).
+     *
+     * @return le résultat, dont {@link RenderResult#status()} indique s'il est partiel
+     */
+    public RenderResult join() {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return le temps restant avant la deadline, en nanosecondes (peut être négatif)
+     */
+    long remainingNanos() {
+        if (deadlineNanos == Long.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        return deadlineNanos - System.nanoTime();
+    }
+
+    /**
+     * @return {@code true} si le rendu doit s'arrêter (annulation ou deadline dépassée)
+     */
+    boolean shouldStop() {
+        if (cancelled.get()) {
+            return true;
+        }
+        return deadlineNanos != Long.MAX_VALUE && System.nanoTime() - deadlineNanos > 0;
+    }
+
+    void complete(RenderResult renderResult) {
+        result.complete(renderResult);
+    }
+
+    void fail(Throwable error) {
+        result.completeExceptionally(error);
+    }
+}
@@ -0,0 +1,249 @@
+package fr.ninhache.raytracer.render;
+
+import fr.ninhache.raytracer.render.executor.ExecutionMode;
+import fr.ninhache.raytracer.render.executor.RenderExecutor;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Paramètres d'un rendu, indépendants de la scène.
+ *
+ * <p>Cette classe est <strong>immuable</strong>.
+ * Utilisez {@link RenderOptionsBuilder} pour la créer.
+ *
+ * <h2>Exemple d'utilisation</h2>
+ * <pre>{@code
+ * RenderOptions options = new RenderOptionsBuilder()
+ *     .setExecutionMode(ExecutionMode.VIRTUAL_THREADS)
+ *     .setThreadCount(8)
+ *     .build();
+ *
+ * RenderResult result = new Renderer().render(scene, options);
+ * }</pre>
+ */
+public final class RenderOptions {
+
+    private final ExecutionMode executionMode;
+    private final int threadCount;
+    private final RenderExecutor executor;
+    private final int tileSize;
+    private final int progressiveStep;
+    private final PreviewListener previewListener;
+    private final Duration deadline;
+    private final Duration timeBudget;
+    private final ProgressListener progressListener;
+    private final Duration progressInterval;
+    private final int antiAliasingSamples;
+    private final double antiAliasingThreshold;
+    private final FrameBufferMode frameBufferMode;
+    private final Path outputFile;
+    private final boolean hdr;
+    private final int pngCompressionLevel;
+    private final int pngThreads;
+    private final Path checkpointDirectory;
+    private final Duration checkpointInterval;
+
+    RenderOptions(RenderOptionsBuilder builder) {
+        this.executionMode = builder.executionMode;
+        this.threadCount = builder.threadCount;
+        this.executor = builder.executor;
+        this.tileSize = builder.tileSize;
+        this.progressiveStep = builder.progressiveStep;
+        this.previewListener = builder.previewListener;
+        this.deadline = builder.deadline;
+        this.timeBudget = builder.timeBudget;
+        this.progressListener = builder.progressListener;
+        this.progressInterval = builder.progressInterval;
+        this.antiAliasingSamples = builder.antiAliasingSamples;
+        this.antiAliasingThreshold = builder.antiAliasingThreshold;
+        this.frameBufferMode = builder.frameBufferMode;
+        this.outputFile = builder.outputFile;
+        this.hdr = builder.hdr;
+        this.pngCompressionLevel = builder.pngCompressionLevel;
+        this.pngThreads = builder.pngThreads;
+        this.checkpointDirectory = builder.checkpointDirectory;
+        this.checkpointInterval = builder.checkpointInterval;
+    }
+
+    /**
+     * @return les options par défaut (pool fixe, un thread par cœur)
+     */
+    public static RenderOptions defaults() {
+        return new RenderOptionsBuilder().build();
+    }
+
+    /**
+     * @return la stratégie d'exécution des tuiles
+     */
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    /**
+     * @return le nombre de threads (ou de tuiles simultanées) demandé
+     */
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    /**
+     * @return le côté d'une tuile, en pixels
+     */
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * @return le pas de la première passe progressive (1 = rendu en une seule passe)
+     */
+    public int getProgressiveStep() {
+        return progressiveStep;
+    }
+
+    /**
+     * @return {@code true} si le rendu se fait en plusieurs passes de plus en plus fines
+     */
+    public boolean isProgressive() {
+        return progressiveStep > 1;
+    }
+
+    /**
+     * @return le listener des aperçus intermédiaires (peut être null)
+     */
+    public PreviewListener getPreviewListener() {
+        return previewListener;
+    }
+
+    /**
+     * @return le délai maximal du rendu à partir de son lancement (null = aucun)
+     */
+    public Duration getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * @return le budget de temps visé avec dégradation automatique de la qualité (null = aucun)
+     */
+    public Duration getTimeBudget() {
+        return timeBudget;
+    }
+
+    /**
+     * @return le listener d'avancement (peut être null)
+     */
+    public ProgressListener getProgressListener() {
+        return progressListener;
+    }
+
+    /**
+     * @return l'intervalle entre deux notifications d'avancement
+     */
+    public Duration getProgressInterval() {
+        return progressInterval;
+    }
+
+    /**
+     * @return le nombre de sous-échantillons par axe de l'anti-aliasing (1 = désactivé)
+     */
+    public int getAntiAliasingSamples() {
+        return antiAliasingSamples;
+    }
+
+    /**
+     * @return l'écart de contraste (dans [0, 1]) au-delà duquel un pixel est sur-échantillonné
+     */
+    public double getAntiAliasingThreshold() {
+        return antiAliasingThreshold;
+    }
+
+    /**
+     * @return {@code true} si l'anti-aliasing adaptatif est actif
+     */
+    public boolean isAntiAliased() {
+        return antiAliasingSamples > 1;
+    }
+
+    /**
+     * @return le stockage des pixels du rendu
+     */
+    public FrameBufferMode getFrameBufferMode() {
+        return frameBufferMode;
+    }
+
+    /**
+     * @return le fichier PNG écrit au fil du rendu (null = aucun)
+     */
+    public Path getOutputFile() {
+        return outputFile;
+    }
+
+    /**
+     * @return {@code true} si la radiance HDR est conservée
+     */
+    public boolean isHdr() {
+        return hdr;
+    }
+
+    /**
+     * @return le niveau de compression deflate du PNG (-1 = défaut)
+     */
+    public int getPngCompressionLevel() {
+        return pngCompressionLevel;
+    }
+
+    /**
+     * @return le nombre de threads de compression du PNG
+     */
+    public int getPngThreads() {
+        return pngThreads;
+    }
+
+    /**
+     * @return le répertoire des journaux de reprise (null = pas de reprise)
+     */
+    public Path getCheckpointDirectory() {
+        return checkpointDirectory;
+    }
+
+    /**
+     * @return l'intervalle maximal entre deux synchronisations du journal de reprise
+     */
+    public Duration getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    /**
+     * @return {@code true} si les tuiles terminées sont journalisées pour une reprise
+     */
+    public boolean isCheckpointed() {
+        return checkpointDirectory != null;
+    }
+
+    /**
+     * Délai effectif au-delà duquel le rendu est interrompu : la deadline si elle est
+     * définie, sinon le budget de temps.
+     *
+     * @return le délai effectif (null = aucun)
+     */
+    public Duration getEffectiveDeadline() {
+        if (deadline != null && timeBudget != null) {
+            return deadline.compareTo(timeBudget) <= 0 ? deadline : timeBudget;
+        }
+        return deadline != null ? deadline : timeBudget;
+    }
+
+    /**
+     * @return l'exécuteur imposé, ou un nouvel exécuteur correspondant au mode d'exécution
+     */
+    public RenderExecutor createExecutor() {
+        return executor != null ? executor : executionMode.create(threadCount);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RenderOptions[mode=%s, threads=%d, tile=%d, progressiveStep=%d, aa=%dx%d, buffer=%s, hdr=%b, deadline=%s, budget=%s]",
+                executionMode, threadCount, tileSize, progressiveStep, antiAliasingSamples, antiAliasingSamples,
+                frameBufferMode, hdr, deadline, timeBudget);
+    }
+}
@@ -0,0 +1,289 @@
+package fr.ninhache.raytracer.render;
+
+import fr.ninhache.raytracer.render.executor.ExecutionMode;
+import fr.ninhache.raytracer.render.executor.RenderExecutor;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.zip.Deflater;
+
+/**
+ * Constructeur progressif de {@link RenderOptions} (pattern Builder).
+ *
+ * <p>Les valeurs par défaut reproduisent le comportement historique du renderer :
+ * pool fixe avec un thread par cœur disponible.
+ */
+public class RenderOptionsBuilder {
+
+    ExecutionMode executionMode = ExecutionMode.FIXED_POOL;
+    int threadCount = Runtime.getRuntime().availableProcessors();
+    RenderExecutor executor;
+    int tileSize = 32;
+    int progressiveStep = 1;
+    PreviewListener previewListener;
+    Duration deadline;
+    Duration timeBudget;
+    ProgressListener progressListener;
+    Duration progressInterval = Duration.ofSeconds(1);
+    int antiAliasingSamples = 1;
+    double antiAliasingThreshold = 0.1;
+    FrameBufferMode frameBufferMode = FrameBufferMode.HEAP;
+    Path outputFile;
+    boolean hdr;
+    int pngCompressionLevel = Deflater.DEFAULT_COMPRESSION;
+    int pngThreads = Runtime.getRuntime().availableProcessors();
+    Path checkpointDirectory;
+    Duration checkpointInterval = Duration.ofSeconds(10);
+
+    /**
+     * Définit la stratégie d'exécution des tuiles.
+     *
+     * @param mode la stratégie (non null)
+     */
+    public RenderOptionsBuilder setExecutionMode(ExecutionMode mode) {
+        if (mode == null) {
+            throw new IllegalArgumentException("mode ne peut pas être null");
+        }
+        this.executionMode = mode;
+        return this;
+    }
+
+    /**
+     * Définit le nombre de threads (ou de tuiles simultanées pour les threads virtuels).
+     *
+     * @param threadCount nombre de threads (doit être >= 1)
+     */
+    public RenderOptionsBuilder setThreadCount(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("threadCount doit être >= 1 : " + threadCount);
+        }
+        this.threadCount = threadCount;
+        return this;
+    }
+
+    /**
+     * Impose un exécuteur existant, typiquement un {@link fr.ninhache.raytracer.render.executor.SharedPoolExecutor}
+     * partagé entre plusieurs rendus. Prioritaire sur le mode d'exécution et le nombre de threads.
+     *
+     * @param executor l'exécuteur (null pour revenir au mode d'exécution)
+     */
+    public RenderOptionsBuilder setExecutor(RenderExecutor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * Définit la taille des tuiles.
+     *
+     * @param tileSize côté d'une tuile en pixels (doit être > 0)
+     */
+    public RenderOptionsBuilder setTileSize(int tileSize) {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("tileSize doit être > 0 : " + tileSize);
+        }
+        this.tileSize = tileSize;
+        return this;
+    }
+
+    /**
+     * Active le rendu progressif.
+     *
+     * <p>La première passe ne trace qu'un pixel sur {@code step} dans chaque direction
+     * (image agrandie par blocs), puis chaque passe divise le pas par deux jusqu'à 1.
+     * Chaque pixel n'est tracé qu'une fois : le surcoût se limite aux copies d'aperçu.
+     *
+     * @param step pas de la première passe, puissance de deux entre 1 et 64 (1 = désactivé)
+     */
+    public RenderOptionsBuilder setProgressiveStep(int step) {
+        if (step < 1 || step > 64 || Integer.bitCount(step) != 1) {
+            throw new IllegalArgumentException("step doit être une puissance de deux dans [1, 64] : " + step);
+        }
+        this.progressiveStep = step;
+        return this;
+    }
+
+    /**
+     * Définit le listener qui reçoit un instantané de l'image après chaque passe progressive.
+     *
+     * @param listener le listener (null pour aucun)
+     */
+    public RenderOptionsBuilder setPreviewListener(PreviewListener listener) {
+        this.previewListener = listener;
+        return this;
+    }
+
+    /**
+     * Définit une deadline : passé ce délai (compté depuis le lancement du rendu),
+     * les tuiles restantes sont abandonnées et l'image partielle est renvoyée
+     * avec l'état {@link RenderStatus#DEADLINE_EXCEEDED}.
+     *
+     * @param deadline délai strictement positif (null pour aucune deadline)
+     */
+    public RenderOptionsBuilder setDeadline(Duration deadline) {
+        this.deadline = requirePositive(deadline, "deadline");
+        return this;
+    }
+
+    /**
+     * Définit un budget de temps avec dégradation automatique.
+     *
+     * <p>Une première passe grossière mesure le coût réel des pixels ; si le rendu
+     * complet ne tient pas dans le budget, la profondeur de réflexion est réduite
+     * avant de poursuivre. Sans deadline explicite, le budget sert aussi de deadline.
+     *
+     * @param budget budget strictement positif (null pour désactiver)
+     */
+    public RenderOptionsBuilder setTimeBudget(Duration budget) {
+        this.timeBudget = requirePositive(budget, "budget");
+        return this;
+    }
+
+    /**
+     * Définit le listener d'avancement et la fréquence de ses notifications.
+     *
+     * <p>Les notifications sont émises depuis un thread dédié qui lit les compteurs
+     * du rendu, sans ralentir les threads de calcul.
+     *
+     * @param listener le listener (null pour aucun)
+     * @param interval intervalle entre deux notifications (strictement positif)
+     */
+    public RenderOptionsBuilder setProgressListener(ProgressListener listener, Duration interval) {
+        if (interval == null) {
+            throw new IllegalArgumentException("interval ne peut pas être null");
+        }
+        this.progressInterval = requirePositive(interval, "interval");
+        this.progressListener = listener;
+        return this;
+    }
+
+    /**
+     * Active l'anti-aliasing adaptatif.
+     *
+     * <p>Après le rendu à un rayon par pixel, seuls les pixels dont une composante
+     * diffère d'un de leurs voisins de plus de {@code threshold} sont sur-échantillonnés,
+     * avec une grille stratifiée et jitterée de {@code samplesPerAxis x samplesPerAxis}
+     * sous-pixels. Les zones uniformes ne coûtent donc aucun rayon supplémentaire.
+     *
+     * @param samplesPerAxis sous-échantillons par axe, entre 1 et 8 (1 = désactivé)
+     * @param threshold écart de contraste déclenchant le sur-échantillonnage, dans [0, 1]
+     */
+    public RenderOptionsBuilder setAntiAliasing(int samplesPerAxis, double threshold) {
+        if (samplesPerAxis < 1 || samplesPerAxis > 8) {
+            throw new IllegalArgumentException("samplesPerAxis doit être dans [1, 8] : " + samplesPerAxis);
+        }
+        if (!(threshold >= 0.0 && threshold <= 1.0)) {
+            throw new IllegalArgumentException("threshold doit être dans [0, 1] : " + threshold);
+        }
+        this.antiAliasingSamples = samplesPerAxis;
+        this.antiAliasingThreshold = threshold;
+        return this;
+    }
+
+    /**
+     * Définit le stockage des pixels.
+     *
+     * <p>{@link FrameBufferMode#MAPPED} permet les rendus plus grands que le heap
+     * (affiches de plusieurs gigapixels) ; l'image doit alors être écrite en flux
+     * depuis {@link RenderResult#frame()} puis le résultat fermé.
+     *
+     * @param mode le stockage (non null)
+     */
+    public RenderOptionsBuilder setFrameBufferMode(FrameBufferMode mode) {
+        if (mode == null) {
+            throw new IllegalArgumentException("mode ne peut pas être null");
+        }
+        this.frameBufferMode = mode;
+        return this;
+    }
+
+    /**
+     * Écrit le PNG pendant le rendu.
+     *
+     * <p>Les lignes sont filtrées et compressées dès que leur bande de tuiles est
+     * définitive, en parallèle du calcul des bandes suivantes : le fichier est
+     * complet quelques instants après la dernière tuile.
+     *
+     * @param file fichier PNG de sortie (null pour ne rien écrire)
+     */
+    public RenderOptionsBuilder setOutputFile(Path file) {
+        this.outputFile = file;
+        return this;
+    }
+
+    /**
+     * Conserve la radiance HDR du rendu.
+     *
+     * <p>Les couleurs ne sont plus ramenées dans [0, 1] à chaque rebond : la radiance
+     * est stockée en flottants dans {@link RenderResult#radiance()}, exportable en PFM
+     * et re-tone-mappable à volonté ({@link RenderResult#toneMap(ToneMapper)}). L'image
+     * 8 bits habituelle en est le tone mapping neutre. Le buffer HDR réside dans le heap
+     * (12 octets par pixel), quel que soit le {@link FrameBufferMode}.
+     *
+     * @param hdr {@code true} pour activer le mode HDR
+     */
+    public RenderOptionsBuilder setHdr(boolean hdr) {
+        this.hdr = hdr;
+        return this;
+    }
+
+    /**
+     * Règle la compression du PNG écrit pendant le rendu.
+     *
+     * <p>Avec plusieurs threads, les données sont compressées par blocs indépendants
+     * en parallèle (flux zlib unique, ratio quasi identique au séquentiel).
+     *
+     * @param level niveau deflate, de 0 (aucune) à 9 (maximale), -1 pour la valeur par défaut
+     * @param threads threads de compression (>= 1, 1 = deflate séquentiel)
+     */
+    public RenderOptionsBuilder setPngCompression(int level, int threads) {
+        if (level < -1 || level > 9) {
+            throw new IllegalArgumentException("level doit être dans [-1, 9] : " + level);
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads doit être >= 1 : " + threads);
+        }
+        this.pngCompressionLevel = level;
+        this.pngThreads = threads;
+        return this;
+    }
+
+    /**
+     * Active la reprise sur incident.
+     *
+     * <p>Les tuiles terminées sont journalisées dans {@code directory}, sous l'empreinte
+     * de la scène et des options ; un rendu relancé avec la même scène et les mêmes
+     * options ne calcule que les tuiles manquantes. Le journal est écrit par un thread
+     * dédié et synchronisé sur disque au plus une fois par {@code interval} ; il est
+     * supprimé à la fin d'un rendu complet. Incompatible avec le rendu progressif et
+     * le budget de temps.
+     *
+     * @param directory répertoire des journaux (null pour désactiver)
+     * @param interval intervalle maximal entre deux synchronisations sur disque (strictement positif)
+     */
+    public RenderOptionsBuilder setCheckpoint(Path directory, Duration interval) {
+        if (interval == null) {
+            throw new IllegalArgumentException("interval ne peut pas être null");
+        }
+        this.checkpointInterval = requirePositive(interval, "interval");
+        this.checkpointDirectory = directory;
+        return this;
+    }
+
+    private static Duration requirePositive(Duration d, String name) {
+        if (d != null && (d.isZero() || d.isNegative())) {
+            throw new IllegalArgumentException(name + " doit être > 0 : " + d);
+        }
+        return d;
+    }
+
+    /**
+     * @return les options construites
+     */
+    public RenderOptions build() {
+        if (checkpointDirectory != null && (progressiveStep > 1 || timeBudget != null)) {
+            // Une tuile journalisée doit être définitive : pas de passe grossière ni de qualité dégradée
+            throw new IllegalArgumentException("la reprise est incompatible avec le rendu progressif et le budget de temps");
+        }
+        return new RenderOptions(this);
+    }
+}
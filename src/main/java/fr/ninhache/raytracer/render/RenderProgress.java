@@ -0,0 +1,46 @@
+package fr.ninhache.raytracer.render;
+
+import java.time.Duration;
+
+/**
+ * Instantané de l'avancement d'un rendu en cours.
+ *
+ * @param tilesDone tuiles entièrement calculées
+ * @param tilesTotal nombre total de tuiles
+ * @param pixelsDone pixels tracés
+ * @param pixelsTotal nombre total de pixels
+ * @param raysPerSecond débit de rayons mesuré depuis le précédent instantané
+ * @param elapsed temps écoulé depuis le début du rendu
+ * @param eta estimation du temps restant (null tant qu'aucun pixel n'est calculé)
+ */
+public record RenderProgress(
+        int tilesDone,
+        int tilesTotal,
+        long pixelsDone,
+        long pixelsTotal,
+        double raysPerSecond,
+        Duration elapsed,
+        Duration eta
+) {
+
+    /**
+     * @return la fraction de pixels calculés, dans [0, 1]
+     */
+    public double fraction() {
+        if (pixelsTotal == 0) return 1.0;
+        return Math.min(1.0, (double) pixelsDone / (double) pixelsTotal);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "RenderProgress[%.1f%%, tiles=%d/%d, pixels=%d/%d, rays/s=%.1f M, elapsed=%.1f s, eta=%s]",
+                fraction() * 100.0,
+                tilesDone, tilesTotal,
+                pixelsDone, pixelsTotal,
+                raysPerSecond / 1_000_000.0,
+                elapsed.toMillis() / 1000.0,
+                eta == null ? "?" : String.format("%.1f s", eta.toMillis() / 1000.0)
+        );
+    }
+}
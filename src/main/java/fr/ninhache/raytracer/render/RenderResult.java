@@ -4,10 +4,59 @@ import java.awt.image.BufferedImage;
 
 /**
  * Contient le résultat d'un rendu :
- * - l'image calculée
+ * - les pixels calculés (éventuellement partiels)
  * - les statistiques associées
+ * - l'état final du rendu
+ * - la radiance HDR, si le rendu a été lancé en mode HDR
+ *
+ * <p>Pour un rendu hors mémoire ({@link FrameBufferMode#MAPPED}), le résultat doit
+ * être fermé une fois l'image écrite afin de supprimer le fichier temporaire.
  */
 public record RenderResult(
-        BufferedImage image,
-        RenderStats stats
-) {}
\ No newline at end of file
+        FrameBuffer frame,
+        RenderStats stats,
+        RenderStatus status,
+        FloatImageBuffer radiance
+) implements AutoCloseable {
+
+    /**
+     * Convertit les pixels en image AWT (nouvelle image à chaque appel).
+     *
+     * <p>Pour les très grandes images, préférer l'écriture en flux depuis
+     * {@link #frame()} (cf. {@code PngWriter}).
+     */
+    public BufferedImage image() {
+        return frame.toBufferedImage();
+    }
+
+    /**
+     * @return {@code true} si la radiance HDR est disponible
+     */
+    public boolean hasRadiance() {
+        return radiance != null;
+    }
+
+    /**
+     * Recalcule l'image 8 bits avec un autre tone mapping, sans relancer de rayon.
+     *
+     * @throws IllegalStateException si le rendu n'a pas été fait en mode HDR
+     */
+    public ImageBuffer toneMap(ToneMapper toneMapper) {
+        if (radiance == null) {
+            throw new IllegalStateException("rendu sans radiance HDR (cf. RenderOptionsBuilder.setHdr)");
+        }
+        return toneMapper.apply(radiance);
+    }
+
+    /**
+     * @return {@code true} si toutes les tuiles ont été calculées
+     */
+    public boolean isComplete() {
+        return status == RenderStatus.COMPLETED;
+    }
+
+    @Override
+    public void close() {
+        frame.close();
+    }
+}
@@ -1,20 +1,32 @@
 package fr.ninhache.raytracer.render;
 
+import fr.ninhache.raytracer.geometry.accel.BvhStats;
+import fr.ninhache.raytracer.render.output.PngStats;
+
 /**
  * Statistiques sur un rendu.
  *
  * Immuable, idéal pour logs, UI, etc.
+ * {@code png} n'est renseigné que si le PNG a été écrit pendant le rendu,
+ * {@code bvh} (construction de la BVH de la scène) s'il est connu du moteur.
  */
 public record RenderStats(
         int width,
         int height,
         int threadCount,
         boolean multiThreaded,
+        String executor,
+        int tileCount,
+        int completedTiles,
+        int maxDepth,
         long startNanoTime,
         long endNanoTime,
         long primaryRays,
         long shadowRays,
-        long reflectionRays
+        long reflectionRays,
+        long antiAliasingRays,
+        PngStats png,
+        BvhStats bvh
 ) {
 
     public long durationNanos() {
@@ -34,7 +46,7 @@ public record RenderStats(
     }
 
     public long totalRays() {
-        return primaryRays + shadowRays + reflectionRays;
+        return primaryRays + shadowRays + reflectionRays + antiAliasingRays;
     }
 
     public double raysPerPixel() {
@@ -42,6 +54,12 @@ public record RenderStats(
         return (double) totalRays() / (double) totalPixels();
     }
 
+    public double pixelsPerSecond() {
+        double s = durationSeconds();
+        if (s <= 0.0) return 0.0;
+        return totalPixels() / s;
+    }
+
     public double raysPerSecond() {
         double s = durationSeconds();
         if (s <= 0.0) return 0.0;
@@ -50,18 +68,28 @@ public record RenderStats(
 
     @Override
     public String toString() {
-        return String.format(
-                "RenderStats[%dx%d, %s, threads=%d, time=%.2f ms, rays=%d (P=%d, S=%d, R=%d), rays/pixel=%.1f, rays/s=%.1f M]",
+        String summary = String.format(
+                "RenderStats[%dx%d, %s, executor=%s, threads=%d, tiles=%d/%d, maxDepth=%d, time=%.2f ms, rays=%d (P=%d, S=%d, R=%d, AA=%d), rays/pixel=%.1f, rays/s=%.1f M, pixels/s=%.1f M]",
                 width, height,
                 multiThreaded ? "multi" : "mono",
+                executor,
                 threadCount,
+                completedTiles,
+                tileCount,
+                maxDepth,
                 durationMillis(),
                 totalRays(),
                 primaryRays,
                 shadowRays,
                 reflectionRays,
+                antiAliasingRays,
                 raysPerPixel(),
-                raysPerSecond() / 1_000_000.0
+                raysPerSecond() / 1_000_000.0,
+                pixelsPerSecond() / 1_000_000.0
         );
+        if (png != null) {
+            summary += " " + png;
+        }
+        return bvh == null ? summary : summary + " " + bvh;
     }
 }
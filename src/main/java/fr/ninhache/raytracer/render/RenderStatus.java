@@ -0,0 +1,16 @@
+package fr.ninhache.raytracer.render;
+
+/**
+ * État final d'un rendu.
+ */
+public enum RenderStatus {
+
+    /** Toutes les tuiles ont été calculées. */
+    COMPLETED,
+
+    /** Le rendu a été annulé : l'image est partielle. */
+    CANCELLED,
+
+    /** La deadline a été atteinte : l'image est partielle. */
+    DEADLINE_EXCEEDED
+}
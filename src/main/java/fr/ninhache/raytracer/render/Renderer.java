@@ -1,104 +1,421 @@
 package fr.ninhache.raytracer.render;
 
 import fr.ninhache.raytracer.math.Color;
+import fr.ninhache.raytracer.render.cache.SceneHasher;
+import fr.ninhache.raytracer.render.executor.ExecutionMode;
+import fr.ninhache.raytracer.render.executor.RenderExecutor;
+import fr.ninhache.raytracer.render.output.PngStats;
+import fr.ninhache.raytracer.render.output.PngWriter;
+import fr.ninhache.raytracer.render.output.StreamingPngWriter;
 import fr.ninhache.raytracer.render.stats.RayStats;
 import fr.ninhache.raytracer.scene.Scene;
 
-import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
-import java.io.File;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
 
 /**
  * Renderer de scène vers une image 2D.
  *
  * - renderSingleThread : rendu séquentiel (simple, sûr)
- * - renderMultiThread  : rendu parallèle par lignes
+ * - renderMultiThread  : rendu parallèle sur un pool fixe
+ * - render(scene, options) : rendu par tuiles avec la stratégie d'exécution choisie
+ *   (pool fixe, fork/join ou threads virtuels, cf. {@link ExecutionMode}),
+ *   éventuellement progressif avec aperçus intermédiaires (cf. {@link PreviewListener})
+ * - submit(scene, options) : même rendu en arrière-plan, annulable, avec deadline
+ *   et budget de temps (cf. {@link RenderHandle})
+ *
+ * Dans tous les modes par tuiles, un {@link ProgressListener} peut suivre l'avancement
+ * et un anti-aliasing adaptatif peut lisser les contours
+ * (cf. {@link RenderOptionsBuilder#setAntiAliasing(int, double)}).
+ * Un rendu journalisé reprend là où une exécution interrompue s'est arrêtée
+ * (cf. {@link RenderOptionsBuilder#setCheckpoint(Path, Duration)}).
  */
 public final class Renderer {
 
+    /** Pas de la passe de mesure utilisée par le budget de temps (1 pixel sur 64). */
+    private static final int BUDGET_PILOT_STEP = 8;
+
+    /** Fraction de pixels supposés raffinés par l'anti-aliasing, pour l'estimation du budget. */
+    private static final double AA_EDGE_FRACTION = 0.15;
+
     private final RayTracer rayTracer = new RayTracer();
 
     /**
      * Rendu "par défaut" : multi-thread si possible.
      */
     public RenderResult render(Scene scene) {
-        int cores = Runtime.getRuntime().availableProcessors();
+        return render(scene, RenderOptions.defaults());
+    }
 
-        return renderMultiThread(scene, cores);
+    /**
+     * Rendu par tuiles avec les options fournies, sur le thread appelant.
+     *
+     * <p>Si une deadline ou un budget de temps est défini, le résultat peut être
+     * partiel (cf. {@link RenderResult#status()}).
+     *
+     * @param scene la scène à rendre
+     * @param options les options (stratégie d'exécution, taille des tuiles...)
+     */
+    public RenderResult render(Scene scene, RenderOptions options) {
+        return run(scene, options, newHandle(options));
     }
 
-    public RenderResult renderSingleThread(Scene scene) {
+    /**
+     * Lance le rendu en arrière-plan.
+     *
+     * <p>La deadline éventuelle est comptée à partir de cet appel.
+     *
+     * @param scene la scène à rendre
+     * @param options les options du rendu
+     * @return une poignée permettant d'annuler le rendu et d'en attendre le résultat
+     */
+    public RenderHandle submit(Scene scene, RenderOptions options) {
+        RenderHandle handle = newHandle(options);
+
+        Thread.ofPlatform().name("render-driver").daemon().start(() -> {
+            try {
+                handle.complete(run(scene, options, handle));
+            } catch (Throwable t) {
+                handle.fail(t);
+            }
+        });
+
+        return handle;
+    }
+
+    static RenderHandle newHandle(RenderOptions options) {
+        Duration deadline = options.getEffectiveDeadline();
+        if (deadline == null) {
+            return new RenderHandle(Long.MAX_VALUE);
+        }
+        return new RenderHandle(System.nanoTime() + deadline.toNanos());
+    }
+
+    private RenderResult run(Scene scene, RenderOptions options, RenderHandle handle) {
         int width = scene.getWidth();
         int height = scene.getHeight();
 
+        RenderExecutor executor = options.createExecutor();
+        List<Tile> tiles = Tile.split(width, height, options.getTileSize());
+
         RayStats rayStats = new RayStats();
         long start = System.nanoTime();
 
-        ImageBuffer buffer = new ImageBuffer(width, height);
-
-        for (int j = 0; j < height; j++) {
-            for (int i = 0; i < width; i++) {
-                Color c = rayTracer.getPixelColor(scene, i, j, rayStats);
-                int rgb = c.toRGB();
+        FrameBuffer buffer = options.getFrameBufferMode().create(width, height, options.getTileSize());
+        FloatImageBuffer radiance = options.isHdr() ? new FloatImageBuffer(width, height) : null;
+        RenderCheckpoint checkpoint = openCheckpoint(scene, tiles, buffer, radiance, options);
+        TileBandStreamer streamer;
+        try {
+            streamer = openStreamer(buffer, options);
+        } catch (RuntimeException e) {
+            if (checkpoint != null) {
+                checkpoint.close();
+            }
+            throw e;
+        }
+        TileRenderer tileRenderer = new TileRenderer(scene, rayTracer, buffer, radiance, rayStats, handle)
+                .withAntiAliasing(options.getAntiAliasingSamples())
+                .withStreamer(streamer)
+                .withCheckpoint(checkpoint);
+        ProgressReporter reporter = null;
+        if (options.getProgressListener() != null) {
+            reporter = new ProgressReporter(options.getProgressListener(), options.getProgressInterval(),
+                    tileRenderer, rayStats, tiles.size(), (long) width * height, start);
+        }
 
-                buffer.setPixel(i, j, rgb);
+        try {
+            if (options.getTimeBudget() != null) {
+                tileRenderer = renderWithinBudget(executor, tiles, tileRenderer, buffer, options, handle, start);
+            } else if (options.isProgressive()) {
+                renderPasses(executor, tiles, tileRenderer, buffer, options, options.getProgressiveStep(), true);
+            } else {
+                List<Tile> toRender = checkpoint != null ? restore(tiles, tileRenderer, checkpoint) : tiles;
+                if (!toRender.isEmpty()) {
+                    executor.execute(toRender, tileRenderer::render);
+                }
+                antiAlias(executor, tiles, tileRenderer, buffer, options, checkpoint);
+            }
+        } catch (InterruptedException e) {
+            handle.cancel();
+            Thread.currentThread().interrupt();
+        } finally {
+            if (reporter != null) {
+                reporter.close();
+            }
+            if (checkpoint != null) {
+                checkpoint.close();
+            }
+            if (streamer != null) {
+                streamer.close();
             }
         }
 
         long end = System.nanoTime();
 
+        int completedTiles = tileRenderer.completedTiles();
+        RenderStatus status;
+        if (completedTiles == tiles.size()) {
+            status = RenderStatus.COMPLETED;
+        } else if (handle.isCancelled()) {
+            status = RenderStatus.CANCELLED;
+        } else {
+            status = RenderStatus.DEADLINE_EXCEEDED;
+        }
+
         RenderStats stats = new RenderStats(
                 width,
                 height,
-                1,
-                false,
+                executor.parallelism(),
+                executor.parallelism() > 1,
+                executor.name(),
+                tiles.size(),
+                completedTiles,
+                tileRenderer.getMaxDepth(),
                 start,
                 end,
                 rayStats.primaryRays(),
                 rayStats.shadowRays(),
-                rayStats.reflectionRays()
+                rayStats.reflectionRays(),
+                rayStats.antiAliasingRays(),
+                streamer != null ? streamer.stats() : null,
+                scene.getBvhStats()
         );
 
-        return new RenderResult(buffer.toBufferedImage(), stats);
+        return new RenderResult(buffer, stats, status, radiance);
     }
 
+    static TileBandStreamer openStreamer(FrameBuffer buffer, RenderOptions options) {
+        Path file = options.getOutputFile();
+        if (file == null) {
+            return null;
+        }
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            return new TileBandStreamer(buffer, options.getTileSize(),
+                    new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024),
+                    options.getPngCompressionLevel(), options.getPngThreads());
+        } catch (IOException e) {
+            throw new UncheckedIOException("impossible d'ouvrir " + file, e);
+        }
+    }
 
-    public RenderResult renderMultiThread(Scene scene, int threadCount) {
-        int width = scene.getWidth();
-        int height = scene.getHeight();
+    /**
+     * Ouvre le journal de reprise du rendu, sous l'empreinte de la scène et des options
+     * (null si le rendu n'est pas journalisé). Les tuiles déjà journalisées sont
+     * recopiées dans {@code buffer} et {@code radiance}.
+     */
+    private static RenderCheckpoint openCheckpoint(Scene scene, List<Tile> tiles, FrameBuffer buffer,
+                                                   FloatImageBuffer radiance, RenderOptions options) {
+        Path directory = options.getCheckpointDirectory();
+        if (directory == null) {
+            return null;
+        }
+        try {
+            return RenderCheckpoint.open(directory, SceneHasher.hash(scene, options), tiles, options.getTileSize(),
+                    buffer, radiance, options.isAntiAliased(), options.getCheckpointInterval());
+        } catch (IOException e) {
+            throw new UncheckedIOException("impossible d'ouvrir le journal de reprise dans " + directory, e);
+        }
+    }
 
-        if (threadCount <= 1) {
-            return renderSingleThread(scene);
+    /**
+     * Compte les tuiles relues depuis le journal de reprise.
+     *
+     * @return les tuiles restant à calculer
+     */
+    private static List<Tile> restore(List<Tile> tiles, TileRenderer tileRenderer, RenderCheckpoint checkpoint) {
+        List<Tile> missing = new ArrayList<>();
+        for (int i = 0; i < tiles.size(); i++) {
+            if (checkpoint.stage(i) >= RenderCheckpoint.RENDERED) {
+                tileRenderer.restored(tiles.get(i));
+            } else {
+                missing.add(tiles.get(i));
+            }
         }
+        return missing;
+    }
+
+    /**
+     * Passe d'anti-aliasing adaptatif, une fois l'image à un rayon par pixel complète.
+     *
+     * <p>Sautée si le renderer n'a pas d'anti-aliasing ou si le rendu est déjà
+     * interrompu. Une interruption pendant cette passe laisse une image complète
+     * mais partiellement lissée : l'état du rendu reste {@link RenderStatus#COMPLETED}.
+     * Avec un journal de reprise, les tuiles déjà lissées sont relues une fois
+     * l'image de référence copiée, et seules les autres sont raffinées.
+     *
+     * @param checkpoint journal de reprise (null si le rendu n'est pas journalisé)
+     */
+    private void antiAlias(RenderExecutor executor, List<Tile> tiles, TileRenderer tileRenderer,
+                           FrameBuffer buffer, RenderOptions options,
+                           RenderCheckpoint checkpoint) throws InterruptedException {
+        if (tileRenderer.getSamplesPerAxis() <= 1 || tileRenderer.completedTiles() < tiles.size()) {
+            return;
+        }
+        double threshold = options.getAntiAliasingThreshold();
+        try (FrameBuffer reference = buffer.copy()) {
+            List<Tile> toRefine = tiles;
+            if (checkpoint != null) {
+                restoreRefined(checkpoint);
+                toRefine = new ArrayList<>();
+                for (int i = 0; i < tiles.size(); i++) {
+                    if (checkpoint.stage(i) == RenderCheckpoint.REFINED) {
+                        tileRenderer.restoredRefined(tiles.get(i));
+                    } else {
+                        toRefine.add(tiles.get(i));
+                    }
+                }
+            }
+            if (!toRefine.isEmpty()) {
+                executor.execute(toRefine, tile -> tileRenderer.refine(tile, reference, threshold));
+            }
+        }
+    }
+
+    private static void restoreRefined(RenderCheckpoint checkpoint) {
+        try {
+            checkpoint.restoreRefined();
+        } catch (IOException e) {
+            throw new UncheckedIOException("impossible de relire le journal de reprise", e);
+        }
+    }
+
+    /**
+     * Enchaîne les passes progressives (pas initial, puis divisé par deux jusqu'à 1)
+     * et publie un instantané après chacune d'elles. Avec l'anti-aliasing, le lissage
+     * des contours constitue une passe supplémentaire.
+     *
+     * @param step pas de la première passe à calculer
+     * @param includeFirst {@code false} si la passe de pas {@code step} est déjà calculée
+     */
+    private void renderPasses(RenderExecutor executor, List<Tile> tiles, TileRenderer tileRenderer,
+                              FrameBuffer buffer, RenderOptions options,
+                              int step, boolean includeFirst) throws InterruptedException {
+        PreviewListener listener = options.getPreviewListener();
+        int gridPasses = Integer.numberOfTrailingZeros(step) + 1;
+        int passCount = passCount(step, tileRenderer);
+
+        for (int pass = 1; pass <= gridPasses; pass++, step >>= 1) {
+            if (pass == 1 && !includeFirst) {
+                continue;
+            }
+
+            final int passStep = step;
+            final boolean firstPass = pass == 1;
+            executor.execute(tiles, tile -> tileRenderer.renderPass(tile, passStep, firstPass));
+
+            if (listener != null) {
+                listener.onPreview(buffer.copy(), pass, passCount);
+            }
+        }
+
+        if (passCount > gridPasses && tileRenderer.completedTiles() == tiles.size()) {
+            antiAlias(executor, tiles, tileRenderer, buffer, options, null);
+            if (listener != null) {
+                listener.onPreview(buffer.copy(), passCount, passCount);
+            }
+        }
+    }
+
+    private static int passCount(int step, TileRenderer tileRenderer) {
+        int passes = Integer.numberOfTrailingZeros(step) + 1;
+        return tileRenderer.getSamplesPerAxis() > 1 ? passes + 1 : passes;
+    }
+
+    /**
+     * Rendu sous budget de temps.
+     *
+     * <p>La passe la plus grossière du rendu progressif (1 pixel sur {@code step²})
+     * sert de mesure : son temps multiplié par {@code step²} estime le rendu complet.
+     * Tant que l'estimation dépasse le temps restant, la profondeur de réflexion est
+     * réduite proportionnellement et la passe est recalculée. Les passes suivantes
+     * réutilisent ensuite la dernière mesure ; les pixels des mesures jetées sont
+     * retirés de la progression pour ne pas compter deux fois les pixels recalculés.
+     *
+     * <p>L'anti-aliasing est dégradé en premier : son coût est estimé à partir de la
+     * même mesure (fraction {@link #AA_EDGE_FRACTION} de pixels raffinés) et le nombre
+     * de sous-échantillons est réduit jusqu'à tenir dans le temps restant.
+     *
+     * @return le renderer de tuiles effectivement utilisé (profondeur et anti-aliasing retenus)
+     */
+    private TileRenderer renderWithinBudget(RenderExecutor executor, List<Tile> tiles, TileRenderer tileRenderer,
+                                            FrameBuffer buffer, RenderOptions options,
+                                            RenderHandle handle, long start) throws InterruptedException {
+        int step = Math.max(options.getProgressiveStep(), BUDGET_PILOT_STEP);
+        long budgetEnd = start + options.getTimeBudget().toNanos();
+
+        TileRenderer current = tileRenderer.withAntiAliasing(1);
+        long estimate;
+        long remaining;
+        while (true) {
+            final TileRenderer pilot = current;
+            final int pilotStep = step;
+
+            long pixelsBefore = pilot.pixelsDone();
+            long pilotStart = System.nanoTime();
+            executor.execute(tiles, tile -> pilot.renderPass(tile, pilotStep, true));
+            long pilotEnd = System.nanoTime();
+
+            estimate = (pilotEnd - pilotStart) * (long) step * step;
+            remaining = budgetEnd - pilotEnd;
+            int depth = current.getMaxDepth();
+
+            if (estimate <= remaining || depth <= 1 || handle.shouldStop()) {
+                break;
+            }
+
+            // Passe recalculée à moindre profondeur : ses pixels ne comptent plus
+            pilot.discardPixels(pilot.pixelsDone() - pixelsBefore);
+
+            // Le coût d'un pixel est à peu près proportionnel au nombre de rebonds
+            int reduced = (int) (depth * Math.max(0.0, (double) remaining / estimate));
+            current = current.withMaxDepth(Math.max(1, Math.min(depth - 1, reduced)));
+        }
+
+        // Seule la profondeur complète laisse de la marge pour l'anti-aliasing
+        int samples = current.getMaxDepth() == tileRenderer.getMaxDepth() ? tileRenderer.getSamplesPerAxis() : 1;
+        long left = Math.max(0L, remaining - estimate);
+        while (samples > 1 && estimate * AA_EDGE_FRACTION * samples * samples > left) {
+            samples--;
+        }
+        current = current.withAntiAliasing(samples);
+
+        PreviewListener listener = options.getPreviewListener();
+        if (listener != null) {
+            listener.onPreview(buffer.copy(), 1, passCount(step, current));
+        }
+        renderPasses(executor, tiles, current, buffer, options, step, false);
+        return current;
+    }
+
+    public RenderResult renderSingleThread(Scene scene) {
+        int width = scene.getWidth();
+        int height = scene.getHeight();
 
         RayStats rayStats = new RayStats();
         long start = System.nanoTime();
 
         ImageBuffer buffer = new ImageBuffer(width, height);
 
-        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
-
         for (int j = 0; j < height; j++) {
-            final int row = j;
-            executor.submit(() -> {
-                for (int i = 0; i < width; i++) {
-                    Color c = rayTracer.getPixelColor(scene, i, row, rayStats);
-                    int rgb = c.toRGB();
-
-                    buffer.setPixel(i, row, rgb);
-                }
-            });
-        }
+            for (int i = 0; i < width; i++) {
+                Color c = rayTracer.getPixelColor(scene, i, j, rayStats);
+                int rgb = c.toRGB();
 
-        executor.shutdown();
-        try {
-            executor.awaitTermination(1, TimeUnit.DAYS);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+                buffer.setPixel(i, j, rgb);
+            }
         }
 
         long end = System.nanoTime();
@@ -106,27 +423,71 @@ public final class Renderer {
         RenderStats stats = new RenderStats(
                 width,
                 height,
-                threadCount,
-                true,
+                1,
+                false,
+                "single-thread",
+                1,
+                1,
+                scene.getMaxDepth(),
                 start,
                 end,
                 rayStats.primaryRays(),
                 rayStats.shadowRays(),
-                rayStats.reflectionRays()
+                rayStats.reflectionRays(),
+                rayStats.antiAliasingRays(),
+                null,
+                scene.getBvhStats()
         );
 
-        return new RenderResult(buffer.toBufferedImage(), stats);
+        return new RenderResult(buffer, stats, RenderStatus.COMPLETED, null);
     }
 
+
     /**
-     * Écrit une image sur disque.
+     * Rendu parallèle sur un pool fixe de {@code threadCount} threads.
+     */
+    public RenderResult renderMultiThread(Scene scene, int threadCount) {
+        if (threadCount <= 1) {
+            return renderSingleThread(scene);
+        }
+
+        RenderOptions options = new RenderOptionsBuilder()
+                .setExecutionMode(ExecutionMode.FIXED_POOL)
+                .setThreadCount(threadCount)
+                .build();
+
+        return render(scene, options);
+    }
+
+    /**
+     * Écrit les pixels d'un rendu sur disque en PNG, ligne par ligne,
+     * sans construire d'image AWT (adapté aux framebuffers hors mémoire).
+     * La compression est parallélisée sur tous les cœurs.
+     *
+     * @return les statistiques d'encodage
+     */
+    public PngStats writeToFile(String filename, FrameBuffer frame) throws IOException {
+        return PngWriter.write(frame, Path.of(filename));
+    }
+
+    /**
+     * Écrit une image sur disque (PNG encodé ligne par ligne).
      */
     public void writeToFile(String filename, BufferedImage img) throws IOException {
-        File out = new File(filename);
-        File parent = out.getParentFile();
+        Path path = Path.of(filename);
+        Path parent = path.toAbsolutePath().getParent();
         if (parent != null) {
-            parent.mkdirs();
+            Files.createDirectories(parent);
+        }
+        int width = img.getWidth();
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path), 64 * 1024);
+             StreamingPngWriter png = new StreamingPngWriter(out, width, img.getHeight(),
+                     Deflater.DEFAULT_COMPRESSION, Runtime.getRuntime().availableProcessors())) {
+            int[] row = new int[width];
+            for (int y = 0; y < img.getHeight(); y++) {
+                img.getRGB(0, y, width, 1, row, 0, width);
+                png.writeRow(row);
+            }
         }
-        ImageIO.write(img, "png", out);
     }
 }
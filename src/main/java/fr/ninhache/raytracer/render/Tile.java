@@ -0,0 +1,66 @@
+package fr.ninhache.raytracer.render;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Zone rectangulaire de l'image, unité de travail des stratégies d'exécution.
+ *
+ * <p>Les tuiles d'une même image ne se recouvrent pas : chaque thread peut donc
+ * écrire ses pixels dans le buffer sans synchronisation.
+ *
+ * @param x colonne du coin haut-gauche
+ * @param y ligne du coin haut-gauche
+ * @param width largeur de la tuile (en pixels)
+ * @param height hauteur de la tuile (en pixels)
+ */
+public record Tile(int x, int y, int width, int height) {
+
+    /**
+     * @return la colonne qui suit le bord droit (exclusive)
+     */
+    public int endX() {
+        return x + width;
+    }
+
+    /**
+     * @return la ligne qui suit le bord bas (exclusive)
+     */
+    public int endY() {
+        return y + height;
+    }
+
+    /**
+     * @return le nombre de pixels couverts par la tuile
+     */
+    public int pixelCount() {
+        return width * height;
+    }
+
+    /**
+     * Découpe une image en tuiles carrées, parcourues ligne par ligne.
+     *
+     * <p>Les tuiles du bord droit et du bord bas sont tronquées si la taille de
+     * l'image n'est pas un multiple de {@code tileSize}.
+     *
+     * @param imageWidth largeur de l'image
+     * @param imageHeight hauteur de l'image
+     * @param tileSize côté d'une tuile (doit être > 0)
+     * @return la liste des tuiles, dans l'ordre de lecture
+     */
+    public static List<Tile> split(int imageWidth, int imageHeight, int tileSize) {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("tileSize doit être > 0 : " + tileSize);
+        }
+
+        List<Tile> tiles = new ArrayList<>();
+        for (int ty = 0; ty < imageHeight; ty += tileSize) {
+            int h = Math.min(tileSize, imageHeight - ty);
+            for (int tx = 0; tx < imageWidth; tx += tileSize) {
+                int w = Math.min(tileSize, imageWidth - tx);
+                tiles.add(new Tile(tx, ty, w, h));
+            }
+        }
+        return tiles;
+    }
+}
@@ -0,0 +1,144 @@
+package fr.ninhache.raytracer.render;
+
+import fr.ninhache.raytracer.render.executor.DaemonThreads;
+import fr.ninhache.raytracer.render.output.PngStats;
+import fr.ninhache.raytracer.render.output.StreamingPngWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Encode le PNG pendant le rendu, bande de tuiles par bande de tuiles.
+ *
+ * <p>Chaque tuile terminée (dans sa version définitive) décrémente le compteur de sa
+ * bande horizontale. Dès que les bandes du haut de l'image sont complètes, leurs lignes
+ * sont relues dans le framebuffer et poussées dans un {@link StreamingPngWriter} par un
+ * thread dédié : les threads de rendu ne sont jamais bloqués par la compression.
+ *
+ * <p>À la fermeture, les bandes restantes (rendu interrompu) sont écrites telles quelles
+ * pour produire un PNG valide.
+ */
+final class TileBandStreamer implements AutoCloseable {
+
+    private final FrameBuffer buffer;
+    private final int tileSize;
+    private final OutputStream out;
+    private final StreamingPngWriter png;
+    private final AtomicIntegerArray pendingTiles;
+    private final ExecutorService encoder;
+    private final int[] row;
+
+    /** Prochaine bande à encoder ; accédé uniquement par le thread d'encodage. */
+    private int nextBand;
+    private volatile Throwable failure;
+
+    /**
+     * @param out flux de destination, fermé avec le streamer
+     * @param level niveau de compression deflate
+     * @param threads threads de compression
+     */
+    TileBandStreamer(FrameBuffer buffer, int tileSize, OutputStream out, int level, int threads) throws IOException {
+        this.buffer = buffer;
+        this.tileSize = tileSize;
+        this.out = out;
+        this.png = new StreamingPngWriter(out, buffer.getWidth(), buffer.getHeight(), level, threads);
+        this.row = new int[buffer.getWidth()];
+
+        int tilesX = (buffer.getWidth() + tileSize - 1) / tileSize;
+        int bands = (buffer.getHeight() + tileSize - 1) / tileSize;
+        this.pendingTiles = new AtomicIntegerArray(bands);
+        for (int b = 0; b < bands; b++) {
+            pendingTiles.set(b, tilesX);
+        }
+
+        this.encoder = Executors.newSingleThreadExecutor(DaemonThreads.named("png-encoder"));
+    }
+
+    /**
+     * Signale qu'une tuile a atteint sa valeur définitive. Appelé par les threads de rendu.
+     */
+    void tileFinished(Tile tile) {
+        if (pendingTiles.decrementAndGet(tile.y() / tileSize) == 0) {
+            encoder.execute(() -> encodeReadyBands(false));
+        }
+    }
+
+    /**
+     * Encode toutes les bandes contiguës prêtes (ou toutes les bandes si {@code all}).
+     */
+    private void encodeReadyBands(boolean all) {
+        try {
+            while (nextBand < pendingTiles.length() && (all || pendingTiles.get(nextBand) == 0)) {
+                int endY = Math.min((nextBand + 1) * tileSize, buffer.getHeight());
+                for (int y = nextBand * tileSize; y < endY; y++) {
+                    buffer.getRow(y, row);
+                    png.writeRow(row);
+                }
+                nextBand++;
+            }
+        } catch (IOException | RuntimeException | Error e) {
+            // Hors du thread d'encodage, l'erreur serait perdue : close() la relance
+            failure = e;
+            nextBand = pendingTiles.length();
+        }
+    }
+
+    /**
+     * @return les statistiques d'encodage (définitives après {@link #close()})
+     */
+    PngStats stats() {
+        return png.getStats();
+    }
+
+    /**
+     * Écrit les lignes restantes, termine le PNG et ferme le flux.
+     *
+     * @throws UncheckedIOException en cas d'erreur d'écriture
+     * @throws IllegalStateException si l'encodage a échoué autrement ou n'a pas écrit
+     *         toutes les lignes (interruption pendant l'attente)
+     */
+    @Override
+    public void close() {
+        encoder.execute(() -> encodeReadyBands(true));
+        encoder.shutdown();
+        try {
+            while (!encoder.awaitTermination(1, TimeUnit.SECONDS)) {
+                // l'encodage des dernières bandes peut être long sur une grande image
+            }
+        } catch (InterruptedException e) {
+            encoder.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        Throwable error = failure;
+        int rows = png.getRowsWritten();
+        try {
+            if (error == null && rows == png.getHeight()) {
+                png.close();
+            }
+        } catch (IOException e) {
+            error = e;
+        } finally {
+            try {
+                out.close();
+            } catch (IOException e) {
+                error = error != null ? error : e;
+            }
+        }
+
+        if (error instanceof IOException io) {
+            throw new UncheckedIOException("échec de l'écriture du PNG", io);
+        }
+        if (error != null) {
+            throw new IllegalStateException("échec de l'encodage du PNG", error);
+        }
+        if (rows != png.getHeight()) {
+            throw new IllegalStateException("PNG incomplet : " + rows + " lignes écrites sur " + png.getHeight());
+        }
+    }
+}
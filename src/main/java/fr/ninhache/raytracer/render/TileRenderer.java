@@ -0,0 +1,319 @@
+package fr.ninhache.raytracer.render;
+
+import fr.ninhache.raytracer.math.Color;
+import fr.ninhache.raytracer.render.stats.RayStats;
+import fr.ninhache.raytracer.scene.Scene;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Calcule les pixels d'une tuile pour un rendu donné.
+ *
+ * <p>Une instance est partagée par tous les threads d'un même rendu : elle ne
+ * contient aucun état mutable propre, les écritures se font dans des pixels
+ * distincts du buffer. La poignée du rendu est consultée à chaque ligne pour
+ * s'arrêter rapidement en cas d'annulation ou de deadline dépassée.
+ */
+final class TileRenderer {
+
+    private final Scene scene;
+    private final RayTracer rayTracer;
+    private final FrameBuffer buffer;
+    private final FloatImageBuffer radiance;
+    private final ToneMapper toneMapper = ToneMapper.clamp();
+    private final RayStats rayStats;
+    private final RenderHandle handle;
+    private final int maxDepth;
+    private final int samplesPerAxis;
+    private final TileBandStreamer streamer;
+    private final RenderCheckpoint checkpoint;
+    private final LongAdder completedTiles;
+    private final LongAdder pixelsDone;
+
+    /**
+     * @param radiance buffer HDR recevant la radiance non clampée (null pour un rendu 8 bits seul)
+     */
+    TileRenderer(Scene scene, RayTracer rayTracer, FrameBuffer buffer, FloatImageBuffer radiance,
+                 RayStats rayStats, RenderHandle handle) {
+        this(scene, rayTracer, buffer, radiance, rayStats, handle, scene.getMaxDepth(), 1, null, null,
+                new LongAdder(), new LongAdder());
+    }
+
+    private TileRenderer(Scene scene, RayTracer rayTracer, FrameBuffer buffer, FloatImageBuffer radiance,
+                         RayStats rayStats, RenderHandle handle, int maxDepth, int samplesPerAxis, TileBandStreamer streamer,
+                         RenderCheckpoint checkpoint, LongAdder completedTiles, LongAdder pixelsDone) {
+        this.scene = scene;
+        this.rayTracer = rayTracer;
+        this.buffer = buffer;
+        this.radiance = radiance;
+        this.rayStats = rayStats;
+        this.handle = handle;
+        this.maxDepth = maxDepth;
+        this.samplesPerAxis = samplesPerAxis;
+        this.streamer = streamer;
+        this.checkpoint = checkpoint;
+        this.completedTiles = completedTiles;
+        this.pixelsDone = pixelsDone;
+    }
+
+    /**
+     * @return un renderer identique mais limité à {@code maxDepth} rebonds (compteurs partagés)
+     */
+    TileRenderer withMaxDepth(int maxDepth) {
+        return new TileRenderer(scene, rayTracer, buffer, radiance, rayStats, handle, maxDepth, samplesPerAxis, streamer,
+                checkpoint, completedTiles, pixelsDone);
+    }
+
+    /**
+     * @return un renderer identique avec {@code samplesPerAxis²} sous-échantillons
+     *         par pixel raffiné (compteurs partagés, 1 = sans anti-aliasing)
+     */
+    TileRenderer withAntiAliasing(int samplesPerAxis) {
+        return new TileRenderer(scene, rayTracer, buffer, radiance, rayStats, handle, maxDepth, samplesPerAxis, streamer,
+                checkpoint, completedTiles, pixelsDone);
+    }
+
+    /**
+     * @return un renderer identique qui signale ses tuiles définitives à {@code streamer}
+     *         (compteurs partagés, null pour aucun)
+     */
+    TileRenderer withStreamer(TileBandStreamer streamer) {
+        return new TileRenderer(scene, rayTracer, buffer, radiance, rayStats, handle, maxDepth, samplesPerAxis, streamer,
+                checkpoint, completedTiles, pixelsDone);
+    }
+
+    /**
+     * @return un renderer identique qui journalise ses tuiles terminées dans
+     *         {@code checkpoint} (compteurs partagés, null pour aucun)
+     */
+    TileRenderer withCheckpoint(RenderCheckpoint checkpoint) {
+        return new TileRenderer(scene, rayTracer, buffer, radiance, rayStats, handle, maxDepth, samplesPerAxis, streamer,
+                checkpoint, completedTiles, pixelsDone);
+    }
+
+    int getMaxDepth() {
+        return maxDepth;
+    }
+
+    int getSamplesPerAxis() {
+        return samplesPerAxis;
+    }
+
+    /**
+     * @return le nombre de tuiles entièrement calculées (dernière passe comprise)
+     */
+    int completedTiles() {
+        return completedTiles.intValue();
+    }
+
+    /**
+     * @return le nombre de pixels tracés jusqu'ici (mis à jour ligne par ligne)
+     */
+    long pixelsDone() {
+        return pixelsDone.sum();
+    }
+
+    /**
+     * Retire du compte des pixels tracés ceux d'une passe dont le résultat est jeté,
+     * pour que la progression ne compte pas deux fois les pixels recalculés.
+     */
+    void discardPixels(long count) {
+        pixelsDone.add(-count);
+    }
+
+    /**
+     * Calcule tous les pixels de la tuile.
+     */
+    void render(Tile tile) {
+        for (int j = tile.y(); j < tile.endY(); j++) {
+            if (handle.shouldStop()) {
+                return;
+            }
+            for (int i = tile.x(); i < tile.endX(); i++) {
+                store(i, j, 1, rayTracer.getPixelColor(scene, i, j, maxDepth, hdr(), rayStats));
+            }
+            pixelsDone.add(tile.width());
+        }
+        completedTiles.increment();
+        if (checkpoint != null) {
+            checkpoint.tileDone(tile, RenderCheckpoint.RENDERED);
+        }
+        if (samplesPerAxis == 1) {
+            finished(tile);
+        }
+    }
+
+    /**
+     * Compte une tuile dont les pixels à un rayon par pixel ont été relus depuis le
+     * journal de reprise, comme si elle venait d'être calculée.
+     */
+    void restored(Tile tile) {
+        pixelsDone.add(tile.pixelCount());
+        completedTiles.increment();
+        if (samplesPerAxis == 1) {
+            finished(tile);
+        }
+    }
+
+    /**
+     * Signale une tuile dont les pixels lissés ont été relus depuis le journal de reprise.
+     */
+    void restoredRefined(Tile tile) {
+        finished(tile);
+    }
+
+    /**
+     * Calcule une passe de rendu progressif sur la tuile.
+     *
+     * <p>Seuls les pixels de la grille de pas {@code step} (coordonnées globales) sont
+     * lancés ; chacun est étendu sur un bloc {@code step x step}. Hors première passe,
+     * les pixels déjà calculés par une passe plus grossière (grille de pas {@code 2*step})
+     * sont sautés : chaque pixel n'est donc tracé qu'une seule fois sur l'ensemble des passes.
+     *
+     * @param step pas de la grille (puissance de deux)
+     * @param firstPass {@code true} pour la passe la plus grossière
+     */
+    void renderPass(Tile tile, int step, boolean firstPass) {
+        int coarse = step << 1;
+        int startX = firstMultiple(tile.x(), step);
+        int startY = firstMultiple(tile.y(), step);
+
+        for (int j = startY; j < tile.endY(); j += step) {
+            if (handle.shouldStop()) {
+                return;
+            }
+            int traced = 0;
+            for (int i = startX; i < tile.endX(); i += step) {
+                if (!firstPass && i % coarse == 0 && j % coarse == 0) {
+                    continue;
+                }
+                traced++;
+                store(i, j, step, rayTracer.getPixelColor(scene, i, j, maxDepth, hdr(), rayStats));
+            }
+            pixelsDone.add(traced);
+        }
+
+        if (step == 1) {
+            completedTiles.increment();
+            if (samplesPerAxis == 1) {
+                finished(tile);
+            }
+        }
+    }
+
+    /**
+     * Anti-aliasing adaptatif de la tuile.
+     *
+     * <p>Le contraste est mesuré sur {@code reference}, copie figée de l'image à un
+     * rayon par pixel : le résultat ne dépend donc ni de l'ordre des tuiles ni de leur
+     * découpage. Un pixel est raffiné dès qu'une composante diffère de plus de
+     * {@code threshold} de l'un de ses 4 voisins ; il est alors remplacé par la moyenne
+     * de {@code n x n} sous-échantillons stratifiés, chacun décalé dans sa strate par
+     * un jitter déterministe dérivé des coordonnées du pixel.
+     *
+     * @param reference image à un rayon par pixel (non modifiée)
+     * @param threshold écart de contraste dans [0, 1]
+     */
+    void refine(Tile tile, FrameBuffer reference, double threshold) {
+        int n = samplesPerAxis;
+        int limit = (int) Math.floor(threshold * 255.0);
+        double cell = 1.0 / n;
+        double norm = 1.0 / (n * n);
+
+        for (int j = tile.y(); j < tile.endY(); j++) {
+            if (handle.shouldStop()) {
+                return;
+            }
+            for (int i = tile.x(); i < tile.endX(); i++) {
+                if (!hasContrast(reference, i, j, limit)) {
+                    continue;
+                }
+                double r = 0, g = 0, b = 0;
+                int k = 0;
+                for (int sy = 0; sy < n; sy++) {
+                    for (int sx = 0; sx < n; sx++, k++) {
+                        double x = i + (sx + jitter(i, j, 2 * k)) * cell;
+                        double y = j + (sy + jitter(i, j, 2 * k + 1)) * cell;
+                        Color c = rayTracer.getSampleColor(scene, x, y, maxDepth, hdr(), rayStats);
+                        r += c.r();
+                        g += c.g();
+                        b += c.b();
+                    }
+                }
+                store(i, j, 1, new Color(r * norm, g * norm, b * norm));
+            }
+        }
+        if (checkpoint != null) {
+            checkpoint.tileDone(tile, RenderCheckpoint.REFINED);
+        }
+        finished(tile);
+    }
+
+    private boolean hdr() {
+        return radiance != null;
+    }
+
+    /**
+     * Écrit la couleur d'un bloc {@code size x size} : radiance dans le buffer HDR s'il
+     * existe (l'image 8 bits en est alors le tone mapping neutre), sinon directement en 8 bits.
+     */
+    private void store(int x, int y, int size, Color c) {
+        int rgb;
+        if (radiance != null) {
+            float r = (float) c.r(), g = (float) c.g(), b = (float) c.b();
+            rgb = toneMapper.toRGB(r, g, b);
+            if (size == 1) {
+                radiance.set(x, y, r, g, b);
+            } else {
+                radiance.fillRect(x, y, size, size, r, g, b);
+            }
+        } else {
+            rgb = c.toRGB();
+        }
+
+        if (size == 1) {
+            buffer.setPixel(x, y, rgb);
+        } else {
+            buffer.fillRect(x, y, size, size, rgb);
+        }
+    }
+
+    /**
+     * La tuile a atteint sa valeur définitive : elle peut être encodée.
+     */
+    private void finished(Tile tile) {
+        if (streamer != null) {
+            streamer.tileFinished(tile);
+        }
+    }
+
+    private static boolean hasContrast(FrameBuffer img, int x, int y, int limit) {
+        int c = img.getPixel(x, y);
+        return (x > 0 && differs(c, img.getPixel(x - 1, y), limit))
+                || (x + 1 < img.getWidth() && differs(c, img.getPixel(x + 1, y), limit))
+                || (y > 0 && differs(c, img.getPixel(x, y - 1), limit))
+                || (y + 1 < img.getHeight() && differs(c, img.getPixel(x, y + 1), limit));
+    }
+
+    private static boolean differs(int a, int b, int limit) {
+        return Math.abs(((a >> 16) & 0xFF) - ((b >> 16) & 0xFF)) > limit
+                || Math.abs(((a >> 8) & 0xFF) - ((b >> 8) & 0xFF)) > limit
+                || Math.abs((a & 0xFF) - (b & 0xFF)) > limit;
+    }
+
+    /**
+     * Décalage pseudo-aléatoire dans [0, 1[ (mélangeur SplitMix64), reproductible
+     * d'un rendu à l'autre quel que soit le thread qui calcule le pixel.
+     */
+    private static double jitter(int x, int y, int k) {
+        long h = x * 0x9E3779B97F4A7C15L + y * 0xC2B2AE3D27D4EB4FL + k * 0x165667B19E3779F9L;
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        h ^= h >>> 31;
+        return (h >>> 11) * 0x1.0p-53;
+    }
+
+    private static int firstMultiple(int from, int step) {
+        return ((from + step - 1) / step) * step;
+    }
+}
@@ -0,0 +1,135 @@
+package fr.ninhache.raytracer.render;
+
+import java.util.stream.IntStream;
+
+/**
+ * Conversion d'une image HDR ({@link FloatImageBuffer}) en pixels 8 bits affichables.
+ *
+ * <p>Appliqué après le rendu, il permet de changer l'exposition ou la courbe de
+ * réponse sans relancer un seul rayon. Chaque composante subit, dans l'ordre :
+ * <ol>
+ *   <li>l'exposition : {@code v * 2^exposure}</li>
+ *   <li>l'opérateur : troncature à [0, 1] ou compression de Reinhard {@code v / (1 + v)}</li>
+ *   <li>la correction gamma : {@code v^(1/gamma)}</li>
+ *   <li>la quantification sur 8 bits, identique à {@link fr.ninhache.raytracer.math.Color#toRGB()}</li>
+ * </ol>
+ *
+ * <p>Le tone mapper neutre ({@link #clamp()}) est celui qui produit l'image 8 bits
+ * d'un rendu HDR. Cette classe est <strong>immuable</strong>.
+ */
+public final class ToneMapper {
+
+    /**
+     * Courbe appliquée après l'exposition.
+     */
+    public enum Operator {
+        /** Troncature à [0, 1] : les hautes lumières sont saturées. */
+        CLAMP,
+        /** Reinhard global {@code v / (1 + v)} : les hautes lumières sont compressées. */
+        REINHARD
+    }
+
+    private final Operator operator;
+    private final double exposure;
+    private final double gamma;
+    private final float scale;
+    private final float invGamma;
+
+    private ToneMapper(Operator operator, double exposure, double gamma) {
+        if (operator == null) {
+            throw new IllegalArgumentException("operator ne peut pas être null");
+        }
+        if (!Double.isFinite(exposure)) {
+            throw new IllegalArgumentException("exposure doit être finie : " + exposure);
+        }
+        if (!(gamma > 0.0) || !Double.isFinite(gamma)) {
+            throw new IllegalArgumentException("gamma doit être > 0 : " + gamma);
+        }
+        this.operator = operator;
+        this.exposure = exposure;
+        this.gamma = gamma;
+        this.scale = (float) Math.pow(2.0, exposure);
+        this.invGamma = (float) (1.0 / gamma);
+    }
+
+    /**
+     * @return le tone mapper neutre : troncature, sans exposition ni gamma
+     */
+    public static ToneMapper clamp() {
+        return new ToneMapper(Operator.CLAMP, 0.0, 1.0);
+    }
+
+    /**
+     * @param operator courbe de réponse
+     * @param exposure exposition en stops (0 = inchangée, +1 = deux fois plus clair)
+     * @param gamma gamma d'affichage (> 0, 1 = linéaire, 2.2 = sRGB approché)
+     */
+    public static ToneMapper of(Operator operator, double exposure, double gamma) {
+        return new ToneMapper(operator, exposure, gamma);
+    }
+
+    public Operator getOperator() {
+        return operator;
+    }
+
+    public double getExposure() {
+        return exposure;
+    }
+
+    public double getGamma() {
+        return gamma;
+    }
+
+    /**
+     * Convertit une radiance en pixel RGB 24 bits.
+     */
+    public int toRGB(float r, float g, float b) {
+        return (channel(r) << 16) | (channel(g) << 8) | channel(b);
+    }
+
+    private int channel(float v) {
+        float c = v * scale;
+        if (operator == Operator.REINHARD) {
+            c = c > 0f ? c / (1f + c) : 0f;
+        }
+        c = Math.max(0f, Math.min(1f, c));
+        if (invGamma != 1f) {
+            c = (float) Math.pow(c, invGamma);
+        }
+        return (int) (c * 255) & 0xFF;
+    }
+
+    /**
+     * Écrit l'image tone-mappée dans {@code target} (mêmes dimensions), ligne par ligne
+     * en parallèle.
+     */
+    public void apply(FloatImageBuffer source, FrameBuffer target) {
+        if (source.getWidth() != target.getWidth() || source.getHeight() != target.getHeight()) {
+            throw new IllegalArgumentException("dimensions différentes : "
+                    + source.getWidth() + "x" + source.getHeight() + " / "
+                    + target.getWidth() + "x" + target.getHeight());
+        }
+        float[] data = source.getData();
+        int width = source.getWidth();
+        IntStream.range(0, source.getHeight()).parallel().forEach(y -> {
+            int i = source.indexOf(0, y);
+            for (int x = 0; x < width; x++, i += FloatImageBuffer.CHANNELS) {
+                target.setPixel(x, y, toRGB(data[i], data[i + 1], data[i + 2]));
+            }
+        });
+    }
+
+    /**
+     * @return une nouvelle image 8 bits tone-mappée
+     */
+    public ImageBuffer apply(FloatImageBuffer source) {
+        ImageBuffer target = new ImageBuffer(source.getWidth(), source.getHeight());
+        apply(source, target);
+        return target;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ToneMapper[%s, exposure=%+.2f, gamma=%.2f]", operator, exposure, gamma);
+    }
+}
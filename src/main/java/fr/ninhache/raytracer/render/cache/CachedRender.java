@@ -0,0 +1,31 @@
+package fr.ninhache.raytracer.render.cache;
+
+import fr.ninhache.raytracer.render.RenderStats;
+
+/**
+ * Image encodée renvoyée par le cache de rendu.
+ *
+ * @param key empreinte du rendu (cf. {@link SceneHasher#hash(fr.ninhache.raytracer.scene.Scene, fr.ninhache.raytracer.render.RenderOptions)})
+ * @param png image encodée en PNG
+ * @param stats statistiques du rendu d'origine ; null si l'entrée vient du disque
+ * @param hit {@code true} si l'image vient du cache, {@code false} si elle vient d'être calculée
+ * @param nanos temps total de l'appel (recherche, rendu éventuel et encodage)
+ */
+public record CachedRender(
+        String key,
+        byte[] png,
+        RenderStats stats,
+        boolean hit,
+        long nanos
+) {
+
+    public double millis() {
+        return nanos / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CachedRender[%s, key=%s, %d octets, %.2f ms]",
+                hit ? "hit" : "miss", key.substring(0, Math.min(12, key.length())), png.length, millis());
+    }
+}
@@ -0,0 +1,86 @@
+package fr.ninhache.raytracer.render.cache;
+
+import fr.ninhache.raytracer.render.RenderOptions;
+import fr.ninhache.raytracer.render.RenderResult;
+import fr.ninhache.raytracer.render.RenderStats;
+import fr.ninhache.raytracer.render.RenderStatus;
+import fr.ninhache.raytracer.render.Renderer;
+import fr.ninhache.raytracer.render.output.PngWriter;
+import fr.ninhache.raytracer.scene.Scene;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * {@link Renderer} précédé d'un {@link RenderCache}.
+ *
+ * <p>La clé est l'empreinte de la scène parsée et des réglages qui influent sur les
+ * pixels ({@link SceneHasher#hash(Scene, RenderOptions)}). Seuls les rendus complets
+ * à pleine qualité sont mis en cache : une image partielle (deadline, annulation) ou
+ * dégradée par un budget de temps ne doit pas être resservie.
+ *
+ * <p>Si les options demandent un fichier de sortie, il est écrit dans tous les cas :
+ * pendant le rendu en cas d'absence, à partir du cache sinon.
+ */
+public final class CachingRenderer {
+
+    private final Renderer renderer;
+    private final RenderCache cache;
+
+    public CachingRenderer(Renderer renderer, RenderCache cache) {
+        if (renderer == null || cache == null) {
+            throw new IllegalArgumentException("renderer et cache ne peuvent pas être null");
+        }
+        this.renderer = renderer;
+        this.cache = cache;
+    }
+
+    public RenderCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Renvoie l'image du cache, ou la calcule puis la met en cache.
+     *
+     * @throws IOException si l'écriture du PNG ou du cache disque échoue
+     */
+    public CachedRender render(Scene scene, RenderOptions options) throws IOException {
+        long start = System.nanoTime();
+        String key = SceneHasher.hash(scene, options);
+        Path output = options.getOutputFile();
+
+        CachedRender cached = cache.get(key);
+        if (cached != null) {
+            if (output != null) {
+                Path parent = output.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                Files.write(output, cached.png());
+            }
+            return new CachedRender(key, cached.png(), cached.stats(), true, System.nanoTime() - start);
+        }
+
+        byte[] png;
+        RenderStats stats;
+        boolean cacheable;
+        try (RenderResult result = renderer.render(scene, options)) {
+            stats = result.stats();
+            cacheable = result.status() == RenderStatus.COMPLETED && stats.maxDepth() == scene.getMaxDepth();
+            if (output != null) {
+                png = Files.readAllBytes(output);
+            } else {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                PngWriter.write(result.frame(), out, options.getPngCompressionLevel(), 1);
+                png = out.toByteArray();
+            }
+        }
+
+        if (cacheable) {
+            cache.put(key, png, stats);
+        }
+        return new CachedRender(key, png, stats, false, System.nanoTime() - start);
+    }
+}
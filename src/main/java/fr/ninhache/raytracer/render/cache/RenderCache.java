@@ -0,0 +1,232 @@
+package fr.ninhache.raytracer.render.cache;
+
+import fr.ninhache.raytracer.render.RenderStats;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Cache d'images PNG à deux niveaux, borné en octets et évincé en LRU.
+ *
+ * <ul>
+ *   <li>Mémoire : les images les plus récemment utilisées, avec les statistiques du
+ *       rendu d'origine.</li>
+ *   <li>Disque (optionnel) : un fichier {@code <clé>.png} par image, l'ordre LRU
+ *       étant porté par la date de modification, rafraîchie à chaque lecture. Le cache
+ *       survit donc au redémarrage de la JVM.</li>
+ * </ul>
+ * Une image lue sur le disque remonte en mémoire. Les méthodes sont synchronisées :
+ * les accès sont brefs comparés à un rendu.
+ */
+public final class RenderCache {
+
+    private static final String EXT = ".png";
+
+    private final long memoryLimit;
+    private final Path directory;
+    private final long diskLimit;
+
+    private final LinkedHashMap<String, Entry> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, Long> disk = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes;
+    private long diskBytes;
+    private long hits;
+    private long misses;
+
+    private record Entry(byte[] png, RenderStats stats) {
+    }
+
+    /**
+     * Cache uniquement en mémoire.
+     *
+     * @param memoryLimit taille maximale des images en mémoire, en octets (>= 0)
+     */
+    public RenderCache(long memoryLimit) {
+        this.memoryLimit = checkLimit(memoryLimit);
+        this.directory = null;
+        this.diskLimit = 0;
+    }
+
+    /**
+     * Cache en mémoire adossé à un répertoire. Les images déjà présentes dans le
+     * répertoire sont reprises (les plus anciennes évincées si la limite a baissé).
+     *
+     * @param memoryLimit taille maximale des images en mémoire, en octets (>= 0)
+     * @param directory répertoire du cache disque (créé si besoin)
+     * @param diskLimit taille maximale des images sur disque, en octets (>= 0)
+     */
+    public RenderCache(long memoryLimit, Path directory, long diskLimit) throws IOException {
+        if (directory == null) {
+            throw new IllegalArgumentException("directory ne peut pas être null");
+        }
+        this.memoryLimit = checkLimit(memoryLimit);
+        this.directory = directory;
+        this.diskLimit = checkLimit(diskLimit);
+
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.filter(p -> p.getFileName().toString().endsWith(EXT)).toList();
+        }
+        List<Path> byAge = new ArrayList<>(files);
+        byAge.sort(Comparator.comparing(RenderCache::lastModified));
+        for (Path file : byAge) {
+            String name = file.getFileName().toString();
+            long size = Files.size(file);
+            disk.put(name.substring(0, name.length() - EXT.length()), size);
+            diskBytes += size;
+        }
+        evictDisk();
+    }
+
+    /**
+     * @return l'image en cache (stats null si elle vient du disque), ou null
+     */
+    public synchronized CachedRender get(String key) {
+        long start = System.nanoTime();
+        Entry entry = memory.get(key);
+        if (entry == null && directory != null && disk.get(key) != null) {
+            Path file = fileFor(key);
+            try {
+                byte[] png = Files.readAllBytes(file);
+                Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+                entry = new Entry(png, null);
+                putMemory(key, entry);
+            } catch (IOException e) {
+                // Fichier supprimé ou illisible : l'entrée est simplement perdue
+                forgetDisk(key);
+            }
+        }
+
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return new CachedRender(key, entry.png(), entry.stats(), true, System.nanoTime() - start);
+    }
+
+    /**
+     * Ajoute (ou remplace) une image. Une image plus grosse qu'une limite n'est pas
+     * stockée au niveau correspondant.
+     *
+     * @param stats statistiques du rendu (peut être null)
+     */
+    public synchronized void put(String key, byte[] png, RenderStats stats) throws IOException {
+        putMemory(key, new Entry(png, stats));
+
+        if (directory == null || png.length > diskLimit) {
+            return;
+        }
+        Path file = fileFor(key);
+        Path tmp = directory.resolve(key + ".tmp");
+        Files.write(tmp, png);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        Long previous = disk.put(key, (long) png.length);
+        diskBytes += png.length - (previous == null ? 0 : previous);
+        evictDisk();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    public synchronized long getDiskBytes() {
+        return diskBytes;
+    }
+
+    /**
+     * @return le nombre d'images disponibles (mémoire et disque confondus)
+     */
+    public synchronized int size() {
+        if (directory == null) {
+            return memory.size();
+        }
+        int count = disk.size();
+        for (String key : memory.keySet()) {
+            if (!disk.containsKey(key)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("RenderCache[%d image(s), mémoire=%d/%d o, disque=%d/%d o, hits=%d, misses=%d]",
+                size(), memoryBytes, memoryLimit, diskBytes, diskLimit, hits, misses);
+    }
+
+    private void putMemory(String key, Entry entry) {
+        Entry previous = memory.remove(key);
+        if (previous != null) {
+            memoryBytes -= previous.png().length;
+        }
+        if (entry.png().length > memoryLimit) {
+            return;
+        }
+        memory.put(key, entry);
+        memoryBytes += entry.png().length;
+
+        Iterator<Map.Entry<String, Entry>> it = memory.entrySet().iterator();
+        while (memoryBytes > memoryLimit && it.hasNext()) {
+            memoryBytes -= it.next().getValue().png().length;
+            it.remove();
+        }
+    }
+
+    private void evictDisk() throws IOException {
+        Iterator<Map.Entry<String, Long>> it = disk.entrySet().iterator();
+        while (diskBytes > diskLimit && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            Files.deleteIfExists(fileFor(eldest.getKey()));
+            diskBytes -= eldest.getValue();
+            it.remove();
+        }
+    }
+
+    private void forgetDisk(String key) {
+        Long size = disk.remove(key);
+        if (size != null) {
+            diskBytes -= size;
+        }
+    }
+
+    private Path fileFor(String key) {
+        return directory.resolve(key + EXT);
+    }
+
+    private static FileTime lastModified(Path p) {
+        try {
+            return Files.getLastModifiedTime(p);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static long checkLimit(long limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("La limite doit être >= 0 : " + limit);
+        }
+        return limit;
+    }
+}
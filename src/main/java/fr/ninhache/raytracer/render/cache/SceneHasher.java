@@ -0,0 +1,235 @@
+package fr.ninhache.raytracer.render.cache;
+
+import fr.ninhache.raytracer.geometry.IShape;
+import fr.ninhache.raytracer.geometry.shape.Disk;
+import fr.ninhache.raytracer.geometry.shape.Instance;
+import fr.ninhache.raytracer.geometry.shape.Plane;
+import fr.ninhache.raytracer.geometry.shape.RegularPolygon;
+import fr.ninhache.raytracer.geometry.shape.Sphere;
+import fr.ninhache.raytracer.geometry.shape.Triangle;
+import fr.ninhache.raytracer.lighting.DirectionalLight;
+import fr.ninhache.raytracer.lighting.ILight;
+import fr.ninhache.raytracer.lighting.PointLight;
+import fr.ninhache.raytracer.lighting.SpotLight;
+import fr.ninhache.raytracer.math.AbstractVec3;
+import fr.ninhache.raytracer.render.RenderOptions;
+import fr.ninhache.raytracer.scene.Camera;
+import fr.ninhache.raytracer.scene.Material;
+import fr.ninhache.raytracer.scene.Scene;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Empreinte canonique (SHA-256) d'une scène parsée.
+ *
+ * <p>L'empreinte porte sur ce qui détermine l'image et rien d'autre : deux fichiers
+ * qui ne diffèrent que par leurs commentaires, leur mise en forme, leur format
+ * ({@code .txt}, {@code .scene}...) ou leur nom de sortie ont la même empreinte.
+ * Les nombres sont hachés bit à bit, sans arrondi. L'ordre des formes et des
+ * lumières est conservé : il peut départager deux intersections à égale distance.
+ */
+public final class SceneHasher {
+
+    private SceneHasher() {
+    }
+
+    /**
+     * @return l'empreinte hexadécimale de la scène seule
+     */
+    public static String hash(Scene scene) {
+        Digest d = new Digest();
+        scene(d, scene);
+        return d.hex();
+    }
+
+    /**
+     * Empreinte de tout ce qui ne dépend pas des formes : taille, profondeur, caméra,
+     * lumière ambiante et lumières. Deux scènes de même réglage ne diffèrent que par
+     * leurs objets.
+     *
+     * @return l'empreinte hexadécimale des réglages de la scène
+     */
+    public static String hashSettings(Scene scene) {
+        Digest d = new Digest();
+        settings(d, scene);
+        return d.hex();
+    }
+
+    /**
+     * @return l'empreinte hexadécimale d'une forme et de son matériau
+     */
+    public static String hash(IShape shape) {
+        Digest d = new Digest();
+        shape(d, shape);
+        material(d, shape.getMaterial());
+        return d.hex();
+    }
+
+    /**
+     * Empreinte de la scène et des réglages qui changent les pixels produits :
+     * anti-aliasing et mode HDR. La stratégie d'exécution, le découpage en tuiles,
+     * le rendu progressif ou la compression PNG ne modifient pas l'image et n'y
+     * entrent pas.
+     *
+     * @return l'empreinte hexadécimale du rendu
+     */
+    public static String hash(Scene scene, RenderOptions options) {
+        Digest d = new Digest();
+        scene(d, scene);
+        d.tag("options");
+        d.putInt(options.getAntiAliasingSamples());
+        d.putDouble(options.isAntiAliased() ? options.getAntiAliasingThreshold() : 0.0);
+        d.putInt(options.isHdr() ? 1 : 0);
+        return d.hex();
+    }
+
+    private static void scene(Digest d, Scene scene) {
+        settings(d, scene);
+
+        d.putInt(scene.getShapeCount());
+        for (IShape shape : scene.getShapes()) {
+            shape(d, shape);
+            material(d, shape.getMaterial());
+        }
+    }
+
+    private static void settings(Digest d, Scene scene) {
+        d.tag("scene");
+        d.putInt(scene.getWidth());
+        d.putInt(scene.getHeight());
+        d.putInt(scene.getMaxDepth());
+
+        Camera cam = scene.getCamera();
+        d.putVec(cam.getLookFrom());
+        d.putVec(cam.getLookAt());
+        d.putVec(cam.getUp());
+        d.putDouble(cam.getFovDegrees());
+
+        d.putVec(scene.getAmbientLight());
+
+        d.putInt(scene.getLightCount());
+        for (ILight light : scene.getLights()) {
+            light(d, light);
+        }
+    }
+
+    private static void light(Digest d, ILight light) {
+        d.tag(light.getClass().getName());
+        d.putVec(light.getColor());
+        if (light instanceof PointLight pl) {
+            d.putVec(pl.getPosition());
+        } else if (light instanceof DirectionalLight dl) {
+            d.putVec(dl.getDirection());
+        } else if (light instanceof SpotLight sl) {
+            d.putVec(sl.getPosition());
+            d.putVec(sl.getDirection());
+            d.putDouble(sl.getConeAngleDegrees());
+            d.putDouble(sl.getPenumbraAngleDegrees());
+        } else {
+            d.tag(light.describe());
+        }
+    }
+
+    private static void shape(Digest d, IShape shape) {
+        d.tag(shape.getClass().getName());
+        if (shape instanceof Sphere s) {
+            d.putVec(s.getCenter());
+            d.putDouble(s.getRadius());
+        } else if (shape instanceof Triangle t) {
+            triangle(d, t);
+        } else if (shape instanceof Plane p) {
+            d.putVec(p.getPoint());
+            d.putVec(p.getNormal());
+        } else if (shape instanceof Disk k) {
+            d.putVec(k.getCenter());
+            d.putVec(k.getNormal());
+            d.putDouble(k.getRadius());
+        } else if (shape instanceof RegularPolygon rp) {
+            for (Triangle t : rp.getTriangles()) {
+                triangle(d, t);
+            }
+        } else if (shape instanceof Instance in) {
+            for (double v : in.getTransform().getMatrix()) {
+                d.putDouble(v);
+            }
+            // Le matériau de l'instance n'est pas utilisé : ce sont ceux du groupe
+            d.putInt(in.getGroup().getShapes().size());
+            for (IShape s : in.getGroup().getShapes()) {
+                shape(d, s);
+                material(d, s.getMaterial());
+            }
+        } else {
+            // Forme inconnue : sa description, à défaut de mieux
+            d.tag(shape.describe());
+        }
+    }
+
+    private static void triangle(Digest d, Triangle t) {
+        d.putVec(t.getV1());
+        d.putVec(t.getV2());
+        d.putVec(t.getV3());
+    }
+
+    private static void material(Digest d, Material m) {
+        if (m == null) {
+            d.putInt(0);
+            return;
+        }
+        d.putInt(1);
+        d.putVec(m.getDiffuse());
+        d.putVec(m.getSpecular());
+        d.putDouble(m.getShininess());
+    }
+
+    /**
+     * SHA-256 alimenté par des valeurs binaires de taille fixe.
+     */
+    private static final class Digest {
+        private final MessageDigest sha;
+        private final ByteBuffer buf = ByteBuffer.allocate(Double.BYTES * 3);
+
+        Digest() {
+            try {
+                sha = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 indisponible", e);
+            }
+        }
+
+        void putInt(int v) {
+            buf.clear();
+            buf.putInt(v);
+            sha.update(buf.array(), 0, Integer.BYTES);
+        }
+
+        void putDouble(double v) {
+            buf.clear();
+            // +0.0 et -0.0 donnent la même image
+            buf.putDouble(v == 0.0 ? 0.0 : v);
+            sha.update(buf.array(), 0, Double.BYTES);
+        }
+
+        void putVec(AbstractVec3 v) {
+            putDouble(v.x);
+            putDouble(v.y);
+            putDouble(v.z);
+        }
+
+        /**
+         * Chaîne préfixée par sa longueur (pas d'ambiguïté entre champs consécutifs).
+         */
+        void tag(String s) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            sha.update(bytes);
+        }
+
+        String hex() {
+            return HexFormat.of().formatHex(sha.digest());
+        }
+    }
+}
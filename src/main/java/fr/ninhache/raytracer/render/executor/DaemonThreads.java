@@ -0,0 +1,27 @@
+package fr.ninhache.raytracer.render.executor;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fabriques de threads démons numérotés, pour tous les exécuteurs internes du moteur
+ * (pools partagés, écrivains et encodeurs d'arrière-plan) : ils n'empêchent pas la JVM
+ * de s'arrêter et restent reconnaissables dans un thread dump.
+ */
+public final class DaemonThreads {
+
+    private DaemonThreads() {
+    }
+
+    /**
+     * @return une fabrique de threads démons nommés {@code prefix-1}, {@code prefix-2}...
+     */
+    public static ThreadFactory named(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -0,0 +1,41 @@
+package fr.ninhache.raytracer.render.executor;
+
+/**
+ * Stratégies d'exécution disponibles pour le rendu.
+ *
+ * <p>Permet de choisir la stratégie par configuration (ex : {@code ExecutionMode.valueOf("FORK_JOIN")}).
+ */
+public enum ExecutionMode {
+
+    /** Pool fixe de threads plateforme (comportement historique). */
+    FIXED_POOL {
+        @Override
+        public RenderExecutor create(int threadCount) {
+            return new FixedPoolExecutor(threadCount);
+        }
+    },
+
+    /** Découpage récursif des tuiles avec vol de travail. */
+    FORK_JOIN {
+        @Override
+        public RenderExecutor create(int threadCount) {
+            return new ForkJoinExecutor(threadCount);
+        }
+    },
+
+    /** Un thread virtuel par tuile, concurrence bornée par {@code threadCount}. */
+    VIRTUAL_THREADS {
+        @Override
+        public RenderExecutor create(int threadCount) {
+            return new VirtualThreadExecutor(threadCount);
+        }
+    };
+
+    /**
+     * Instancie l'exécuteur correspondant.
+     *
+     * @param threadCount nombre de threads (ou de tuiles simultanées) souhaité
+     * @return un nouvel exécuteur
+     */
+    public abstract RenderExecutor create(int threadCount);
+}
@@ -0,0 +1,55 @@
+package fr.ninhache.raytracer.render.executor;
+
+import fr.ninhache.raytracer.render.Tile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Exécution sur un pool de threads plateforme de taille fixe.
+ *
+ * <p>C'est le comportement historique du renderer : un pool est créé pour le rendu
+ * puis arrêté une fois toutes les tuiles terminées.
+ */
+public final class FixedPoolExecutor implements RenderExecutor {
+
+    private final int threadCount;
+
+    /**
+     * @param threadCount nombre de threads du pool (doit être >= 1)
+     */
+    public FixedPoolExecutor(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("threadCount doit être >= 1 : " + threadCount);
+        }
+        this.threadCount = threadCount;
+    }
+
+    @Override
+    public String name() {
+        return "fixed-pool";
+    }
+
+    @Override
+    public int parallelism() {
+        return threadCount;
+    }
+
+    @Override
+    public void execute(List<Tile> tiles, Consumer<Tile> work) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<?>> futures = new ArrayList<>(tiles.size());
+            for (Tile tile : tiles) {
+                futures.add(executor.submit(() -> work.accept(tile)));
+            }
+            Tasks.awaitAll(futures);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package fr.ninhache.raytracer.render.executor;
+
+import fr.ninhache.raytracer.render.Tile;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Exécution par découpage récursif (fork/join).
+ *
+ * <p>La liste des tuiles (ordonnée ligne par ligne) est coupée en deux jusqu'à
+ * n'en contenir plus qu'une : chaque moitié correspond donc à une bande contiguë
+ * de l'image. Les threads inactifs volent le travail des autres, ce qui équilibre
+ * bien les scènes où le coût des pixels est très hétérogène (réflexions locales).
+ */
+public final class ForkJoinExecutor implements RenderExecutor {
+
+    private final int parallelism;
+
+    /**
+     * @param parallelism nombre de threads du pool fork/join (doit être >= 1)
+     */
+    public ForkJoinExecutor(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism doit être >= 1 : " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public String name() {
+        return "fork-join";
+    }
+
+    @Override
+    public int parallelism() {
+        return parallelism;
+    }
+
+    @Override
+    public void execute(List<Tile> tiles, Consumer<Tile> work) {
+        if (tiles.isEmpty()) {
+            return;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new TileRangeAction(tiles, 0, tiles.size(), work));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Traite les tuiles d'indice [from, to[.
+     */
+    private static final class TileRangeAction extends RecursiveAction {
+        private final List<Tile> tiles;
+        private final int from;
+        private final int to;
+        private final Consumer<Tile> work;
+
+        TileRangeAction(List<Tile> tiles, int from, int to, Consumer<Tile> work) {
+            this.tiles = tiles;
+            this.from = from;
+            this.to = to;
+            this.work = work;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                work.accept(tiles.get(from));
+                return;
+            }
+
+            int mid = (from + to) >>> 1;
+            invokeAll(
+                    new TileRangeAction(tiles, from, mid, work),
+                    new TileRangeAction(tiles, mid, to, work)
+            );
+        }
+    }
+}
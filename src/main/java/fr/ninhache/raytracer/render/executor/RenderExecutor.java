@@ -0,0 +1,41 @@
+package fr.ninhache.raytracer.render.executor;
+
+import fr.ninhache.raytracer.render.Tile;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Stratégie d'exécution des tuiles d'un rendu.
+ *
+ * <p>Le {@link fr.ninhache.raytracer.render.Renderer} découpe l'image en {@link Tile}
+ * et délègue leur ordonnancement à une implémentation de cette interface. Chaque
+ * implémentation choisit ses threads (pool fixe, fork/join, threads virtuels...)
+ * mais doit garantir que :
+ * <ul>
+ *   <li>chaque tuile est traitée exactement une fois</li>
+ *   <li>{@link #execute} ne rend la main qu'une fois toutes les tuiles traitées</li>
+ *   <li>une exception levée par le travail d'une tuile est propagée à l'appelant</li>
+ * </ul>
+ */
+public interface RenderExecutor {
+
+    /**
+     * @return le nom court de la stratégie (utilisé dans {@code RenderStats})
+     */
+    String name();
+
+    /**
+     * @return le nombre maximal de tuiles traitées en même temps
+     */
+    int parallelism();
+
+    /**
+     * Traite toutes les tuiles et attend la fin du travail.
+     *
+     * @param tiles les tuiles à traiter
+     * @param work le traitement d'une tuile (doit être thread-safe)
+     * @throws InterruptedException si le thread appelant est interrompu pendant l'attente
+     */
+    void execute(List<Tile> tiles, Consumer<Tile> work) throws InterruptedException;
+}
@@ -0,0 +1,57 @@
+package fr.ninhache.raytracer.render.executor;
+
+import fr.ninhache.raytracer.render.Tile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Exécution sur un pool fourni par l'appelant et partagé entre plusieurs rendus.
+ *
+ * <p>Contrairement à {@link FixedPoolExecutor}, aucun thread n'est créé ni arrêté :
+ * les tuiles de tous les rendus en cours sont mises dans la même file, ce qui borne
+ * globalement le nombre de threads de calcul (rendu par lots, serveur...). Le cycle
+ * de vie du pool reste à la charge de l'appelant.
+ */
+public final class SharedPoolExecutor implements RenderExecutor {
+
+    private final ExecutorService pool;
+    private final int parallelism;
+
+    /**
+     * @param pool pool partagé (non null, non arrêté par cet exécuteur)
+     * @param parallelism nombre de threads du pool, reporté dans les statistiques (>= 1)
+     */
+    public SharedPoolExecutor(ExecutorService pool, int parallelism) {
+        if (pool == null) {
+            throw new IllegalArgumentException("pool ne peut pas être null");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism doit être >= 1 : " + parallelism);
+        }
+        this.pool = pool;
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public String name() {
+        return "shared-pool";
+    }
+
+    @Override
+    public int parallelism() {
+        return parallelism;
+    }
+
+    @Override
+    public void execute(List<Tile> tiles, Consumer<Tile> work) throws InterruptedException {
+        List<Future<?>> futures = new ArrayList<>(tiles.size());
+        for (Tile tile : tiles) {
+            futures.add(pool.submit(() -> work.accept(tile)));
+        }
+        Tasks.awaitAll(futures);
+    }
+}
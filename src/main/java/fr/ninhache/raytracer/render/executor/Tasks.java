@@ -0,0 +1,39 @@
+package fr.ninhache.raytracer.render.executor;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Utilitaires communs aux exécuteurs basés sur des {@link Future}.
+ */
+final class Tasks {
+
+    private Tasks() { }
+
+    /**
+     * Attend toutes les tâches et relance la première erreur rencontrée.
+     *
+     * <p>En cas d'interruption, les tâches restantes sont annulées.
+     */
+    static void awaitAll(List<? extends Future<?>> futures) throws InterruptedException {
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            throw e;
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            if (cause instanceof Error err) {
+                throw err;
+            }
+            throw new IllegalStateException("Échec du rendu d'une tuile", cause);
+        }
+    }
+}
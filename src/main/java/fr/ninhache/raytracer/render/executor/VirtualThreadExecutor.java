@@ -0,0 +1,65 @@
+package fr.ninhache.raytracer.render.executor;
+
+import fr.ninhache.raytracer.render.Tile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Exécution avec un thread virtuel par tuile.
+ *
+ * <p>Destiné à l'intégration dans un service qui fait beaucoup d'I/O : aucun thread
+ * plateforme n'est réservé au rendu. Le nombre de tuiles calculées simultanément
+ * est borné par un sémaphore, afin que les threads porteurs restent disponibles
+ * pour le reste du service.
+ */
+public final class VirtualThreadExecutor implements RenderExecutor {
+
+    private final int maxConcurrentTiles;
+
+    /**
+     * @param maxConcurrentTiles nombre maximal de tuiles calculées en même temps (>= 1)
+     */
+    public VirtualThreadExecutor(int maxConcurrentTiles) {
+        if (maxConcurrentTiles < 1) {
+            throw new IllegalArgumentException("maxConcurrentTiles doit être >= 1 : " + maxConcurrentTiles);
+        }
+        this.maxConcurrentTiles = maxConcurrentTiles;
+    }
+
+    @Override
+    public String name() {
+        return "virtual-threads";
+    }
+
+    @Override
+    public int parallelism() {
+        return maxConcurrentTiles;
+    }
+
+    @Override
+    public void execute(List<Tile> tiles, Consumer<Tile> work) throws InterruptedException {
+        Semaphore permits = new Semaphore(maxConcurrentTiles);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(tiles.size());
+            for (Tile tile : tiles) {
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        work.accept(tile);
+                    } finally {
+                        permits.release();
+                    }
+                    return null;
+                }));
+            }
+            Tasks.awaitAll(futures);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package fr.ninhache.raytracer.render.output;
+
+import fr.ninhache.raytracer.render.executor.DaemonThreads;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Adler32;
+import java.util.zip.Deflater;
+
+/**
+ * Flux zlib compressé en parallèle, à la manière de {@code pigz}.
+ *
+ * <p>Les données sont découpées en blocs indépendants de {@code blockSize} octets,
+ * compressés simultanément par un pool de threads. Chaque bloc est amorcé avec les
+ * 32 Ko de données qui le précèdent ({@link Deflater#setDictionary}) pour conserver
+ * les références arrière, et terminé par un {@code SYNC_FLUSH} qui l'aligne sur un
+ * octet : la concaténation des blocs forme un flux deflate unique. L'en-tête zlib et
+ * la somme Adler-32 (calculée séquentiellement, c'est peu coûteux) l'encadrent pour
+ * produire un flux zlib standard, lisible par n'importe quel décodeur.
+ *
+ * <p>Le nombre de blocs en vol est borné à deux par thread : la mémoire reste
+ * proportionnelle à {@code threads x blockSize}. Ne ferme pas le flux sous-jacent.
+ */
+public final class ParallelDeflateOutputStream extends OutputStream {
+
+    /** Fenêtre maximale de deflate, utilisée comme dictionnaire du bloc suivant. */
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+
+    /** Taille de bloc par défaut (compromis parallélisme / perte de ratio aux frontières). */
+    public static final int DEFAULT_BLOCK_SIZE = 128 * 1024;
+
+    private final OutputStream out;
+    private final int level;
+    private final int maxInFlight;
+    private final ExecutorService pool;
+    private final ArrayDeque<Future<byte[]>> inFlight = new ArrayDeque<>();
+    private final Adler32 adler = new Adler32();
+
+    private byte[] block;
+    private int count;
+    private byte[] dictionary;
+    private long rawBytes;
+    private long compressedBytes;
+    private boolean closed;
+
+    /**
+     * @param out flux de destination
+     * @param level niveau de compression (0 à 9, ou -1 pour la valeur par défaut)
+     * @param threads nombre de threads de compression (>= 1)
+     * @param blockSize taille des blocs compressés indépendamment (>= 32 Ko)
+     */
+    public ParallelDeflateOutputStream(OutputStream out, int level, int threads, int blockSize) throws IOException {
+        if (level < -1 || level > 9) {
+            throw new IllegalArgumentException("level doit être dans [-1, 9] : " + level);
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads doit être >= 1 : " + threads);
+        }
+        if (blockSize < DICTIONARY_SIZE) {
+            throw new IllegalArgumentException("blockSize doit être >= " + DICTIONARY_SIZE + " : " + blockSize);
+        }
+        this.out = out;
+        this.level = level;
+        this.maxInFlight = 2 * threads;
+        this.block = new byte[blockSize];
+        this.pool = Executors.newFixedThreadPool(threads, DaemonThreads.named("png-deflate"));
+
+        writeHeader();
+    }
+
+    private void writeHeader() throws IOException {
+        int cmf = 0x78; // deflate, fenêtre de 32 Ko
+        int flevel = switch (level) {
+            case 0, 1 -> 0;
+            case 2, 3, 4, 5 -> 1;
+            case -1, 6 -> 2;
+            default -> 3;
+        };
+        int flg = flevel << 6;
+        flg += 31 - ((cmf << 8) + flg) % 31;
+        out.write(cmf);
+        out.write(flg);
+        compressedBytes += 2;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("flux fermé");
+        }
+        adler.update(b, off, len);
+        rawBytes += len;
+        while (len > 0) {
+            int n = Math.min(len, block.length - count);
+            System.arraycopy(b, off, block, count, n);
+            count += n;
+            off += n;
+            len -= n;
+            if (count == block.length) {
+                submit(false);
+            }
+        }
+    }
+
+    /**
+     * Confie le bloc courant au pool ; écrit les blocs les plus anciens si trop sont en vol.
+     */
+    private void submit(boolean last) throws IOException {
+        byte[] data = block;
+        int length = count;
+        byte[] dict = dictionary;
+
+        inFlight.add(pool.submit(() -> compress(data, length, dict, last)));
+
+        if (length >= DICTIONARY_SIZE) {
+            dictionary = Arrays.copyOfRange(data, length - DICTIONARY_SIZE, length);
+        }
+        block = new byte[block.length];
+        count = 0;
+
+        while (inFlight.size() > (last ? 0 : maxInFlight)) {
+            writeNext();
+        }
+    }
+
+    private void writeNext() throws IOException {
+        try {
+            byte[] compressed = inFlight.poll().get();
+            out.write(compressed);
+            compressedBytes += compressed.length;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("compression interrompue");
+        } catch (ExecutionException e) {
+            throw new IOException("échec de la compression", e.getCause());
+        }
+    }
+
+    private byte[] compress(byte[] data, int length, byte[] dict, boolean last) {
+        Deflater deflater = new Deflater(level, true);
+        try {
+            if (dict != null) {
+                deflater.setDictionary(dict);
+            }
+            deflater.setInput(data, 0, length);
+
+            byte[] buf = new byte[Math.max(1024, length / 2)];
+            int size = 0;
+            if (last) {
+                deflater.finish();
+            }
+            while (true) {
+                if (size == buf.length) {
+                    buf = Arrays.copyOf(buf, buf.length * 2);
+                }
+                int n = deflater.deflate(buf, size, buf.length - size,
+                        last ? Deflater.NO_FLUSH : Deflater.SYNC_FLUSH);
+                size += n;
+                if (last ? deflater.finished() : size < buf.length) {
+                    break;
+                }
+            }
+            return Arrays.copyOf(buf, size);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * @return le nombre d'octets reçus (non compressés)
+     */
+    public long getRawBytes() {
+        return rawBytes;
+    }
+
+    /**
+     * @return le nombre d'octets écrits dans le flux sous-jacent
+     */
+    public long getCompressedBytes() {
+        return compressedBytes;
+    }
+
+    /**
+     * Abandonne le flux sans le terminer (les blocs en vol sont ignorés).
+     */
+    public void abort() {
+        closed = true;
+        pool.shutdownNow();
+    }
+
+    /**
+     * Compresse le dernier bloc, attend les blocs en vol et écrit la somme Adler-32.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            submit(true);
+            long sum = adler.getValue();
+            out.write((int) (sum >>> 24));
+            out.write((int) (sum >>> 16));
+            out.write((int) (sum >>> 8));
+            out.write((int) sum);
+            compressedBytes += 4;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package fr.ninhache.raytracer.render.output;
+
+import fr.ninhache.raytracer.render.FloatImageBuffer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lecture d'une image PFM couleur ({@code PF}), pour re-tone-mapper un rendu HDR
+ * sans le recalculer.
+ */
+public final class PfmReader {
+
+    /** Taille maximale lue pour l'en-tête texte. */
+    private static final int MAX_HEADER = 256;
+
+    private PfmReader() {
+    }
+
+    /**
+     * @throws IOException si le fichier n'est pas un PFM couleur valide
+     */
+    public static FloatImageBuffer read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer head = ByteBuffer.allocate(MAX_HEADER);
+            channel.read(head, 0);
+            head.flip();
+
+            String[] fields = new String[4];
+            int pos = 0;
+            for (int f = 0; f < fields.length; f++) {
+                while (pos < head.limit() && Character.isWhitespace(head.get(pos))) {
+                    pos++;
+                }
+                int start = pos;
+                while (pos < head.limit() && !Character.isWhitespace(head.get(pos))) {
+                    pos++;
+                }
+                if (pos >= head.limit()) {
+                    throw new IOException("en-tête PFM tronqué : " + path);
+                }
+                byte[] token = new byte[pos - start];
+                head.get(start, token);
+                fields[f] = new String(token, StandardCharsets.US_ASCII);
+            }
+            pos++; // un unique blanc sépare l'en-tête des données
+
+            if (!"PF".equals(fields[0])) {
+                throw new IOException("PFM couleur attendu (PF), trouvé : " + fields[0]);
+            }
+            int width;
+            int height;
+            double scale;
+            try {
+                width = Integer.parseInt(fields[1]);
+                height = Integer.parseInt(fields[2]);
+                scale = Double.parseDouble(fields[3]);
+            } catch (NumberFormatException e) {
+                throw new IOException("en-tête PFM invalide : " + path, e);
+            }
+            ByteOrder order = scale < 0 ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+
+            FloatImageBuffer image = new FloatImageBuffer(width, height);
+            int rowFloats = width * FloatImageBuffer.CHANNELS;
+            ByteBuffer row = ByteBuffer.allocateDirect(rowFloats * Float.BYTES).order(order);
+            long offset = pos;
+            for (int y = height - 1; y >= 0; y--) {
+                row.clear();
+                while (row.hasRemaining()) {
+                    int n = channel.read(row, offset + row.position());
+                    if (n < 0) {
+                        throw new IOException("données PFM tronquées : " + path);
+                    }
+                }
+                row.flip();
+                FloatBuffer floats = row.asFloatBuffer();
+                floats.get(image.getData(), image.indexOf(0, y), rowFloats);
+                offset += row.capacity();
+            }
+            return image;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package fr.ninhache.raytracer.render.output;
+
+import fr.ninhache.raytracer.render.FloatImageBuffer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Écriture d'une image HDR au format PFM (Portable Float Map) couleur.
+ *
+ * <p>Format non compressé : un en-tête texte ({@code PF}, dimensions, échelle dont le
+ * signe négatif indique le little-endian) suivi des composantes {@code float} RGB,
+ * lignes de bas en haut. Lisible par la plupart des outils de compositing ; l'écriture
+ * se résume à des copies de lignes dans un buffer natif.
+ */
+public final class PfmWriter {
+
+    private PfmWriter() {
+    }
+
+    /**
+     * Écrit l'image (répertoires parents créés si besoin).
+     */
+    public static void write(FloatImageBuffer image, Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int rowFloats = width * FloatImageBuffer.CHANNELS;
+        float[] data = image.getData();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(channel, ByteBuffer.wrap(header(width, height)));
+
+            ByteBuffer row = ByteBuffer.allocateDirect(rowFloats * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            for (int y = height - 1; y >= 0; y--) {
+                row.clear();
+                row.asFloatBuffer().put(data, image.indexOf(0, y), rowFloats);
+                writeFully(channel, row);
+            }
+        }
+    }
+
+    static byte[] header(int width, int height) {
+        return ("PF\n" + width + " " + height + "\n-1.0\n").getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
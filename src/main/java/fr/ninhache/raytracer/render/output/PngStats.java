@@ -0,0 +1,50 @@
+package fr.ninhache.raytracer.render.output;
+
+/**
+ * Statistiques d'encodage d'un PNG.
+ *
+ * @param rawBytes octets filtrés avant compression
+ * @param compressedBytes octets compressés (données des chunks IDAT)
+ * @param encodeNanos temps passé à filtrer et compresser, hors attente des lignes
+ * @param threads nombre de threads de compression
+ * @param level niveau de compression deflate (-1 = défaut)
+ */
+public record PngStats(
+        long rawBytes,
+        long compressedBytes,
+        long encodeNanos,
+        int threads,
+        int level
+) {
+
+    public double encodeMillis() {
+        return encodeNanos / 1_000_000.0;
+    }
+
+    /**
+     * @return taille compressée / taille brute (0 si vide)
+     */
+    public double ratio() {
+        return rawBytes == 0 ? 0.0 : (double) compressedBytes / rawBytes;
+    }
+
+    /**
+     * @return débit d'encodage en Mo bruts par seconde
+     */
+    public double megabytesPerSecond() {
+        return encodeNanos == 0 ? 0.0 : rawBytes / 1_048_576.0 / (encodeNanos / 1_000_000_000.0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PngStats[level=%d, threads=%d, raw=%.1f MB, compressed=%.1f MB (%.1f%%), time=%.1f ms, %.1f MB/s]",
+                level,
+                threads,
+                rawBytes / 1_048_576.0,
+                compressedBytes / 1_048_576.0,
+                ratio() * 100.0,
+                encodeMillis(),
+                megabytesPerSecond()
+        );
+    }
+}
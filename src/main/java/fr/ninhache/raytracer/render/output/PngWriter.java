@@ -0,0 +1,170 @@
+package fr.ninhache.raytracer.render.output;
+
+import fr.ninhache.raytracer.render.FrameBuffer;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Écriture PNG (RGB 8 bits, sans entrelacement) d'un {@link FrameBuffer} complet.
+ *
+ * <p>Contrairement à {@code ImageIO}, l'image n'est jamais matérialisée : les lignes
+ * sont lues une à une depuis le framebuffer et confiées à un {@link StreamingPngWriter}.
+ * La mémoire utilisée ne dépend que de la largeur de l'image.
+ */
+public final class PngWriter {
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    /** Taille maximale des données d'un chunk IDAT. */
+    static final int IDAT_SIZE = 64 * 1024;
+
+    private PngWriter() {
+    }
+
+    /**
+     * Écrit l'image dans un fichier avec la compression par défaut,
+     * parallélisée sur tous les cœurs.
+     */
+    public static PngStats write(FrameBuffer frame, Path path) throws IOException {
+        return write(frame, path, Deflater.DEFAULT_COMPRESSION, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Écrit l'image dans un fichier (répertoires parents créés si besoin).
+     *
+     * @param level niveau de compression (0 à 9, ou -1 pour la valeur par défaut)
+     * @param threads threads de compression (1 = deflate séquentiel)
+     * @return les statistiques d'encodage
+     */
+    public static PngStats write(FrameBuffer frame, Path path, int level, int threads) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path), IDAT_SIZE)) {
+            return write(frame, out, level, threads);
+        }
+    }
+
+    /**
+     * Écrit l'image dans un flux (non fermé).
+     *
+     * @param level niveau de compression (0 à 9, ou -1 pour la valeur par défaut)
+     * @param threads threads de compression (1 = deflate séquentiel)
+     * @return les statistiques d'encodage
+     */
+    public static PngStats write(FrameBuffer frame, OutputStream out, int level, int threads) throws IOException {
+        StreamingPngWriter png = new StreamingPngWriter(out, frame.getWidth(), frame.getHeight(), level, threads);
+        try (png) {
+            int[] row = new int[frame.getWidth()];
+            for (int y = 0; y < frame.getHeight(); y++) {
+                frame.getRow(y, row);
+                png.writeRow(row);
+            }
+        }
+        return png.getStats();
+    }
+
+    static void writeSignatureAndHeader(OutputStream out, int width, int height) throws IOException {
+        out.write(SIGNATURE);
+
+        byte[] ihdr = new byte[13];
+        putInt(ihdr, 0, width);
+        putInt(ihdr, 4, height);
+        ihdr[8] = 8;  // bits par composante
+        ihdr[9] = 2;  // RGB
+        ihdr[10] = 0; // deflate
+        ihdr[11] = 0; // filtres adaptatifs standards
+        ihdr[12] = 0; // pas d'entrelacement
+        writeChunk(out, "IHDR", ihdr, ihdr.length);
+    }
+
+    static void writeChunk(OutputStream out, String type, byte[] data, int length) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data, 0, length);
+
+        DataOutputStream dos = new DataOutputStream(out);
+        dos.writeInt(length);
+        dos.write(typeBytes);
+        dos.write(data, 0, length);
+        dos.writeInt((int) crc.getValue());
+    }
+
+    private static void putInt(byte[] b, int off, int v) {
+        b[off] = (byte) (v >>> 24);
+        b[off + 1] = (byte) (v >>> 16);
+        b[off + 2] = (byte) (v >>> 8);
+        b[off + 3] = (byte) v;
+    }
+
+    /**
+     * Flux qui regroupe les octets reçus en chunks PNG d'au plus {@code size} octets.
+     * Ne ferme pas le flux sous-jacent.
+     */
+    static final class ChunkOutputStream extends OutputStream {
+        private final OutputStream out;
+        private final String type;
+        private final byte[] buf;
+        private int count;
+        private long total;
+
+        ChunkOutputStream(OutputStream out, String type, int size) {
+            this.out = out;
+            this.type = type;
+            this.buf = new byte[size];
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (count == buf.length) {
+                flushChunk();
+            }
+            buf[count++] = (byte) b;
+            total++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (count == buf.length) {
+                    flushChunk();
+                }
+                int n = Math.min(len, buf.length - count);
+                System.arraycopy(b, off, buf, count, n);
+                count += n;
+                total += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        /**
+         * @return le nombre total d'octets reçus
+         */
+        long getTotalBytes() {
+            return total;
+        }
+
+        private void flushChunk() throws IOException {
+            if (count > 0) {
+                writeChunk(out, type, buf, count);
+                count = 0;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            flushChunk();
+        }
+    }
+}
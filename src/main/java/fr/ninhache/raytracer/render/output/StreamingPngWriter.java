@@ -0,0 +1,243 @@
+package fr.ninhache.raytracer.render.output;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Encodeur PNG incrémental : les lignes sont poussées une à une, de haut en bas,
+ * au fur et à mesure qu'elles sont disponibles.
+ *
+ * <p>Chaque ligne est filtrée dès réception (filtre adaptatif choisi parmi None, Sub,
+ * Up, Average et Paeth selon l'heuristique de la somme minimale des différences,
+ * recommandée par la spécification PNG) puis compressée, par un {@link Deflater}
+ * unique ou par blocs en parallèle ({@link ParallelDeflateOutputStream}), la sortie
+ * étant découpée en chunks {@code IDAT}. Seules la ligne
+ * précédente et les lignes filtrées candidates sont conservées : la mémoire ne
+ * dépend que de la largeur de l'image, jamais de sa hauteur.
+ *
+ * <p>Non thread-safe : les lignes doivent être fournies par un seul thread à la fois.
+ */
+public final class StreamingPngWriter implements AutoCloseable {
+
+    private static final int BPP = 3;
+
+    private static final int FILTER_NONE = 0;
+    private static final int FILTER_SUB = 1;
+    private static final int FILTER_UP = 2;
+    private static final int FILTER_AVERAGE = 3;
+    private static final int FILTER_PAETH = 4;
+
+    private final OutputStream out;
+    private final int width;
+    private final int height;
+    private final int level;
+    private final int threads;
+    private final Deflater deflater;
+    private final ParallelDeflateOutputStream parallel;
+    private final PngWriter.ChunkOutputStream chunks;
+    private final OutputStream idat;
+
+    private byte[] current;
+    private byte[] previous;
+    private final byte[][] filtered = new byte[5][];
+    private int rowsWritten;
+    private long rawBytes;
+    private long encodeNanos;
+    private boolean closed;
+
+    /**
+     * Écrit l'en-tête PNG et prépare la compression.
+     *
+     * @param out flux de destination (non fermé par {@link #close()})
+     * @param width largeur de l'image (> 0)
+     * @param height hauteur de l'image (> 0)
+     */
+    public StreamingPngWriter(OutputStream out, int width, int height) throws IOException {
+        this(out, width, height, Deflater.DEFAULT_COMPRESSION, 1);
+    }
+
+    /**
+     * @param level niveau de compression deflate (0 à 9, ou -1 pour la valeur par défaut)
+     * @param threads threads de compression (1 = deflate séquentiel)
+     */
+    public StreamingPngWriter(OutputStream out, int width, int height, int level, int threads) throws IOException {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("dimensions invalides : " + width + "x" + height);
+        }
+        if ((long) width * BPP + 1 > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("image trop large : " + width);
+        }
+        if (level < -1 || level > 9) {
+            throw new IllegalArgumentException("level doit être dans [-1, 9] : " + level);
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads doit être >= 1 : " + threads);
+        }
+        this.out = out;
+        this.width = width;
+        this.height = height;
+        this.level = level;
+        this.threads = threads;
+
+        int rowBytes = width * BPP;
+        this.current = new byte[rowBytes];
+        this.previous = new byte[rowBytes];
+        for (int f = 0; f < filtered.length; f++) {
+            filtered[f] = new byte[rowBytes + 1];
+            filtered[f][0] = (byte) f;
+        }
+
+        PngWriter.writeSignatureAndHeader(out, width, height);
+        this.chunks = new PngWriter.ChunkOutputStream(out, "IDAT", PngWriter.IDAT_SIZE);
+        if (threads == 1) {
+            this.deflater = new Deflater(level);
+            this.parallel = null;
+            this.idat = new DeflaterOutputStream(chunks, deflater, PngWriter.IDAT_SIZE);
+        } else {
+            this.deflater = null;
+            this.parallel = new ParallelDeflateOutputStream(chunks, level, threads,
+                    ParallelDeflateOutputStream.DEFAULT_BLOCK_SIZE);
+            this.idat = parallel;
+        }
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return le nombre de lignes déjà encodées
+     */
+    public int getRowsWritten() {
+        return rowsWritten;
+    }
+
+    /**
+     * Encode la ligne suivante.
+     *
+     * @param argb pixels ARGB de la ligne (au moins {@link #getWidth()} éléments, alpha ignoré)
+     * @throws IllegalStateException si toutes les lignes ont déjà été écrites
+     */
+    public void writeRow(int[] argb) throws IOException {
+        if (closed || rowsWritten == height) {
+            throw new IllegalStateException("toutes les lignes ont déjà été écrites");
+        }
+        long start = System.nanoTime();
+
+        for (int x = 0, o = 0; x < width; x++) {
+            int p = argb[x];
+            current[o++] = (byte) (p >> 16);
+            current[o++] = (byte) (p >> 8);
+            current[o++] = (byte) p;
+        }
+
+        byte[] row = filtered[filterRow()];
+        idat.write(row);
+        rowsWritten++;
+        rawBytes += row.length;
+
+        byte[] tmp = previous;
+        previous = current;
+        current = tmp;
+        encodeNanos += System.nanoTime() - start;
+    }
+
+    /**
+     * @return les statistiques d'encodage (définitives après {@link #close()})
+     */
+    public PngStats getStats() {
+        return new PngStats(rawBytes, chunks.getTotalBytes(), encodeNanos, threads, level);
+    }
+
+    /**
+     * Calcule les cinq filtres de la ligne courante et renvoie le plus compressible.
+     */
+    private int filterRow() {
+        byte[] none = filtered[FILTER_NONE];
+        byte[] sub = filtered[FILTER_SUB];
+        byte[] up = filtered[FILTER_UP];
+        byte[] avg = filtered[FILTER_AVERAGE];
+        byte[] paeth = filtered[FILTER_PAETH];
+
+        long sNone = 0, sSub = 0, sUp = 0, sAvg = 0, sPaeth = 0;
+        for (int i = 0; i < current.length; i++) {
+            int x = current[i] & 0xFF;
+            int a = i >= BPP ? current[i - BPP] & 0xFF : 0;
+            int b = previous[i] & 0xFF;
+            int c = i >= BPP ? previous[i - BPP] & 0xFF : 0;
+
+            byte vNone = (byte) x;
+            byte vSub = (byte) (x - a);
+            byte vUp = (byte) (x - b);
+            byte vAvg = (byte) (x - ((a + b) >>> 1));
+            byte vPaeth = (byte) (x - paethPredictor(a, b, c));
+
+            none[i + 1] = vNone;
+            sub[i + 1] = vSub;
+            up[i + 1] = vUp;
+            avg[i + 1] = vAvg;
+            paeth[i + 1] = vPaeth;
+
+            sNone += Math.abs(vNone);
+            sSub += Math.abs(vSub);
+            sUp += Math.abs(vUp);
+            sAvg += Math.abs(vAvg);
+            sPaeth += Math.abs(vPaeth);
+        }
+
+        int best = FILTER_NONE;
+        long bestSum = sNone;
+        if (sSub < bestSum) { best = FILTER_SUB; bestSum = sSub; }
+        if (sUp < bestSum) { best = FILTER_UP; bestSum = sUp; }
+        if (sAvg < bestSum) { best = FILTER_AVERAGE; bestSum = sAvg; }
+        if (sPaeth < bestSum) { best = FILTER_PAETH; }
+        return best;
+    }
+
+    private static int paethPredictor(int a, int b, int c) {
+        int p = a + b - c;
+        int pa = Math.abs(p - a);
+        int pb = Math.abs(p - b);
+        int pc = Math.abs(p - c);
+        if (pa <= pb && pa <= pc) {
+            return a;
+        }
+        return pb <= pc ? b : c;
+    }
+
+    /**
+     * Termine le flux compressé et écrit le chunk {@code IEND}.
+     *
+     * @throws IllegalStateException si des lignes manquent (le PNG serait invalide)
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        long start = System.nanoTime();
+        try {
+            if (rowsWritten != height) {
+                throw new IllegalStateException("image incomplète : " + rowsWritten + "/" + height + " lignes");
+            }
+            idat.close();
+            chunks.close();
+            PngWriter.writeChunk(out, "IEND", new byte[0], 0);
+            out.flush();
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+            } else if (rowsWritten != height) {
+                parallel.abort();
+            }
+            encodeNanos += System.nanoTime() - start;
+        }
+    }
+}
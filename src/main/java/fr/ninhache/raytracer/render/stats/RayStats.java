@@ -12,6 +12,7 @@ public final class RayStats {
     private final LongAdder primaryRays = new LongAdder();
     private final LongAdder shadowRays = new LongAdder();
     private final LongAdder reflectionRays = new LongAdder();
+    private final LongAdder antiAliasingRays = new LongAdder();
 
     public void incPrimary() {
         primaryRays.increment();
@@ -25,6 +26,11 @@ public final class RayStats {
         reflectionRays.increment();
     }
 
+    /** Rayon caméra supplémentaire lancé par l'anti-aliasing adaptatif. */
+    public void incAntiAliasing() {
+        antiAliasingRays.increment();
+    }
+
     public long primaryRays() {
         return primaryRays.sum();
     }
@@ -37,7 +43,11 @@ public final class RayStats {
         return reflectionRays.sum();
     }
 
+    public long antiAliasingRays() {
+        return antiAliasingRays.sum();
+    }
+
     public long totalRays() {
-        return primaryRays() + shadowRays() + reflectionRays();
+        return primaryRays() + shadowRays() + reflectionRays() + antiAliasingRays();
     }
 }
@@ -0,0 +1,19 @@
+package fr.ninhache.raytracer.scene;
+
+/**
+ * Image clé d'une trajectoire de caméra (cf. {@link CameraPath#keyframes(java.util.List)}).
+ *
+ * @param time instant de l'image clé (unité libre, seul l'écart entre images clés compte)
+ * @param camera caméra à cet instant
+ */
+public record CameraKeyframe(double time, Camera camera) {
+
+    public CameraKeyframe {
+        if (!Double.isFinite(time)) {
+            throw new IllegalArgumentException("time doit être fini : " + time);
+        }
+        if (camera == null) {
+            throw new IllegalArgumentException("camera ne peut pas être null");
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package fr.ninhache.raytracer.scene;
+
+import fr.ninhache.raytracer.math.Point;
+import fr.ninhache.raytracer.math.Vector;
+import fr.ninhache.raytracer.scene.exception.ParseException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Trajectoire de caméra d'une animation.
+ *
+ * <p>Le temps est normalisé : {@code cameraAt(0)} donne la première image et
+ * {@code cameraAt(1)} la dernière, ou la première à nouveau pour une trajectoire
+ * bouclée (cf. {@link #isLoop()}).
+ *
+ * <h2>Exemple</h2>
+ * <pre>{@code
+ * CameraPath path = CameraPath.keyframes(List.of(
+ *     new CameraKeyframe(0, new Camera(new Point(0, 1, 5), target, Vector.Y_AXIS, 45)),
+ *     new CameraKeyframe(2, new Camera(new Point(4, 2, 1), target, Vector.Y_AXIS, 60))
+ * ));
+ * Camera middle = path.cameraAt(0.5);
+ * }</pre>
+ */
+@FunctionalInterface
+public interface CameraPath {
+
+    /**
+     * @param t instant normalisé, dans [0, 1]
+     * @return la caméra à l'instant {@code t}
+     */
+    Camera cameraAt(double t);
+
+    /**
+     * @return {@code true} si la caméra revient à sa position de départ en {@code t = 1} :
+     *         la dernière image ne doit alors pas répéter la première
+     */
+    default boolean isLoop() {
+        return false;
+    }
+
+    /**
+     * Trajectoire passant par des images clés (cf. {@link KeyframeCameraPath}).
+     *
+     * @param keyframes au moins une image clé, les instants étant distincts
+     */
+    static CameraPath keyframes(List<CameraKeyframe> keyframes) {
+        return new KeyframeCameraPath(keyframes);
+    }
+
+    /**
+     * Tour complet de la caméra autour de son point visé, sur l'axe de son vecteur
+     * {@code up} : distance, hauteur et champ de vue sont conservés.
+     */
+    static CameraPath turntable(Camera camera) {
+        if (camera == null) {
+            throw new IllegalArgumentException("camera ne peut pas être null");
+        }
+        Point center = camera.getLookAt();
+        Vector axis = camera.getUp();
+        Vector offset = camera.getLookFrom().sub(center);
+
+        return new CameraPath() {
+            @Override
+            public Camera cameraAt(double t) {
+                // Rotation de Rodrigues de l'œil autour de l'axe passant par le point visé
+                double angle = 2.0 * Math.PI * t;
+                double cos = Math.cos(angle);
+                double sin = Math.sin(angle);
+                Vector rotated = offset.mul(cos)
+                        .add(axis.cross(offset).mul(sin))
+                        .add(axis.mul(axis.dot(offset) * (1.0 - cos)));
+                return new Camera(center.add(rotated), center, axis, camera.getFovDegrees());
+            }
+
+            @Override
+            public boolean isLoop() {
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Lit une trajectoire à images clés depuis un fichier texte.
+     *
+     * <p>Une image clé par ligne, au format de la commande {@code camera} des scènes
+     * précédé de l'instant : {@code t x y z u v w m n o fov}. Les lignes vides et
+     * celles commençant par {@code #} sont ignorées.
+     *
+     * @throws ParseException si une ligne est invalide
+     */
+    static CameraPath read(Path file) throws IOException, ParseException {
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        List<CameraKeyframe> keyframes = new ArrayList<>();
+
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] tokens = line.split("\\s+");
+            if (tokens.length != 11) {
+                throw new ParseException("image clé : 11 paramètres attendus (t x y z u v w m n o fov)", i + 1, line);
+            }
+            try {
+                double[] v = new double[11];
+                for (int k = 0; k < v.length; k++) {
+                    v[k] = Double.parseDouble(tokens[k]);
+                }
+                Camera camera = new Camera(new Point(v[1], v[2], v[3]), new Point(v[4], v[5], v[6]),
+                        new Vector(v[7], v[8], v[9]), v[10]);
+                keyframes.add(new CameraKeyframe(v[0], camera));
+            } catch (IllegalArgumentException e) {
+                // NumberFormatException comprise
+                throw new ParseException("image clé invalide : " + e.getMessage(), i + 1, line, e);
+            }
+        }
+
+        if (keyframes.isEmpty()) {
+            throw new ParseException("aucune image clé dans " + file);
+        }
+        try {
+            return keyframes(keyframes);
+        } catch (IllegalArgumentException e) {
+            throw new ParseException(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package fr.ninhache.raytracer.scene;
+
+import fr.ninhache.raytracer.math.Point;
+import fr.ninhache.raytracer.math.Vector;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Trajectoire passant exactement par des images clés.
+ *
+ * <p>La position de l'œil et le point visé suivent une spline de Catmull-Rom
+ * (vitesse continue aux images clés, sans à-coup), le vecteur {@code up} et le
+ * champ de vue sont interpolés linéairement. Les images clés peuvent être espacées
+ * irrégulièrement : {@code t} est ramené à leur échelle de temps.
+ */
+final class KeyframeCameraPath implements CameraPath {
+
+    private final List<CameraKeyframe> keyframes;
+
+    KeyframeCameraPath(List<CameraKeyframe> keyframes) {
+        if (keyframes == null || keyframes.isEmpty()) {
+            throw new IllegalArgumentException("au moins une image clé est nécessaire");
+        }
+        List<CameraKeyframe> sorted = new ArrayList<>(keyframes);
+        sorted.sort(Comparator.comparingDouble(CameraKeyframe::time));
+        for (int i = 1; i < sorted.size(); i++) {
+            if (sorted.get(i).time() == sorted.get(i - 1).time()) {
+                throw new IllegalArgumentException("deux images clés à l'instant " + sorted.get(i).time());
+            }
+        }
+        this.keyframes = List.copyOf(sorted);
+    }
+
+    @Override
+    public Camera cameraAt(double t) {
+        int last = keyframes.size() - 1;
+        double start = keyframes.get(0).time();
+        double time = start + Math.max(0.0, Math.min(1.0, t)) * (keyframes.get(last).time() - start);
+
+        int i = 0;
+        while (i < last && keyframes.get(i + 1).time() <= time) {
+            i++;
+        }
+        Camera c1 = keyframes.get(i).camera();
+        if (i == last || time == keyframes.get(i).time()) {
+            return c1;
+        }
+
+        Camera c0 = keyframes.get(Math.max(0, i - 1)).camera();
+        Camera c2 = keyframes.get(i + 1).camera();
+        Camera c3 = keyframes.get(Math.min(last, i + 2)).camera();
+        double u = (time - keyframes.get(i).time()) / (keyframes.get(i + 1).time() - keyframes.get(i).time());
+
+        Point lookFrom = catmullRom(c0.getLookFrom(), c1.getLookFrom(), c2.getLookFrom(), c3.getLookFrom(), u);
+        Point lookAt = catmullRom(c0.getLookAt(), c1.getLookAt(), c2.getLookAt(), c3.getLookAt(), u);
+        Vector up = c1.getUp().mul(1.0 - u).add(c2.getUp().mul(u));
+        if (up.isZero(1e-10)) {
+            // Vecteurs up opposés : on garde celui de l'image clé la plus proche
+            up = u < 0.5 ? c1.getUp() : c2.getUp();
+        }
+        double fov = c1.getFovDegrees() + (c2.getFovDegrees() - c1.getFovDegrees()) * u;
+        return new Camera(lookFrom, lookAt, up, fov);
+    }
+
+    /**
+     * Spline de Catmull-Rom uniforme entre {@code p1} ({@code u = 0}) et {@code p2} ({@code u = 1}).
+     */
+    private static Point catmullRom(Point p0, Point p1, Point p2, Point p3, double u) {
+        double u2 = u * u;
+        double u3 = u2 * u;
+        double a = -0.5 * u3 + u2 - 0.5 * u;
+        double b = 1.5 * u3 - 2.5 * u2 + 1.0;
+        double c = -1.5 * u3 + 2.0 * u2 + 0.5 * u;
+        double d = 0.5 * u3 - 0.5 * u2;
+        return new Point(
+                a * p0.x + b * p1.x + c * p2.x + d * p3.x,
+                a * p0.y + b * p1.y + c * p2.y + d * p3.y,
+                a * p0.z + b * p1.z + c * p2.z + d * p3.z);
+    }
+}
@@ -3,6 +3,10 @@ package fr.ninhache.raytracer.scene;
 import fr.ninhache.raytracer.geometry.IShape;
 import fr.ninhache.raytracer.geometry.Intersection;
 import fr.ninhache.raytracer.geometry.Ray;
+import fr.ninhache.raytracer.geometry.accel.Bvh;
+import fr.ninhache.raytracer.geometry.accel.BvhBuildMethod;
+import fr.ninhache.raytracer.geometry.accel.BvhLayout;
+import fr.ninhache.raytracer.geometry.accel.BvhStats;
 import fr.ninhache.raytracer.lighting.ILight;
 import fr.ninhache.raytracer.math.Color;
 import java.util.ArrayList;
@@ -10,8 +14,6 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
-import static fr.ninhache.raytracer.math.Epsilon.EPS;
-
 /**
  * Représente une scène 3D complète pour le raytracing.
  *
@@ -45,6 +47,7 @@ public final class Scene {
     private final Color ambientLight;
     private final List<ILight> lights;
     private final List<IShape> shapes;
+    private final Bvh bvh;
     private final int maxDepth;
 
     /**
@@ -57,9 +60,12 @@ public final class Scene {
      * @param ambientLight couleur de la lumière ambiante
      * @param lights liste des sources lumineuses
      * @param shapes liste des objets géométriques
+     * @param bvhMethod méthode de construction de la BVH des objets
+     * @param bvhLayout forme de la BVH parcourue
      */
     Scene(int width, int height, String outputFilename, Camera camera,
-          Color ambientLight, List<ILight> lights, List<IShape> shapes, int maxDepth) {
+          Color ambientLight, List<ILight> lights, List<IShape> shapes, int maxDepth,
+          BvhBuildMethod bvhMethod, BvhLayout bvhLayout) {
         this.width = width;
         this.height = height;
         this.outputFilename = outputFilename;
@@ -67,9 +73,41 @@ public final class Scene {
         this.ambientLight = ambientLight;
         this.lights = Collections.unmodifiableList(new ArrayList<>(lights));
         this.shapes = Collections.unmodifiableList(new ArrayList<>(shapes));
+        this.bvh = Bvh.build(this.shapes, bvhMethod, bvhLayout);
         this.maxDepth = maxDepth;
     }
 
+    /**
+     * Copie d'une scène avec une autre caméra : les listes (déjà immuables) et la BVH sont partagées.
+     */
+    private Scene(Scene source, Camera camera) {
+        this.width = source.width;
+        this.height = source.height;
+        this.outputFilename = source.outputFilename;
+        this.camera = camera;
+        this.ambientLight = source.ambientLight;
+        this.lights = source.lights;
+        this.shapes = source.shapes;
+        this.bvh = source.bvh;
+        this.maxDepth = source.maxDepth;
+    }
+
+    /**
+     * Retourne la même scène vue depuis une autre caméra.
+     *
+     * <p>Les objets, lumières et matériaux ne sont ni reparsés ni copiés : toutes les
+     * images d'une animation partagent ceux de la scène d'origine.
+     *
+     * @param camera la nouvelle caméra
+     * @return une scène identique à celle-ci hormis la caméra
+     */
+    public Scene withCamera(Camera camera) {
+        if (camera == null) {
+            throw new IllegalArgumentException("camera ne peut pas être null");
+        }
+        return new Scene(this, camera);
+    }
+
     /**
      * @return la largeur de l'image à générer (en pixels)
      */
@@ -142,26 +180,22 @@ public final class Scene {
     /**
      * Recherche la première intersection entre un rayon et les objets de la scène.
      *
+     * <p>Les objets sont parcourus par une {@link Bvh} construite avec la scène ; les
+     * {@code Instance}s y figurent par leur boîte et parcourent ensuite la BVH de leur
+     * groupe (deux niveaux).
+     *
      * @param ray le rayon lancé depuis la caméra
      * @return l'intersection la plus proche, ou {@code Optional.empty()} si rien n'est touché
      */
     public Optional<Intersection> findClosestIntersection(Ray ray) {
-        Intersection bestHit = null;
-        double bestT = Double.POSITIVE_INFINITY;
-
-        for (IShape shape : shapes) {
-            Optional<Intersection> hit = shape.intersect(ray);
-            if (hit.isPresent()) {
-                double t = hit.get().t;
-
-                if (t > EPS && t < bestT) {
-                    bestT = t;
-                    bestHit = hit.get();
-                }
-            }
-        }
+        return bvh.intersect(ray);
+    }
 
-        return Optional.ofNullable(bestHit);
+    /**
+     * @return la méthode, la durée de construction et la qualité de la BVH des objets
+     */
+    public BvhStats getBvhStats() {
+        return bvh.getStats();
     }
 
     public int getMaxDepth() {
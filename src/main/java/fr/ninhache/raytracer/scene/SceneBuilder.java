@@ -2,12 +2,19 @@ package fr.ninhache.raytracer.scene;
 
 
 import fr.ninhache.raytracer.geometry.IShape;
+import fr.ninhache.raytracer.geometry.Transform;
+import fr.ninhache.raytracer.geometry.accel.BvhBuildMethod;
+import fr.ninhache.raytracer.geometry.accel.BvhLayout;
+import fr.ninhache.raytracer.geometry.shape.Instance;
+import fr.ninhache.raytracer.geometry.shape.ShapeGroup;
 import fr.ninhache.raytracer.lighting.ILight;
 import fr.ninhache.raytracer.scene.exception.ParseException;
 import fr.ninhache.raytracer.math.Color;
 import fr.ninhache.raytracer.math.Point;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Constructeur progressif de scène (pattern Builder).
@@ -48,8 +55,13 @@ public class SceneBuilder {
     private final List<ILight> lights = new ArrayList<>();
     private final List<IShape> shapes = new ArrayList<>();
     private final List<Point> vertices = new ArrayList<>();
+    private final Map<String, ShapeGroup> groups = new HashMap<>();
+    private String openGroup;
+    private final List<IShape> groupShapes = new ArrayList<>();
     private int maxVertices = 0;
     private int maxDepth = 1;
+    private BvhBuildMethod bvhMethod = BvhBuildMethod.SAH;
+    private BvhLayout bvhLayout = BvhLayout.WIDE;
 
     /**
      * Définit la taille de l'image à générer.
@@ -199,16 +211,93 @@ public class SceneBuilder {
     /**
      * Ajoute une forme géométrique à la scène.
      *
-     * <p>La forme hérite du matériau courant (diffuse + specular).
+     * <p>La forme hérite du matériau courant (diffuse + specular). Entre
+     * {@link #beginGroup(String)} et {@link #endGroup()}, elle est ajoutée au groupe
+     * en cours de définition et non à la scène.
      *
      * @param shape la forme à ajouter
      */
     public SceneBuilder addShape(IShape shape) {
         shape.setMaterial(currentMaterial.copy());
-        shapes.add(shape);
+        if (openGroup != null) {
+            groupShapes.add(shape);
+        } else {
+            shapes.add(shape);
+        }
+        return this;
+    }
+
+    /**
+     * Choisit la construction de la BVH de la scène et des groupes définis ensuite.
+     *
+     * @param method {@link BvhBuildMethod#SAH} par défaut
+     */
+    public SceneBuilder setBvhBuildMethod(BvhBuildMethod method) {
+        this.bvhMethod = method != null ? method : BvhBuildMethod.SAH;
         return this;
     }
 
+    /**
+     * Choisit la forme de la BVH parcourue, pour la scène et les groupes définis ensuite.
+     *
+     * @param layout {@link BvhLayout#WIDE} par défaut
+     */
+    public SceneBuilder setBvhLayout(BvhLayout layout) {
+        this.bvhLayout = layout != null ? layout : BvhLayout.WIDE;
+        return this;
+    }
+
+    /**
+     * Commence la définition d'une géométrie partagée : les formes suivantes, dans le
+     * repère du groupe, lui appartiennent jusqu'à {@link #endGroup()}.
+     *
+     * @param name nom du groupe, repris par {@link #addInstance(String, Transform)}
+     * @throws ParseException si un groupe est déjà ouvert ou si le nom est déjà pris
+     */
+    public SceneBuilder beginGroup(String name) throws ParseException {
+        if (openGroup != null) {
+            throw new ParseException("Groupe '" + openGroup + "' non fermé (manque 'endgroup')");
+        }
+        if (groups.containsKey(name)) {
+            throw new ParseException("Groupe '" + name + "' déjà défini");
+        }
+        openGroup = name;
+        return this;
+    }
+
+    /**
+     * Termine la définition du groupe ouvert.
+     *
+     * @throws ParseException si aucun groupe n'est ouvert ou s'il est vide
+     */
+    public SceneBuilder endGroup() throws ParseException {
+        if (openGroup == null) {
+            throw new ParseException("'endgroup' sans 'group'");
+        }
+        if (groupShapes.isEmpty()) {
+            throw new ParseException("Groupe '" + openGroup + "' vide");
+        }
+        groups.put(openGroup, new ShapeGroup(openGroup, groupShapes, bvhMethod, bvhLayout));
+        groupShapes.clear();
+        openGroup = null;
+        return this;
+    }
+
+    /**
+     * Place une copie d'un groupe déjà défini. Ses formes gardent leur propre matériau.
+     *
+     * @param name nom du groupe
+     * @param transform passage du repère du groupe à celui de la scène
+     * @throws ParseException si le groupe n'est pas défini
+     */
+    public SceneBuilder addInstance(String name, Transform transform) throws ParseException {
+        ShapeGroup group = groups.get(name);
+        if (group == null) {
+            throw new ParseException("Groupe inconnu : '" + name + "'");
+        }
+        return addShape(new Instance(group, transform));
+    }
+
     /**
      * Définit le nombre maximum de vertices attendus.
      *
@@ -279,11 +368,15 @@ public class SceneBuilder {
             throw new ParseException("Caméra non définie (manque 'camera')");
         }
 
+        if (openGroup != null) {
+            throw new ParseException("Groupe '" + openGroup + "' non fermé (manque 'endgroup')");
+        }
+
         // Construction de la scène
         return new Scene(
                 width, height, outputFilename,
                 camera, ambientLight,
-                lights, shapes, maxDepth
+                lights, shapes, maxDepth, bvhMethod, bvhLayout
         );
     }
 
@@ -126,6 +126,42 @@ public class SceneLoader {
         }
     }
 
+    /**
+     * Charge une scène depuis un contenu déjà en mémoire (requête réseau, éditeur...).
+     *
+     * @param filename nom indicatif servant à la détection par extension (peut être null)
+     * @param content contenu complet de la scène
+     * @return la scène construite
+     * @throws IOException si erreur de lecture
+     * @throws ParseException si le format n'est pas reconnu ou erreur de parsing
+     */
+    public Scene load(String filename, byte[] content) throws IOException, ParseException {
+        String name = filename == null ? "" : filename;
+        byte[] firstBytes = Arrays.copyOf(content, Math.min(content.length, 512));
+
+        FormatParser parser = findParser(name, firstBytes);
+
+        if (parser == null) {
+            throw new ParseException("Format de scène non supporté" + (filename == null ? "" : " : " + filename));
+        }
+
+        try (InputStream input = new ByteArrayInputStream(content)) {
+            return parser.parse(input, tokenRegistry);
+        }
+    }
+
+    /**
+     * Indique si l'extension du fichier correspond à un format connu, sans l'ouvrir.
+     * Sert à filtrer le contenu d'un répertoire (les images de référence, par exemple).
+     *
+     * @param filepath chemin du fichier
+     * @return {@code true} si au moins un parser déclare cette extension
+     */
+    public boolean supports(String filepath) {
+        String ext = extractExt(filepath);
+        return ext != null && parsersByExt.containsKey(ext);
+    }
+
     /**
      * Trouve le parser approprié en parcourant les méthodes naïve suivante, si un parser n'est pas clairement identifié, on passe à la méthode suivante
      *
@@ -0,0 +1,51 @@
+package fr.ninhache.raytracer.server;
+
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * File de jobs à priorités, de capacité bornée.
+ *
+ * <p>L'admission est refusée immédiatement quand la file est pleine, plutôt que de
+ * bloquer le thread HTTP ou d'accumuler des scènes en mémoire : c'est au client de
+ * réessayer plus tard.
+ */
+final class JobQueue {
+
+    private final PriorityBlockingQueue<RenderJob> queue = new PriorityBlockingQueue<>();
+    private final Semaphore slots;
+    private final int capacity;
+
+    JobQueue(int capacity) {
+        this.capacity = capacity;
+        this.slots = new Semaphore(capacity);
+    }
+
+    /**
+     * @return {@code false} si la file est pleine (le job n'est pas ajouté)
+     */
+    boolean offer(RenderJob job) {
+        if (!slots.tryAcquire()) {
+            return false;
+        }
+        queue.add(job);
+        return true;
+    }
+
+    /**
+     * Attend le job le plus prioritaire et libère sa place dans la file.
+     */
+    RenderJob take() throws InterruptedException {
+        RenderJob job = queue.take();
+        slots.release();
+        return job;
+    }
+
+    int size() {
+        return capacity - slots.availablePermits();
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,15 @@
+package fr.ninhache.raytracer.server;
+
+/**
+ * Étapes de la vie d'un job de rendu.
+ */
+public enum JobStatus {
+    /** Accepté, en attente d'un worker */
+    QUEUED,
+    /** En cours de rendu */
+    RUNNING,
+    /** Rendu terminé, image disponible */
+    DONE,
+    /** Rendu impossible (erreur pendant le rendu ou l'encodage) */
+    FAILED
+}
@@ -0,0 +1,108 @@
+package fr.ninhache.raytracer.server;
+
+import fr.ninhache.raytracer.geometry.accel.BvhStats;
+import fr.ninhache.raytracer.render.RenderStats;
+import fr.ninhache.raytracer.render.output.PngStats;
+
+import java.util.Locale;
+
+/**
+ * Sérialisation JSON minimale des réponses du serveur (pas de dépendance externe).
+ */
+final class Json {
+
+    private Json() {
+    }
+
+    static String job(RenderJob job) {
+        StringBuilder sb = new StringBuilder("{");
+        sb.append("\"id\":").append(job.getId());
+        sb.append(",\"priority\":").append(job.getPriority());
+        sb.append(",\"status\":").append(string(job.getStatus().name()));
+        sb.append(",\"queuedMillis\":").append(number(job.getQueuedMillis()));
+        if (job.getRenderStatus() != null) {
+            sb.append(",\"renderStatus\":").append(string(job.getRenderStatus().name()));
+        }
+        if (job.isCached()) {
+            sb.append(",\"cached\":true");
+        }
+        if (job.getError() != null) {
+            sb.append(",\"error\":").append(string(job.getError()));
+        }
+        if (job.getStats() != null) {
+            sb.append(",\"stats\":").append(stats(job.getStats()));
+        }
+        return sb.append('}').toString();
+    }
+
+    static String stats(RenderStats s) {
+        StringBuilder sb = new StringBuilder("{");
+        sb.append("\"width\":").append(s.width());
+        sb.append(",\"height\":").append(s.height());
+        sb.append(",\"executor\":").append(string(s.executor()));
+        sb.append(",\"threads\":").append(s.threadCount());
+        sb.append(",\"tiles\":").append(s.tileCount());
+        sb.append(",\"completedTiles\":").append(s.completedTiles());
+        sb.append(",\"maxDepth\":").append(s.maxDepth());
+        sb.append(",\"durationMillis\":").append(number(s.durationMillis()));
+        sb.append(",\"primaryRays\":").append(s.primaryRays());
+        sb.append(",\"shadowRays\":").append(s.shadowRays());
+        sb.append(",\"reflectionRays\":").append(s.reflectionRays());
+        sb.append(",\"antiAliasingRays\":").append(s.antiAliasingRays());
+        sb.append(",\"totalRays\":").append(s.totalRays());
+        sb.append(",\"raysPerSecond\":").append(number(s.raysPerSecond()));
+        sb.append(",\"pixelsPerSecond\":").append(number(s.pixelsPerSecond()));
+        PngStats png = s.png();
+        if (png != null) {
+            sb.append(",\"png\":{\"rawBytes\":").append(png.rawBytes())
+                    .append(",\"compressedBytes\":").append(png.compressedBytes())
+                    .append(",\"encodeMillis\":").append(number(png.encodeMillis()))
+                    .append(",\"threads\":").append(png.threads())
+                    .append(",\"level\":").append(png.level())
+                    .append('}');
+        }
+        BvhStats bvh = s.bvh();
+        if (bvh != null) {
+            sb.append(",\"bvh\":{\"method\":").append(string(bvh.method().name()))
+                    .append(",\"layout\":").append(string(bvh.layout().name()))
+                    .append(",\"simd\":").append(bvh.simd())
+                    .append(",\"primitives\":").append(bvh.primitives())
+                    .append(",\"references\":").append(bvh.references())
+                    .append(",\"nodes\":").append(bvh.nodes())
+                    .append(",\"buildMillis\":").append(number(bvh.buildMillis()))
+                    .append(",\"sahCost\":").append(number(bvh.sahCost()))
+                    .append('}');
+        }
+        return sb.append('}').toString();
+    }
+
+    static String error(String message) {
+        return "{\"error\":" + string(message) + "}";
+    }
+
+    static String string(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static String number(double value) {
+        return Double.isFinite(value) ? String.format(Locale.ROOT, "%.3f", value) : "0";
+    }
+}
@@ -0,0 +1,125 @@
+package fr.ninhache.raytracer.server;
+
+import fr.ninhache.raytracer.render.RenderStats;
+import fr.ninhache.raytracer.render.RenderStatus;
+import fr.ninhache.raytracer.scene.Scene;
+
+/**
+ * Job de rendu soumis au serveur.
+ *
+ * <p>Les jobs sont ordonnés par priorité décroissante puis par ordre d'arrivée. L'état
+ * est écrit par le worker et lu par les threads HTTP : les champs mutables sont
+ * {@code volatile} et le PNG est publié avant le passage à {@link JobStatus#DONE}.
+ */
+public final class RenderJob implements Comparable<RenderJob> {
+
+    private final long id;
+    private final int priority;
+    private final long submittedNanos = System.nanoTime();
+
+    private volatile Scene scene;
+    private volatile JobStatus status = JobStatus.QUEUED;
+    private volatile RenderStatus renderStatus;
+    private volatile RenderStats stats;
+    private volatile byte[] png;
+    private volatile String error;
+    private volatile long startedNanos;
+    private volatile boolean cached;
+
+    RenderJob(long id, int priority, Scene scene) {
+        this.id = id;
+        this.priority = priority;
+        this.scene = scene;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public JobStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @return l'état final du rendu (null tant que le job n'est pas terminé)
+     */
+    public RenderStatus getRenderStatus() {
+        return renderStatus;
+    }
+
+    /**
+     * @return les statistiques du rendu (null tant que le job n'est pas terminé)
+     */
+    public RenderStats getStats() {
+        return stats;
+    }
+
+    /**
+     * @return l'image encodée (null tant que le job n'est pas terminé)
+     */
+    public byte[] getPng() {
+        return png;
+    }
+
+    /**
+     * @return {@code true} si l'image a été servie par le cache de rendu
+     */
+    public boolean isCached() {
+        return cached;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * @return le temps passé dans la file d'attente, en millisecondes (0 si pas encore démarré)
+     */
+    public double getQueuedMillis() {
+        long started = startedNanos;
+        return started == 0 ? 0.0 : (started - submittedNanos) / 1_000_000.0;
+    }
+
+    Scene getScene() {
+        return scene;
+    }
+
+    void started() {
+        startedNanos = System.nanoTime();
+        status = JobStatus.RUNNING;
+    }
+
+    void completed(RenderStatus renderStatus, RenderStats stats, byte[] png, boolean cached) {
+        this.cached = cached;
+        this.renderStatus = renderStatus;
+        this.stats = stats;
+        this.png = png;
+        this.scene = null;
+        this.status = JobStatus.DONE;
+    }
+
+    void failed(Throwable cause) {
+        this.error = cause.getMessage() != null ? cause.getMessage() : cause.toString();
+        this.scene = null;
+        this.status = JobStatus.FAILED;
+    }
+
+    boolean isFinished() {
+        return status == JobStatus.DONE || status == JobStatus.FAILED;
+    }
+
+    @Override
+    public int compareTo(RenderJob other) {
+        int byPriority = Integer.compare(other.priority, priority);
+        return byPriority != 0 ? byPriority : Long.compare(id, other.id);
+    }
+
+    @Override
+    public String toString() {
+        return "RenderJob[id=" + id + ", priority=" + priority + ", status=" + status + "]";
+    }
+}
@@ -0,0 +1,391 @@
+package fr.ninhache.raytracer.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import fr.ninhache.raytracer.render.RenderOptions;
+import fr.ninhache.raytracer.render.RenderOptionsBuilder;
+import fr.ninhache.raytracer.render.RenderResult;
+import fr.ninhache.raytracer.render.RenderStats;
+import fr.ninhache.raytracer.render.RenderStatus;
+import fr.ninhache.raytracer.render.Renderer;
+import fr.ninhache.raytracer.render.cache.CachedRender;
+import fr.ninhache.raytracer.render.cache.CachingRenderer;
+import fr.ninhache.raytracer.render.cache.RenderCache;
+import fr.ninhache.raytracer.render.executor.DaemonThreads;
+import fr.ninhache.raytracer.render.executor.SharedPoolExecutor;
+import fr.ninhache.raytracer.render.output.PngStats;
+import fr.ninhache.raytracer.render.output.PngWriter;
+import fr.ninhache.raytracer.scene.Scene;
+import fr.ninhache.raytracer.scene.SceneLoader;
+import fr.ninhache.raytracer.scene.exception.ParseException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service de rendu HTTP embarqué ({@code com.sun.net.httpserver}, sans dépendance).
+ *
+ * <h2>API</h2>
+ * <ul>
+ *   <li>{@code POST /jobs?priority=N&name=scene.txt} : corps = texte de la scène.
+ *       Réponse 202 avec le job en JSON et l'en-tête {@code Location}. 400 si la scène
+ *       est invalide, 413 si elle est trop grosse, 429 si la file est pleine.</li>
+ *   <li>{@code GET /jobs/{id}} : état du job (et statistiques une fois terminé)</li>
+ *   <li>{@code GET /jobs/{id}/image} : PNG du rendu, 409 tant qu'il n'est pas prêt</li>
+ *   <li>{@code GET /jobs/{id}/stats} : {@link RenderStats} en JSON, 409 tant qu'il n'est pas prêt</li>
+ *   <li>{@code GET /queue} : occupation de la file</li>
+ * </ul>
+ *
+ * <p>La scène est parsée dès la soumission : une erreur est renvoyée tout de suite
+ * et la file ne contient que des scènes valides. Les jobs sont rendus par
+ * {@code workers} threads, du plus prioritaire au moins prioritaire (FIFO à priorité
+ * égale), avec un {@link Renderer} unique dont les tuiles passent toutes par le même
+ * pool de calcul. Avec un {@link RenderCache}, une scène identique à un rendu
+ * précédent (même empreinte, cf. {@link CachingRenderer}) est servie sans recalcul.
+ */
+public final class RenderServer implements AutoCloseable {
+
+    private final RenderServerConfig config;
+    private final SceneLoader loader;
+    private final Renderer renderer = new Renderer();
+    private final CachingRenderer caching;
+    private final JobQueue queue;
+    private final Map<Long, RenderJob> jobs = new LinkedHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    private HttpServer http;
+    private ExecutorService httpPool;
+    private ExecutorService workerPool;
+    private ExecutorService tilePool;
+    private SharedPoolExecutor executor;
+
+    public RenderServer(RenderServerConfig config, SceneLoader loader) {
+        this(config, loader, null);
+    }
+
+    /**
+     * @param cache cache de rendu : une scène déjà rendue est servie sans être recalculée
+     *              (null pour aucun)
+     */
+    public RenderServer(RenderServerConfig config, SceneLoader loader, RenderCache cache) {
+        if (config == null || loader == null) {
+            throw new IllegalArgumentException("config et loader ne peuvent pas être null");
+        }
+        this.config = config;
+        this.loader = loader;
+        this.queue = new JobQueue(config.queueCapacity());
+        this.caching = cache == null ? null : new CachingRenderer(renderer, cache);
+    }
+
+    /**
+     * Démarre l'écoute et les workers.
+     *
+     * @throws IllegalStateException si le serveur est déjà démarré
+     */
+    public synchronized void start() throws IOException {
+        if (http != null) {
+            throw new IllegalStateException("Serveur déjà démarré");
+        }
+
+        tilePool = Executors.newFixedThreadPool(config.renderThreads(), DaemonThreads.named("render-tile"));
+        executor = new SharedPoolExecutor(tilePool, config.renderThreads());
+        workerPool = Executors.newFixedThreadPool(config.workers(), DaemonThreads.named("render-worker"));
+        for (int i = 0; i < config.workers(); i++) {
+            workerPool.execute(this::workLoop);
+        }
+
+        httpPool = Executors.newFixedThreadPool(4, DaemonThreads.named("render-http"));
+        http = HttpServer.create(new InetSocketAddress(config.port()), 0);
+        http.createContext("/jobs", this::handleJobs);
+        http.createContext("/queue", this::handleQueue);
+        http.setExecutor(httpPool);
+        http.start();
+    }
+
+    /**
+     * @return le port réellement utilisé (utile avec le port 0)
+     */
+    public int getPort() {
+        if (http == null) {
+            throw new IllegalStateException("Serveur non démarré");
+        }
+        return http.getAddress().getPort();
+    }
+
+    /**
+     * @return le job, ou null s'il est inconnu ou a été oublié
+     */
+    public RenderJob getJob(long id) {
+        synchronized (jobs) {
+            return jobs.get(id);
+        }
+    }
+
+    /**
+     * Arrête l'écoute et abandonne les jobs en attente ou en cours.
+     */
+    @Override
+    public synchronized void close() {
+        if (http == null) {
+            return;
+        }
+        http.stop(0);
+        httpPool.shutdownNow();
+        workerPool.shutdownNow();
+        tilePool.shutdownNow();
+        http = null;
+    }
+
+    // ---------------------------------------------------------------- workers
+
+    private void workLoop() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                RenderJob job = queue.take();
+                run(job);
+                retire(job);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run(RenderJob job) {
+        job.started();
+        RenderOptions options = new RenderOptionsBuilder()
+                .setExecutor(executor)
+                .build();
+
+        if (caching != null) {
+            try {
+                CachedRender render = caching.render(job.getScene(), options);
+                job.completed(RenderStatus.COMPLETED, render.stats(), render.png(), render.hit());
+            } catch (Exception | OutOfMemoryError e) {
+                job.failed(e);
+            }
+            return;
+        }
+
+        try (RenderResult result = renderer.render(job.getScene(), options)) {
+            ByteArrayOutputStream png = new ByteArrayOutputStream();
+            PngStats pngStats = PngWriter.write(result.frame(), png, -1, 1);
+            job.completed(result.status(), withPng(result.stats(), pngStats), png.toByteArray(), false);
+        } catch (Exception | OutOfMemoryError e) {
+            job.failed(e);
+        }
+    }
+
+    /**
+     * Oublie les jobs terminés les plus anciens au-delà de {@code retainedJobs}.
+     */
+    private void retire(RenderJob finished) {
+        synchronized (jobs) {
+            int done = 0;
+            for (RenderJob job : jobs.values()) {
+                if (job.isFinished()) {
+                    done++;
+                }
+            }
+            Iterator<RenderJob> it = jobs.values().iterator();
+            while (done > config.retainedJobs() && it.hasNext()) {
+                RenderJob job = it.next();
+                if (job.isFinished() && job != finished) {
+                    it.remove();
+                    done--;
+                }
+            }
+        }
+    }
+
+    private static RenderStats withPng(RenderStats s, PngStats png) {
+        return new RenderStats(s.width(), s.height(), s.threadCount(), s.multiThreaded(), s.executor(),
+                s.tileCount(), s.completedTiles(), s.maxDepth(), s.startNanoTime(), s.endNanoTime(),
+                s.primaryRays(), s.shadowRays(), s.reflectionRays(), s.antiAliasingRays(), png, s.bvh());
+    }
+
+    // ---------------------------------------------------------------- HTTP
+
+    private void handleJobs(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            String[] parts = path.replaceAll("/+$", "").split("/");
+            String method = exchange.getRequestMethod();
+
+            if (parts.length == 2) {
+                if (!method.equals("POST")) {
+                    sendJson(exchange, 405, Json.error("Méthode non supportée : " + method));
+                    return;
+                }
+                submit(exchange);
+                return;
+            }
+
+            if (!method.equals("GET")) {
+                sendJson(exchange, 405, Json.error("Méthode non supportée : " + method));
+                return;
+            }
+
+            RenderJob job = parts.length <= 4 ? findJob(parts[2]) : null;
+            if (job == null) {
+                sendJson(exchange, 404, Json.error("Job inconnu : " + path));
+                return;
+            }
+
+            String resource = parts.length == 4 ? parts[3] : "";
+            switch (resource) {
+                case "" -> sendJson(exchange, 200, Json.job(job));
+                case "image" -> {
+                    byte[] png = job.getPng();
+                    if (job.getStatus() != JobStatus.DONE || png == null) {
+                        sendJson(exchange, 409, Json.job(job));
+                    } else {
+                        send(exchange, 200, "image/png", png);
+                    }
+                }
+                case "stats" -> {
+                    RenderStats stats = job.getStats();
+                    if (job.getStatus() != JobStatus.DONE) {
+                        sendJson(exchange, 409, Json.job(job));
+                    } else if (stats == null) {
+                        sendJson(exchange, 404, Json.error("Statistiques indisponibles : image servie par le cache disque"));
+                    } else {
+                        sendJson(exchange, 200, Json.stats(stats));
+                    }
+                }
+                default -> sendJson(exchange, 404, Json.error("Ressource inconnue : " + path));
+            }
+        } catch (RuntimeException e) {
+            // La réponse a pu être partiellement envoyée : on se contente de fermer l'échange
+            System.err.println("Erreur HTTP : " + e.getMessage());
+        }
+    }
+
+    private void handleQueue(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            sendJson(exchange, 200, "{\"queued\":" + queue.size() + ",\"capacity\":" + queue.capacity() + "}");
+        }
+    }
+
+    private void submit(HttpExchange exchange) throws IOException {
+        Map<String, String> params = query(exchange.getRequestURI());
+
+        int priority;
+        try {
+            priority = Integer.parseInt(params.getOrDefault("priority", "0"));
+        } catch (NumberFormatException e) {
+            sendJson(exchange, 400, Json.error("priority doit être un entier"));
+            return;
+        }
+
+        // Refus avant lecture : inutile de parser une scène qui ne pourra pas être mise en file
+        if (queue.size() >= queue.capacity()) {
+            tooManyRequests(exchange);
+            return;
+        }
+
+        byte[] body = readBody(exchange.getRequestBody(), config.maxSceneBytes());
+        if (body == null) {
+            sendJson(exchange, 413, Json.error("Scène trop volumineuse (max " + config.maxSceneBytes() + " octets)"));
+            return;
+        }
+
+        Scene scene;
+        try {
+            // Le registre de tokens est partagé : les chargements sont sérialisés
+            synchronized (loader) {
+                scene = loader.load(params.get("name"), body);
+            }
+        } catch (ParseException | RuntimeException e) {
+            sendJson(exchange, 400, Json.error("Scène invalide : " + e.getMessage()));
+            return;
+        }
+
+        long pixels = (long) scene.getWidth() * scene.getHeight();
+        if (pixels > config.maxPixels()) {
+            sendJson(exchange, 400, Json.error("Image trop grande : " + pixels + " pixels (max " + config.maxPixels() + ")"));
+            return;
+        }
+
+        RenderJob job = new RenderJob(nextId.getAndIncrement(), priority, scene);
+        synchronized (jobs) {
+            jobs.put(job.getId(), job);
+        }
+        if (!queue.offer(job)) {
+            synchronized (jobs) {
+                jobs.remove(job.getId());
+            }
+            tooManyRequests(exchange);
+            return;
+        }
+
+        exchange.getResponseHeaders().set("Location", "/jobs/" + job.getId());
+        sendJson(exchange, 202, Json.job(job));
+    }
+
+    private RenderJob findJob(String id) {
+        try {
+            return getJob(Long.parseLong(id));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void tooManyRequests(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Retry-After", "1");
+        sendJson(exchange, 429, Json.error("File pleine (" + queue.capacity() + " jobs en attente)"));
+    }
+
+    /**
+     * @return le corps complet, ou null s'il dépasse {@code limit} octets
+     */
+    private static byte[] readBody(InputStream in, int limit) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        int n;
+        while ((n = in.read(chunk)) != -1) {
+            if (out.size() + n > limit) {
+                return null;
+            }
+            out.write(chunk, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    private static Map<String, String> query(URI uri) {
+        Map<String, String> params = new LinkedHashMap<>();
+        String raw = uri.getQuery();
+        if (raw == null) {
+            return params;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(pair.substring(0, eq), pair.substring(eq + 1));
+            }
+        }
+        return params;
+    }
+
+    private static void sendJson(HttpExchange exchange, int code, String json) throws IOException {
+        send(exchange, code, "application/json; charset=utf-8", json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void send(HttpExchange exchange, int code, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(code, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package fr.ninhache.raytracer.server;
+
+/**
+ * Paramètres du serveur de rendu.
+ *
+ * <p>Les limites bornent la mémoire consommée quelle que soit la charge : au plus
+ * {@code queueCapacity} scènes parsées en attente, {@code workers} framebuffers de
+ * {@code maxPixels} pixels en cours et {@code retainedJobs} PNG conservés.
+ *
+ * @param port port d'écoute (0 = port libre choisi par le système)
+ * @param workers nombre de rendus simultanés (>= 1)
+ * @param renderThreads threads de calcul partagés par tous les rendus (>= 1)
+ * @param queueCapacity nombre maximal de jobs en attente ; au-delà la requête reçoit 429 (>= 1)
+ * @param maxSceneBytes taille maximale d'une scène soumise ; au-delà 413 (> 0)
+ * @param maxPixels nombre maximal de pixels d'une scène ; au-delà 400 (> 0)
+ * @param retainedJobs nombre de jobs terminés conservés, les plus anciens étant oubliés (>= 1)
+ */
+public record RenderServerConfig(
+        int port,
+        int workers,
+        int renderThreads,
+        int queueCapacity,
+        int maxSceneBytes,
+        long maxPixels,
+        int retainedJobs
+) {
+
+    public RenderServerConfig {
+        if (port < 0 || port > 65535) {
+            throw new IllegalArgumentException("port invalide : " + port);
+        }
+        if (workers < 1 || renderThreads < 1 || queueCapacity < 1 || retainedJobs < 1) {
+            throw new IllegalArgumentException("workers, renderThreads, queueCapacity et retainedJobs doivent être >= 1");
+        }
+        if (maxSceneBytes <= 0 || maxPixels <= 0) {
+            throw new IllegalArgumentException("maxSceneBytes et maxPixels doivent être > 0");
+        }
+    }
+
+    /**
+     * Configuration par défaut : 2 rendus simultanés sur tous les cœurs, 64 jobs en
+     * attente, scènes de 1 Mo et 16 Mpixels au plus, 256 résultats conservés.
+     */
+    public static RenderServerConfig defaults(int port) {
+        return new RenderServerConfig(port, 2, Runtime.getRuntime().availableProcessors(),
+                64, 1 << 20, 16L * 1024 * 1024, 256);
+    }
+}
@@ -0,0 +1,52 @@
+package fr.ninhache.raytracer.watch;
+
+import fr.ninhache.raytracer.render.RenderStats;
+import fr.ninhache.raytracer.render.RenderStatus;
+
+import java.nio.file.Path;
+
+/**
+ * Résultat d'une version de la scène surveillée (cf. {@link SceneWatcher}).
+ *
+ * @param version numéro de la version (1 pour le rendu initial, puis à chaque modification)
+ * @param output image écrite (null si le rendu a échoué ou a été annulé)
+ * @param stats statistiques du rendu (null si la scène n'a pas pu être rendue)
+ * @param status état final du rendu : {@link RenderStatus#CANCELLED} si une version
+ *               plus récente l'a remplacé (null en cas d'échec)
+ * @param error cause de l'échec, par exemple une erreur de syntaxe (null si succès)
+ */
+public record ReloadOutcome(
+        int version,
+        Path output,
+        RenderStats stats,
+        RenderStatus status,
+        Throwable error
+) {
+
+    static ReloadOutcome rendered(int version, Path output, RenderStats stats) {
+        return new ReloadOutcome(version, output, stats, RenderStatus.COMPLETED, null);
+    }
+
+    static ReloadOutcome interrupted(int version, RenderStats stats, RenderStatus status) {
+        return new ReloadOutcome(version, null, stats, status, null);
+    }
+
+    static ReloadOutcome failure(int version, Throwable error) {
+        return new ReloadOutcome(version, null, null, null, error);
+    }
+
+    public boolean isSuccess() {
+        return error == null && status == RenderStatus.COMPLETED;
+    }
+
+    @Override
+    public String toString() {
+        if (error != null) {
+            return "[échec] version " + version + " : " + error.getMessage();
+        }
+        if (output == null) {
+            return "[" + status + "] version " + version;
+        }
+        return "[" + status + "] version " + version + " -> " + output + " " + stats;
+    }
+}
@@ -0,0 +1,224 @@
+package fr.ninhache.raytracer.watch;
+
+import fr.ninhache.raytracer.render.RenderHandle;
+import fr.ninhache.raytracer.render.RenderOptions;
+import fr.ninhache.raytracer.render.RenderResult;
+import fr.ninhache.raytracer.render.RenderStatus;
+import fr.ninhache.raytracer.render.Renderer;
+import fr.ninhache.raytracer.render.executor.DaemonThreads;
+import fr.ninhache.raytracer.render.output.PngWriter;
+import fr.ninhache.raytracer.scene.Scene;
+import fr.ninhache.raytracer.scene.SceneLoader;
+import fr.ninhache.raytracer.scene.exception.ParseException;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Surveillance d'un fichier de scène : chaque enregistrement relance le rendu.
+ *
+ * <p>Le répertoire de la scène est surveillé par un {@link WatchService}. Les
+ * événements rapprochés (éditeurs qui écrivent en plusieurs fois ou remplacent le
+ * fichier par renommage) sont regroupés pendant {@link #QUIET_PERIOD_MILLIS} ms, et
+ * un enregistrement sans changement de contenu est ignoré. La nouvelle version est
+ * reparsée avec le même {@link SceneLoader} (registre des tokens déjà construit) puis
+ * rendue ; un rendu encore en cours est annulé. La JVM et le JIT restent chauds d'une
+ * version à l'autre.
+ *
+ * <p>Seuls les rendus complets sont écrits, dans un fichier temporaire renommé
+ * ensuite : une visionneuse ne voit jamais d'image à moitié écrite. Une scène
+ * invalide est signalée et l'image précédente conservée.
+ */
+public final class SceneWatcher implements AutoCloseable {
+
+    /** Délai sans nouvel événement avant de relire le fichier. */
+    static final long QUIET_PERIOD_MILLIS = 50;
+
+    private final SceneLoader loader;
+    private final Path sceneFile;
+    private final Path output;
+    private final RenderOptions options;
+    private final Consumer<ReloadOutcome> listener;
+    private final Renderer renderer = new Renderer();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(DaemonThreads.named("watch-writer"));
+
+    private WatchService watchService;
+    private RenderHandle current;
+    private byte[] lastContent;
+    private int version;
+    private volatile boolean closed;
+
+    /**
+     * @param loader chargeur réutilisé pour chaque version
+     * @param sceneFile fichier de scène surveillé
+     * @param output image produite à chaque version
+     * @param options options de chaque rendu
+     * @param listener appelé à la fin de chaque version, depuis un thread dédié (peut être null)
+     */
+    public SceneWatcher(SceneLoader loader, Path sceneFile, Path output, RenderOptions options,
+                        Consumer<ReloadOutcome> listener) {
+        if (loader == null || sceneFile == null || output == null || options == null) {
+            throw new IllegalArgumentException("loader, sceneFile, output et options ne peuvent pas être null");
+        }
+        this.loader = loader;
+        this.sceneFile = sceneFile.toAbsolutePath();
+        this.output = output.toAbsolutePath();
+        this.options = options;
+        this.listener = listener;
+    }
+
+    /**
+     * Rend la scène puis la rend à nouveau à chaque modification, jusqu'à {@link #close()}.
+     *
+     * @throws IOException si le répertoire de la scène ne peut pas être surveillé
+     */
+    public void run() throws IOException, InterruptedException {
+        Path directory = sceneFile.getParent();
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            watchService = FileSystems.getDefault().newWatchService();
+        }
+        // Surveillance armée avant le premier rendu : aucun enregistrement n'est manqué
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        reload();
+
+        try {
+            while (!closed) {
+                WatchKey key = watchService.take();
+                boolean changed = concernsScene(key);
+                // Regroupe la rafale d'événements d'un même enregistrement
+                WatchKey next;
+                while ((next = watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= concernsScene(next);
+                }
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // close()
+        }
+    }
+
+    /**
+     * Arrête la surveillance et annule le rendu en cours.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            if (current != null) {
+                current.cancel();
+            }
+            if (watchService != null) {
+                try {
+                    watchService.close();
+                } catch (IOException ignored) {
+                    // déjà fermé
+                }
+            }
+        }
+        writer.shutdown();
+    }
+
+    private boolean concernsScene(WatchKey key) {
+        boolean concerns = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || sceneFile.getFileName().equals(event.context())) {
+                concerns = true;
+            }
+        }
+        if (!key.reset()) {
+            // Répertoire supprimé : plus rien à surveiller
+            close();
+        }
+        return concerns;
+    }
+
+    /**
+     * Relit la scène et, si son contenu a changé, remplace le rendu en cours.
+     */
+    private void reload() {
+        byte[] content;
+        try {
+            content = Files.readAllBytes(sceneFile);
+        } catch (NoSuchFileException e) {
+            // Fichier remplacé par renommage : l'événement de création suivra
+            return;
+        } catch (IOException e) {
+            report(ReloadOutcome.failure(++version, e));
+            return;
+        }
+        if (Arrays.equals(content, lastContent)) {
+            return;
+        }
+        lastContent = content;
+        int v = ++version;
+
+        Scene scene;
+        try {
+            scene = loader.load(sceneFile.getFileName().toString(), content);
+        } catch (ParseException | IOException | RuntimeException e) {
+            report(ReloadOutcome.failure(v, e));
+            return;
+        }
+
+        RenderHandle handle;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            if (current != null) {
+                current.cancel();
+            }
+            handle = renderer.submit(scene, options);
+            current = handle;
+        }
+        writer.execute(() -> finish(v, handle));
+    }
+
+    /**
+     * Attend la fin d'un rendu et écrit l'image s'il est complet (thread d'écriture).
+     */
+    private void finish(int v, RenderHandle handle) {
+        try (RenderResult result = handle.join()) {
+            if (result.status() != RenderStatus.COMPLETED) {
+                report(ReloadOutcome.interrupted(v, result.stats(), result.status()));
+                return;
+            }
+            Path parent = output.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path temp = output.resolveSibling(output.getFileName() + ".tmp");
+            PngWriter.write(result.frame(), temp);
+            Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            report(ReloadOutcome.rendered(v, output, result.stats()));
+        } catch (IOException | RuntimeException e) {
+            report(ReloadOutcome.failure(v, e));
+        }
+    }
+
+    private void report(ReloadOutcome outcome) {
+        if (listener != null) {
+            listener.accept(outcome);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package fr.ninhache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ImageComparator - comparaison par raster")
+class ImageComparatorTest {
+
+    private static BufferedImage gradient(int type) {
+        BufferedImage img = new BufferedImage(97, 61, type);
+        for (int y = 0; y < img.getHeight(); y++) {
+            for (int x = 0; x < img.getWidth(); x++) {
+                img.setRGB(x, y, 0xFF000000 | (x * 2) << 16 | (y * 4) << 8 | ((x + y) & 0xFF));
+            }
+        }
+        return img;
+    }
+
+    @Test
+    @DisplayName("Les formats entiers, octets BGR/ABGR et génériques donnent les mêmes pixels")
+    void allRasterLayoutsAgree() {
+        BufferedImage reference = gradient(BufferedImage.TYPE_INT_RGB);
+        int[] types = {
+                BufferedImage.TYPE_INT_ARGB,
+                BufferedImage.TYPE_3BYTE_BGR,
+                BufferedImage.TYPE_4BYTE_ABGR,
+                BufferedImage.TYPE_INT_BGR
+        };
+
+        for (int type : types) {
+            ComparisonReport report = ImageComparator.compare(reference, gradient(type));
+            assertEquals(0, report.differentPixels(), "type " + type);
+            assertEquals(Double.POSITIVE_INFINITY, report.psnr());
+        }
+    }
+
+    @Test
+    @DisplayName("Une image PNG de référence relue se compare à elle-même sans différence")
+    void referencePngMatchesItself() throws Exception {
+        BufferedImage a;
+        BufferedImage b;
+        try (InputStream in = ImageComparatorTest.class.getResourceAsStream("/scenes/jalon6/tp61.png")) {
+            a = ImageIO.read(in);
+        }
+        b = new BufferedImage(a.getWidth(), a.getHeight(), BufferedImage.TYPE_INT_RGB);
+        b.getGraphics().drawImage(a, 0, 0, null);
+
+        assertEquals(0, ImageComparator.countDifferentPixel(a, b));
+    }
+
+    @Test
+    @DisplayName("Les métriques de tolérance, d'erreur et le PSNR sont calculés en une passe")
+    void toleranceMetrics() {
+        BufferedImage a = gradient(BufferedImage.TYPE_INT_RGB);
+        BufferedImage b = gradient(BufferedImage.TYPE_3BYTE_BGR);
+
+        int p = b.getRGB(10, 10);
+        b.setRGB(10, 10, p + 0x030000);        // rouge +3
+        b.setRGB(20, 40, b.getRGB(20, 40) ^ 0x000080); // bleu ±128
+        b.setRGB(50, 5, b.getRGB(50, 5) + 0x000100);  // vert +1
+
+        ComparisonReport report = ImageComparator.compare(a, b, 2);
+
+        assertEquals(3, report.differentPixels());
+        assertEquals(2, report.pixelsOverTolerance());
+        assertEquals(1, report.redOverTolerance());
+        assertEquals(0, report.greenOverTolerance());
+        assertEquals(1, report.blueOverTolerance());
+        assertEquals(128, report.maxError());
+        assertEquals(3 + 128 + 1, report.sumError());
+        assertEquals((3 + 128 + 1) / (3.0 * 97 * 61), report.meanError(), 1e-12);
+        double mse = (9 + 128 * 128 + 1) / (3.0 * 97 * 61);
+        assertEquals(10 * Math.log10(255.0 * 255.0 / mse), report.psnr(), 1e-9);
+        assertFalse(report.withinTolerance());
+        assertTrue(ImageComparator.compare(a, b, 128).withinTolerance());
+    }
+
+    @Test
+    @DisplayName("L'image de différence marque les pixels différents en rouge")
+    void differenceImageHighlightsPixels() {
+        BufferedImage a = gradient(BufferedImage.TYPE_INT_RGB);
+        BufferedImage b = gradient(BufferedImage.TYPE_INT_RGB);
+        b.setRGB(3, 4, 0);
+
+        BufferedImage diff = ImageComparator.differenceImage(a, b);
+
+        assertEquals(0xFFFF0000, diff.getRGB(3, 4));
+        assertEquals(0xFF000000, diff.getRGB(4, 4));
+    }
+
+    @Test
+    @DisplayName("Des dimensions différentes sont refusées")
+    void rejectsDifferentSizes() {
+        assertThrows(IllegalArgumentException.class, () -> ImageComparator.compare(
+                new BufferedImage(2, 2, BufferedImage.TYPE_INT_RGB),
+                new BufferedImage(2, 3, BufferedImage.TYPE_INT_RGB)));
+    }
+}
@@ -0,0 +1,92 @@
+package fr.ninhache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SsimComparator - comparaison perceptuelle par tuiles")
+class SsimComparatorTest {
+
+    private static BufferedImage pattern(int w, int h) {
+        BufferedImage img = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                int v = (int) (127 + 100 * Math.sin(x * 0.3) * Math.cos(y * 0.2));
+                img.setRGB(x, y, v << 16 | (255 - v) << 8 | (x * y & 0xFF));
+            }
+        }
+        return img;
+    }
+
+    private static BufferedImage copy(BufferedImage src) {
+        BufferedImage img = new BufferedImage(src.getWidth(), src.getHeight(), BufferedImage.TYPE_3BYTE_BGR);
+        img.getGraphics().drawImage(src, 0, 0, null);
+        return img;
+    }
+
+    @Test
+    @DisplayName("Deux images identiques ont un SSIM de 1 partout")
+    void identicalImages() {
+        BufferedImage a = pattern(130, 70);
+
+        SsimReport report = SsimComparator.compare(a, copy(a));
+
+        assertEquals(1.0, report.getSsim(), 1e-12);
+        assertEquals(5, report.getTilesX());
+        assertEquals(3, report.getTilesY());
+        assertEquals(1.0, report.getMinTileSsim(), 1e-12);
+    }
+
+    @Test
+    @DisplayName("Un bruit d'un niveau reste au-dessus du seuil alors que les pixels diffèrent")
+    void lowNoiseIsTolerated() {
+        BufferedImage a = pattern(128, 96);
+        BufferedImage b = copy(a);
+        Random random = new Random(1);
+        for (int y = 0; y < b.getHeight(); y++) {
+            for (int x = 0; x < b.getWidth(); x++) {
+                if (random.nextBoolean()) {
+                    int p = b.getRGB(x, y);
+                    b.setRGB(x, y, (p & 0xFFFF00) | Math.min(255, (p & 0xFF) + 1));
+                }
+            }
+        }
+
+        assertTrue(ImageComparator.countDifferentPixel(a, b) > 0);
+        SsimReport report = SsimComparator.assertSimilar(a, b, 0.99);
+        assertTrue(report.getSsim() < 1.0);
+    }
+
+    @Test
+    @DisplayName("Une zone altérée est localisée par la carte des tuiles")
+    void damagedTileIsLocated() {
+        BufferedImage a = pattern(128, 96);
+        BufferedImage b = copy(a);
+        for (int y = 40; y < 56; y++) {
+            for (int x = 70; x < 90; x++) {
+                b.setRGB(x, y, 0xFFFFFF);
+            }
+        }
+
+        SsimReport report = SsimComparator.compare(a, b, 32);
+
+        assertEquals(2 + 1 * report.getTilesX(), report.getWorstTile());
+        assertTrue(report.getTileSsim(0, 0) > 0.999);
+        assertTrue(report.getMinTileSsim() < 0.8);
+        assertEquals(0xFF000000, report.heatmap().getRGB(0, 0));
+        assertNotEquals(0xFF000000, report.heatmap().getRGB(80, 45));
+        assertThrows(AssertionError.class, () -> SsimComparator.assertSimilar(a, b, 0.99));
+    }
+
+    @Test
+    @DisplayName("Une image plus petite qu'une fenêtre est comparée globalement")
+    void tinyImage() {
+        BufferedImage a = pattern(5, 3);
+
+        assertEquals(1.0, SsimComparator.compare(a, copy(a)).getSsim(), 1e-12);
+    }
+}
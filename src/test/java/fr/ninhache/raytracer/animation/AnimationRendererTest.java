@@ -0,0 +1,147 @@
+package fr.ninhache.raytracer.animation;
+
+import fr.ninhache.raytracer.math.Point;
+import fr.ninhache.raytracer.math.Vector;
+import fr.ninhache.raytracer.render.RenderResult;
+import fr.ninhache.raytracer.render.RenderStatus;
+import fr.ninhache.raytracer.render.Renderer;
+import fr.ninhache.raytracer.scene.Camera;
+import fr.ninhache.raytracer.scene.CameraKeyframe;
+import fr.ninhache.raytracer.scene.CameraPath;
+import fr.ninhache.raytracer.scene.Scene;
+import fr.ninhache.raytracer.scene.SceneLoader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AnimationRenderer - rendu d'une trajectoire de caméra")
+class AnimationRendererTest {
+
+    private static final byte[] SCENE = """
+            size 19 13
+            camera 0 1 5 0 0 0 0 1 0 45
+            ambient .1 .1 .1
+            point 2 4 3 .6 .6 .6
+            diffuse .6 .2 .2
+            sphere 0 .5 0 1
+            diffuse .3 .3 .3
+            plane 0 -.5 0 0 1 0
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private Path root;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        root = Files.createTempDirectory("animation-");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> walk = Files.walk(root)) {
+            for (Path p : walk.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    private static Scene scene() throws Exception {
+        return new SceneLoader().load("scene.txt", SCENE);
+    }
+
+    private static Camera camera(double x, double y, double z, double fov) {
+        return new Camera(new Point(x, y, z), new Point(0, 0, 0), Vector.Y_AXIS, fov);
+    }
+
+    @Test
+    @DisplayName("Chaque image est identique au rendu de la scène avec la caméra de la trajectoire")
+    void framesMatchStandaloneRenders() throws Exception {
+        Scene scene = scene();
+        CameraPath path = CameraPath.keyframes(List.of(
+                new CameraKeyframe(0, camera(0, 1, 5, 45)),
+                new CameraKeyframe(1, camera(3, 2, 4, 50)),
+                new CameraKeyframe(3, camera(5, 1, 0, 60))));
+
+        List<FrameOutcome> outcomes = new AnimationRenderer(3, 2, 8, root).render(scene, path, 5, "tour", null);
+
+        assertEquals(5, outcomes.size());
+        Renderer renderer = new Renderer();
+        for (FrameOutcome outcome : outcomes) {
+            assertTrue(outcome.isSuccess(), String.valueOf(outcome.error()));
+            assertEquals(RenderStatus.COMPLETED, outcome.status());
+            assertEquals(root.resolve(String.format("tour_%04d.png", outcome.index())), outcome.output());
+
+            Camera expected = path.cameraAt(outcome.index() / 4.0);
+            BufferedImage written = ImageIO.read(outcome.output().toFile());
+            try (RenderResult standalone = renderer.render(scene.withCamera(expected))) {
+                for (int y = 0; y < scene.getHeight(); y++) {
+                    for (int x = 0; x < scene.getWidth(); x++) {
+                        assertEquals(standalone.frame().getPixel(x, y) & 0xFFFFFF, written.getRGB(x, y) & 0xFFFFFF,
+                                "image " + outcome.index() + ", pixel (" + x + "," + y + ")");
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("La vue partage les objets de la scène et ne change que la caméra")
+    void withCameraSharesGeometry() throws Exception {
+        Scene scene = scene();
+        Camera camera = camera(1, 1, 1, 30);
+        Scene view = scene.withCamera(camera);
+
+        assertSame(camera, view.getCamera());
+        assertSame(scene.getShapes(), view.getShapes());
+        assertSame(scene.getLights(), view.getLights());
+        assertEquals(scene.getWidth(), view.getWidth());
+        assertEquals(scene.getMaxDepth(), view.getMaxDepth());
+    }
+
+    @Test
+    @DisplayName("Les images clés sont atteintes exactement, les instants irréguliers respectés")
+    void keyframesAreHit() {
+        Camera first = camera(0, 1, 5, 45);
+        Camera second = camera(3, 2, 4, 50);
+        Camera third = camera(5, 1, 0, 60);
+        CameraPath path = CameraPath.keyframes(List.of(
+                new CameraKeyframe(3, third), new CameraKeyframe(0, first), new CameraKeyframe(1, second)));
+
+        assertSame(first, path.cameraAt(0));
+        assertSame(second, path.cameraAt(1.0 / 3.0));
+        assertSame(third, path.cameraAt(1));
+        assertEquals(47.5, path.cameraAt(1.0 / 6.0).getFovDegrees(), 1e-9);
+        assertFalse(path.isLoop());
+        assertThrows(IllegalArgumentException.class, () -> CameraPath.keyframes(List.of(
+                new CameraKeyframe(1, first), new CameraKeyframe(1, second))));
+    }
+
+    @Test
+    @DisplayName("Le tour complet garde distance et hauteur, sans répéter la première image")
+    void turntableOrbitsLookAt() {
+        Camera start = camera(0, 1, 5, 45);
+        CameraPath path = CameraPath.turntable(start);
+
+        Camera half = path.cameraAt(0.5);
+        assertTrue(half.getLookFrom().almostEquals(new Point(0, 1, -5), 1e-9));
+        assertTrue(path.cameraAt(0.25).getLookFrom().almostEquals(new Point(5, 1, 0), 1e-9));
+        assertEquals(start.getFovDegrees(), half.getFovDegrees());
+        assertTrue(path.isLoop());
+
+        assertEquals(0.75, AnimationRenderer.timeOf(3, 4, true));
+        assertEquals(1.0, AnimationRenderer.timeOf(3, 4, false));
+        assertEquals(0.0, AnimationRenderer.timeOf(0, 1, false));
+    }
+}
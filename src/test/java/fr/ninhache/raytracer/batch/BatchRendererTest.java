@@ -0,0 +1,131 @@
+package fr.ninhache.raytracer.batch;
+
+import fr.ninhache.raytracer.render.RenderStatus;
+import fr.ninhache.raytracer.scene.SceneLoader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BatchRenderer - rendu d'un lot de scènes")
+class BatchRendererTest {
+
+    private static final String SCENE = """
+            size %d %d
+            %s
+            camera 0 0 4 0 0 0 0 1 0 45
+            ambient .1 .1 .1
+            point 4 0 4 .5 .5 .5
+            diffuse .8 0 0
+            sphere 0 0 0 1
+            """;
+
+    private Path root;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        root = Files.createTempDirectory("batch-");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> walk = Files.walk(root)) {
+            for (Path p : walk.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    private Path scene(String relative, int width, int height, String output) throws IOException {
+        Path file = root.resolve(relative);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, SCENE.formatted(width, height, output == null ? "" : "output " + output));
+        return file;
+    }
+
+    @Test
+    @DisplayName("Les motifs et répertoires sont résolus en fichiers triés, sans doublon")
+    void resolvesGlobsAndDirectories() throws IOException {
+        Path a = scene("jalon1/a.scene", 4, 4, null);
+        Path b = scene("jalon1/b.scene", 4, 4, null);
+        Path c = scene("jalon2/deep/c.scene", 4, 4, null);
+        Files.writeString(root.resolve("jalon1/notes.md"), "pas une scène");
+
+        SceneLoader loader = new SceneLoader();
+        List<Path> files = SceneFiles.resolve(
+                List.of(root + "/jalon1/*.scene", root.resolve("jalon2").toString(), b.toString()),
+                p -> loader.supports(p.toString()));
+
+        assertEquals(List.of(a, b, c), files);
+        assertThrows(IOException.class, () -> SceneFiles.resolve(List.of(root + "/vide*"), p -> true));
+    }
+
+    @Test
+    @DisplayName("Chaque scène est rendue sur le pool partagé, les échecs n'interrompent pas le lot")
+    void rendersEverySceneOnSharedPool() throws Exception {
+        Path a = scene("jalon1/a.scene", 17, 9, "image.png");
+        Path b = scene("jalon2/b.scene", 8, 13, null);
+        Path broken = root.resolve("jalon2/broken.scene");
+        Files.writeString(broken, "size 4\n");
+
+        Path out = root.resolve("out");
+        List<SceneOutcome> notified = new ArrayList<>();
+        BatchRenderer batch = new BatchRenderer(new SceneLoader(), 2, 2, 4, out);
+
+        BatchSummary summary = batch.render(List.of(a, broken, b), o -> {
+            synchronized (notified) {
+                notified.add(o);
+            }
+        });
+
+        assertEquals(3, notified.size());
+        assertEquals(2, summary.succeeded());
+        assertEquals(1, summary.failed());
+        assertEquals(17L * 9L + 8L * 13L, summary.totalPixels());
+        assertTrue(summary.raysPerSecond() > 0);
+
+        List<SceneOutcome> outcomes = summary.outcomes();
+        assertEquals(broken, outcomes.get(1).scene());
+        assertFalse(outcomes.get(1).isSuccess());
+
+        SceneOutcome first = outcomes.get(0);
+        assertEquals(RenderStatus.COMPLETED, first.status());
+        assertEquals("shared-pool", first.stats().executor());
+        assertEquals(out.resolve("jalon1/a.png"), first.output());
+        BufferedImage image = ImageIO.read(first.output().toFile());
+        assertEquals(17, image.getWidth());
+
+        assertEquals(out.resolve("jalon2/b.png"), outcomes.get(2).output());
+        assertTrue(Files.exists(outcomes.get(2).output()));
+    }
+
+    @Test
+    @DisplayName("Les images suivent le chemin des scènes sous la racine du lot ; une collision refuse le lot")
+    void outputsFollowPathsUnderBatchRoot() throws Exception {
+        Path a = scene("a/x/scene.scene", 4, 4, null);
+        Path b = scene("b/x/scene.scene", 4, 4, null);
+        Path out = root.resolve("out");
+        BatchRenderer batch = new BatchRenderer(new SceneLoader(), 1, 2, 4, out);
+
+        BatchSummary summary = batch.render(List.of(a, b), null);
+        assertEquals(out.resolve("a/x/scene.png"), summary.outcomes().get(0).output());
+        assertEquals(out.resolve("b/x/scene.png"), summary.outcomes().get(1).output());
+        assertTrue(Files.exists(out.resolve("a/x/scene.png")));
+        assertTrue(Files.exists(out.resolve("b/x/scene.png")));
+
+        Path twin = scene("a/x/scene.test", 4, 4, null);
+        assertThrows(IllegalArgumentException.class, () -> batch.render(List.of(a, twin), null));
+    }
+}
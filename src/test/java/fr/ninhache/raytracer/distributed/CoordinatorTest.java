@@ -0,0 +1,217 @@
+package fr.ninhache.raytracer.distributed;
+
+import fr.ninhache.Main;
+import fr.ninhache.raytracer.render.FrameBuffer;
+import fr.ninhache.raytracer.render.RenderOptionsBuilder;
+import fr.ninhache.raytracer.render.RenderResult;
+import fr.ninhache.raytracer.render.Renderer;
+import fr.ninhache.raytracer.scene.SceneLoader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Coordinator - rendu réparti sur plusieurs workers")
+class CoordinatorTest {
+
+    private static final byte[] SCENE = """
+            size 45 31
+            camera 0 1 5 0 0 0 0 1 0 45
+            ambient .1 .1 .1
+            point 2 4 3 .6 .6 .6
+            directional -1 -1 -1 .2 .2 .2
+            diffuse .6 .2 .2
+            specular .3 .3 .3
+            sphere 0 .5 0 1
+            diffuse .3 .3 .3
+            plane 0 -.5 0 0 1 0
+            maxdepth 3
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private SceneLoader loader;
+    private Coordinator coordinator;
+    private final List<Thread> threads = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        loader = new SceneLoader();
+        coordinator = new Coordinator(new CoordinatorConfig(0, 8, 3, Duration.ofSeconds(30)), loader);
+        coordinator.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        coordinator.close();
+        for (Thread t : threads) {
+            t.join(5_000);
+        }
+    }
+
+    private void assertSamePixels(FrameBuffer expected, FrameBuffer actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getPixel(x, y), actual.getPixel(x, y), "pixel (" + x + "," + y + ")");
+            }
+        }
+    }
+
+    private RenderResult localRender() throws Exception {
+        return new Renderer().render(loader.load("scene.txt", SCENE), new RenderOptionsBuilder().setTileSize(8).build());
+    }
+
+    private void background(String name, ThrowingRunnable body) {
+        Thread t = new Thread(() -> {
+            try {
+                body.run();
+            } catch (Exception ignored) {
+                // Connexion fermée par le coordinateur en fin de test
+            }
+        }, name);
+        t.setDaemon(true);
+        threads.add(t);
+        t.start();
+    }
+
+    /**
+     * Worker dans le processus de test, connecté une fois {@code start} franchi.
+     */
+    private void inProcessWorker(CountDownLatch start) {
+        background("test-worker", () -> {
+            start.await();
+            new Worker(new SceneLoader(), 2).run("localhost", coordinator.getPort());
+        });
+    }
+
+    /**
+     * Faux worker : accepte la scène et un lot de tuiles puis, selon {@code die},
+     * coupe la connexion ou ne répond plus jamais.
+     */
+    private void brokenWorker(boolean die, CountDownLatch gotTiles) {
+        background("broken-worker", () -> {
+            try (Socket socket = new Socket("localhost", coordinator.getPort())) {
+                DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+                DataInputStream in = new DataInputStream(socket.getInputStream());
+                out.writeByte(Protocol.HELLO);
+                out.writeInt(Protocol.MAGIC);
+                out.writeInt(Protocol.VERSION);
+                out.writeInt(1);
+                out.flush();
+
+                assertEquals(Protocol.SCENE, in.readByte());
+                in.readUTF();
+                in.readFully(new byte[in.readInt()]);
+                out.writeByte(Protocol.READY);
+                out.flush();
+
+                assertEquals(Protocol.TILES, in.readByte());
+                if (!die) {
+                    gotTiles.countDown();
+                    in.read(); // jusqu'à la fermeture par le coordinateur
+                }
+            }
+            gotTiles.countDown();
+        });
+    }
+
+    @Test
+    @DisplayName("Deux processus workers produisent l'image du rendu local, bit à bit")
+    void workerProcessesMatchLocalRender() throws Exception {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<Process> processes = new ArrayList<>();
+        try {
+            for (int i = 0; i < 2; i++) {
+                processes.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                        Main.class.getName(), "--worker", "localhost:" + coordinator.getPort(), "-j", "2")
+                        .redirectErrorStream(true)
+                        .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                        .start());
+            }
+
+            try (RenderResult distributed = coordinator.render("scene.txt", SCENE);
+                 RenderResult local = localRender()) {
+                assertTrue(distributed.isComplete());
+                assertEquals(24, distributed.stats().tileCount());
+                assertEquals(local.stats().primaryRays(), distributed.stats().primaryRays());
+                assertEquals(local.stats().shadowRays(), distributed.stats().shadowRays());
+                assertSamePixels(local.frame(), distributed.frame());
+            }
+        } finally {
+            for (Process p : processes) {
+                p.destroyForcibly();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Les tuiles d'un worker qui se déconnecte sont redistribuées")
+    void reassignsTilesOfDeadWorker() throws Exception {
+        CountDownLatch gotTiles = new CountDownLatch(1);
+        brokenWorker(true, gotTiles);
+        inProcessWorker(gotTiles);
+
+        try (RenderResult distributed = coordinator.render("scene.txt", SCENE);
+             RenderResult local = localRender()) {
+            assertSamePixels(local.frame(), distributed.frame());
+        }
+        assertEquals(3, coordinator.getReassignedTiles());
+    }
+
+    @Test
+    @DisplayName("Un worker bloqué ne retarde pas la fin du rendu, le second rendu réutilise les workers")
+    void duplicatesTilesOfStalledWorker() throws Exception {
+        CountDownLatch gotTiles = new CountDownLatch(1);
+        brokenWorker(false, gotTiles);
+        inProcessWorker(gotTiles);
+
+        try (RenderResult first = coordinator.render("scene.txt", SCENE);
+             RenderResult local = localRender()) {
+            assertSamePixels(local.frame(), first.frame());
+        }
+        try (RenderResult second = coordinator.render("scene.txt", SCENE);
+             RenderResult local = localRender()) {
+            assertSamePixels(local.frame(), second.frame());
+        }
+    }
+
+    @Test
+    @DisplayName("Sans aucun worker connecté, le rendu échoue après le délai au lieu de bloquer")
+    void failsWithoutWorkers() throws Exception {
+        try (Coordinator lonely = new Coordinator(new CoordinatorConfig(0, 8, 3, Duration.ofMillis(300)), loader)) {
+            lonely.start();
+            long start = System.nanoTime();
+            IOException e = assertThrows(IOException.class, () -> lonely.render("scene.txt", SCENE));
+            long elapsed = System.nanoTime() - start;
+
+            assertTrue(e.getMessage().contains("aucun worker"), e.getMessage());
+            assertTrue(elapsed >= Duration.ofMillis(300).toNanos());
+            assertTrue(elapsed < Duration.ofSeconds(5).toNanos());
+            assertEquals(0, lonely.getWorkerCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Une scène invalide est refusée avant toute distribution")
+    void rejectsInvalidScene() {
+        assertThrows(Exception.class, () -> coordinator.render("scene.txt", "size 4\n".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,325 @@
+package fr.ninhache.raytracer.geometry.accel;
+
+import fr.ninhache.raytracer.geometry.BoundingBox;
+import fr.ninhache.raytracer.geometry.IShape;
+import fr.ninhache.raytracer.geometry.Intersection;
+import fr.ninhache.raytracer.geometry.Ray;
+import fr.ninhache.raytracer.geometry.shape.Plane;
+import fr.ninhache.raytracer.geometry.shape.RegularPolygon;
+import fr.ninhache.raytracer.geometry.shape.Sphere;
+import fr.ninhache.raytracer.geometry.shape.Triangle;
+import fr.ninhache.raytracer.math.Point;
+import fr.ninhache.raytracer.math.Vector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Bvh - parcours des formes par boîtes englobantes")
+class BvhTest {
+
+    /**
+     * Sphères, triangles et polygones aléatoires, un plan, et deux sphères confondues.
+     */
+    static List<IShape> shapes(long seed, int count) {
+        Random rnd = new Random(seed);
+        List<IShape> shapes = new ArrayList<>();
+        shapes.add(new Plane(new Point(0, -6, 0), Vector.Y_AXIS));
+        for (int i = 0; i < count; i++) {
+            Point c = new Point(rnd.nextDouble() * 10 - 5, rnd.nextDouble() * 10 - 5, rnd.nextDouble() * 10 - 5);
+            switch (i % 3) {
+                case 0 -> shapes.add(new Sphere(c, 0.1 + rnd.nextDouble() * 0.5));
+                case 1 -> shapes.add(new Triangle(c,
+                        c.add(new Vector(rnd.nextDouble(), rnd.nextDouble(), 0)),
+                        c.add(new Vector(0, rnd.nextDouble(), rnd.nextDouble()))));
+                default -> shapes.add(new RegularPolygon(c, 0.5, 3 + i % 7,
+                        new Vector(rnd.nextDouble() - 0.5, 1, rnd.nextDouble() - 0.5)));
+            }
+        }
+        shapes.add(new Sphere(new Point(0, 0, -8), 1));
+        shapes.add(new Sphere(new Point(0, 0, -8), 1));
+        return shapes;
+    }
+
+    static Optional<Intersection> linear(List<IShape> shapes, Ray ray) {
+        Intersection best = null;
+        for (IShape shape : shapes) {
+            Optional<Intersection> hit = shape.intersect(ray);
+            if (hit.isPresent() && hit.get().t > 1e-9 && (best == null || hit.get().t < best.t)) {
+                best = hit.get();
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    static List<Ray> rays(long seed, int count) {
+        Random rnd = new Random(seed);
+        List<Ray> rays = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Point o = new Point(rnd.nextDouble() * 20 - 10, rnd.nextDouble() * 20 - 10, 12);
+            Point target = new Point(rnd.nextDouble() * 10 - 5, rnd.nextDouble() * 10 - 5, rnd.nextDouble() * 10 - 5);
+            rays.add(new Ray(o, target.sub(o)));
+        }
+        // Rayons parallèles aux axes : composantes nulles de la direction
+        rays.add(new Ray(new Point(0, 0, 12), new Vector(0, 0, -1)));
+        rays.add(new Ray(new Point(-10, 0.2, -8), new Vector(1, 0, 0)));
+        return rays;
+    }
+
+    static void assertMatchesLinearScan(List<IShape> shapes, Bvh bvh) {
+        assertEquals(shapes.size(), bvh.size());
+        assertTrue(bvh.nodeCount() > 1);
+
+        for (Ray ray : rays(11, 2000)) {
+            Optional<Intersection> expected = linear(shapes, ray);
+            Optional<Intersection> actual = bvh.intersect(ray);
+            assertEquals(expected.isPresent(), actual.isPresent(), ray.toString());
+            if (expected.isPresent()) {
+                assertEquals(expected.get().t, actual.get().t, ray.toString());
+                assertTrue(expected.get().shape == actual.get().shape, ray.toString());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("La BVH trouve le même impact que le parcours linéaire, première forme à égalité")
+    void matchesLinearScan() {
+        List<IShape> shapes = shapes(7, 300);
+        assertMatchesLinearScan(shapes, Bvh.build(shapes));
+    }
+
+    @Test
+    @DisplayName("Les boîtes stockées en float n'excluent pas les formes loin de l'origine")
+    void floatBoundsFarFromOrigin() {
+        // À 1e5, l'écart entre deux float (~0.008) dépasse l'épaisseur des formes
+        Vector offset = new Vector(1e5 + 0.001, -1e5 + 0.003, 1e5 + 0.007);
+        Random rnd = new Random(13);
+        List<IShape> shapes = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Point c = new Point(rnd.nextDouble() * 0.05, rnd.nextDouble() * 0.05, rnd.nextDouble() * 0.05).add(offset);
+            shapes.add(new Triangle(c, c.add(new Vector(0.003, 0, 0)), c.add(new Vector(0, 0.003, 0.0001))));
+        }
+        Bvh bvh = Bvh.build(shapes);
+
+        int hits = 0;
+        for (int i = 0; i < 2000; i++) {
+            Point target = new Point(rnd.nextDouble() * 0.05, rnd.nextDouble() * 0.05, rnd.nextDouble() * 0.05).add(offset);
+            Point origin = target.add(new Vector(rnd.nextDouble() - 0.5, rnd.nextDouble() - 0.5, 2));
+            Ray ray = new Ray(origin, target.sub(origin));
+            Optional<Intersection> expected = linear(shapes, ray);
+            assertEquals(expected.isPresent(), bvh.intersect(ray).isPresent(), ray.toString());
+            if (expected.isPresent()) {
+                hits++;
+                assertEquals(expected.get().t, bvh.intersect(ray).get().t);
+            }
+        }
+        assertTrue(hits > 0);
+    }
+
+    @Test
+    @DisplayName("L'arbre binaire et l'arbre à quatre branches trouvent le même impact que le parcours linéaire")
+    void layoutsMatchLinearScan() {
+        List<IShape> shapes = shapes(17, 400);
+        for (BvhLayout layout : BvhLayout.values()) {
+            Bvh bvh = Bvh.build(shapes, BvhBuildMethod.SAH, layout);
+            assertEquals(layout, bvh.getStats().layout());
+            assertMatchesLinearScan(shapes, bvh);
+        }
+    }
+
+    @Test
+    @DisplayName("Repli à quatre branches : chaque primitive dans une seule feuille, 1 à 4 enfants par nœud")
+    void wideCollapse() {
+        List<IShape> shapes = shapes(19, 1000).subList(1, 1001);
+        BoundingBox[] boxes = shapes.stream().map(IShape::getBounds).toArray(BoundingBox[]::new);
+        int[] order = new int[boxes.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        WideBvh wide = new WideBvh(new SahBvhBuilder(boxes, order).build());
+
+        int[] seen = new int[boxes.length];
+        int internal = 0;
+        for (int node = 0; node < wide.size(); node++) {
+            int lanes = wide.lanes[node];
+            assertTrue(lanes >= 1 && lanes <= WideBvh.WIDTH);
+            for (int lane = 0; lane < lanes; lane++) {
+                int child = wide.links[8 * node + lane];
+                int count = wide.links[8 * node + 4 + lane];
+                if (count == 0) {
+                    assertTrue(child > node && child < wide.size());
+                    internal++;
+                } else {
+                    for (int i = child; i < child + count; i++) {
+                        seen[i]++;
+                    }
+                }
+            }
+        }
+        assertEquals(wide.size() - 1, internal);
+        for (int s : seen) {
+            assertEquals(1, s);
+        }
+    }
+
+    @Test
+    @DisplayName("La LBVH trouve le même impact que le parcours linéaire")
+    void lbvhMatchesLinearScan() {
+        List<IShape> shapes = shapes(7, 300);
+        assertMatchesLinearScan(shapes, Bvh.build(shapes, BvhBuildMethod.LBVH));
+    }
+
+    /**
+     * Longs triangles fins en étoile dans le plan y = 0, au milieu d'une grille de petites sphères :
+     * la boîte de chaque triangle couvre presque toute la scène.
+     */
+    static List<IShape> beams(int count) {
+        List<IShape> shapes = new ArrayList<>();
+        for (int k = 0; k < count; k++) {
+            double a = Math.PI * k / count;
+            double x = 5 * Math.cos(a), z = 5 * Math.sin(a);
+            shapes.add(new Triangle(new Point(-x, 0, -z), new Point(x, 0.1, z), new Point(x, 0.15, z)));
+        }
+        for (int i = -4; i <= 4; i++) {
+            for (int j = -4; j <= 4; j++) {
+                shapes.add(new Sphere(new Point(i, 0.1, j), 0.2));
+            }
+        }
+        return shapes;
+    }
+
+    @Test
+    @DisplayName("La SBVH trouve le même impact que le parcours linéaire, références dupliquées comprises")
+    void sbvhMatchesLinearScan() {
+        List<IShape> shapes = shapes(23, 400);
+        shapes.addAll(beams(24));
+        for (BvhLayout layout : BvhLayout.values()) {
+            Bvh bvh = Bvh.build(shapes, BvhBuildMethod.SBVH, layout);
+            assertTrue(bvh.getStats().references() > bvh.getStats().primitives());
+            assertMatchesLinearScan(shapes, bvh);
+        }
+    }
+
+    @Test
+    @DisplayName("Coupures spatiales : copies dans le budget, moins de formes testées qu'avec la SAH")
+    void sbvhSplitsThinTriangles() {
+        List<IShape> shapes = beams(32);
+        Bvh sah = Bvh.build(shapes, BvhBuildMethod.SAH, BvhLayout.BINARY);
+        Bvh sbvh = Bvh.build(shapes, BvhBuildMethod.SBVH, BvhLayout.BINARY);
+
+        BvhStats stats = sbvh.getStats();
+        assertEquals(shapes.size(), stats.primitives());
+        assertEquals(shapes.size(), sah.getStats().references());
+        assertTrue(stats.references() > stats.primitives());
+        assertTrue(stats.references() <= stats.primitives() * (1 + SbvhBuilder.DEFAULT_BUDGET));
+
+        List<Ray> rays = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            double x = (i % 20) * 0.5 - 5, z = (i / 20) * 0.5 - 5;
+            rays.add(new Ray(new Point(x + 0.01, 5, z + 0.02), new Vector(0.1, -1, 0.05)));
+        }
+        TraversalSteps reference = sah.measure(rays);
+        TraversalSteps split = sbvh.measure(rays);
+        assertTrue(split.primitives() < reference.primitives(), split + " / " + reference);
+        assertEquals(split.nodes() + split.primitives(), split.total());
+    }
+
+    @Test
+    @DisplayName("LBVH en codes de 63 bits : chaque primitive dans une seule feuille, boîtes emboîtées")
+    void lbvhWideCodes() {
+        Random rnd = new Random(5);
+        BoundingBox[] boxes = new BoundingBox[5000];
+        for (int i = 0; i < boxes.length; i++) {
+            Point min = new Point(rnd.nextDouble() * 100, rnd.nextDouble() * 100, rnd.nextDouble());
+            boxes[i] = new BoundingBox(min, min.add(new Vector(rnd.nextDouble(), rnd.nextDouble(), rnd.nextDouble())));
+        }
+        int[] order = new int[boxes.length];
+        BvhNode root = new LbvhBuilder(boxes, order, 21).build();
+
+        boolean[] seen = new boolean[boxes.length];
+        checkNode(root, boxes, order, seen);
+        for (boolean s : seen) {
+            assertTrue(s);
+        }
+    }
+
+    private static void checkNode(BvhNode node, BoundingBox[] boxes, int[] order, boolean[] seen) {
+        if (node.isLeaf()) {
+            assertTrue(node.count <= LbvhBuilder.LEAF_SIZE);
+            for (int i = node.first; i < node.first + node.count; i++) {
+                assertFalse(seen[order[i]]);
+                seen[order[i]] = true;
+                BoundingBox b = boxes[order[i]];
+                assertTrue(b.getMin().x >= node.minX && b.getMax().x <= node.maxX);
+                assertTrue(b.getMin().y >= node.minY && b.getMax().y <= node.maxY);
+                assertTrue(b.getMin().z >= node.minZ && b.getMax().z <= node.maxZ);
+            }
+            return;
+        }
+        for (BvhNode child : new BvhNode[]{node.left, node.right}) {
+            assertTrue(child.minX >= node.minX && child.maxX <= node.maxX);
+            assertTrue(child.minY >= node.minY && child.maxY <= node.maxY);
+            assertTrue(child.minZ >= node.minZ && child.maxZ <= node.maxZ);
+            checkNode(child, boxes, order, seen);
+        }
+    }
+
+    @Test
+    @DisplayName("Le tri par base 256 range les codes et garde l'ordre des égaux")
+    void radixSort() {
+        Random rnd = new Random(9);
+        long[] keys = new long[1000];
+        int[] values = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = rnd.nextLong() >>> 1 & ~0xffL | (i % 3);
+            values[i] = i;
+        }
+        keys[10] = keys[20];
+        long[] expected = keys.clone();
+        Arrays.sort(expected);
+        long[] original = keys.clone();
+
+        LbvhBuilder.radixSort(keys, values);
+        assertArrayEquals(expected, keys);
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(original[values[i]], keys[i]);
+        }
+        int at10 = -1, at20 = -1;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == 10) at10 = i;
+            if (values[i] == 20) at20 = i;
+        }
+        assertTrue(at10 < at20);
+    }
+
+    @Test
+    @DisplayName("Les statistiques donnent la méthode, les nœuds et un coût SAH")
+    void stats() {
+        List<IShape> shapes = shapes(3, 500);
+        BvhStats sah = Bvh.build(shapes).getStats();
+        BvhStats lbvh = Bvh.build(shapes, BvhBuildMethod.LBVH).getStats();
+
+        assertEquals(BvhBuildMethod.SAH, sah.method());
+        assertEquals(BvhBuildMethod.LBVH, lbvh.method());
+        assertEquals(shapes.size() - 1, lbvh.primitives());
+        assertTrue(lbvh.nodes() > 1);
+        assertTrue(sah.sahCost() > 0 && lbvh.sahCost() > 0);
+        assertTrue(lbvh.buildNanos() >= 0);
+    }
+
+    @Test
+    @DisplayName("Une forme non bornée rend la boîte de la BVH infinie ; une liste vide n'a pas de boîte")
+    void bounds() {
+        assertFalse(Bvh.build(shapes(1, 10)).getBounds().isFinite());
+        assertTrue(Bvh.build(shapes(1, 10).subList(1, 11)).getBounds().isFinite());
+        Bvh empty = Bvh.build(List.of());
+        assertNull(empty.getBounds());
+        assertTrue(empty.intersect(new Ray(new Point(0, 0, 0), Vector.Z_AXIS)).isEmpty());
+    }
+}
@@ -0,0 +1,69 @@
+package fr.ninhache.raytracer.geometry.accel;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("QuadBoxTest - test de quatre boîtes à la fois")
+class QuadBoxTestTest {
+
+    @Test
+    @DisplayName("L'implémentation retenue donne les mêmes impacts et entrées que la boucle scalaire")
+    void matchesScalar() {
+        QuadBoxTest scalar = new QuadBoxTest.Scalar();
+        QuadBoxTest selected = QuadBoxTest.get();
+        Random rnd = new Random(21);
+        float[] bounds = new float[24];
+        double[] expected = new double[4];
+        double[] actual = new double[4];
+
+        for (int i = 0; i < 20000; i++) {
+            for (int lane = 0; lane < 4; lane++) {
+                for (int axis = 0; axis < 3; axis++) {
+                    // Boîtes parfois plates, parfois posées sur l'origine du rayon
+                    float min = rnd.nextInt(4) == 0 ? 0 : (float) (rnd.nextDouble() * 10 - 5);
+                    float extent = rnd.nextInt(4) == 0 ? 0 : (float) rnd.nextDouble() * 3;
+                    bounds[4 * axis + lane] = min;
+                    bounds[12 + 4 * axis + lane] = min + extent;
+                }
+            }
+            double[] d = new double[3];
+            for (int axis = 0; axis < 3; axis++) {
+                d[axis] = rnd.nextInt(5) == 0 ? 0 : rnd.nextDouble() * 2 - 1;
+            }
+            int lanes = 1 + rnd.nextInt(4);
+            double tMax = rnd.nextBoolean() ? Double.POSITIVE_INFINITY : rnd.nextDouble() * 10;
+
+            int mask = scalar.test(bounds, 0, lanes, 0, 0, 0, 1 / d[0], 1 / d[1], 1 / d[2], tMax, expected);
+            assertEquals(mask, selected.test(bounds, 0, lanes, 0, 0, 0, 1 / d[0], 1 / d[1], 1 / d[2], tMax, actual));
+            for (int lane = 0; lane < lanes; lane++) {
+                if ((mask >> lane & 1) != 0) {
+                    assertEquals(expected[lane], actual[lane]);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Un rayon dans le plan d'une face touche la boîte ; les voies au-delà du nombre d'enfants sont ignorées")
+    void planeAndLanes() {
+        QuadBoxTest test = QuadBoxTest.get();
+        float[] bounds = new float[24];
+        for (int lane = 0; lane < 4; lane++) {
+            // Boîte [0,1]^3 sur chaque voie
+            for (int axis = 0; axis < 3; axis++) {
+                bounds[12 + 4 * axis + lane] = 1;
+            }
+        }
+        double[] tNear = new double[4];
+        // Rayon le long de l'arête x = 0, y = 0, dirigé selon z depuis z = -2
+        int mask = test.test(bounds, 0, 3, 0, 0, -2, 1 / 0.0, 1 / 0.0, 1, Double.POSITIVE_INFINITY, tNear);
+        assertEquals(0b111, mask);
+        assertEquals(2, tNear[0]);
+
+        assertEquals(0, test.test(bounds, 0, 4, 0, 0, -2, 1 / 0.0, 1 / 0.0, 1, 1.5, tNear));
+    }
+}
@@ -0,0 +1,136 @@
+package fr.ninhache.raytracer.geometry.shape;
+
+import fr.ninhache.raytracer.geometry.BoundingBox;
+import fr.ninhache.raytracer.geometry.Intersection;
+import fr.ninhache.raytracer.geometry.Ray;
+import fr.ninhache.raytracer.geometry.Transform;
+import fr.ninhache.raytracer.math.Point;
+import fr.ninhache.raytracer.math.Vector;
+import fr.ninhache.raytracer.render.RenderOptionsBuilder;
+import fr.ninhache.raytracer.render.RenderResult;
+import fr.ninhache.raytracer.render.Renderer;
+import fr.ninhache.raytracer.scene.Scene;
+import fr.ninhache.raytracer.scene.SceneLoader;
+import fr.ninhache.raytracer.scene.exception.ParseException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static fr.ninhache.raytracer.math.TestUtils.assertAlmost;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Instance - copies transformées d'une géométrie partagée")
+class InstanceTest {
+
+    private static final String HEADER = """
+            size 80 60
+            camera 0 2 9 0 0 0 0 1 0 45
+            ambient .1 .1 .1
+            point 3 5 4 .7 .7 .7
+            """;
+
+    private static Scene load(String content) throws Exception {
+        return new SceneLoader().load("scene.txt", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Impact, distance et normale sont ceux de la forme transformée à la main")
+    void hitMatchesTransformedShape() {
+        Transform transform = Transform.scaling(2).then(Transform.rotationY(30)).then(Transform.translation(1, 2, -3));
+        Sphere local = new Sphere(new Point(0.5, 0, 0), 1);
+        Instance instance = new Instance(new ShapeGroup("g", List.of(local)), transform);
+        Sphere world = new Sphere(transform.apply(new Point(0.5, 0, 0)), 2);
+
+        Ray ray = new Ray(new Point(0, 2.5, 10), new Vector(0.1, -0.02, -1));
+        Intersection expected = world.intersect(ray).orElseThrow();
+        Intersection actual = instance.intersect(ray).orElseThrow();
+
+        assertAlmost(expected.t, actual.t);
+        assertTrue(expected.point.almostEquals(actual.point, 1e-9));
+        assertTrue(expected.normal.almostEquals(actual.normal, 1e-9));
+        assertSame(local, actual.shape);
+        // Boîte de la boîte tournée : plus large que celle de la sphère, mais la contient
+        BoundingBox exact = world.getBounds();
+        BoundingBox box = instance.getBounds();
+        assertTrue(box.getMin().x <= exact.getMin().x && box.getMax().x >= exact.getMax().x);
+        assertTrue(box.getMin().y <= exact.getMin().y + 1e-9 && box.getMax().y >= exact.getMax().y - 1e-9);
+        assertTrue(box.getMin().z <= exact.getMin().z && box.getMax().z >= exact.getMax().z);
+    }
+
+    @Test
+    @DisplayName("Une scène instanciée donne l'image de la scène aux formes recopiées")
+    void instancedSceneMatchesExpandedScene() throws Exception {
+        Scene instanced = load(HEADER + """
+                maxverts 3
+                vertex -1 0 0
+                vertex 1 0 0
+                vertex 0 1.5 0
+                group motif
+                diffuse .6 .2 .2
+                sphere 0 .5 0 .4
+                diffuse .2 .2 .6
+                tri 0 1 2
+                endgroup
+                instance motif -1.5 0 0
+                instance motif 1.5 -.5 0  0 90 0  .5
+                diffuse .8 .8 .8
+                instance motif 0 -1 -2  0 0 180
+                """);
+        // Les mêmes formes, transformées à la main ; la dernière instance garde les matériaux du groupe
+        Scene expanded = load(HEADER + """
+                maxverts 9
+                vertex -2.5 0 0
+                vertex -.5 0 0
+                vertex -1.5 1.5 0
+                vertex 1.5 -.5 .5
+                vertex 1.5 -.5 -.5
+                vertex 1.5 .25 0
+                vertex 1 -1 -2
+                vertex -1 -1 -2
+                vertex 0 -2.5 -2
+                diffuse .6 .2 .2
+                sphere -1.5 .5 0 .4
+                sphere 1.5 -.25 0 .2
+                sphere 0 -1.5 -2 .4
+                diffuse .2 .2 .6
+                tri 0 1 2
+                tri 3 4 5
+                tri 6 7 8
+                """);
+
+        assertEquals(3, instanced.getShapeCount());
+        assertSame(((Instance) instanced.getShapes().get(0)).getGroup(),
+                ((Instance) instanced.getShapes().get(2)).getGroup());
+
+        Renderer renderer = new Renderer();
+        try (RenderResult a = renderer.render(instanced, new RenderOptionsBuilder().setThreadCount(2).build());
+             RenderResult b = renderer.render(expanded, new RenderOptionsBuilder().setThreadCount(2).build())) {
+            int lit = 0;
+            for (int y = 0; y < a.frame().getHeight(); y++) {
+                for (int x = 0; x < a.frame().getWidth(); x++) {
+                    int pa = a.frame().getPixel(x, y);
+                    int pb = b.frame().getPixel(x, y);
+                    for (int shift = 0; shift < 24; shift += 8) {
+                        assertEquals((pb >> shift) & 0xff, (pa >> shift) & 0xff, 1, "pixel (" + x + "," + y + ")");
+                    }
+                    if ((pa & 0xffffff) != 0) {
+                        lit++;
+                    }
+                }
+            }
+            assertTrue(lit > 100, "pixels éclairés : " + lit);
+        }
+    }
+
+    @Test
+    @DisplayName("Groupe inconnu, non fermé ou vide : erreur de syntaxe")
+    void invalidGroups() {
+        assertThrows(ParseException.class, () -> load(HEADER + "instance absent 0 0 0\n"));
+        assertThrows(ParseException.class, () -> load(HEADER + "group g\nsphere 0 0 0 1\n"));
+        assertThrows(ParseException.class, () -> load(HEADER + "group g\nendgroup\n"));
+        assertThrows(ParseException.class, () -> load(HEADER + "group g\nsphere 0 0 0 1\nendgroup\ngroup g\n"));
+        assertThrows(ParseException.class, () -> load(HEADER + "group g\nsphere 0 0 0 1\nendgroup\ninstance g 0 0\n"));
+    }
+}
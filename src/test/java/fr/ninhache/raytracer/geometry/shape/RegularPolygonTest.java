@@ -0,0 +1,96 @@
+package fr.ninhache.raytracer.geometry.shape;
+
+import fr.ninhache.raytracer.geometry.Intersection;
+import fr.ninhache.raytracer.geometry.Ray;
+import fr.ninhache.raytracer.math.Point;
+import fr.ninhache.raytracer.math.Vector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.Random;
+
+import static fr.ninhache.raytracer.math.TestUtils.assertAlmost;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RegularPolygon - intersection analytique")
+class RegularPolygonTest {
+
+    /**
+     * Intersection par l'éventail de triangles, l'ancienne méthode.
+     */
+    private static Optional<Intersection> fan(RegularPolygon polygon, Ray ray) {
+        Intersection best = null;
+        for (Triangle t : polygon.getTriangles()) {
+            Optional<Intersection> hit = t.intersect(ray);
+            if (hit.isPresent() && (best == null || hit.get().t < best.t)) {
+                best = hit.get();
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    @Test
+    @DisplayName("Même impact et même normale que l'éventail de triangles, loin des bords")
+    void matchesTriangleFan() {
+        Random rnd = new Random(3);
+        for (int sides = 3; sides <= 32; sides++) {
+            Point center = new Point(rnd.nextDouble(), rnd.nextDouble(), rnd.nextDouble());
+            Vector normal = new Vector(rnd.nextDouble() - 0.5, rnd.nextDouble() - 0.5, rnd.nextDouble() - 0.5);
+            RegularPolygon polygon = new RegularPolygon(center, 1.5, sides, normal);
+
+            int hits = 0;
+            for (int i = 0; i < 500; i++) {
+                Point origin = new Point(rnd.nextDouble() * 8 - 4, rnd.nextDouble() * 8 - 4, rnd.nextDouble() * 8 - 4);
+                Point target = center.add(new Vector(rnd.nextDouble() * 4 - 2, rnd.nextDouble() * 4 - 2,
+                        rnd.nextDouble() * 4 - 2));
+                Ray ray = new Ray(origin, target.sub(origin));
+
+                Optional<Intersection> expected = fan(polygon, ray);
+                Optional<Intersection> actual = polygon.intersect(ray);
+                if (expected.isPresent() != actual.isPresent()) {
+                    // Seul un rayon rasant un côté peut être tranché différemment
+                    Intersection h = expected.orElseGet(actual::get);
+                    assertTrue(nearEdge(polygon, h.point, 1e-9), "écart loin d'un bord : " + ray);
+                    continue;
+                }
+                if (actual.isPresent()) {
+                    hits++;
+                    assertAlmost(expected.get().t, actual.get().t);
+                    assertTrue(expected.get().normal.almostEquals(actual.get().normal, 1e-9));
+                    assertSame(polygon, actual.get().shape);
+                }
+            }
+            assertTrue(hits > 0, "aucun impact pour " + sides + " côtés");
+        }
+    }
+
+    @Test
+    @DisplayName("Un point entre l'apothème et le rayon est dedans près d'un sommet, dehors au milieu d'un côté")
+    void apothemBoundary() {
+        // Carré de sommets (±1, 0, 0), (0, ±1, 0) vu de face : apothème sqrt(2)/2
+        RegularPolygon square = new RegularPolygon(new Point(0, 0, 0), 1, 4, Vector.Z_AXIS);
+        Vector down = new Vector(0, 0, -1);
+
+        assertTrue(square.intersect(new Ray(new Point(0.9, 0, 5), down)).isPresent());
+        assertTrue(square.intersect(new Ray(new Point(0.3, 0.3, 5), down)).isPresent());
+        assertFalse(square.intersect(new Ray(new Point(0.55, 0.55, 5), down)).isPresent());
+        assertFalse(square.intersect(new Ray(new Point(0, 0, 5), Vector.X_AXIS)).isPresent());
+
+        Intersection hit = square.intersect(new Ray(new Point(0, 0, -5), Vector.Z_AXIS)).orElseThrow();
+        assertAlmost(5, hit.t);
+        assertAlmost(-1, hit.normal.z);
+    }
+
+    private static boolean nearEdge(RegularPolygon polygon, Point p, double tolerance) {
+        for (Triangle t : polygon.getTriangles()) {
+            Vector edge = t.getV3().sub(t.getV2());
+            Vector w = p.sub(t.getV2());
+            double along = Math.max(0, Math.min(1, w.dot(edge) / edge.lengthSquared()));
+            if (w.sub(edge.mul(along)).length() < tolerance * 1e3) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,115 @@
+package fr.ninhache.raytracer.render;
+
+import fr.ninhache.raytracer.geometry.shape.Plane;
+import fr.ninhache.raytracer.geometry.shape.Sphere;
+import fr.ninhache.raytracer.lighting.PointLight;
+import fr.ninhache.raytracer.math.Color;
+import fr.ninhache.raytracer.math.Point;
+import fr.ninhache.raytracer.math.Vector;
+import fr.ninhache.raytracer.scene.Camera;
+import fr.ninhache.raytracer.scene.Scene;
+import fr.ninhache.raytracer.scene.SceneBuilder;
+import fr.ninhache.raytracer.scene.exception.ParseException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("IncrementalRenderer - rendu des seules tuiles touchées par une édition")
+class IncrementalRendererTest {
+
+    /**
+     * Sol diffus, une sphère miroir à gauche et une petite sphère mobile.
+     */
+    private static Scene scene(Point moving, Point light, double floorY) throws ParseException {
+        return new SceneBuilder()
+                .setSize(64, 48)
+                .setCamera(new Camera(new Point(0, 2, 8), new Point(0, 0, 0), Vector.Y_AXIS, 45))
+                .setAmbientLight(new Color(0.1, 0.1, 0.1))
+                .addLight(new PointLight(light, new Color(0.7, 0.7, 0.7)))
+                .setDiffuse(new Color(0.3, 0.3, 0.3))
+                .addShape(new Plane(new Point(0, floorY, 0), Vector.Y_AXIS))
+                .setDiffuse(new Color(0.1, 0.1, 0.1))
+                .setSpecular(new Color(0.6, 0.6, 0.6))
+                .addShape(new Sphere(new Point(-2, 0, 0), 1.0))
+                .setDiffuse(new Color(0.7, 0.2, 0.2))
+                .setSpecular(new Color(0, 0, 0))
+                .addShape(new Sphere(moving, 0.3))
+                .setMaxDepth(3)
+                .build();
+    }
+
+    private static RenderOptions options() {
+        return new RenderOptionsBuilder().setThreadCount(2).setTileSize(8).setHdr(true).build();
+    }
+
+    private static void assertSameResult(RenderResult expected, RenderResult actual) {
+        for (int y = 0; y < expected.frame().getHeight(); y++) {
+            for (int x = 0; x < expected.frame().getWidth(); x++) {
+                assertEquals(expected.frame().getPixel(x, y), actual.frame().getPixel(x, y),
+                        "pixel (" + x + "," + y + ")");
+                assertEquals(expected.radiance().getG(x, y), actual.radiance().getG(x, y));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Déplacer une sphère donne l'image d'un rendu complet, ombre et reflet compris")
+    void movedShapeMatchesFullRender() throws Exception {
+        Point light = new Point(3, 5, 4);
+        Scene before = scene(new Point(2.5, 0, 1), light, -1);
+        Scene after = scene(new Point(1.5, 0, 1.5), light, -1);
+        Renderer renderer = new Renderer();
+        IncrementalRenderer incremental = new IncrementalRenderer();
+
+        try (RenderResult previous = renderer.render(before, options());
+             RenderResult full = renderer.render(after, options());
+             RenderResult partial = incremental.render(before, previous, after, options())) {
+            assertEquals(RenderStatus.COMPLETED, partial.status());
+            assertEquals(48, partial.stats().completedTiles());
+            assertSameResult(full, partial);
+
+            int dirty = incremental.dirtyTiles(before, after, options()).size();
+            assertTrue(dirty > 0 && dirty < 48, "tuiles recalculées : " + dirty);
+            assertEquals(dirty * 64L, partial.stats().primaryRays());
+        }
+    }
+
+    @Test
+    @DisplayName("Le reflet d'une sphère éloignée dans le miroir est recalculé")
+    void reflectionsAreDirty() throws Exception {
+        Point light = new Point(3, 5, 4);
+        Scene before = scene(new Point(-0.5, 0, 2), light, -1);
+        Scene after = scene(new Point(-0.5, 0.6, 2), light, -1);
+        Renderer renderer = new Renderer();
+
+        try (RenderResult previous = renderer.render(before, options());
+             RenderResult full = renderer.render(after, options());
+             RenderResult partial = new IncrementalRenderer().render(before, previous, after, options())) {
+            assertSameResult(full, partial);
+        }
+
+        // Les tuiles du miroir, loin de la projection de la petite sphère, sont touchées
+        List<Tile> dirty = new IncrementalRenderer().dirtyTiles(before, after, options());
+        int[] rect = IncrementalRenderer.project(after, after.getShapes().get(2).getBounds());
+        assertNotNull(rect);
+        assertTrue(dirty.stream().anyMatch(t -> t.endX() <= rect[0] || t.x() > rect[2]
+                || t.endY() <= rect[1] || t.y() > rect[3]));
+    }
+
+    @Test
+    @DisplayName("Un changement global ou d'une forme non bornée recalcule toute l'image")
+    void globalChangesAreFull() throws Exception {
+        Point moving = new Point(2.5, 0, 1);
+        Scene base = scene(moving, new Point(3, 5, 4), -1);
+        IncrementalRenderer incremental = new IncrementalRenderer();
+
+        assertEquals(48, incremental.dirtyTiles(base, scene(moving, new Point(3, 6, 4), -1), options()).size());
+        assertEquals(48, incremental.dirtyTiles(base, scene(moving, new Point(3, 5, 4), -1.1), options()).size());
+        assertEquals(0, incremental.dirtyTiles(base, scene(moving, new Point(3, 5, 4), -1), options()).size());
+        assertNull(IncrementalRenderer.changedBounds(base, base.withCamera(
+                new Camera(new Point(0, 2, 9), new Point(0, 0, 0), Vector.Y_AXIS, 45))));
+    }
+}
@@ -0,0 +1,39 @@
+package fr.ninhache.raytracer.render;
+
+import fr.ninhache.raytracer.render.stats.RayStats;
+import fr.ninhache.raytracer.scene.Scene;
+import fr.ninhache.raytracer.scene.exception.ParseException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ProgressReporter - publication périodique de l'avancement")
+class ProgressReporterTest {
+
+    @Test
+    @DisplayName("Aucun instantané n'est publié après l'état final de close()")
+    void nothingPublishedAfterClose() throws ParseException, InterruptedException {
+        Scene scene = RendererTest.smallScene();
+        RayStats rayStats = new RayStats();
+        TileRenderer tileRenderer = new TileRenderer(scene, new RayTracer(),
+                new ImageBuffer(scene.getWidth(), scene.getHeight()), null, rayStats, new RenderHandle(Long.MAX_VALUE));
+
+        for (int attempt = 0; attempt < 50; attempt++) {
+            List<RenderProgress> updates = new CopyOnWriteArrayList<>();
+            ProgressReporter reporter = new ProgressReporter(updates::add, Duration.ofNanos(1_000),
+                    tileRenderer, rayStats, 1, 1, System.nanoTime());
+            Thread.sleep(1);
+            reporter.close();
+            int published = updates.size();
+            reporter.close();
+
+            Thread.sleep(5);
+            assertEquals(published, updates.size());
+        }
+    }
+}
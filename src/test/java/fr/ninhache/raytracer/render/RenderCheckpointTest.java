@@ -0,0 +1,159 @@
+package fr.ninhache.raytracer.render;
+
+import fr.ninhache.raytracer.render.executor.RenderExecutor;
+import fr.ninhache.raytracer.scene.Scene;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RenderCheckpoint - reprise d'un rendu interrompu")
+class RenderCheckpointTest {
+
+    private Path dir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dir = Files.createTempDirectory("checkpoint-");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> walk = Files.walk(dir)) {
+            for (Path p : walk.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    /**
+     * Exécuteur séquentiel qui « plante » : à l'appel {@code crashingCall} (à partir
+     * de 1), seules les {@code limit} premières tuiles sont calculées.
+     */
+    private static RenderExecutor crashing(int crashingCall, int limit) {
+        AtomicInteger calls = new AtomicInteger();
+        return new RenderExecutor() {
+            @Override
+            public String name() {
+                return "crashing";
+            }
+
+            @Override
+            public int parallelism() {
+                return 1;
+            }
+
+            @Override
+            public void execute(List<Tile> tiles, Consumer<Tile> work) {
+                boolean crash = calls.incrementAndGet() == crashingCall;
+                for (int i = 0; i < tiles.size() && (!crash || i < limit); i++) {
+                    work.accept(tiles.get(i));
+                }
+            }
+        };
+    }
+
+    private RenderOptionsBuilder options(int samples) {
+        return new RenderOptionsBuilder()
+                .setThreadCount(2)
+                .setTileSize(8)
+                .setAntiAliasing(samples, 0.05)
+                .setHdr(true);
+    }
+
+    private RenderOptionsBuilder checkpointed(int samples) {
+        return options(samples).setCheckpoint(dir, Duration.ofMillis(1));
+    }
+
+    private List<Path> journals() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.toList();
+        }
+    }
+
+    private static void assertSameResult(RenderResult expected, RenderResult actual) {
+        FrameBuffer e = expected.frame();
+        FrameBuffer a = actual.frame();
+        for (int y = 0; y < e.getHeight(); y++) {
+            for (int x = 0; x < e.getWidth(); x++) {
+                assertEquals(e.getPixel(x, y), a.getPixel(x, y), "pixel (" + x + "," + y + ")");
+                assertEquals(expected.radiance().getR(x, y), actual.radiance().getR(x, y));
+                assertEquals(expected.radiance().getB(x, y), actual.radiance().getB(x, y));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Un rendu interrompu reprend les tuiles manquantes et donne la même image")
+    void resumesMissingTiles() throws Exception {
+        Scene scene = RendererTest.smallScene();
+        Renderer renderer = new Renderer();
+        RenderResult reference = renderer.render(scene, options(1).build());
+
+        RenderResult partial = renderer.render(scene, checkpointed(1).setExecutor(crashing(1, 6)).build());
+        assertEquals(RenderStatus.DEADLINE_EXCEEDED, partial.status());
+        assertEquals(6, partial.stats().completedTiles());
+        assertEquals(1, journals().size());
+
+        RenderResult resumed = renderer.render(scene, checkpointed(1).build());
+        assertEquals(RenderStatus.COMPLETED, resumed.status());
+        assertEquals(15, resumed.stats().completedTiles());
+        // Seules les 9 tuiles manquantes sont tracées
+        assertTrue(resumed.stats().primaryRays() < reference.stats().primaryRays());
+        assertSameResult(reference, resumed);
+        assertTrue(journals().isEmpty());
+    }
+
+    @Test
+    @DisplayName("La reprise pendant l'anti-aliasing lisse contre la même image de référence")
+    void resumesDuringAntiAliasing() throws Exception {
+        Scene scene = RendererTest.smallScene();
+        Renderer renderer = new Renderer();
+        RenderResult reference = renderer.render(scene, options(3).build());
+
+        renderer.render(scene, checkpointed(3).setExecutor(crashing(2, 7)).build());
+        assertEquals(1, journals().size());
+
+        RenderResult resumed = renderer.render(scene, checkpointed(3).build());
+        assertEquals(0, resumed.stats().primaryRays());
+        assertTrue(resumed.stats().antiAliasingRays() < reference.stats().antiAliasingRays());
+        assertSameResult(reference, resumed);
+        assertTrue(journals().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Un enregistrement tronqué en fin de journal est ignoré")
+    void ignoresTruncatedRecord() throws Exception {
+        Scene scene = RendererTest.smallScene();
+        Renderer renderer = new Renderer();
+        RenderResult reference = renderer.render(scene, options(1).build());
+
+        renderer.render(scene, checkpointed(1).setExecutor(crashing(1, 4)).build());
+        Path journal = journals().get(0);
+        Files.write(journal, new byte[]{0, 0, 1, 0, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        RenderResult resumed = renderer.render(scene, checkpointed(1).build());
+        assertEquals(RenderStatus.COMPLETED, resumed.status());
+        assertSameResult(reference, resumed);
+    }
+
+    @Test
+    @DisplayName("La reprise est refusée avec le rendu progressif")
+    void rejectsProgressive() {
+        assertThrows(IllegalArgumentException.class,
+                () -> checkpointed(1).setProgressiveStep(4).build());
+    }
+}
@@ -0,0 +1,332 @@
+package fr.ninhache.raytracer.render;
+
+import fr.ninhache.raytracer.geometry.shape.Plane;
+import fr.ninhache.raytracer.geometry.shape.Sphere;
+import fr.ninhache.raytracer.lighting.PointLight;
+import fr.ninhache.raytracer.math.Color;
+import fr.ninhache.raytracer.math.Point;
+import fr.ninhache.raytracer.math.Vector;
+import fr.ninhache.raytracer.render.executor.ExecutionMode;
+import fr.ninhache.raytracer.render.executor.RenderExecutor;
+import fr.ninhache.raytracer.scene.Camera;
+import fr.ninhache.raytracer.scene.Scene;
+import fr.ninhache.raytracer.scene.SceneBuilder;
+import fr.ninhache.raytracer.scene.exception.ParseException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Renderer - stratégies d'exécution")
+class RendererTest {
+
+    static Scene smallScene() throws ParseException {
+        Camera cam = new Camera(new Point(0, 1, 5), new Point(0, 0, 0), Vector.Y_AXIS, 45);
+        return new SceneBuilder()
+                .setSize(37, 23)
+                .setCamera(cam)
+                .setAmbientLight(new Color(0.1, 0.1, 0.1))
+                .addLight(new PointLight(new Point(2, 4, 3), new Color(0.8, 0.8, 0.8)))
+                .setDiffuse(new Color(0.6, 0.2, 0.2))
+                .setSpecular(new Color(0.3, 0.3, 0.3))
+                .addShape(new Sphere(new Point(0, 0.5, 0), 1.0))
+                .setDiffuse(new Color(0.3, 0.3, 0.3))
+                .addShape(new Plane(new Point(0, -0.5, 0), Vector.Y_AXIS))
+                .setMaxDepth(3)
+                .build();
+    }
+
+    static void assertSameImage(BufferedImage expected, BufferedImage actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "pixel (" + x + "," + y + ")");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Toutes les stratégies produisent la même image que le rendu mono-thread")
+    void allExecutionModesMatchSingleThread() throws ParseException {
+        Scene scene = smallScene();
+        Renderer renderer = new Renderer();
+        RenderResult reference = renderer.renderSingleThread(scene);
+
+        for (ExecutionMode mode : ExecutionMode.values()) {
+            RenderOptions options = new RenderOptionsBuilder()
+                    .setExecutionMode(mode)
+                    .setThreadCount(3)
+                    .setTileSize(8)
+                    .build();
+
+            RenderResult result = renderer.render(scene, options);
+
+            assertSameImage(reference.image(), result.image());
+            assertEquals(reference.stats().totalRays(), result.stats().totalRays(), mode.name());
+            assertEquals(mode.create(1).name(), result.stats().executor());
+            assertEquals(15, result.stats().tileCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Le rendu progressif publie chaque passe et trace chaque pixel une seule fois")
+    void progressiveRenderMatchesFullRender() throws ParseException {
+        Scene scene = smallScene();
+        Renderer renderer = new Renderer();
+        RenderResult reference = renderer.renderSingleThread(scene);
+
+        List<Integer> passes = new ArrayList<>();
+        RenderOptions options = new RenderOptionsBuilder()
+                .setThreadCount(2)
+                .setTileSize(8)
+                .setProgressiveStep(8)
+                .setPreviewListener((snapshot, pass, passCount) -> {
+                    assertEquals(4, passCount);
+                    passes.add(pass);
+                })
+                .build();
+
+        RenderResult result = renderer.render(scene, options);
+
+        assertEquals(List.of(1, 2, 3, 4), passes);
+        assertSameImage(reference.image(), result.image());
+        assertEquals(37L * 23L, result.stats().primaryRays());
+    }
+
+    @Test
+    @DisplayName("Une deadline dépassée renvoie une image partielle")
+    void expiredDeadlineReturnsPartialResult() throws ParseException {
+        RenderOptions options = new RenderOptionsBuilder()
+                .setTileSize(8)
+                .setDeadline(Duration.ofNanos(1))
+                .build();
+
+        RenderResult result = new Renderer().render(smallScene(), options);
+
+        assertEquals(RenderStatus.DEADLINE_EXCEEDED, result.status());
+        assertFalse(result.isComplete());
+        assertTrue(result.stats().completedTiles() < result.stats().tileCount());
+    }
+
+    @Test
+    @DisplayName("Un rendu soumis peut être annulé entre deux passes")
+    void submittedRenderCanBeCancelled() throws Exception {
+        AtomicReference<RenderHandle> handleRef = new AtomicReference<>();
+        CountDownLatch submitted = new CountDownLatch(1);
+
+        RenderOptions options = new RenderOptionsBuilder()
+                .setTileSize(8)
+                .setProgressiveStep(8)
+                .setPreviewListener((snapshot, pass, passCount) -> {
+                    try {
+                        submitted.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    handleRef.get().cancel();
+                })
+                .build();
+
+        RenderHandle handle = new Renderer().submit(smallScene(), options);
+        handleRef.set(handle);
+        submitted.countDown();
+
+        RenderResult result = handle.join();
+
+        assertTrue(handle.isDone());
+        assertEquals(RenderStatus.CANCELLED, result.status());
+        assertEquals(0, result.stats().completedTiles());
+    }
+
+    @Test
+    @DisplayName("Un budget confortable ne dégrade pas la profondeur")
+    void generousBudgetKeepsFullQuality() throws ParseException {
+        Scene scene = smallScene();
+        RenderOptions options = new RenderOptionsBuilder()
+                .setTileSize(8)
+                .setTimeBudget(Duration.ofMinutes(5))
+                .build();
+
+        RenderResult result = new Renderer().render(scene, options);
+
+        assertTrue(result.isComplete());
+        assertEquals(scene.getMaxDepth(), result.stats().maxDepth());
+        assertSameImage(new Renderer().renderSingleThread(scene).image(), result.image());
+    }
+
+    @Test
+    @DisplayName("Une mesure trop lente réduit la profondeur sans compter deux fois les pixels recalculés")
+    void slowPilotDoesNotOvercountPixels() throws ParseException {
+        // Première passe ralentie : l'estimation (64 x 100 ms) dépasse le budget
+        AtomicInteger calls = new AtomicInteger();
+        RenderExecutor slowPilot = new RenderExecutor() {
+            @Override
+            public String name() {
+                return "slow-pilot";
+            }
+
+            @Override
+            public int parallelism() {
+                return 1;
+            }
+
+            @Override
+            public void execute(List<Tile> tiles, Consumer<Tile> work) throws InterruptedException {
+                if (calls.getAndIncrement() == 0) {
+                    Thread.sleep(100);
+                }
+                tiles.forEach(work);
+            }
+        };
+        List<RenderProgress> updates = new ArrayList<>();
+        RenderOptions options = new RenderOptionsBuilder()
+                .setTileSize(8)
+                .setExecutor(slowPilot)
+                .setTimeBudget(Duration.ofSeconds(3))
+                .setProgressListener(updates::add, Duration.ofMillis(5))
+                .build();
+
+        RenderResult result = new Renderer().render(smallScene(), options);
+
+        assertTrue(result.isComplete());
+        assertEquals(1, result.stats().maxDepth());
+        for (RenderProgress update : updates) {
+            assertTrue(update.pixelsDone() <= 37L * 23L, update.toString());
+        }
+        assertEquals(37L * 23L, updates.get(updates.size() - 1).pixelsDone());
+    }
+
+    @Test
+    @DisplayName("Le listener d'avancement reçoit l'état final du rendu")
+    void progressListenerReceivesFinalState() throws ParseException {
+        List<RenderProgress> updates = new ArrayList<>();
+        RenderOptions options = new RenderOptionsBuilder()
+                .setTileSize(8)
+                .setProgressListener(updates::add, Duration.ofMillis(5))
+                .build();
+
+        new Renderer().render(smallScene(), options);
+
+        RenderProgress last = updates.get(updates.size() - 1);
+        assertEquals(15, last.tilesDone());
+        assertEquals(15, last.tilesTotal());
+        assertEquals(37L * 23L, last.pixelsDone());
+        assertEquals(1.0, last.fraction());
+        assertEquals(Duration.ZERO, last.eta());
+    }
+
+    @Test
+    @DisplayName("L'anti-aliasing ne sur-échantillonne que les contours, de façon reproductible")
+    void antiAliasingOnlyRefinesEdges() throws ParseException {
+        Scene scene = smallScene();
+        Renderer renderer = new Renderer();
+        RenderResult reference = renderer.renderSingleThread(scene);
+
+        List<Integer> passes = new ArrayList<>();
+        RenderOptions tiled = new RenderOptionsBuilder()
+                .setThreadCount(3)
+                .setTileSize(8)
+                .setAntiAliasing(4, 0.1)
+                .build();
+        RenderOptions progressive = new RenderOptionsBuilder()
+                .setExecutionMode(ExecutionMode.FORK_JOIN)
+                .setTileSize(16)
+                .setProgressiveStep(4)
+                .setPreviewListener((snapshot, pass, passCount) -> passes.add(pass * 10 + passCount))
+                .setAntiAliasing(4, 0.1)
+                .build();
+
+        RenderResult a = renderer.render(scene, tiled);
+        RenderResult b = renderer.render(scene, progressive);
+
+        long aaRays = a.stats().antiAliasingRays();
+        long pixels = 37L * 23L;
+        assertTrue(aaRays > 0, "aucun contour raffiné");
+        assertTrue(aaRays < pixels * 16 / 2, "trop de pixels raffinés : " + aaRays);
+        assertEquals(0, aaRays % 16);
+        assertEquals(pixels, a.stats().primaryRays());
+        assertEquals(List.of(14, 24, 34, 44), passes);
+
+        assertSameImage(a.image(), b.image());
+        assertEquals(aaRays, b.stats().antiAliasingRays());
+
+        // Les pixels au centre d'une zone uniforme ne sont pas modifiés
+        assertEquals(reference.image().getRGB(0, 22), a.image().getRGB(0, 22));
+    }
+
+    @Test
+    @DisplayName("Le framebuffer hors mémoire produit la même image que le buffer en heap")
+    void mappedFrameBufferMatchesHeap() throws ParseException {
+        Scene scene = smallScene();
+        RenderOptions options = new RenderOptionsBuilder()
+                .setTileSize(8)
+                .setFrameBufferMode(FrameBufferMode.MAPPED)
+                .setAntiAliasing(2, 0.1)
+                .build();
+
+        try (RenderResult mapped = new Renderer().render(scene, options)) {
+            assertTrue(mapped.frame() instanceof MappedTileBuffer);
+            RenderResult heap = new Renderer().render(scene, new RenderOptionsBuilder()
+                    .setTileSize(8)
+                    .setAntiAliasing(2, 0.1)
+                    .build());
+            assertSameImage(heap.image(), mapped.image());
+        }
+    }
+
+    @Test
+    @DisplayName("Le PNG écrit pendant le rendu est identique à l'image finale")
+    void streamedPngMatchesRenderedImage() throws Exception {
+        Scene scene = smallScene();
+        Path file = Files.createTempFile("stream-", ".png");
+        try {
+            for (int step : new int[]{1, 4}) {
+                RenderOptions options = new RenderOptionsBuilder()
+                        .setThreadCount(3)
+                        .setTileSize(8)
+                        .setProgressiveStep(step)
+                        .setAntiAliasing(step, 0.1)
+                        .setOutputFile(file)
+                        .setPngCompression(9, step)
+                        .build();
+
+                RenderResult result = new Renderer().render(scene, options);
+
+                assertEquals(step, result.stats().png().threads());
+
+                assertSameImage(result.image(), ImageIO.read(file.toFile()));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    @DisplayName("Le découpage en tuiles couvre toute l'image sans recouvrement")
+    void tilesCoverImageExactlyOnce() {
+        int[] hits = new int[37 * 23];
+        for (Tile tile : Tile.split(37, 23, 8)) {
+            for (int y = tile.y(); y < tile.endY(); y++) {
+                for (int x = tile.x(); x < tile.endX(); x++) {
+                    hits[y * 37 + x]++;
+                }
+            }
+        }
+        for (int h : hits) {
+            assertEquals(1, h);
+        }
+    }
+}
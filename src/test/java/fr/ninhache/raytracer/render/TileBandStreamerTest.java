@@ -0,0 +1,75 @@
+package fr.ninhache.raytracer.render;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TileBandStreamer - encodage PNG par bandes pendant le rendu")
+class TileBandStreamerTest {
+
+    /**
+     * Framebuffer dont la lecture des lignes échoue à partir de {@code failingRow}.
+     */
+    private static FrameBuffer failingFrom(int width, int height, int failingRow) {
+        ImageBuffer pixels = new ImageBuffer(width, height);
+        return new FrameBuffer() {
+            @Override
+            public int getWidth() {
+                return width;
+            }
+
+            @Override
+            public int getHeight() {
+                return height;
+            }
+
+            @Override
+            public int getPixel(int x, int y) {
+                if (y >= failingRow) {
+                    throw new IllegalStateException("ligne " + y + " illisible");
+                }
+                return pixels.getPixel(x, y);
+            }
+
+            @Override
+            public void setPixel(int x, int y, int argb) {
+                pixels.setPixel(x, y, argb);
+            }
+
+            @Override
+            public FrameBuffer copy() {
+                return pixels.copy();
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Toutes les tuiles terminées donnent un PNG complet")
+    void completeImage() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TileBandStreamer streamer = new TileBandStreamer(new ImageBuffer(20, 12), 8, out, 6, 1);
+        for (Tile tile : Tile.split(20, 12, 8)) {
+            streamer.tileFinished(tile);
+        }
+        streamer.close();
+
+        assertEquals(20L * 12 * 3 + 12, streamer.stats().rawBytes());
+        assertTrue(out.size() > 0);
+    }
+
+    @Test
+    @DisplayName("Une exception non vérifiée du thread d'encodage est relancée par close()")
+    void encoderFailureIsRethrown() throws IOException {
+        TileBandStreamer streamer = new TileBandStreamer(failingFrom(20, 12, 5), 8, new ByteArrayOutputStream(), 6, 1);
+        for (Tile tile : Tile.split(20, 12, 8)) {
+            streamer.tileFinished(tile);
+        }
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, streamer::close);
+        assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+}
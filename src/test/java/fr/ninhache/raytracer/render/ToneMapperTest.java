@@ -0,0 +1,70 @@
+package fr.ninhache.raytracer.render;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ToneMapper - conversion HDR vers 8 bits")
+class ToneMapperTest {
+
+    @Test
+    @DisplayName("Le tone mapping neutre tronque la radiance à [0, 1]")
+    void clampSaturatesHighlights() {
+        ToneMapper tm = ToneMapper.clamp();
+
+        assertEquals(0xFF0000, tm.toRGB(3.5f, 0f, -2f));
+        assertEquals(0x7F7F7F, tm.toRGB(0.5f, 0.5f, 0.5f));
+    }
+
+    @Test
+    @DisplayName("L'exposition s'exprime en stops")
+    void exposureScalesInStops() {
+        ToneMapper plusOne = ToneMapper.of(ToneMapper.Operator.CLAMP, 1.0, 1.0);
+        ToneMapper minusTwo = ToneMapper.of(ToneMapper.Operator.CLAMP, -2.0, 1.0);
+
+        assertEquals(0xFFFFFF, plusOne.toRGB(0.5f, 0.5f, 0.5f));
+        assertEquals(0x3F3F3F, minusTwo.toRGB(1f, 1f, 1f));
+    }
+
+    @Test
+    @DisplayName("Reinhard compresse les hautes lumières au lieu de les saturer")
+    void reinhardCompressesHighlights() {
+        ToneMapper tm = ToneMapper.of(ToneMapper.Operator.REINHARD, 0.0, 1.0);
+
+        assertEquals(0x7F7F7F, tm.toRGB(1f, 1f, 1f));
+        assertTrue((tm.toRGB(9f, 0f, 0f) >> 16) < 255);
+        assertTrue((tm.toRGB(9f, 0f, 0f) >> 16) > (tm.toRGB(3f, 0f, 0f) >> 16));
+    }
+
+    @Test
+    @DisplayName("Un rendu HDR se re-expose sans nouveau rayon")
+    void hdrRenderCanBeToneMappedAfterwards() throws Exception {
+        RenderOptions options = new RenderOptionsBuilder()
+                .setTileSize(8)
+                .setHdr(true)
+                .build();
+
+        RenderResult result = new Renderer().render(RendererTest.smallScene(), options);
+        long rays = result.stats().totalRays();
+
+        assertTrue(result.hasRadiance());
+        RendererTest.assertSameImage(result.image(), result.toneMap(ToneMapper.clamp()).toBufferedImage());
+
+        ImageBuffer darker = result.toneMap(ToneMapper.of(ToneMapper.Operator.CLAMP, -1.0, 1.0));
+        float r = result.radiance().getR(18, 11);
+        assertEquals(ToneMapper.of(ToneMapper.Operator.CLAMP, -1.0, 1.0).toRGB(r, 0f, 0f) & 0xFF0000,
+                darker.getPixel(18, 11) & 0xFF0000);
+        assertEquals(rays, result.stats().totalRays());
+    }
+
+    @Test
+    @DisplayName("Un rendu 8 bits n'a pas de radiance à re-tone-mapper")
+    void ldrRenderHasNoRadiance() throws Exception {
+        RenderResult result = new Renderer().render(RendererTest.smallScene(),
+                new RenderOptionsBuilder().setTileSize(8).build());
+
+        assertFalse(result.hasRadiance());
+        assertThrows(IllegalStateException.class, () -> result.toneMap(ToneMapper.clamp()));
+    }
+}
@@ -0,0 +1,131 @@
+package fr.ninhache.raytracer.render.cache;
+
+import fr.ninhache.raytracer.geometry.shape.Sphere;
+import fr.ninhache.raytracer.lighting.PointLight;
+import fr.ninhache.raytracer.math.Color;
+import fr.ninhache.raytracer.math.Point;
+import fr.ninhache.raytracer.math.Vector;
+import fr.ninhache.raytracer.render.RenderOptions;
+import fr.ninhache.raytracer.render.RenderOptionsBuilder;
+import fr.ninhache.raytracer.render.Renderer;
+import fr.ninhache.raytracer.render.executor.ExecutionMode;
+import fr.ninhache.raytracer.scene.Camera;
+import fr.ninhache.raytracer.scene.Scene;
+import fr.ninhache.raytracer.scene.SceneBuilder;
+import fr.ninhache.raytracer.scene.exception.ParseException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RenderCache - cache des images rendues")
+class RenderCacheTest {
+
+    private Path root;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        root = Files.createTempDirectory("render-cache-");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> walk = Files.walk(root)) {
+            for (Path p : walk.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    private static Scene scene(Color ambient) throws ParseException {
+        return new SceneBuilder()
+                .setSize(21, 15)
+                .setCamera(new Camera(new Point(0, 0, 4), new Point(0, 0, 0), Vector.Y_AXIS, 45))
+                .setAmbientLight(ambient)
+                .addLight(new PointLight(new Point(3, 3, 3), new Color(0.7, 0.7, 0.7)))
+                .setDiffuse(new Color(0.6, 0.2, 0.2))
+                .addShape(new Sphere(new Point(0, 0, 0), 1.0))
+                .build();
+    }
+
+    @Test
+    @DisplayName("L'empreinte ignore la façon de rendre mais pas ce qui change les pixels")
+    void hashDependsOnlyOnImageContent() throws ParseException {
+        Scene a = scene(new Color(0.1, 0.1, 0.1));
+        Scene same = scene(new Color(0.1, 0.1, 0.1));
+        Scene other = scene(new Color(0.1, 0.1, 0.2));
+
+        RenderOptions tiled = new RenderOptionsBuilder()
+                .setExecutionMode(ExecutionMode.FIXED_POOL).setThreadCount(3).setTileSize(4).build();
+        RenderOptions single = new RenderOptionsBuilder()
+                .setExecutionMode(ExecutionMode.FORK_JOIN).setThreadCount(1).build();
+        RenderOptions antiAliased = new RenderOptionsBuilder().setAntiAliasing(3, 0.1).build();
+
+        assertEquals(SceneHasher.hash(a), SceneHasher.hash(same));
+        assertNotEquals(SceneHasher.hash(a), SceneHasher.hash(other));
+        assertEquals(SceneHasher.hash(a, tiled), SceneHasher.hash(same, single));
+        assertNotEquals(SceneHasher.hash(a, single), SceneHasher.hash(a, antiAliased));
+    }
+
+    @Test
+    @DisplayName("Un second rendu identique est servi par le cache, octet pour octet")
+    void secondRenderIsAHit() throws Exception {
+        CachingRenderer caching = new CachingRenderer(new Renderer(), new RenderCache(1 << 20));
+        Path output = root.resolve("out/image.png");
+        RenderOptions options = new RenderOptionsBuilder().setOutputFile(output).build();
+
+        CachedRender first = caching.render(scene(new Color(0.1, 0.1, 0.1)), options);
+        Files.delete(output);
+        CachedRender second = caching.render(scene(new Color(0.1, 0.1, 0.1)), options);
+
+        assertFalse(first.hit());
+        assertTrue(second.hit());
+        assertEquals(first.key(), second.key());
+        assertArrayEquals(first.png(), second.png());
+        assertArrayEquals(first.png(), Files.readAllBytes(output));
+        assertEquals(first.stats(), second.stats());
+        assertEquals(1, caching.getCache().getHits());
+        assertEquals(1, caching.getCache().getMisses());
+    }
+
+    @Test
+    @DisplayName("Les limites en octets évincent les images les moins récemment utilisées")
+    void evictsLeastRecentlyUsed() throws IOException {
+        RenderCache cache = new RenderCache(20, root, 25);
+        cache.put("a", new byte[10], null);
+        cache.put("b", new byte[10], null);
+        assertNotNull(cache.get("a"));
+        cache.put("c", new byte[10], null);
+
+        // Mémoire : b, le moins récent, est sorti ; disque : a, le plus ancien fichier
+        assertEquals(20, cache.getMemoryBytes());
+        assertEquals(20, cache.getDiskBytes());
+        assertFalse(Files.exists(root.resolve("a.png")));
+        assertNotNull(cache.get("a"));
+        assertNotNull(cache.get("b"));
+        assertNull(cache.get("d"));
+    }
+
+    @Test
+    @DisplayName("Le cache disque est repris par une nouvelle instance")
+    void diskCacheSurvivesRestart() throws IOException {
+        RenderCache first = new RenderCache(1024, root, 1024);
+        first.put("k", new byte[]{1, 2, 3}, null);
+
+        RenderCache second = new RenderCache(1024, root, 1024);
+        CachedRender hit = second.get("k");
+
+        assertNotNull(hit);
+        assertArrayEquals(new byte[]{1, 2, 3}, hit.png());
+        assertNull(hit.stats());
+        assertEquals(1, second.size());
+    }
+}
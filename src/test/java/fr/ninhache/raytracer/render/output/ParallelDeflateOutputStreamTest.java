@@ -0,0 +1,92 @@
+package fr.ninhache.raytracer.render.output;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ParallelDeflateOutputStream - compression zlib par blocs")
+class ParallelDeflateOutputStreamTest {
+
+    /** Données compressibles : motifs répétés à longue distance, bruit léger. */
+    private static byte[] sample(int size) {
+        Random random = new Random(42);
+        byte[] pattern = new byte[5000];
+        random.nextBytes(pattern);
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = random.nextInt(50) == 0 ? (byte) random.nextInt() : pattern[i % pattern.length];
+        }
+        return data;
+    }
+
+    private static byte[] inflate(byte[] zlib, int expectedSize) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        inflater.setInput(zlib);
+        byte[] out = new byte[expectedSize + 1];
+        int n = 0;
+        while (!inflater.finished() && n < out.length) {
+            int r = inflater.inflate(out, n, out.length - n);
+            assertFalse(r == 0 && inflater.needsInput() && !inflater.finished(), "flux zlib tronqué");
+            n += r;
+        }
+        assertTrue(inflater.finished());
+        assertEquals(0, inflater.getRemaining());
+        inflater.end();
+        assertEquals(expectedSize, n);
+        return Arrays.copyOf(out, n);
+    }
+
+    @Test
+    @DisplayName("Le flux produit est un zlib valide, Adler-32 compris")
+    void producesValidZlibStream() throws Exception {
+        byte[] data = sample(1_000_003);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (ParallelDeflateOutputStream z = new ParallelDeflateOutputStream(out, 6, 4, 64 * 1024)) {
+            z.write(data, 0, 123);
+            z.write(data, 123, data.length - 123);
+        }
+
+        assertArrayEquals(data, inflate(out.toByteArray(), data.length));
+    }
+
+    @Test
+    @DisplayName("Le dictionnaire limite la perte de ratio par rapport au deflate séquentiel")
+    void ratioCloseToSequential() throws IOException {
+        byte[] data = sample(2_000_000);
+
+        ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+        ParallelDeflateOutputStream z = new ParallelDeflateOutputStream(parallel, 6, 4, 128 * 1024);
+        z.write(data, 0, data.length);
+        z.close();
+
+        ByteArrayOutputStream sequential = new ByteArrayOutputStream();
+        try (DeflaterOutputStream d = new DeflaterOutputStream(sequential, new Deflater(6))) {
+            d.write(data);
+        }
+
+        assertEquals(data.length, z.getRawBytes());
+        assertEquals(parallel.size(), z.getCompressedBytes());
+        assertTrue(parallel.size() < sequential.size() * 1.05,
+                () -> parallel.size() + " octets contre " + sequential.size() + " en séquentiel");
+    }
+
+    @Test
+    @DisplayName("Un flux vide reste un zlib valide")
+    void emptyStream() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ParallelDeflateOutputStream(out, Deflater.DEFAULT_COMPRESSION, 2, 64 * 1024).close();
+
+        assertEquals(0, inflate(out.toByteArray(), 0).length);
+    }
+}
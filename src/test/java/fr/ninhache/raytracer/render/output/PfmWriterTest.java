@@ -0,0 +1,51 @@
+package fr.ninhache.raytracer.render.output;
+
+import fr.ninhache.raytracer.render.FloatImageBuffer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PfmWriter - export HDR en flottants")
+class PfmWriterTest {
+
+    @Test
+    @DisplayName("La radiance non bornée est relue à l'identique")
+    void roundTripKeepsUnclampedValues() throws IOException {
+        FloatImageBuffer image = new FloatImageBuffer(13, 7);
+        for (int y = 0; y < 7; y++) {
+            for (int x = 0; x < 13; x++) {
+                image.set(x, y, x * 0.75f, -y * 0.5f, 1e6f / (1 + x + y));
+            }
+        }
+
+        Path file = Files.createTempFile("hdr-", ".pfm");
+        try {
+            PfmWriter.write(image, file);
+
+            assertEquals("PF\n13 7\n-1.0\n".length() + 13 * 7 * 3 * 4, Files.size(file));
+            assertTrue(new String(Files.readAllBytes(file), StandardCharsets.US_ASCII).startsWith("PF\n13 7\n"));
+            assertArrayEquals(image.getData(), PfmReader.read(file).getData());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    @DisplayName("Un fichier qui n'est pas un PFM couleur est refusé")
+    void rejectsGrayscale() throws IOException {
+        Path file = Files.createTempFile("gray-", ".pfm");
+        try {
+            Files.writeString(file, "Pf\n1 1\n-1.0\n\0\0\0\0");
+
+            assertThrows(IOException.class, () -> PfmReader.read(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package fr.ninhache.raytracer.render.output;
+
+import fr.ninhache.raytracer.render.FrameBuffer;
+import fr.ninhache.raytracer.render.ImageBuffer;
+import fr.ninhache.raytracer.render.MappedTileBuffer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PngWriter - encodage PNG en flux")
+class PngWriterTest {
+
+    private static void fill(FrameBuffer frame) {
+        for (int y = 0; y < frame.getHeight(); y++) {
+            for (int x = 0; x < frame.getWidth(); x++) {
+                frame.setPixel(x, y, (x * 7 & 0xFF) << 16 | (y * 13 & 0xFF) << 8 | ((x ^ y) & 0xFF));
+            }
+        }
+    }
+
+    private static BufferedImage roundTrip(FrameBuffer frame, int threads) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PngStats stats = PngWriter.write(frame, out, -1, threads);
+        assertEquals((long) frame.getHeight() * (1 + 3 * frame.getWidth()), stats.rawBytes());
+        assertEquals(threads, stats.threads());
+        return ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    private static void assertSamePixels(FrameBuffer expected, BufferedImage actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getPixel(x, y) & 0xFFFFFF, actual.getRGB(x, y) & 0xFFFFFF,
+                        "pixel (" + x + "," + y + ")");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Une image en heap relue par ImageIO est identique")
+    void heapBufferRoundTrip() throws IOException {
+        ImageBuffer frame = new ImageBuffer(301, 157);
+        fill(frame);
+
+        assertSamePixels(frame, roundTrip(frame, 1));
+    }
+
+    @Test
+    @DisplayName("Un framebuffer hors mémoire est encodé ligne par ligne à l'identique")
+    void mappedBufferRoundTrip() throws IOException {
+        try (MappedTileBuffer frame = MappedTileBuffer.create(301, 157, 16)) {
+            fill(frame);
+
+            assertSamePixels(frame, roundTrip(frame, 1));
+        }
+    }
+
+    @Test
+    @DisplayName("La compression parallèle produit un PNG relu à l'identique")
+    void parallelCompressionRoundTrip() throws IOException {
+        ImageBuffer frame = new ImageBuffer(640, 480);
+        fill(frame);
+
+        assertSamePixels(frame, roundTrip(frame, 4));
+    }
+
+    @Test
+    @DisplayName("Fermer un PNG incomplet est une erreur")
+    void incompleteImageIsRejected() throws IOException {
+        StreamingPngWriter png = new StreamingPngWriter(new ByteArrayOutputStream(), 4, 2);
+        png.writeRow(new int[4]);
+
+        assertThrows(IllegalStateException.class, png::close);
+    }
+}
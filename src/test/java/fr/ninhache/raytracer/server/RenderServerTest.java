@@ -0,0 +1,123 @@
+package fr.ninhache.raytracer.server;
+
+import fr.ninhache.raytracer.scene.SceneLoader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RenderServer - service HTTP de rendu")
+class RenderServerTest {
+
+    private static final String SCENE = """
+            size 21 13
+            camera 0 0 4 0 0 0 0 1 0 45
+            ambient .1 .1 .1
+            point 4 0 4 .5 .5 .5
+            diffuse .8 0 0
+            sphere 0 0 0 1
+            """;
+
+    private RenderServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new RenderServer(new RenderServerConfig(0, 1, 2, 4, 4096, 10_000, 8), new SceneLoader());
+        server.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.getPort() + path);
+    }
+
+    private HttpResponse<byte[]> post(String path, String body) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(path)).POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private HttpResponse<byte[]> get(String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    @Test
+    @DisplayName("Une scène soumise est rendue et son PNG et ses statistiques sont servis")
+    void submittedSceneIsRenderedAndServed() throws Exception {
+        HttpResponse<byte[]> created = post("/jobs?priority=3", SCENE);
+        assertEquals(202, created.statusCode());
+        String location = created.headers().firstValue("Location").orElseThrow();
+        long id = Long.parseLong(location.substring("/jobs/".length()));
+
+        RenderJob job = server.getJob(id);
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!job.isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(JobStatus.DONE, job.getStatus(), job.getError());
+
+        HttpResponse<byte[]> image = get(location + "/image");
+        assertEquals(200, image.statusCode());
+        assertEquals("image/png", image.headers().firstValue("Content-Type").orElseThrow());
+        BufferedImage png = ImageIO.read(new ByteArrayInputStream(image.body()));
+        assertEquals(21, png.getWidth());
+        assertEquals(13, png.getHeight());
+
+        String stats = new String(get(location + "/stats").body());
+        assertTrue(stats.contains("\"width\":21"), stats);
+        assertTrue(stats.contains("\"executor\":\"shared-pool\""), stats);
+        assertTrue(stats.contains("\"png\":{"), stats);
+
+        String status = new String(get(location).body());
+        assertTrue(status.contains("\"status\":\"DONE\""), status);
+        assertTrue(status.contains("\"priority\":3"), status);
+    }
+
+    @Test
+    @DisplayName("Les requêtes invalides sont refusées sans entrer dans la file")
+    void invalidRequestsAreRejected() throws Exception {
+        assertEquals(400, post("/jobs", "size 4\n").statusCode());
+        assertEquals(400, post("/jobs", SCENE.replace("size 21 13", "size 1000 1000")).statusCode());
+        assertEquals(400, post("/jobs?priority=haute", SCENE).statusCode());
+        assertEquals(413, post("/jobs", SCENE + "#".repeat(5000)).statusCode());
+        assertEquals(404, get("/jobs/42").statusCode());
+        assertEquals(405, get("/jobs").statusCode());
+        assertEquals("{\"queued\":0,\"capacity\":4}", new String(get("/queue").body()));
+    }
+
+    @Test
+    @DisplayName("La file sert les jobs par priorité puis par ordre d'arrivée, et refuse au-delà de sa capacité")
+    void queueOrdersByPriorityAndBoundsAdmission() throws Exception {
+        JobQueue queue = new JobQueue(3);
+        assertTrue(queue.offer(new RenderJob(1, 0, null)));
+        assertTrue(queue.offer(new RenderJob(2, 5, null)));
+        assertTrue(queue.offer(new RenderJob(3, 0, null)));
+        assertFalse(queue.offer(new RenderJob(4, 9, null)));
+        assertEquals(3, queue.size());
+
+        List<Long> order = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            order.add(queue.take().getId());
+        }
+        assertEquals(List.of(2L, 1L, 3L), order);
+        assertEquals(0, queue.size());
+        assertTrue(queue.offer(new RenderJob(5, 0, null)));
+    }
+}
@@ -0,0 +1,146 @@
+package fr.ninhache.raytracer.watch;
+
+import fr.ninhache.raytracer.render.RenderOptionsBuilder;
+import fr.ninhache.raytracer.render.RenderStatus;
+import fr.ninhache.raytracer.scene.SceneLoader;
+import fr.ninhache.raytracer.scene.exception.ParseException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SceneWatcher - rendu à chaque modification du fichier de scène")
+class SceneWatcherTest {
+
+    private static final String SCENE = """
+            size 19 13
+            camera 0 1 5 0 0 0 0 1 0 45
+            ambient .1 .1 .1
+            point 2 4 3 .6 .6 .6
+            diffuse %s
+            sphere 0 .5 0 1
+            """;
+
+    private Path root;
+    private Path sceneFile;
+    private Path output;
+    private final BlockingQueue<ReloadOutcome> outcomes = new LinkedBlockingQueue<>();
+    private SceneWatcher watcher;
+    private Thread thread;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        root = Files.createTempDirectory("watch-");
+        sceneFile = root.resolve("scene.txt");
+        output = root.resolve("out").resolve("scene.png");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (watcher != null) {
+            watcher.close();
+            thread.join(5000);
+        }
+        try (Stream<Path> walk = Files.walk(root)) {
+            for (Path p : walk.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    private void write(String content) throws IOException {
+        Files.writeString(sceneFile, content, StandardCharsets.UTF_8);
+    }
+
+    private void start() {
+        watcher = new SceneWatcher(new SceneLoader(), sceneFile, output,
+                new RenderOptionsBuilder().setThreadCount(2).setTileSize(8).build(), outcomes::add);
+        thread = new Thread(() -> {
+            try {
+                watcher.run();
+            } catch (Exception e) {
+                outcomes.add(ReloadOutcome.failure(-1, e));
+            }
+        });
+        thread.start();
+    }
+
+    private ReloadOutcome next() throws InterruptedException {
+        ReloadOutcome outcome = outcomes.poll(10, TimeUnit.SECONDS);
+        assertNotNull(outcome, "aucune version rendue");
+        return outcome;
+    }
+
+    private int centerPixel() throws IOException {
+        return ImageIO.read(output.toFile()).getRGB(9, 6);
+    }
+
+    @Test
+    @DisplayName("Le rendu initial puis chaque enregistrement produisent une nouvelle image")
+    void editTriggersRender() throws Exception {
+        write(SCENE.formatted(".8 .1 .1"));
+        start();
+
+        ReloadOutcome first = next();
+        assertTrue(first.isSuccess(), first.toString());
+        assertEquals(1, first.version());
+        assertEquals(output.toAbsolutePath(), first.output());
+        int red = centerPixel();
+
+        write(SCENE.formatted(".1 .1 .8"));
+        ReloadOutcome second = next();
+        assertTrue(second.isSuccess(), second.toString());
+        assertEquals(2, second.version());
+        assertNotEquals(red, centerPixel());
+        assertFalse(Files.exists(output.resolveSibling("scene.png.tmp")));
+    }
+
+    @Test
+    @DisplayName("Une scène invalide est signalée, l'image précédente est conservée jusqu'à la correction")
+    void parseErrorKeepsPreviousImage() throws Exception {
+        write(SCENE.formatted(".8 .1 .1"));
+        start();
+        assertTrue(next().isSuccess());
+        byte[] image = Files.readAllBytes(output);
+
+        write(SCENE.formatted(".8 .1 .1") + "sphere 0 0\n");
+        ReloadOutcome broken = next();
+        assertFalse(broken.isSuccess());
+        assertInstanceOf(ParseException.class, broken.error());
+        assertArrayEquals(image, Files.readAllBytes(output));
+
+        write(SCENE.formatted(".1 .8 .1"));
+        ReloadOutcome fixed = next();
+        assertTrue(fixed.isSuccess(), fixed.toString());
+        assertEquals(RenderStatus.COMPLETED, fixed.status());
+        assertEquals(3, fixed.version());
+    }
+
+    @Test
+    @DisplayName("Un enregistrement sans changement de contenu ne relance pas le rendu")
+    void unchangedContentIsIgnored() throws Exception {
+        String content = SCENE.formatted(".8 .1 .1");
+        write(content);
+        start();
+        assertTrue(next().isSuccess());
+
+        write(content);
+        assertNull(outcomes.poll(500, TimeUnit.MILLISECONDS));
+
+        write(SCENE.formatted(".8 .8 .1"));
+        assertEquals(2, next().version());
+    }
+}